@@ -0,0 +1,425 @@
+package org.myApp.common.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured key/value event log, one line per event:
+ *
+ *   [ORDER] ts=2026-01-01T10:00:00.123Z orderId=... step=CONFIRMED elapsedMs=42
+ *   [PAYMENT] ts=2026-01-01T10:00:00.123Z orderId=... behavior=SUCCESS delayMs=42
+ *
+ * Shared by every service, each one has its own instance (orderEventLog, paymentEventLog, inventoryEventLog,
+ * see their EventLogConfig).
+ *
+ * Modes:
+ * - async → events go into a ring buffer of preallocated slots, one writer thread formats
+ *           and writes them in batches. The caller never waits on the console
+ * - sync  → formatted and written on the calling thread under one lock,
+ *           what System.out.println did (kept as a fallback and for comparison)
+ *
+ * Async, when the ring is full (the writer cannot keep up with the console):
+ * - DROP  → the event is lost and counted, the caller goes on (default, logging never slows requests down)
+ * - BLOCK → the caller waits for a free slot, no event is lost
+ *
+ * Producing an async event allocates nothing: the slot is reused, long values are not boxed,
+ * other values are kept as references and only turned into text by the writer.
+ * So values must not change after with(), UUIDs / enums / Strings are fine.
+ *
+ * The writer goes through the ring in order, so an event claimed and never published (the caller threw
+ * between event() and publish()) would hold back every later one. After ABANDON_AFTER the writer
+ * skips it, counted as dropped: the slot gets a new Event, a late with() / publish() on the old one goes nowhere.
+ *
+ * Usage:
+ *   eventLog.event("ORDER").with("orderId", orderId).with("elapsedMs", ms).publish();
+ */
+public class EventLog implements AutoCloseable {
+
+    public enum Overflow { DROP, BLOCK }
+
+    // fields per event, more are ignored
+    public static final int MAX_FIELDS = 12;
+
+    // the writer writes once it has this much text, or when the ring is empty
+    private static final int WRITE_CHUNK_CHARS = 16 * 1024;
+
+    // how long the writer sleeps when there is nothing to write
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // a blocked caller checks again for a free slot after this
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    // filling an event takes microseconds, one still unpublished after this was abandoned by its caller
+    private static final long ABANDON_AFTER_MILLIS = 1_000;
+
+    /**
+     * One slot of the ring (async), or a single event (sync).
+     */
+    public static final class Event {
+
+        private final EventLog log;
+
+        private String tag;
+        private long timestampMillis;
+        private int fields;
+        private final String[] keys = new String[MAX_FIELDS];
+        private final Object[] values = new Object[MAX_FIELDS];
+        private final long[] longs = new long[MAX_FIELDS];
+
+        // async: the sequence it was claimed for, and the one it is published as (-1 = not yet)
+        private long claimed = -1;
+        private volatile long published = -1;
+
+        // async: skipped by the writer and replaced in the ring, publish() does nothing any more
+        private volatile boolean abandoned;
+
+        private Event(EventLog log) {
+            this.log = log;
+        }
+
+        public Event with(String key, Object value) {
+            if (log != null && fields < MAX_FIELDS) {
+                keys[fields] = key;
+                values[fields] = value;
+                fields++;
+            }
+            return this;
+        }
+
+        public Event with(String key, long value) {
+            if (log != null && fields < MAX_FIELDS) {
+                keys[fields] = key;
+                values[fields] = LONG;
+                longs[fields] = value;
+                fields++;
+            }
+            return this;
+        }
+
+        public void publish() {
+            if (log != null) {
+                log.publish(this);
+            }
+        }
+
+        private void start(String tag, long timestampMillis) {
+            this.tag = tag;
+            this.timestampMillis = timestampMillis;
+            this.fields = 0;
+        }
+
+        // drop the references, a slot may sit in the ring for a long time
+        private void clear() {
+            for (int i = 0; i < fields; i++) {
+                values[i] = null;
+            }
+            fields = 0;
+        }
+    }
+
+    // marks a field whose value is in longs[]
+    private static final Object LONG = new Object();
+
+    // handed out when an event is dropped, with() and publish() do nothing on it
+    private static final Event DROPPED = new Event(null);
+
+    private final String name;
+    private final OutputStream out;
+    private final boolean async;
+    private final Overflow overflow;
+
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    // ---- async
+
+    private final Event[] ring;
+    private final int mask;
+
+    // next sequence to hand out, and next one the writer reads: claimed - consumed is the backlog
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    private final long abandonAfterNanos;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // only touched by the writer thread (async) or under syncLock (sync)
+    private final StringBuilder text = new StringBuilder(WRITE_CHUNK_CHARS * 2);
+
+    // sync: one writer at a time, like PrintStream.println
+    private final Object syncLock = new Object();
+
+    /**
+     * @param capacity ring slots, a power of two (ignored in sync mode)
+     */
+    public EventLog(String name, OutputStream out, boolean async, int capacity, Overflow overflow) {
+        this(name, out, async, capacity, overflow, ABANDON_AFTER_MILLIS);
+    }
+
+    // abandonAfterMillis: tests do not wait a second
+    EventLog(String name, OutputStream out, boolean async, int capacity, Overflow overflow, long abandonAfterMillis) {
+
+        this.name = name;
+        this.out = out;
+        this.async = async;
+        this.overflow = overflow;
+        this.abandonAfterNanos = TimeUnit.MILLISECONDS.toNanos(abandonAfterMillis);
+
+        if (!async) {
+            this.ring = null;
+            this.mask = 0;
+            this.writer = null;
+            return;
+        }
+
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+
+        this.ring = new Event[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Event(this);
+        }
+
+        this.writer = new Thread(this::writeLoop, name + "-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Sync mode: every event is written on the calling thread.
+     */
+    public static EventLog sync(String name, OutputStream out) {
+        return new EventLog(name, out, false, 0, Overflow.BLOCK);
+    }
+
+    /**
+     * Start an event, fill it with with(), then publish() it.
+     *
+     * Async with a full ring: DROP hands out an event that goes nowhere, BLOCK waits here.
+     */
+    public Event event(String tag) {
+
+        long now = System.currentTimeMillis();
+
+        if (!async) {
+            // one per event, as println allocated its String (callers may be virtual threads, no reuse per thread)
+            Event event = new Event(this);
+            event.start(tag, now);
+            return event;
+        }
+
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+
+            // the slot for this sequence still holds an event the writer has not read
+            if (sequence - consumed >= ring.length) {
+                if (overflow == Overflow.DROP) {
+                    droppedCount.increment();
+                    return DROPPED;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                continue;
+            }
+
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        Event event = ring[(int) sequence & mask];
+        event.start(tag, now);
+        event.claimed = sequence;
+        return event;
+    }
+
+    private void publish(Event event) {
+
+        if (async) {
+            if (event.abandoned) {
+                // too late, already counted as dropped
+                return;
+            }
+            publishedCount.increment();
+            // the writer reads the fields after it sees this
+            event.published = event.claimed;
+            return;
+        }
+
+        publishedCount.increment();
+
+        synchronized (syncLock) {
+            format(event, text);
+            event.clear();
+            write();
+        }
+    }
+
+    public long publishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Events published or being filled, not written yet (0 in sync mode).
+     */
+    public int backlog() {
+        return async ? (int) (claimed.get() - consumed) : 0;
+    }
+
+    /**
+     * Stop the writer once everything published so far is written.
+     */
+    @Override
+    public void close() {
+
+        if (!async || !running) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+
+        long next = consumed;
+
+        // when the writer found next claimed but not published yet
+        boolean waiting = false;
+        long waitingSince = 0;
+
+        while (running || next < claimed.get()) {
+
+            Event event = ring[(int) next & mask];
+
+            if (event.published != next) {
+
+                if (next < claimed.get()) {
+                    long now = System.nanoTime();
+                    if (!waiting) {
+                        waiting = true;
+                        waitingSince = now;
+                    } else if (now - waitingSince >= abandonAfterNanos) {
+                        abandon(next);
+                        waiting = false;
+                        // frees the slot for the producers
+                        consumed = ++next;
+                        continue;
+                    }
+                }
+
+                // nothing new (or claimed and still being filled): write what there is and wait
+                write();
+                if (!running && next < claimed.get()) {
+                    // shutting down with an event half filled, it will be published in a moment
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                continue;
+            }
+
+            waiting = false;
+
+            format(event, text);
+            event.clear();
+
+            // frees the slot for the producers
+            consumed = ++next;
+
+            if (text.length() >= WRITE_CHUNK_CHARS) {
+                write();
+            }
+        }
+
+        write();
+    }
+
+    // the old Event stays with the caller that never published it, the ring gets a new one
+    private void abandon(long sequence) {
+
+        int slot = (int) sequence & mask;
+        ring[slot].abandoned = true;
+        ring[slot] = new Event(this);
+
+        droppedCount.increment();
+    }
+
+    // whole lines only, other writers of the same stream never see half a line from here
+    private void write() {
+
+        if (text.length() == 0) {
+            return;
+        }
+
+        try {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            // nowhere to log it to, the events are lost like dropped ones
+            System.err.println("[LOG] " + name + " write failed: " + e.getMessage());
+        }
+        text.setLength(0);
+    }
+
+    private static void format(Event event, StringBuilder line) {
+
+        line.append('[').append(event.tag).append("] ts=");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.timestampMillis), line);
+
+        for (int i = 0; i < event.fields; i++) {
+            line.append(' ').append(event.keys[i]).append('=');
+            if (event.values[i] == LONG) {
+                line.append(event.longs[i]);
+            } else {
+                appendValue(String.valueOf(event.values[i]), line);
+            }
+        }
+        line.append('\n');
+    }
+
+    // quoted only when needed, so that key=value stays parseable: error messages have spaces
+    private static void appendValue(String value, StringBuilder line) {
+
+        boolean plain = !value.isEmpty();
+        for (int i = 0; i < value.length() && plain; i++) {
+            char c = value.charAt(i);
+            plain = c > ' ' && c != '"' && c != '=';
+        }
+
+        if (plain) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c == '\n' ? ' ' : c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,155 @@
+package org.myApp.common.logging;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class EventLogTest {
+
+    @Test
+    void testEventIsOneKeyValueLine() {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLog log = new EventLog("test", out, true, 16, EventLog.Overflow.BLOCK);
+        UUID orderId = UUID.randomUUID();
+
+        log.event("ORDER")
+                .with("orderId", orderId)
+                .with("payment", null)
+                .with("error", "Read timed out \"payment\"")
+                .with("elapsedMs", 42)
+                .publish();
+        log.close();
+
+        String line = out.toString(StandardCharsets.UTF_8);
+
+        Assertions.assertThat(line).startsWith("[ORDER] ts=").endsWith("\n");
+        Assertions.assertThat(line).contains(" orderId=" + orderId + " payment=null"
+                + " error=\"Read timed out \\\"payment\\\"\" elapsedMs=42\n");
+    }
+
+    @Test
+    void testBlockingLogKeepsEveryEventFromEveryThread() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // far fewer slots than events: producers keep waiting for the writer
+        EventLog log = new EventLog("test", out, true, 64, EventLog.Overflow.BLOCK);
+
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            long thread = t;
+            pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.event("T").with("thread", thread).with("i", i).publish();
+                }
+            });
+        }
+        pool.shutdown();
+        Assertions.assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        log.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertThat(lines).hasSize(threads * perThread);
+        Assertions.assertThat(lines).allMatch(line -> line.matches("\\[T] ts=\\S+ thread=\\d i=\\d+"));
+        Assertions.assertThat(log.droppedCount()).isZero();
+        Assertions.assertThat(log.publishedCount()).isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void testDroppingLogNeverWaitsForAStuckWriter() throws Exception {
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        // a console that hangs until the test lets it go
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.write(b, off, len);
+            }
+        };
+
+        EventLog log = new EventLog("test", stuck, true, 8, EventLog.Overflow.DROP);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            log.event("T").with("i", i).publish();
+        }
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // what the writer took before it got stuck plus a full ring got through, the rest was dropped right away
+        Assertions.assertThat(tookMillis).isLessThan(1_000);
+        Assertions.assertThat(log.droppedCount()).isPositive();
+        Assertions.assertThat(log.publishedCount() + log.droppedCount()).isEqualTo(1_000);
+
+        unblock.countDown();
+        log.close();
+
+        Assertions.assertThat(written.toString(StandardCharsets.UTF_8).split("\n"))
+                .hasSize((int) log.publishedCount());
+    }
+
+    @Test
+    void testEventClaimedAndNeverPublishedDoesNotHoldBackTheRest() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLog log = new EventLog("test", out, true, 4, EventLog.Overflow.BLOCK, 50);
+
+        // the caller threw between event() and publish()
+        EventLog.Event abandoned = log.event("T").with("i", 0);
+
+        // more than the ring holds: BLOCK waits until the writer gives up on the first slot
+        long start = System.nanoTime();
+        for (int i = 1; i <= 8; i++) {
+            log.event("T").with("i", i).publish();
+        }
+        Assertions.assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+
+        // a late publish on the abandoned event must not touch whatever now uses its slot
+        abandoned.with("late", "yes").publish();
+        log.event("T").with("i", 9).publish();
+        log.close();
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .extracting(line -> line.substring(line.lastIndexOf(' ') + 1))
+                .containsExactly("i=1", "i=2", "i=3", "i=4", "i=5", "i=6", "i=7", "i=8", "i=9");
+        Assertions.assertThat(log.droppedCount()).isEqualTo(1);
+        Assertions.assertThat(log.publishedCount()).isEqualTo(9);
+    }
+
+    @Test
+    void testSyncLogWritesBeforePublishReturns() {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLog log = new EventLog("test", out, false, 0, EventLog.Overflow.DROP);
+
+        log.event("PAYMENT").with("behavior", "SUCCESS").with("delayMs", 7).publish();
+
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).endsWith(" behavior=SUCCESS delayMs=7\n");
+        Assertions.assertThat(log.backlog()).isZero();
+    }
+}
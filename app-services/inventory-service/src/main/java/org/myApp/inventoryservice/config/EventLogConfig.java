@@ -0,0 +1,55 @@
+package org.myApp.inventoryservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The inventory event log ([INVENTORY], [HOLD] lines on stdout).
+ *
+ * inventory.log.mode:
+ * - async → ring buffer of "inventory.log.buffer-size" events, written by one writer thread
+ * - sync  → written on the calling thread (old System.out.println behavior)
+ *
+ * inventory.log.overflow (async, ring full):
+ * - drop  → the event is lost, counted in inventory.log.dropped
+ * - block → the calling thread waits for the writer
+ */
+@Configuration
+public class EventLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public EventLog inventoryEventLog(
+            @Value("${inventory.log.mode:async}") String mode,
+            @Value("${inventory.log.buffer-size:1024}") int bufferSize,
+            @Value("${inventory.log.overflow:drop}") String overflow,
+            MeterRegistry meterRegistry) {
+
+        boolean async = switch (mode.toLowerCase()) {
+            case "async" -> true;
+            case "sync" -> false;
+            default -> throw new IllegalArgumentException("unknown inventory.log.mode: " + mode);
+        };
+
+        EventLog eventLog = new EventLog("inventory", System.out, async, bufferSize,
+                EventLog.Overflow.valueOf(overflow.toUpperCase()));
+
+        FunctionCounter.builder("inventory.log.events", eventLog, EventLog::publishedCount)
+                .description("Inventory events logged")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.log.dropped", eventLog, EventLog::droppedCount)
+                .description("Inventory events dropped because the log buffer was full")
+                .register(meterRegistry);
+
+        Gauge.builder("inventory.log.backlog", eventLog, EventLog::backlog)
+                .description("Inventory events waiting for the log writer")
+                .register(meterRegistry);
+
+        return eventLog;
+    }
+}
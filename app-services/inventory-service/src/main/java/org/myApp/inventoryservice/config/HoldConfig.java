@@ -0,0 +1,81 @@
+package org.myApp.inventoryservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.myApp.inventoryservice.hold.HoldJournal;
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.stock.MappedStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation holds: reserved stock comes back unless the order confirms it in time.
+ *
+ * inventory.hold:
+ * - ttl-ms  → how long a hold waits for confirm / release before its stock is given back,
+ *             must outlast payment with all its retries
+ * - tick-ms → timing wheel resolution, a hold expires at most one tick after its TTL
+ * - journal-file          → open holds of a mapped stock store, recovered on startup (see HoldJournal)
+ * - journal-compact-every → records appended before the journal is rewritten with the open holds only
+ *
+ * With the heap or off-heap store the stock itself starts over on a restart, so holds are not journaled.
+ */
+@Configuration
+public class HoldConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public HoldManager holdManager(
+            StockStore stockStore,
+            @Value("${inventory.hold.ttl-ms:120000}") long ttlMs,
+            @Value("${inventory.hold.tick-ms:100}") long tickMs,
+            @Value("${inventory.hold.journal-file:data/inventory-holds.dat}") String journalFile,
+            @Value("${inventory.hold.journal-compact-every:1000000}") long compactEvery,
+            MeterRegistry meterRegistry,
+            EventLog inventoryEventLog) {
+
+        HoldJournal journal = stockStore instanceof MappedStockStore
+                ? new HoldJournal(Path.of(journalFile), compactEvery)
+                : null;
+
+        HoldManager holdManager = new HoldManager(stockStore, ttlMs, tickMs, System::currentTimeMillis, journal);
+
+        if(journal != null){
+            long start = System.nanoTime();
+            int recovered = holdManager.recover();
+
+            inventoryEventLog.event("HOLD")
+                    .with("step", "RECOVERED")
+                    .with("holds", recovered)
+                    .with("from", journalFile)
+                    .with("timeMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .publish();
+        }
+
+        holdManager.start(inventoryEventLog);
+
+        Gauge.builder("inventory.holds.active", holdManager, HoldManager::active)
+                .description("Reservations waiting for confirm or release")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.holds.expired", holdManager, HoldManager::expiredCount)
+                .description("Holds whose stock was given back after the TTL")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.holds.released", holdManager, HoldManager::releasedCount)
+                .description("Holds whose stock was given back by a release")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.holds.confirmed", holdManager, HoldManager::confirmedCount)
+                .description("Holds confirmed, their stock stays taken")
+                .register(meterRegistry);
+
+        return holdManager;
+    }
+}
@@ -0,0 +1,38 @@
+package org.myApp.inventoryservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.service.IdempotentReservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Idempotent single reservations: x-order-id → request and response of the first POST /inventory/reserve with it.
+ *
+ * inventory.idempotency.max-entries → recent keys remembered, oldest dropped first.
+ * A key must outlive its duplicates (retries, hedged attempts), seconds at most.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyCache<IdempotentReservation> reservationIdempotencyCache(
+            @Value("${inventory.idempotency.max-entries:100000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+
+        IdempotencyCache<IdempotentReservation> cache = new IdempotencyCache<>(maxEntries);
+
+        Gauge.builder("inventory.idempotency.keys", cache, IdempotencyCache::size)
+                .description("Reservation idempotency keys remembered")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.reserve.duplicates", cache, IdempotencyCache::hitCount)
+                .description("Reservations answered with the response of an earlier one with the same key")
+                .register(meterRegistry);
+
+        return cache;
+    }
+}
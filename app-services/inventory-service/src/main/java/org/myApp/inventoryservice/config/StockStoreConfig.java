@@ -0,0 +1,80 @@
+package org.myApp.inventoryservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.MappedStockStore;
+import org.myApp.inventoryservice.stock.OffHeapStockStore;
+import org.myApp.inventoryservice.stock.StockCsvLoader;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses where InventoryManager keeps stock levels.
+ *
+ * inventory.stock.store:
+ * - heap    → ConcurrentHashMap of counters, rebuilt (demo SKUs) on every start (old behavior)
+ * - mapped  → memory-mapped file, reservations are written in place and survive a restart
+ * - offheap → the mapped layout in direct memory, no object per SKU, for catalogs of millions of SKUs
+ *
+ * inventory.stock:
+ * - file                 → the mapped file
+ * - capacity             → max products of a new mapped file / of the off-heap store
+ * - max-product-id-bytes → longest productId (UTF-8) they can hold
+ * - seed-csv             → "productId,quantity" file loaded into an empty store on startup (instead of the demo SKUs)
+ */
+@Configuration
+public class StockStoreConfig {
+
+    // no explicit destroyMethod: MappedStockStore.close() (flush + unmap) is inferred
+    @Bean
+    public StockStore stockStore(
+            @Value("${inventory.stock.store:heap}") String store,
+            @Value("${inventory.stock.file:data/inventory-stock.dat}") String file,
+            @Value("${inventory.stock.capacity:1000000}") int capacity,
+            @Value("${inventory.stock.max-product-id-bytes:23}") int maxProductIdBytes,
+            @Value("${inventory.stock.seed-csv:}") String seedCsv,
+            MeterRegistry meterRegistry,
+            EventLog inventoryEventLog) {
+
+        StockStore stock = switch (store.toLowerCase()) {
+            case "heap" -> new HeapStockStore();
+            case "mapped" -> new MappedStockStore(Path.of(file), capacity, maxProductIdBytes);
+            case "offheap" -> new OffHeapStockStore(capacity, maxProductIdBytes);
+            default -> throw new IllegalArgumentException("unknown inventory.stock.store: " + store);
+        };
+
+        // a mapped file that already has products keeps its stock levels
+        if(stock.size() == 0 && !seedCsv.isBlank()){
+
+            long start = System.nanoTime();
+            long loaded;
+            try {
+                loaded = StockCsvLoader.load(Path.of(seedCsv), stock);
+            }catch(IOException e){
+                throw new UncheckedIOException("cannot load stock from " + seedCsv, e);
+            }
+
+            inventoryEventLog.event("INVENTORY")
+                    .with("step", "LOADED")
+                    .with("products", loaded)
+                    .with("from", seedCsv)
+                    .with("timeMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .publish();
+        }
+
+        Gauge.builder("inventory.stock.products", stock, StockStore::size)
+                .description("Products known to the stock store")
+                .register(meterRegistry);
+
+        return stock;
+    }
+}
@@ -0,0 +1,22 @@
+package org.myApp.inventoryservice.config;
+
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.myApp.common.logging.EventLog;
+import org.myApp.inventoryservice.logging.SpanLogReporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing: Micrometer Tracing on OpenTelemetry, set up by Spring Boot (management.tracing.*).
+ *
+ * Requests with a W3C traceparent header are served in a span of the caller's trace.
+ * Finished spans are written as [SPAN] events to the inventory event log.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanReporter spanLogReporter(EventLog inventoryEventLog) {
+        return new SpanLogReporter(inventoryEventLog);
+    }
+}
@@ -1,12 +1,20 @@
 package org.myApp.inventoryservice.controller;
 
 import jakarta.validation.Valid;
+import org.myApp.inventoryservice.model.BatchInventoryRequest;
+import org.myApp.inventoryservice.model.BatchInventoryResponse;
+import org.myApp.inventoryservice.model.HoldRequest;
+import org.myApp.inventoryservice.model.HoldResponse;
+import org.myApp.inventoryservice.model.HoldStatus;
 import org.myApp.inventoryservice.model.InventoryRequest;
 import org.myApp.inventoryservice.model.InventoryResponse;
+import org.myApp.inventoryservice.model.InventoryStatus;
 import org.myApp.inventoryservice.service.InventoryManager;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -15,6 +23,9 @@ import org.springframework.web.bind.annotation.RestController;
  *
  * Exposes a deterministic API to reserve inventory.
  * This service is intentionally reliable and fast.
+ *
+ * A reservation is held until it is confirmed or released,
+ * or until the hold TTL (inventory.hold.ttl-ms) gives the stock back.
  */
 @RestController
 @RequestMapping("/inventory")
@@ -32,14 +43,101 @@ public class InventoryController {
      *
      * Endpoint:
      * POST /inventory/reserve
+     *
+     * x-order-id (optional) is the idempotency key: a duplicate request with the same one
+     * (retry, hedged attempt) gets the same response and holdId, the stock is taken once.
+     * The same key with another productId / quantity is 422 KEY_REUSED, nothing is reserved.
      */
     @PostMapping("/reserve")
-    public ResponseEntity<InventoryResponse> reserveInventory(@Valid @RequestBody InventoryRequest inventoryRequest){
+    public ResponseEntity<InventoryResponse> reserveInventory(@Valid @RequestBody InventoryRequest inventoryRequest,
+                                                              @RequestHeader(value = "x-order-id", required = false)
+                                                              String idempotencyKey){
+
+        InventoryResponse inventoryResponse = inventoryManager.reserve(inventoryRequest, idempotencyKey);
+
+        if(inventoryResponse.getStatus() == InventoryStatus.KEY_REUSED){
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(inventoryResponse);
+        }
+
+        return ResponseEntity.ok(inventoryResponse);
+
+    }
+
+    /**
+     * Reserve many lines in one call.
+     *
+     * Every line is reserved independently, one result per line in request order.
+     *
+     * Endpoint:
+     * POST /inventory/reserve/batch
+     */
+    @PostMapping("/reserve/batch")
+    public ResponseEntity<BatchInventoryResponse> reserveInventoryBatch(@Valid @RequestBody BatchInventoryRequest batchRequest){
+
+        BatchInventoryResponse batchResponse =
+                new BatchInventoryResponse(inventoryManager.reserveBatch(batchRequest.getItems()));
+
+        return ResponseEntity.ok(batchResponse);
+    }
+
+    /**
+     * Reserve all lines of a basket as one, for a multi-line order.
+     *
+     * All lines RESERVED under one holdId, or OUT_OF_STOCK with nothing taken.
+     * Release / confirm the holdId like a single reservation.
+     *
+     * Endpoint:
+     * POST /inventory/reserve/all
+     */
+    @PostMapping("/reserve/all")
+    public ResponseEntity<InventoryResponse> reserveInventoryAll(@Valid @RequestBody BatchInventoryRequest batchRequest){
 
-        InventoryResponse inventoryResponse = inventoryManager.reserve(inventoryRequest);
+        InventoryResponse inventoryResponse = inventoryManager.reserveAll(batchRequest.getItems());
 
         return ResponseEntity.ok(inventoryResponse);
+    }
+
+    /**
+     * Give the stock of a hold back, for an order that failed after reserving.
+     *
+     * Endpoint:
+     * POST /inventory/release
+     *
+     * 404 UNKNOWN if the hold expired (its stock is already back), was already released or confirmed.
+     */
+    @PostMapping("/release")
+    public ResponseEntity<HoldResponse> releaseHold(@Valid @RequestBody HoldRequest holdRequest){
+
+        HoldStatus status = inventoryManager.release(holdRequest.getHoldId());
+
+        return holdResponse(holdRequest, status);
+    }
+
+    /**
+     * Keep the stock of a hold, for an order that was paid.
+     *
+     * Endpoint:
+     * POST /inventory/confirm
+     *
+     * 404 UNKNOWN if the hold expired, was already released or confirmed.
+     */
+    @PostMapping("/confirm")
+    public ResponseEntity<HoldResponse> confirmHold(@Valid @RequestBody HoldRequest holdRequest){
+
+        HoldStatus status = inventoryManager.confirm(holdRequest.getHoldId());
+
+        return holdResponse(holdRequest, status);
+    }
+
+    private ResponseEntity<HoldResponse> holdResponse(HoldRequest holdRequest, HoldStatus status){
+
+        HoldResponse holdResponse = new HoldResponse(holdRequest.getHoldId(), status);
+
+        if(status == HoldStatus.UNKNOWN){
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(holdResponse);
+        }
 
+        return ResponseEntity.ok(holdResponse);
     }
 
 }
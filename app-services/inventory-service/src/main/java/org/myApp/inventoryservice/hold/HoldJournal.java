@@ -0,0 +1,235 @@
+package org.myApp.inventoryservice.hold;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Open holds on disk, next to a mapped stock file: the stock they took is not lost by a restart.
+ *
+ * Append-only file of records:
+ * - OPEN  → hold id, then productId / quantity for every line of the hold
+ * - CLOSE → hold id (confirmed, released or expired)
+ *
+ * replay() reads back the holds that are still open. Once compactEvery records were appended,
+ * the file is rewritten with the open holds only (temp file, then moved over the old one).
+ *
+ * Plain writes, no fsync: like the mapped stock file, it survives the process dying, not the machine.
+ * A record cut short by a crash ends the replay.
+ */
+public class HoldJournal implements AutoCloseable {
+
+    /**
+     * Receives open holds: from replay(), or from the caller of rewrite().
+     */
+    @FunctionalInterface
+    public interface OpenHolds {
+        void open(UUID id, String[] productIds, int[] quantities);
+    }
+
+    private static final byte OPEN = 1;
+    private static final byte CLOSE = 2;
+
+    private final Path file;
+    private final long compactEvery;
+
+    // guarded by this
+    private FileChannel channel;
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private long records;
+
+    public HoldJournal(Path file, long compactEvery) {
+
+        if (compactEvery < 1) {
+            throw new IllegalArgumentException("compactEvery must be >= 1");
+        }
+
+        this.file = file;
+        this.compactEvery = compactEvery;
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.channel = append(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open hold journal " + file, e);
+        }
+    }
+
+    /**
+     * Every hold opened and not closed since, in the order they were opened.
+     */
+    public synchronized void replay(OpenHolds holds) {
+
+        Map<UUID, Object[]> open = new LinkedHashMap<>();
+        records = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    break;
+                }
+
+                UUID id = new UUID(in.readLong(), in.readLong());
+                records++;
+
+                if (type == CLOSE) {
+                    open.remove(id);
+                    continue;
+                }
+
+                int lines = in.readInt();
+                String[] productIds = new String[lines];
+                int[] quantities = new int[lines];
+                for (int i = 0; i < lines; i++) {
+                    byte[] name = new byte[in.readUnsignedShort()];
+                    in.readFully(name);
+                    productIds[i] = new String(name, StandardCharsets.UTF_8);
+                    quantities[i] = in.readInt();
+                }
+                open.put(id, new Object[]{productIds, quantities});
+            }
+        } catch (EOFException e) {
+            // the last record was cut short, it never made it: its hold was never handed out
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read hold journal " + file, e);
+        }
+
+        open.forEach((id, hold) -> holds.open(id, (String[]) hold[0], (int[]) hold[1]));
+    }
+
+    public synchronized void opened(UUID id, String[] productIds, int[] quantities) {
+        write(encode(id, productIds, quantities));
+    }
+
+    /**
+     * @param openHolds hands every open hold to its argument, for the rewrite that may follow
+     */
+    public synchronized void closed(UUID id, Consumer<OpenHolds> openHolds) {
+
+        ByteBuffer out = buffer(17);
+        out.put(CLOSE).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        write(out.flip());
+
+        if (records >= compactEvery) {
+            rewrite(openHolds);
+        }
+    }
+
+    /**
+     * Replace the file with one OPEN record per hold given to openHolds.
+     *
+     * A hold opened while the rewrite runs may be given and also appended, replay() keeps it once.
+     */
+    public synchronized void rewrite(Consumer<OpenHolds> openHolds) {
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            long written = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+                long[] count = {0};
+                IOException[] failed = {null};
+                openHolds.accept((id, productIds, quantities) -> {
+                    try {
+                        ByteBuffer encoded = encode(id, productIds, quantities);
+                        while (encoded.hasRemaining()) {
+                            out.write(encoded);
+                        }
+                        count[0]++;
+                    } catch (IOException e) {
+                        failed[0] = e;
+                    }
+                });
+                if (failed[0] != null) {
+                    throw failed[0];
+                }
+                out.force(false);
+                written = count[0];
+            }
+
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = append(file);
+            records = written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot rewrite hold journal " + file, e);
+        }
+    }
+
+    /**
+     * Records in the file: replayed, appended since, or written by the last rewrite.
+     */
+    public synchronized long records() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot close hold journal " + file, e);
+        }
+    }
+
+    // guarded by this
+    private ByteBuffer encode(UUID id, String[] productIds, int[] quantities) {
+
+        byte[][] names = new byte[productIds.length][];
+        int size = 1 + 16 + 4;
+        for (int i = 0; i < productIds.length; i++) {
+            names[i] = productIds[i].getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length + 4;
+        }
+
+        ByteBuffer out = buffer(size);
+        out.put(OPEN).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).putInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.putShort((short) names[i].length).put(names[i]).putInt(quantities[i]);
+        }
+        return out.flip();
+    }
+
+    // guarded by this
+    private ByteBuffer buffer(int size) {
+        if (record.capacity() < size) {
+            record = ByteBuffer.allocate(Math.max(size, record.capacity() * 2));
+        }
+        return record.clear();
+    }
+
+    // guarded by this
+    private void write(ByteBuffer out) {
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write hold journal " + file, e);
+        }
+    }
+
+    private static FileChannel append(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,252 @@
+package org.myApp.inventoryservice.hold;
+
+import org.myApp.common.logging.EventLog;
+import org.myApp.inventoryservice.model.HoldStatus;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Reserved stock that is not sold yet.
+ *
+ * Every reservation becomes a hold with an id, which ends in exactly one way:
+ * - confirm → the order is paid, the stock stays taken
+ * - release → the order failed, the stock goes back (compensation)
+ * - expire  → nobody confirmed within the TTL (caller crashed, release lost...), the stock goes back
+ *
+ * Whoever removes the hold from the map first wins, so a release racing the expiry restocks once.
+ *
+ * Expiry runs on a TimingWheel: one ticker thread for any number of holds,
+ * schedule and cancel are O(1).
+ *
+ * With a mapped stock file, holds are also written to a HoldJournal: recover() brings back the ones
+ * that were open before a restart, with a fresh TTL, so their stock is confirmed, released or expired
+ * as usual instead of staying taken for good. Without a journal, holds live in memory only.
+ */
+public class HoldManager {
+
+    private static final class Hold {
+
+        private final UUID id;
+
+        // one entry per product, several for a basket
+        private final String[] productIds;
+        private final int[] quantities;
+
+        private volatile TimingWheel.Timeout<Hold> timeout;
+
+        private Hold(UUID id, String[] productIds, int[] quantities) {
+            this.id = id;
+            this.productIds = productIds;
+            this.quantities = quantities;
+        }
+
+        void restock(StockStore stock) {
+            for (int i = 0; i < productIds.length; i++) {
+                stock.restock(productIds[i], quantities[i]);
+            }
+        }
+    }
+
+    // 64 slots per level, 4 levels → 2^24 ticks (19 days at 100 ms)
+    private static final int SLOT_BITS = 6;
+    private static final int LEVELS = 4;
+
+    private final StockStore stock;
+    private final long ttlMillis;
+    private final TimingWheel<Hold> wheel;
+
+    // null → holds live in memory only
+    private final HoldJournal journal;
+
+    private final Map<UUID, Hold> holds = new ConcurrentHashMap<>();
+
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+
+    public HoldManager(StockStore stock, long ttlMillis, long tickMillis) {
+        this(stock, ttlMillis, tickMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * clock is for tests, expiry is driven by advance() until start() is called.
+     */
+    public HoldManager(StockStore stock, long ttlMillis, long tickMillis, LongSupplier clock) {
+        this(stock, ttlMillis, tickMillis, clock, null);
+    }
+
+    /**
+     * @param journal where open holds are kept across restarts, null → memory only
+     */
+    public HoldManager(StockStore stock, long ttlMillis, long tickMillis, LongSupplier clock, HoldJournal journal) {
+        this.stock = stock;
+        this.ttlMillis = ttlMillis;
+        this.wheel = new TimingWheel<>(tickMillis, SLOT_BITS, LEVELS, this::expire, clock);
+        this.journal = journal;
+    }
+
+    /**
+     * Bring back the holds the journal has open, each with a full TTL, then compact the journal.
+     *
+     * Call once, before any hold() and before start().
+     *
+     * @return holds recovered, 0 without a journal
+     */
+    public int recover() {
+
+        if (journal == null) {
+            return 0;
+        }
+
+        journal.replay((id, productIds, quantities) -> {
+            Hold hold = new Hold(id, productIds, quantities);
+            holds.put(hold.id, hold);
+            hold.timeout = wheel.schedule(hold, ttlMillis);
+        });
+
+        // also drops a record cut short by a crash, later appends must not follow it
+        journal.rewrite(this::openHolds);
+        return holds.size();
+    }
+
+    /**
+     * Track stock that was just reserved, it comes back after the TTL unless confirmed.
+     *
+     * @return the hold id to confirm or release with
+     */
+    public UUID hold(String productId, int quantity) {
+        return hold(new String[]{productId}, new int[]{quantity});
+    }
+
+    /**
+     * One hold for several products (a basket reserved as a whole), released or expired as a whole.
+     *
+     * The arrays are kept, not copied.
+     */
+    public UUID hold(String[] productIds, int[] quantities) {
+
+        Hold hold = new Hold(UUID.randomUUID(), productIds, quantities);
+
+        // in the map first: if the wheel fires right away, expire() finds it
+        holds.put(hold.id, hold);
+
+        // journaled before it can expire, so its CLOSE never comes before its OPEN
+        if (journal != null) {
+            try {
+                journal.opened(hold.id, productIds, quantities);
+            } catch (RuntimeException e) {
+                // the caller reserved the stock for this hold, which will never exist
+                holds.remove(hold.id);
+                hold.restock(stock);
+                throw e;
+            }
+        }
+
+        hold.timeout = wheel.schedule(hold, ttlMillis);
+
+        return hold.id;
+    }
+
+    /**
+     * Give the held stock back.
+     */
+    public HoldStatus release(UUID holdId) {
+
+        Hold hold = remove(holdId);
+        if (hold == null) {
+            return HoldStatus.UNKNOWN;
+        }
+
+        hold.restock(stock);
+        released.incrementAndGet();
+        journalClosed(hold);
+        return HoldStatus.RELEASED;
+    }
+
+    /**
+     * Keep the held stock for good.
+     */
+    public HoldStatus confirm(UUID holdId) {
+
+        Hold hold = remove(holdId);
+        if (hold == null) {
+            return HoldStatus.UNKNOWN;
+        }
+
+        confirmed.incrementAndGet();
+        journalClosed(hold);
+        return HoldStatus.CONFIRMED;
+    }
+
+    /**
+     * Expire what is due now, the ticker does this every tick once started.
+     */
+    public void advance() {
+        wheel.advance();
+    }
+
+    public void start(EventLog eventLog) {
+        wheel.start(eventLog);
+    }
+
+    public void shutdown() {
+        wheel.shutdown();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public int active() {
+        return holds.size();
+    }
+
+    public long expiredCount() {
+        return expired.get();
+    }
+
+    public long releasedCount() {
+        return released.get();
+    }
+
+    public long confirmedCount() {
+        return confirmed.get();
+    }
+
+    private Hold remove(UUID holdId) {
+
+        Hold hold = holdId == null ? null : holds.remove(holdId);
+
+        // the timeout is set before hold() hands out the id, a caller with the id always sees it
+        if (hold != null) {
+            wheel.cancel(hold.timeout);
+        }
+        return hold;
+    }
+
+    private void expire(Hold hold) {
+
+        if (holds.remove(hold.id, hold)) {
+            hold.restock(stock);
+            expired.incrementAndGet();
+            journalClosed(hold);
+        }
+    }
+
+    // after the stock is settled: if the write fails, only the journal is behind
+    private void journalClosed(Hold hold) {
+        if (journal != null) {
+            journal.closed(hold.id, this::openHolds);
+        }
+    }
+
+    private void openHolds(HoldJournal.OpenHolds out) {
+        for (Hold hold : holds.values()) {
+            out.open(hold.id, hold.productIds, hold.quantities);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.myApp.inventoryservice.hold;
+
+import org.myApp.common.logging.EventLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel: expires millions of timeouts with one thread and O(1) schedule / cancel.
+ *
+ * - "levels" wheels of "2^slotBits" slots each, level 0 slots are one tick wide,
+ *   every level up is 2^slotBits times coarser
+ * - a timeout goes into the lowest level whose span covers its delay
+ * - when a lower wheel wraps, the next slot of the level above is cascaded:
+ *   its timeouts move down to finer slots
+ * - slots are intrusive doubly-linked lists, cancel just unlinks
+ *
+ * Expiry is at tick granularity and never early: a timeout fires on the first tick at or after its deadline.
+ *
+ * The ticker is one daemon thread calling advance(), expired values are handed to onExpire outside the lock.
+ * advance() can also be driven by hand (tests, or a caller with its own clock).
+ *
+ * @param <T> what expires, e.g. a hold
+ */
+public class TimingWheel<T> {
+
+    /**
+     * Handle of a scheduled value, used to cancel it.
+     */
+    public static final class Timeout<T> {
+
+        private final T value;
+        private final long deadlineTick;
+
+        // guarded by the wheel, bucket == null → not scheduled (expired or cancelled)
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        // detaches the whole list, the caller walks it with next
+        Timeout<T> takeAll() {
+            Timeout<T> all = head;
+            head = null;
+            return all;
+        }
+    }
+
+    private final long tickMillis;
+    private final int slotBits;
+    private final int slotMask;
+    private final Bucket<T>[][] wheels;
+    private final long maxDelayTicks;
+
+    private final Consumer<T> onExpire;
+    private final LongSupplier clock;
+
+    // guarded by this
+    private long currentTick;
+    private int size;
+
+    private ScheduledExecutorService ticker;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int slotBits, int levels, Consumer<T> onExpire, LongSupplier clock) {
+
+        if (tickMillis < 1 || slotBits < 1 || levels < 1 || (long) slotBits * levels > 62) {
+            throw new IllegalArgumentException("invalid timing wheel: tick=" + tickMillis + " slotBits=" + slotBits + " levels=" + levels);
+        }
+
+        this.tickMillis = tickMillis;
+        this.slotBits = slotBits;
+        this.slotMask = (1 << slotBits) - 1;
+        this.maxDelayTicks = (1L << (slotBits * levels)) - 1;
+        this.onExpire = onExpire;
+        this.clock = clock;
+
+        this.wheels = new Bucket[levels][1 << slotBits];
+        for (Bucket<T>[] wheel : wheels) {
+            for (int slot = 0; slot < wheel.length; slot++) {
+                wheel[slot] = new Bucket<>();
+            }
+        }
+
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    /**
+     * Expire value after delayMillis (rounded up to the tick).
+     */
+    public synchronized Timeout<T> schedule(T value, long delayMillis) {
+
+        long delayTicks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        if (delayTicks > maxDelayTicks) {
+            throw new IllegalArgumentException("delay of " + delayMillis + " ms is beyond the wheel span of " + maxDelayTicks * tickMillis + " ms");
+        }
+
+        // from the current clock, not from the last processed tick, so a late ticker does not shorten the delay
+        long nowTick = Math.max(currentTick, clock.getAsLong() / tickMillis);
+
+        Timeout<T> timeout = new Timeout<>(value, nowTick + delayTicks);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the timeout already expired or was cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Process every tick up to the clock and hand what expired to onExpire.
+     */
+    public void advance() {
+
+        List<T> expired = new ArrayList<>();
+
+        synchronized (this) {
+            long targetTick = clock.getAsLong() / tickMillis;
+            while (currentTick < targetTick) {
+                currentTick++;
+                tick(expired);
+            }
+        }
+
+        for (T value : expired) {
+            onExpire.accept(value);
+        }
+    }
+
+    /**
+     * Start the ticker, an onExpire that throws is reported to eventLog and the wheel goes on.
+     */
+    public synchronized void start(EventLog eventLog) {
+
+        if (ticker != null) {
+            return;
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timing-wheel-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                // a failing onExpire must not stop the wheel, the next tick goes on
+                eventLog.event("TIMING-WHEEL").with("step", "EXPIRY_FAILED").with("error", e.toString()).publish();
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    // guarded by this
+    private void tick(List<T> expired) {
+
+        // cascade from the highest level whose lower wheels all just wrapped, down to level 1
+        int top = 0;
+        while (top + 1 < wheels.length && (currentTick & ((1L << (slotBits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Timeout<T> timeout = wheels[level][slot(currentTick, level)].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+
+        // everything in the level 0 slot is due now
+        Timeout<T> timeout = wheels[0][slot(currentTick, 0)].takeAll();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+            size--;
+            expired.add(timeout.value);
+            timeout = next;
+        }
+    }
+
+    // guarded by this
+    private void place(Timeout<T> timeout) {
+
+        // overdue ones (possible after a cascade) go to the current level 0 slot, which is processed next
+        long deadline = Math.max(timeout.deadlineTick, currentTick);
+        long delta = deadline - currentTick;
+
+        int level = 0;
+        while (level + 1 < wheels.length && delta >= (1L << (slotBits * (level + 1)))) {
+            level++;
+        }
+
+        wheels[level][slot(deadline, level)].add(timeout);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) (tick >>> (slotBits * level)) & slotMask;
+    }
+}
@@ -0,0 +1,113 @@
+package org.myApp.inventoryservice.idempotency;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the outcome of recent requests by idempotency key, so a retry gets the first answer
+ * instead of doing the work (reserving) again.
+ *
+ * - first request for a key    → owns the key, its outcome is what every retry sees
+ * - retry while still running  → waits for the same outcome
+ * - retry after it finished    → gets the stored outcome right away
+ *
+ * Bounded by maxEntries, the oldest finished keys are dropped first. A key still running is never dropped:
+ * its retries must keep waiting for it, not reserve again. So while many are running the cache can be
+ * over maxEntries for a moment.
+ * Outcomes that should not be remembered (e.g. errors, so they can be retried for real) are forgotten with forget().
+ */
+public class IdempotencyCache<T> {
+
+    private final int maxEntries;
+
+    private final Map<String, CompletableFuture<T>> outcomes = new ConcurrentHashMap<>();
+
+    // entries in insertion order, for eviction: the future tells a key's own entry from a later one
+    private final Queue<Map.Entry<String, CompletableFuture<T>>> order = new ConcurrentLinkedQueue<>();
+    // live entries, compared with maxEntries
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    public IdempotencyCache(int maxEntries) {
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("idempotency cache needs maxEntries >= 1");
+        }
+
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return null if the caller is the first one with this key and must produce the outcome
+     *         (and complete the future it registered), otherwise the outcome of the first request
+     */
+    public CompletableFuture<T> claim(String key, CompletableFuture<T> outcome) {
+
+        CompletableFuture<T> existing = outcomes.putIfAbsent(key, outcome);
+
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing;
+        }
+
+        order.offer(Map.entry(key, outcome));
+        if (size.incrementAndGet() > maxEntries) {
+            evictOldest();
+        }
+
+        return null;
+    }
+
+    /**
+     * Drop the outcome for key, the next request with it runs for real.
+     */
+    public void forget(String key, CompletableFuture<T> outcome) {
+
+        // only our own entry, never one a later request put there
+        if (outcomes.remove(key, outcome)) {
+            size.decrementAndGet();
+            // a linear scan, but only on the failure path
+            order.remove(Map.entry(key, outcome));
+        }
+    }
+
+    /**
+     * Requests answered from the cache.
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public int size() {
+        return outcomes.size();
+    }
+
+    private void evictOldest() {
+
+        Iterator<Map.Entry<String, CompletableFuture<T>>> entries = order.iterator();
+
+        while (entries.hasNext()) {
+            Map.Entry<String, CompletableFuture<T>> oldest = entries.next();
+
+            // still running: a retry must find it
+            if (!oldest.getValue().isDone()) {
+                continue;
+            }
+
+            entries.remove();
+
+            // false: another thread evicted or forgot it first, try the next one
+            if (outcomes.remove(oldest.getKey(), oldest.getValue())) {
+                size.decrementAndGet();
+                return;
+            }
+        }
+    }
+}
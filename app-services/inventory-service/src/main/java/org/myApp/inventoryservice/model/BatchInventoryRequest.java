@@ -0,0 +1,31 @@
+package org.myApp.inventoryservice.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Request payload for reserving many lines in one call.
+ *
+ * Every line is a normal InventoryRequest (productId + quantity).
+ */
+public class BatchInventoryRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid InventoryRequest> items;
+
+    public BatchInventoryRequest() {
+
+    }
+
+    public List<InventoryRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<InventoryRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,28 @@
+package org.myApp.inventoryservice.model;
+
+import java.util.List;
+
+/**
+ * Response for a batch reservation.
+ *
+ * results.get(i) is the outcome of items.get(i) in the request.
+ */
+public class BatchInventoryResponse {
+
+    private List<InventoryResponse> results;
+
+    public BatchInventoryResponse() {
+    }
+
+    public BatchInventoryResponse(List<InventoryResponse> results) {
+        this.results = results;
+    }
+
+    public List<InventoryResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<InventoryResponse> results) {
+        this.results = results;
+    }
+}
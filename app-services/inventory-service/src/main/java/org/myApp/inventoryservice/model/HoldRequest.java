@@ -0,0 +1,26 @@
+package org.myApp.inventoryservice.model;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Request payload to release or confirm a hold.
+ */
+public class HoldRequest {
+
+    @NotNull
+    private UUID holdId;
+
+    public HoldRequest() {
+
+    }
+
+    public UUID getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(UUID holdId) {
+        this.holdId = holdId;
+    }
+}
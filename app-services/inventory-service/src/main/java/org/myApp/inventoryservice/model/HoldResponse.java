@@ -0,0 +1,36 @@
+package org.myApp.inventoryservice.model;
+
+import java.util.UUID;
+
+/**
+ * Response returned after releasing or confirming a hold.
+ */
+public class HoldResponse {
+
+    private UUID holdId;
+    private HoldStatus status;
+
+    public HoldResponse() {
+    }
+
+    public HoldResponse(UUID holdId, HoldStatus status) {
+        this.holdId = holdId;
+        this.status = status;
+    }
+
+    public UUID getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(UUID holdId) {
+        this.holdId = holdId;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(HoldStatus status) {
+        this.status = status;
+    }
+}
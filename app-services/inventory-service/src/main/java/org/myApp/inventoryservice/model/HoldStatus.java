@@ -0,0 +1,13 @@
+package org.myApp.inventoryservice.model;
+
+/**
+ * Outcomes of releasing or confirming a hold.
+ */
+public enum HoldStatus {
+
+    RELEASED,
+    CONFIRMED,
+    // expired, already released / confirmed, or never existed
+    UNKNOWN
+
+}
@@ -1,12 +1,21 @@
 package org.myApp.inventoryservice.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
 /**
  * Response returned after attempting to reserve inventory.
+ *
+ * A RESERVED response carries the holdId to confirm or release the reservation with.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class InventoryResponse {
 
     private InventoryStatus status;
 
+    private UUID holdId;
+
     public InventoryResponse() {
     }
 
@@ -14,6 +23,11 @@ public class InventoryResponse {
         this.status = status;
     }
 
+    public InventoryResponse(InventoryStatus status, UUID holdId) {
+        this.status = status;
+        this.holdId = holdId;
+    }
+
     public InventoryStatus getStatus() {
         return status;
     }
@@ -21,4 +35,12 @@ public class InventoryResponse {
     public void setStatus(InventoryStatus status) {
         this.status = status;
     }
+
+    public UUID getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(UUID holdId) {
+        this.holdId = holdId;
+    }
 }
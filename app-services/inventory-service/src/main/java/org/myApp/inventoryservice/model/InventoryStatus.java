@@ -6,6 +6,8 @@ package org.myApp.inventoryservice.model;
 public enum InventoryStatus {
 
     RESERVED,
-    OUT_OF_STOCK
+    OUT_OF_STOCK,
+    // the idempotency key (x-order-id) was already used for another productId / quantity, nothing reserved
+    KEY_REUSED
 
 }
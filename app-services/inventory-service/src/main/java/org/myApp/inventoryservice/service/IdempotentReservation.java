@@ -0,0 +1,31 @@
+package org.myApp.inventoryservice.service;
+
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryResponse;
+
+/**
+ * What the first reservation with an idempotency key asked for, and the response it got.
+ *
+ * A duplicate asks for the same productId and quantity. Anything else with the same key
+ * is another reservation reusing it, and must not be handed this one's hold.
+ */
+public final class IdempotentReservation {
+
+    private final String productId;
+    private final int quantity;
+    private final InventoryResponse response;
+
+    public IdempotentReservation(InventoryRequest request, InventoryResponse response) {
+        this.productId = request.getProductId();
+        this.quantity = request.getQuantity();
+        this.response = response;
+    }
+
+    public boolean isDuplicateOf(InventoryRequest request) {
+        return quantity == request.getQuantity() && productId.equals(request.getProductId());
+    }
+
+    public InventoryResponse getResponse() {
+        return response;
+    }
+}
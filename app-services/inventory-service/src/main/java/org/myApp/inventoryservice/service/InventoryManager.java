@@ -1,59 +1,231 @@
 package org.myApp.inventoryservice.service;
 
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.HoldStatus;
 import org.myApp.inventoryservice.model.InventoryRequest;
 import org.myApp.inventoryservice.model.InventoryResponse;
 import org.myApp.inventoryservice.model.InventoryStatus;
+import org.myApp.inventoryservice.stock.StockStore;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * InventoryManager holds in-memory inventory state
+ * InventoryManager holds inventory state (in a StockStore)
  * and applies deterministic reservation rules.
+ *
+ * Every reservation is a hold (see HoldManager) until the order confirms or releases it.
+ *
+ * A single reservation can carry an idempotency key (the order id): a duplicate of it,
+ * e.g. a hedged second attempt of order-service, gets the first one's hold instead of taking stock twice.
  */
 @Service
 public class InventoryManager {
     /**
-     * In-memory stock store.
-     *
-     * Key   → productId
-     * Value → available quantity
+     * Stock levels, see StockStoreConfig for where they live.
+     */
+    private final StockStore stock;
+
+    /**
+     * Reservations not confirmed yet, their stock comes back on release or after the TTL.
+     */
+    private final HoldManager holds;
+
+    /**
+     * Taken by reserveAll() only, single reservations stay lock-free.
+     */
+    private final ProductLocks basketLocks = new ProductLocks(1024);
+
+    /**
+     * Idempotency key → request and outcome of the first reservation with it, see reserve(request, key).
      */
-    private final Map<String, Integer> stock = new ConcurrentHashMap<>();
+    private final IdempotencyCache<IdempotentReservation> reservations;
+
+    public InventoryManager(StockStore stock, HoldManager holds, IdempotencyCache<IdempotentReservation> reservations){
+        this.stock = stock;
+        this.holds = holds;
+        this.reservations = reservations;
 
-    public InventoryManager(){
-        // some hardcoded stock.
-        stock.put("A1", 100);
-        stock.put("B1", 9);
-        stock.put("C1", 10);
-        stock.put("D1", 1);
-        stock.put("E1", 12);
-        stock.put("F1", 5);
-        stock.put("G1", 3);
+        // some hardcoded stock, only for an empty store: a mapped stock file keeps what it has
+        if(stock.size() == 0){
+            restock("A1", 100);
+            restock("B1", 9);
+            restock("C1", 10);
+            restock("D1", 1);
+            restock("E1", 12);
+            restock("F1", 5);
+            restock("G1", 3);
+        }
     }
 
     /**
      * Reserve inventory if available.
      *
      * Rules:
-     * - If requested quantity <= available stock → RESERVED
+     * - If requested quantity <= available stock → RESERVED, with a holdId
      * - Otherwise → OUT_OF_STOCK
+     *
+     * The check and the decrement are one atomic step in the StockStore,
+     * so two concurrent reservations can never both take the last units.
      */
     public InventoryResponse reserve(InventoryRequest inventoryRequest){
 
-        String productId = inventoryRequest.getProductId();
-        int requestedQty = inventoryRequest.getQuantity();
+        // unknown product and not enough stock are both OUT_OF_STOCK
+        if(stock.tryReserve(inventoryRequest.getProductId(), inventoryRequest.getQuantity())){
+            UUID holdId = holds.hold(inventoryRequest.getProductId(), inventoryRequest.getQuantity());
+            return new InventoryResponse(InventoryStatus.RESERVED, holdId);
+        }
+
+        return new InventoryResponse(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    /**
+     * reserve(), at most once per idempotency key.
+     *
+     * - first request with the key    → reserves, its response is remembered
+     * - duplicate while it still runs → waits for the first one's response
+     * - duplicate after it            → the first one's response: same holdId, stock taken once
+     *
+     * OUT_OF_STOCK is remembered too, a duplicate must not reserve what its first attempt could not.
+     *
+     * A request with a known key but another productId / quantity is not a duplicate:
+     * KEY_REUSED, nothing is reserved and the first one's hold is not handed out.
+     *
+     * @param idempotencyKey null → plain reserve()
+     */
+    public InventoryResponse reserve(InventoryRequest inventoryRequest, String idempotencyKey){
+
+        if(idempotencyKey == null){
+            return reserve(inventoryRequest);
+        }
 
-        int availableQty = stock.getOrDefault(productId, 0);
+        CompletableFuture<IdempotentReservation> outcome = new CompletableFuture<>();
+        CompletableFuture<IdempotentReservation> first = reservations.claim(idempotencyKey, outcome);
 
-        if(requestedQty<=availableQty){
-            //reduce stock
-            stock.put(productId, availableQty-requestedQty);
+        if(first != null){
+            // in-memory reservation, the first one is done within microseconds
+            IdempotentReservation earlier = first.join();
 
-            return new InventoryResponse(InventoryStatus.RESERVED);
+            if(!earlier.isDuplicateOf(inventoryRequest)){
+                return new InventoryResponse(InventoryStatus.KEY_REUSED);
+            }
+            return earlier.getResponse();
         }
 
-        return new InventoryResponse(InventoryStatus.OUT_OF_STOCK);
+        try{
+            InventoryResponse response = reserve(inventoryRequest);
+            outcome.complete(new IdempotentReservation(inventoryRequest, response));
+            return response;
+        }catch(RuntimeException e){
+            // nothing was reserved, a retry may run for real
+            reservations.forget(idempotencyKey, outcome);
+            outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserve every line independently.
+     *
+     * A line that is OUT_OF_STOCK does not affect the other lines.
+     * Results are in the same order as the requests.
+     */
+    public List<InventoryResponse> reserveBatch(List<InventoryRequest> inventoryRequests){
+
+        List<InventoryResponse> responses = new ArrayList<>(inventoryRequests.size());
+
+        for(InventoryRequest inventoryRequest : inventoryRequests){
+            responses.add(reserve(inventoryRequest));
+        }
+
+        return responses;
+    }
+
+    /**
+     * Reserve all lines of a basket, or none of them.
+     *
+     * Rules:
+     * - every line has enough stock → RESERVED, one holdId for the whole basket
+     * - any line short             → OUT_OF_STOCK, the lines already taken are restocked
+     *
+     * Lines of the same product are added up first, then the products are reserved
+     * under their ProductLocks stripes, taken in ascending order (no deadlock between baskets).
+     * Without the locks two baskets each needing the last unit the other took
+     * would both roll back; with them one of the two goes through.
+     *
+     * Single reservations do not lock: one racing a basket that rolls back
+     * can see OUT_OF_STOCK for units that come back right after. Nothing is ever oversold,
+     * the decrement itself is still the atomic tryReserve.
+     */
+    public InventoryResponse reserveAll(List<InventoryRequest> inventoryRequests){
+
+        // sorted by productId: same products, same order, in every basket
+        Map<String, Integer> basket = new TreeMap<>();
+        for(InventoryRequest inventoryRequest : inventoryRequests){
+            basket.merge(inventoryRequest.getProductId(), inventoryRequest.getQuantity(),
+                    // capped, more than Integer.MAX_VALUE is out of stock anyway
+                    (a, b) -> (int) Math.min((long) a + b, Integer.MAX_VALUE));
+        }
+
+        String[] productIds = basket.keySet().toArray(new String[0]);
+        int[] quantities = new int[productIds.length];
+        for(int i = 0; i < productIds.length; i++){
+            quantities[i] = basket.get(productIds[i]);
+        }
+
+        int[] locked = basketLocks.lockAll(basket.keySet());
+        try{
+            for(int i = 0; i < productIds.length; i++){
+                if(!stock.tryReserve(productIds[i], quantities[i])){
+                    rollback(productIds, quantities, i);
+                    return new InventoryResponse(InventoryStatus.OUT_OF_STOCK);
+                }
+            }
+        }finally{
+            basketLocks.unlockAll(locked);
+        }
+
+        UUID holdId = holds.hold(productIds, quantities);
+        return new InventoryResponse(InventoryStatus.RESERVED, holdId);
+    }
+
+    private void rollback(String[] productIds, int[] quantities, int taken){
+        for(int i = 0; i < taken; i++){
+            stock.restock(productIds[i], quantities[i]);
+        }
+    }
+
+    /**
+     * Give the stock of a hold back (compensation for an order that failed after reserving).
+     */
+    public HoldStatus release(UUID holdId){
+        return holds.release(holdId);
+    }
+
+    /**
+     * The order is done, the stock of the hold stays taken.
+     */
+    public HoldStatus confirm(UUID holdId){
+        return holds.confirm(holdId);
+    }
+
+    /**
+     * Add stock for a product, creating the product if it does not exist yet.
+     */
+    public void restock(String productId, int quantity){
+        stock.restock(productId, quantity);
+    }
+
+    /**
+     * Current available quantity, 0 for unknown products.
+     */
+    public int available(String productId){
+        return stock.available(productId);
     }
 }
@@ -0,0 +1,77 @@
+package org.myApp.inventoryservice.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks over productIds, for reserving several products as one step.
+ *
+ * - a product maps to one of a fixed number of stripes (hash of the productId)
+ * - lockAll() takes the stripes of all products in ascending stripe order,
+ *   so two baskets sharing products always lock them in the same order and can never deadlock
+ * - products of a basket sharing a stripe take it once
+ *
+ * Memory does not grow with the catalog, millions of SKUs share the stripes.
+ */
+class ProductLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    ProductLocks(int stripeCount) {
+
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("stripe count must be a power of two: " + stripeCount);
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        this.mask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock every stripe the products map to, lowest stripe first.
+     *
+     * @return the stripes taken, to hand to unlockAll()
+     */
+    int[] lockAll(Collection<String> productIds) {
+
+        int[] taken = new int[productIds.size()];
+        int count = 0;
+        for (String productId : productIds) {
+            taken[count++] = stripe(productId);
+        }
+
+        Arrays.sort(taken);
+
+        // distinct, in place
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || taken[distinct - 1] != taken[i]) {
+                taken[distinct++] = taken[i];
+            }
+        }
+        taken = Arrays.copyOf(taken, distinct);
+
+        for (int i = 0; i < taken.length; i++) {
+            stripes[taken[i]].lock();
+        }
+        return taken;
+    }
+
+    void unlockAll(int[] taken) {
+        // reverse order, not needed for correctness but keeps the lock nesting tidy
+        for (int i = taken.length - 1; i >= 0; i--) {
+            stripes[taken[i]].unlock();
+        }
+    }
+
+    private int stripe(String productId) {
+        int h = productId.hashCode();
+        // spread the high bits, productIds like "SKU-1", "SKU-2" differ in the low ones only
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
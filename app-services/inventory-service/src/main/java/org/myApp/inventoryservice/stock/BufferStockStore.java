@@ -0,0 +1,267 @@
+package org.myApp.inventoryservice.stock;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Open-addressing table of productId → available quantity inside one ByteBuffer,
+ * no object per product, nothing for the GC to trace.
+ *
+ * Layout (native byte order):
+ * - header  → magic, capacity, index slots, record width, products used
+ * - index   → open-addressing table of int, record number + 1 per slot, 0 = empty
+ * - records → capacity records of [int available][int hash][byte n][n bytes productId]
+ *
+ * - a reservation is a CAS on the record's available int, in place
+ * - lookups read the index and compare the key in place, no allocation for ASCII productIds
+ * - new products are appended under a lock, products are never removed
+ *
+ * The index has at least twice as many slots as there are records, so probes stay short
+ * and a free slot always exists. Capacity is fixed when the table is formatted.
+ *
+ * Where the buffer lives is up to the subclass:
+ * - MappedStockStore  → memory-mapped file, survives restarts
+ * - OffHeapStockStore → direct memory, large catalogs off the Java heap
+ */
+public abstract class BufferStockStore implements StockStore {
+
+    private static final int MAGIC = 0x53544B31;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_CAPACITY = 4;
+    private static final int H_INDEX_SLOTS = 8;
+    private static final int H_RECORD_BYTES = 12;
+    private static final int H_SIZE = 16;
+
+    private static final int R_AVAILABLE = 0;
+    private static final int R_HASH = 4;
+    private static final int R_KEY_LENGTH = 8;
+    private static final int R_KEY = 9;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    protected final ByteBuffer buffer;
+
+    private final int capacity;
+    private final int indexMask;
+    private final int recordBytes;
+    private final int maxKeyBytes;
+    private final int recordsOffset;
+
+    /**
+     * buffer must hold a table, see format().
+     */
+    protected BufferStockStore(ByteBuffer buffer) {
+
+        buffer.order(ByteOrder.nativeOrder());
+
+        if (buffer.getInt(H_MAGIC) != MAGIC) {
+            throw new IllegalStateException("buffer does not hold a stock table");
+        }
+
+        this.buffer = buffer;
+        this.capacity = buffer.getInt(H_CAPACITY);
+        this.indexMask = buffer.getInt(H_INDEX_SLOTS) - 1;
+        this.recordBytes = buffer.getInt(H_RECORD_BYTES);
+        this.maxKeyBytes = recordBytes - R_KEY;
+        this.recordsOffset = HEADER_BYTES + (indexMask + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Bytes a table of capacity products needs.
+     *
+     * Records are padded to 8 bytes, the padding is usable key space.
+     */
+    protected static long bytesFor(int capacity, int maxKeyBytes) {
+
+        if (maxKeyBytes < 1 || maxKeyBytes > 255) {
+            throw new IllegalArgumentException("maxKeyBytes must be 1..255: " + maxKeyBytes);
+        }
+
+        long bytes = HEADER_BYTES + (long) indexSlots(capacity) * Integer.BYTES + (long) capacity * recordBytes(maxKeyBytes);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("stock table of " + bytes + " bytes does not fit one buffer, lower the capacity");
+        }
+        return bytes;
+    }
+
+    /**
+     * Write an empty table into a zero-filled buffer of at least bytesFor(capacity, maxKeyBytes).
+     */
+    protected static ByteBuffer format(ByteBuffer buffer, int capacity, int maxKeyBytes) {
+
+        buffer.order(ByteOrder.nativeOrder());
+
+        buffer.putInt(H_CAPACITY, capacity);
+        buffer.putInt(H_INDEX_SLOTS, indexSlots(capacity));
+        buffer.putInt(H_RECORD_BYTES, recordBytes(maxKeyBytes));
+        buffer.putInt(H_SIZE, 0);
+        // magic last: a buffer (file) without it was never fully formatted
+        INT.setRelease(buffer, H_MAGIC, MAGIC);
+
+        return buffer;
+    }
+
+    private static int indexSlots(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+    }
+
+    private static int recordBytes(int maxKeyBytes) {
+        return (R_KEY + maxKeyBytes + 7) & ~7;
+    }
+
+    @Override
+    public boolean tryReserve(String productId, int quantity) {
+
+        int record = find(productId);
+
+        // unknown product has no stock
+        if (record < 0) {
+            return false;
+        }
+
+        while (true) {
+
+            int available = (int) INT.getVolatile(buffer, record + R_AVAILABLE);
+
+            if (quantity > available) {
+                return false;
+            }
+
+            // reduce stock in place, retry if another reservation changed it in the meantime
+            if (INT.compareAndSet(buffer, record + R_AVAILABLE, available, available - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void restock(String productId, int quantity) {
+
+        int record = find(productId);
+
+        if (record < 0) {
+            record = insert(productId);
+        }
+
+        INT.getAndAdd(buffer, record + R_AVAILABLE, quantity);
+    }
+
+    @Override
+    public int available(String productId) {
+
+        int record = find(productId);
+
+        return record < 0 ? 0 : (int) INT.getVolatile(buffer, record + R_AVAILABLE);
+    }
+
+    @Override
+    public int size() {
+        return (int) INT.getAcquire(buffer, H_SIZE);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ---- index
+
+    /**
+     * @return offset of the product's record, -1 if unknown
+     */
+    private int find(String productId) {
+
+        int hash = hash(productId);
+
+        for (int slot = hash & indexMask; ; slot = (slot + 1) & indexMask) {
+
+            int ref = (int) INT.getAcquire(buffer, HEADER_BYTES + slot * Integer.BYTES);
+
+            if (ref == 0) {
+                return -1;
+            }
+
+            int record = recordOffset(ref - 1);
+            if (buffer.getInt(record + R_HASH) == hash && keyEquals(record, productId)) {
+                return record;
+            }
+        }
+    }
+
+    private synchronized int insert(String productId) {
+
+        // another thread may have added it while we waited for the lock
+        int existing = find(productId);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        byte[] key = productId.getBytes(StandardCharsets.UTF_8);
+        if (key.length > maxKeyBytes) {
+            throw new IllegalArgumentException("productId longer than " + maxKeyBytes + " bytes: " + productId);
+        }
+
+        int size = buffer.getInt(H_SIZE);
+        if (size == capacity) {
+            throw new IllegalStateException("stock store is full, capacity " + capacity + " products");
+        }
+
+        int hash = hash(productId);
+        int record = recordOffset(size);
+
+        buffer.putInt(record + R_AVAILABLE, 0);
+        buffer.putInt(record + R_HASH, hash);
+        buffer.put(record + R_KEY_LENGTH, (byte) key.length);
+        buffer.put(record + R_KEY, key);
+
+        // record is counted before it is reachable: a crash in between leaks a record, never corrupts one
+        INT.setRelease(buffer, H_SIZE, size + 1);
+
+        int slot = hash & indexMask;
+        while ((int) INT.getAcquire(buffer, HEADER_BYTES + slot * Integer.BYTES) != 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        INT.setRelease(buffer, HEADER_BYTES + slot * Integer.BYTES, size + 1);
+
+        return record;
+    }
+
+    private boolean keyEquals(int record, String productId) {
+
+        int length = buffer.get(record + R_KEY_LENGTH) & 0xFF;
+        int chars = productId.length();
+
+        for (int i = 0; i < chars; i++) {
+
+            char c = productId.charAt(i);
+
+            // non-ASCII: compare the encoded bytes, the only path that allocates
+            if (c >= 0x80) {
+                byte[] stored = new byte[length];
+                buffer.get(record + R_KEY, stored);
+                return Arrays.equals(stored, productId.getBytes(StandardCharsets.UTF_8));
+            }
+
+            if (i >= length || buffer.get(record + R_KEY + i) != (byte) c) {
+                return false;
+            }
+        }
+
+        return chars == length;
+    }
+
+    private int recordOffset(int recordNumber) {
+        return recordsOffset + recordNumber * recordBytes;
+    }
+
+    private static int hash(String productId) {
+        // String caches its hashCode, spread it so sequential ids do not cluster
+        int h = productId.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
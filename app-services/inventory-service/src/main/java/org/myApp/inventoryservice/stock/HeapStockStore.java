@@ -0,0 +1,64 @@
+package org.myApp.inventoryservice.stock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Key   → productId
+ * Value → available quantity
+ *
+ * One counter per product:
+ * - reservations on different products never touch the same memory
+ * - reservations on the same product race on a single CAS, not on a lock
+ * - updating the quantity does not box a new Integer
+ */
+public class HeapStockStore implements StockStore {
+
+    private final Map<String, AtomicInteger> stock = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryReserve(String productId, int quantity) {
+
+        AtomicInteger available = stock.get(productId);
+
+        // unknown product has no stock
+        if (available == null) {
+            return false;
+        }
+
+        while (true) {
+
+            int availableQty = available.get();
+
+            if (quantity > availableQty) {
+                return false;
+            }
+
+            //reduce stock, retry if another reservation changed it in the meantime
+            if (available.compareAndSet(availableQty, availableQty - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void restock(String productId, int quantity) {
+
+        stock.computeIfAbsent(productId, id -> new AtomicInteger())
+                .addAndGet(quantity);
+    }
+
+    @Override
+    public int available(String productId) {
+
+        AtomicInteger available = stock.get(productId);
+
+        return available == null ? 0 : available.get();
+    }
+
+    @Override
+    public int size() {
+        return stock.size();
+    }
+}
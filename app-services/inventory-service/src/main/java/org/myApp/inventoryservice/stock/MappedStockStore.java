@@ -0,0 +1,69 @@
+package org.myApp.inventoryservice.stock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stock levels in a memory-mapped file of fixed-width records (layout in BufferStockStore).
+ *
+ * - reservations are written straight into the mapped page,
+ *   nothing is serialized and the page cache keeps them if the process dies
+ * - opening an existing file maps it, there is nothing to rebuild
+ *
+ * The file is in native byte order, it is not meant to move between machines.
+ */
+public class MappedStockStore extends BufferStockStore implements AutoCloseable {
+
+    /**
+     * Map the stock file, creating it if it does not exist.
+     *
+     * capacity and maxKeyBytes only matter for a new file, an existing one keeps the values it was created with.
+     */
+    public MappedStockStore(Path file, int capacity, int maxKeyBytes) {
+        super(map(file, capacity, maxKeyBytes));
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity, int maxKeyBytes) {
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            boolean existing = Files.exists(file) && Files.size(file) > 0;
+
+            // the mapping stays valid after the channel is closed
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                if (existing) {
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                }
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor(capacity, maxKeyBytes));
+                format(buffer, capacity, maxKeyBytes);
+                return buffer;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map stock file " + file, e);
+        }
+    }
+
+    /**
+     * Write dirty pages to disk. Reservations already survive a process crash without it,
+     * this is for a machine crash or a clean shutdown.
+     */
+    public void flush() {
+        ((MappedByteBuffer) buffer).force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
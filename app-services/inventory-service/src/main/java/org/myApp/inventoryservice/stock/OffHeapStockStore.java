@@ -0,0 +1,21 @@
+package org.myApp.inventoryservice.stock;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stock levels in direct memory (layout in BufferStockStore), for catalogs of millions of SKUs.
+ *
+ * Per product: one record (8-byte aligned, 32 bytes for the default 23-byte productIds)
+ * plus two to four index ints, no String, no boxed counter, no map node.
+ * The Java heap only holds the ByteBuffer object, GC pauses do not grow with the catalog.
+ *
+ * Direct memory counts against -XX:MaxDirectMemorySize (defaults to -Xmx).
+ * Stock is gone on restart, like HeapStockStore.
+ */
+public class OffHeapStockStore extends BufferStockStore {
+
+    public OffHeapStockStore(int capacity, int maxKeyBytes) {
+        // direct buffers start zero-filled, which is an empty index
+        super(format(ByteBuffer.allocateDirect((int) bytesFor(capacity, maxKeyBytes)), capacity, maxKeyBytes));
+    }
+}
@@ -0,0 +1,97 @@
+package org.myApp.inventoryservice.stock;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Bulk loads stock from a CSV file into a StockStore.
+ *
+ * Format, one product per line:
+ *   productId,quantity
+ *
+ * - a first line whose quantity is not a number is a header and is skipped
+ * - blank lines are skipped
+ * - quantities are added (restock), loading the same file twice doubles the stock
+ */
+public final class StockCsvLoader {
+
+    private StockCsvLoader() {
+    }
+
+    /**
+     * @return number of products loaded
+     */
+    public static long load(Path csv, StockStore stock) throws IOException {
+
+        long loaded = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                int comma = line.indexOf(',');
+                if (comma <= 0) {
+                    throw new IllegalArgumentException(csv + ":" + lineNumber + " expected productId,quantity: " + line);
+                }
+
+                int quantity;
+                try {
+                    quantity = parseQuantity(line, comma + 1);
+                } catch (NumberFormatException e) {
+                    if (lineNumber == 1) {
+                        // header
+                        continue;
+                    }
+                    throw new IllegalArgumentException(csv + ":" + lineNumber + " invalid quantity: " + line, e);
+                }
+
+                stock.restock(line.substring(0, comma).trim(), quantity);
+                loaded++;
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Integer.parseInt without the substring, trailing whitespace / \r allowed.
+     */
+    private static int parseQuantity(String line, int from) {
+
+        int end = line.length();
+        while (end > from && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        while (from < end && line.charAt(from) == ' ') {
+            from++;
+        }
+
+        if (from == end) {
+            throw new NumberFormatException("empty quantity");
+        }
+
+        long value = 0;
+        for (int i = from; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("not a quantity: " + line.substring(from, end));
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("quantity too large: " + line.substring(from, end));
+            }
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,36 @@
+package org.myApp.inventoryservice.stock;
+
+/**
+ * Where InventoryManager keeps the available quantity of every product.
+ *
+ * Implementations are selected with "inventory.stock.store":
+ * - heap    → HeapStockStore, ConcurrentHashMap of counters, gone on restart
+ * - mapped  → MappedStockStore, fixed-width records in a memory-mapped file, survives restarts
+ * - offheap → OffHeapStockStore, the same records in direct memory, for catalogs of millions of SKUs
+ *
+ * Implementations must be thread-safe.
+ */
+public interface StockStore {
+
+    /**
+     * Take quantity units if that many are available, in one atomic step.
+     *
+     * @return false if the product is unknown or has less than quantity left
+     */
+    boolean tryReserve(String productId, int quantity);
+
+    /**
+     * Add stock for a product, creating the product if it does not exist yet.
+     */
+    void restock(String productId, int quantity);
+
+    /**
+     * Current available quantity, 0 for unknown products.
+     */
+    int available(String productId);
+
+    /**
+     * Number of known products.
+     */
+    int size();
+}
@@ -0,0 +1,119 @@
+package org.myApp.inventoryservice.benchmark;
+
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryResponse;
+import org.myApp.inventoryservice.service.InventoryManager;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to reserve a basket of N lines, as one all-or-nothing call vs one reservation per line.
+ *
+ * - reserveAll  → reserveAll(): merge + sort the lines, lock their stripes, one hold for the basket
+ * - reserveEach → reserve() per line, one hold per line: what N single-product orders cost,
+ *                 without the N HTTP round trips and with no rollback if a line is short
+ *
+ * Baskets are random distinct products out of 10 000, threads overlap on some of them.
+ * Every reservation is confirmed right away, stock never runs out.
+ *
+ * Run with:
+ * mvn -pl app-services/inventory-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main BasketReservationBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BasketReservationBenchmark {
+
+    private static final int SKUS = 10_000;
+    private static final int BASKETS = 64;
+
+    @Param({"10", "100", "500"})
+    public int lines;
+
+    private InventoryManager inventoryManager;
+    private List<List<InventoryRequest>> baskets;
+
+    // reset every iteration so the stock never runs out and skews the numbers
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        StockStore stock = new HeapStockStore();
+        inventoryManager = new InventoryManager(stock, new HoldManager(stock, 120_000, 100), new IdempotencyCache<>(1));
+
+        List<String> productIds = new ArrayList<>(SKUS);
+        for (int i = 0; i < SKUS; i++) {
+            productIds.add("SKU-" + i);
+            inventoryManager.restock("SKU-" + i, Integer.MAX_VALUE);
+        }
+
+        // same baskets every run
+        Random random = new Random(42);
+        baskets = new ArrayList<>(BASKETS);
+        for (int b = 0; b < BASKETS; b++) {
+            Collections.shuffle(productIds, random);
+            List<InventoryRequest> basket = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                basket.add(request(productIds.get(i)));
+            }
+            baskets.add(basket);
+        }
+    }
+
+    @Benchmark
+    public InventoryResponse reserveAll() {
+
+        InventoryResponse response = inventoryManager.reserveAll(basket());
+        inventoryManager.confirm(response.getHoldId());
+        return response;
+    }
+
+    @Benchmark
+    public int reserveEach() {
+
+        int reserved = 0;
+        for (InventoryRequest request : basket()) {
+            InventoryResponse response = inventoryManager.reserve(request);
+            inventoryManager.confirm(response.getHoldId());
+            reserved++;
+        }
+        return reserved;
+    }
+
+    private List<InventoryRequest> basket() {
+        return baskets.get(ThreadLocalRandom.current().nextInt(BASKETS));
+    }
+
+    private static InventoryRequest request(String productId) {
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        return request;
+    }
+}
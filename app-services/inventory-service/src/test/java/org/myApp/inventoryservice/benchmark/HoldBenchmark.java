@@ -0,0 +1,90 @@
+package org.myApp.inventoryservice.benchmark;
+
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.model.HoldStatus;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a hold (create + confirm) with many holds already open, and of expiring them.
+ *
+ * - holdAndConfirm → hold(), then confirm(): map put / remove, schedule / cancel on the timing wheel
+ * - openHolds      → holds already waiting for their TTL, the cost above must not grow with them
+ *
+ * The wheel runs on a frozen clock during the measurement (100 ms ticks, 60 s TTL), nothing expires.
+ * At teardown every open hold is expired with one advance() and the time is printed:
+ * that is the worst case the ticker thread sees, a whole TTL of holds due at once.
+ *
+ * Run with:
+ * mvn -pl app-services/inventory-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main HoldBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class HoldBenchmark {
+
+    private static final long TTL_MS = 60_000;
+
+    @Param({"0", "1000000"})
+    public int openHolds;
+
+    private long now;
+    private StockStore stock;
+    private HoldManager holds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        now = System.currentTimeMillis();
+        stock = new HeapStockStore();
+        stock.restock("SKU-1", Integer.MAX_VALUE);
+
+        // own clock, so that teardown can jump past the TTL
+        holds = new HoldManager(stock, TTL_MS, 100, () -> now);
+
+        for (int i = 0; i < openHolds; i++) {
+            stock.tryReserve("SKU-1", 1);
+            holds.hold("SKU-1", 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        int open = holds.active();
+
+        now += TTL_MS * 2;
+        long start = System.nanoTime();
+        holds.advance();
+        long expireMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("%n[HOLDS] expired %,d of %,d open holds in %d ms%n",
+                holds.expiredCount(), open, expireMillis);
+    }
+
+    @Benchmark
+    public HoldStatus holdAndConfirm() {
+        return holds.confirm(holds.hold("SKU-1", 1));
+    }
+}
@@ -0,0 +1,92 @@
+package org.myApp.inventoryservice.benchmark;
+
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryResponse;
+import org.myApp.inventoryservice.service.InventoryManager;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations/sec of InventoryManager under contention.
+ *
+ * - hotSku   → every thread reserves the same product (worst case, one CAS target)
+ * - manySkus → every thread picks one of 1024 products at random
+ *
+ * Every reservation is confirmed right away, the lifecycle of a paid order:
+ * the hold is created, scheduled on the timing wheel, then removed and cancelled.
+ *
+ * Run with:
+ * mvn -pl app-services/inventory-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main InventoryReservationBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class InventoryReservationBenchmark {
+
+    private static final int SKUS = 1024;
+
+    private InventoryManager inventoryManager;
+    private InventoryRequest hotRequest;
+    private InventoryRequest[] requests;
+
+    // reset every iteration so the stock never runs out and skews the numbers
+    @Setup(Level.Iteration)
+    public void setUp() {
+
+        StockStore stock = new HeapStockStore();
+        inventoryManager = new InventoryManager(stock, new HoldManager(stock, 120_000, 100), new IdempotencyCache<>(1));
+        inventoryManager.restock("HOT", Integer.MAX_VALUE);
+        hotRequest = request("HOT");
+
+        requests = new InventoryRequest[SKUS];
+        for (int i = 0; i < SKUS; i++) {
+            String productId = "SKU-" + i;
+            inventoryManager.restock(productId, Integer.MAX_VALUE);
+            requests[i] = request(productId);
+        }
+    }
+
+    @Benchmark
+    public InventoryResponse hotSku() {
+        return confirm(inventoryManager.reserve(hotRequest));
+    }
+
+    @Benchmark
+    public InventoryResponse manySkus() {
+        return confirm(inventoryManager.reserve(requests[ThreadLocalRandom.current().nextInt(SKUS)]));
+    }
+
+    private InventoryResponse confirm(InventoryResponse response) {
+        inventoryManager.confirm(response.getHoldId());
+        return response;
+    }
+
+    private static InventoryRequest request(String productId) {
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+package org.myApp.inventoryservice.benchmark;
+
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.MappedStockStore;
+import org.myApp.inventoryservice.stock.StockCsvLoader;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to seed the heap and mapped stock stores from a CSV of N SKUs,
+ * and time to open the mapped file again afterwards (nothing is rebuilt, it is only mapped).
+ *
+ * Not a JMH benchmark: a bulk load happens once, the first run is the one that matters.
+ *
+ * Run with:
+ * mvn -pl app-services/inventory-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test
+ *     -Dexec.args="-Xmx2g -cp %classpath org.myApp.inventoryservice.benchmark.StockCsvLoadBenchmark"
+ *
+ * Optional arg after the class name: SKU count, 5000000 by default.
+ */
+public class StockCsvLoadBenchmark {
+
+    public static void main(String[] args) throws IOException {
+
+        int skus = args.length == 0 ? 5_000_000 : Integer.parseInt(args[0]);
+
+        Path dir = Files.createTempDirectory("stock-load-bench");
+        Path csv = dir.resolve("stock.csv");
+        Path file = dir.resolve("stock.dat");
+
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+                writer.write("productId,quantity\n");
+                for (int i = 0; i < skus; i++) {
+                    writer.write("SKU-" + i + "," + (1 + i % 100) + "\n");
+                }
+            }
+            System.out.printf("csv      %,12d skus  %,8d MB%n", skus, Files.size(csv) >> 20);
+
+            measure("heap", new HeapStockStore(), csv);
+
+            try (MappedStockStore mapped = new MappedStockStore(file, skus, 23)) {
+                measure("mapped", mapped, csv);
+            }
+
+            long start = System.nanoTime();
+            try (MappedStockStore reopened = new MappedStockStore(file, skus, 23)) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.printf("reopen   %,12d skus  %,8d ms  (SKU-42 available=%d)%n",
+                        reopened.size(), millis, reopened.available("SKU-42"));
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void measure(String name, StockStore stock, Path csv) throws IOException {
+
+        long start = System.nanoTime();
+        long loaded = StockCsvLoader.load(csv, stock);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("%-8s %,12d skus  %,8d ms  %,10.0f skus/s%n", name, loaded, millis, loaded * 1000.0 / Math.max(millis, 1));
+    }
+}
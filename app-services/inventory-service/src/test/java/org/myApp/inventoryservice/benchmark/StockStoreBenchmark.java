@@ -0,0 +1,107 @@
+package org.myApp.inventoryservice.benchmark;
+
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.OffHeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap map vs off-heap open-addressing stock store at several catalog sizes.
+ *
+ * - reserve   → tryReserve(1) on a random SKU (lookup + CAS)
+ * - available → read of a random SKU
+ *
+ * Lookup keys are separate String instances from the stored ones, like productIds parsed from a request.
+ * The footprint of each store (used heap after GC, plus direct memory for offheap)
+ * and the time of a full GC with the catalog loaded are printed at setup.
+ *
+ * Run with (add "-prof gc" for allocation per op and GC counts):
+ * mvn -pl app-services/inventory-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main StockStoreBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-XX:MaxDirectMemorySize=1g"})
+@State(Scope.Benchmark)
+public class StockStoreBenchmark {
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int skus;
+
+    private StockStore stock;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        keys = new String[skus];
+        for (int i = 0; i < skus; i++) {
+            keys[i] = "SKU-" + i;
+        }
+
+        long before = usedHeap();
+
+        stock = "heap".equals(store) ? new HeapStockStore() : new OffHeapStockStore(skus, 23);
+        for (int i = 0; i < skus; i++) {
+            // own String per stored product, never runs out during the run
+            stock.restock(new String("SKU-" + i), 1_000_000_000);
+        }
+
+        // a few hundred KB of noise either way, an off-heap store has nothing on the heap
+        long heap = Math.max(usedHeap() - before, 0);
+        long direct = stock instanceof OffHeapStockStore ? directBytes(skus) : 0;
+
+        // full GC with the catalog loaded: marking cost grows with live objects, not bytes
+        long start = System.nanoTime();
+        System.gc();
+        long gcMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("%n[FOOTPRINT] %s skus=%,d heap=%,d MB direct=%,d MB → %.1f bytes/sku, full gc %d ms%n",
+                store, skus, heap >> 20, direct >> 20, (double) (heap + direct) / skus, gcMillis);
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        return stock.tryReserve(keys[ThreadLocalRandom.current().nextInt(skus)], 1);
+    }
+
+    @Benchmark
+    public int available() {
+        return stock.available(keys[ThreadLocalRandom.current().nextInt(skus)]);
+    }
+
+    // same sizes as BufferStockStore: 64 header, 2..4 index ints, 32-byte records for 23-byte keys
+    private static long directBytes(int skus) {
+        long indexSlots = Integer.highestOneBit(skus * 2 - 1) << 1;
+        return 64 + indexSlots * 4 + (long) skus * 32;
+    }
+
+    private static long usedHeap() {
+
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
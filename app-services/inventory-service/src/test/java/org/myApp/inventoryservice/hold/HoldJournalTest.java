@@ -0,0 +1,158 @@
+package org.myApp.inventoryservice.hold;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.myApp.inventoryservice.model.HoldStatus;
+import org.myApp.inventoryservice.stock.MappedStockStore;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds of a mapped stock store across a restart: open ones come back, their stock is not lost.
+ */
+@Tag("unit")
+public class HoldJournalTest {
+
+    private static final long TTL_MS = 1_000;
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong clock = new AtomicLong(5_000_000);
+
+    @Test
+    void testOpenHoldsComeBackAfterARestartAndExpire() {
+
+        UUID open;
+        UUID basket;
+        UUID confirmed;
+
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 16, 23)) {
+            stock.restock("A1", 10);
+            stock.restock("B1", 10);
+
+            HoldManager holds = holdManager(stock, 1_000);
+            open = reserve(stock, holds, "A1", 3);
+            basket = reserve(stock, holds, new String[]{"A1", "B1"}, new int[]{1, 2});
+            confirmed = reserve(stock, holds, "B1", 4);
+            UUID released = reserve(stock, holds, "A1", 5);
+
+            Assertions.assertThat(holds.confirm(confirmed)).isEqualTo(HoldStatus.CONFIRMED);
+            Assertions.assertThat(holds.release(released)).isEqualTo(HoldStatus.RELEASED);
+            holds.shutdown();
+        }
+
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 16, 23)) {
+
+            HoldManager holds = holdManager(stock, 1_000);
+            Assertions.assertThat(holds.recover()).isEqualTo(2);
+            Assertions.assertThat(holds.active()).isEqualTo(2);
+
+            // still taken, and confirm / release work with the ids handed out before the restart
+            Assertions.assertThat(stock.available("A1")).isEqualTo(6);
+            Assertions.assertThat(stock.available("B1")).isEqualTo(4);
+            Assertions.assertThat(holds.release(basket)).isEqualTo(HoldStatus.RELEASED);
+            Assertions.assertThat(holds.confirm(confirmed)).isEqualTo(HoldStatus.UNKNOWN);
+
+            // a fresh TTL from the restart
+            clock.addAndGet(TTL_MS + 100);
+            holds.advance();
+
+            Assertions.assertThat(holds.release(open)).isEqualTo(HoldStatus.UNKNOWN);
+            Assertions.assertThat(holds.expiredCount()).isEqualTo(1);
+            Assertions.assertThat(stock.available("A1")).isEqualTo(10);
+            Assertions.assertThat(stock.available("B1")).isEqualTo(6);
+            holds.shutdown();
+        }
+    }
+
+    @Test
+    void testJournalIsRewrittenWithTheOpenHoldsOnly() {
+
+        Path file = dir.resolve("holds.dat");
+        HoldJournal journal = new HoldJournal(file, 10);
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID id = UUID.randomUUID();
+            journal.opened(id, new String[]{"A1"}, new int[]{1});
+            ids.add(id);
+        }
+
+        // rewritten whenever a CLOSE reaches compactEvery records
+        for (int i = 0; i < 15; i++) {
+            int closed = i;
+            journal.closed(ids.get(i), out -> ids.subList(closed + 1, ids.size())
+                    .forEach(id -> out.open(id, new String[]{"A1"}, new int[]{1})));
+        }
+        journal.close();
+
+        // 35 records written, the last rewrite left 6 OPEN records and one CLOSE came after it
+        Assertions.assertThat(journal.records()).isEqualTo(7);
+
+        Assertions.assertThat(replay(file)).containsExactlyElementsOf(ids.subList(15, 20));
+    }
+
+    @Test
+    void testRecordCutShortByACrashIsDropped() throws Exception {
+
+        Path file = dir.resolve("holds.dat");
+        HoldJournal journal = new HoldJournal(file, 1_000);
+
+        UUID first = UUID.randomUUID();
+        UUID torn = UUID.randomUUID();
+        journal.opened(first, new String[]{"A1"}, new int[]{1});
+        journal.opened(torn, new String[]{"A1", "B1"}, new int[]{1, 2});
+        journal.close();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        // recover() rewrites after the replay: what is appended next is read back too
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 16, 23)) {
+            HoldJournal reopened = new HoldJournal(file, 1_000);
+            HoldManager holds = new HoldManager(stock, TTL_MS, 10, clock::get, reopened);
+            Assertions.assertThat(holds.recover()).isEqualTo(1);
+
+            stock.restock("B1", 1);
+            UUID next = reserve(stock, holds, "B1", 1);
+            holds.shutdown();
+
+            Assertions.assertThat(replay(file)).containsExactly(first, next);
+        }
+    }
+
+    private HoldManager holdManager(MappedStockStore stock, long compactEvery) {
+        return new HoldManager(stock, TTL_MS, 10, clock::get, new HoldJournal(dir.resolve("holds.dat"), compactEvery));
+    }
+
+    private static UUID reserve(MappedStockStore stock, HoldManager holds, String productId, int quantity) {
+        return reserve(stock, holds, new String[]{productId}, new int[]{quantity});
+    }
+
+    private static UUID reserve(MappedStockStore stock, HoldManager holds, String[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            Assertions.assertThat(stock.tryReserve(productIds[i], quantities[i])).isTrue();
+        }
+        return holds.hold(productIds, quantities);
+    }
+
+    private static List<UUID> replay(Path file) {
+
+        List<UUID> open = new ArrayList<>();
+        HoldJournal journal = new HoldJournal(file, 1_000);
+        journal.replay((id, productIds, quantities) -> open.add(id));
+        journal.close();
+        return open;
+    }
+}
@@ -0,0 +1,134 @@
+package org.myApp.inventoryservice.hold;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.inventoryservice.model.HoldStatus;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hold ends exactly once: confirmed, released or expired, and only release / expiry give stock back.
+ */
+@Tag("unit")
+public class HoldManagerTest {
+
+    private static final long TTL_MS = 1_000;
+
+    private final AtomicLong clock = new AtomicLong(5_000_000);
+    private final StockStore stock = new HeapStockStore();
+    private final HoldManager holds = new HoldManager(stock, TTL_MS, 10, clock::get);
+
+    @Test
+    void testReleaseGivesTheStockBackOnce() {
+
+        UUID holdId = reserve("A1", 3);
+
+        Assertions.assertThat(holds.release(holdId)).isEqualTo(HoldStatus.RELEASED);
+        Assertions.assertThat(holds.release(holdId)).isEqualTo(HoldStatus.UNKNOWN);
+
+        Assertions.assertThat(stock.available("A1")).isEqualTo(10);
+        Assertions.assertThat(holds.active()).isZero();
+    }
+
+    @Test
+    void testConfirmedHoldKeepsItsStockAfterTheTtl() {
+
+        UUID holdId = reserve("A1", 3);
+
+        Assertions.assertThat(holds.confirm(holdId)).isEqualTo(HoldStatus.CONFIRMED);
+
+        expireAfter(TTL_MS * 2);
+
+        Assertions.assertThat(stock.available("A1")).isEqualTo(7);
+        Assertions.assertThat(holds.release(holdId)).isEqualTo(HoldStatus.UNKNOWN);
+        Assertions.assertThat(holds.expiredCount()).isZero();
+    }
+
+    @Test
+    void testUnconfirmedHoldExpiresAndGivesTheStockBack() {
+
+        UUID holdId = reserve("A1", 3);
+
+        expireAfter(TTL_MS - 10);
+        Assertions.assertThat(stock.available("A1")).isEqualTo(7);
+
+        expireAfter(20);
+        Assertions.assertThat(stock.available("A1")).isEqualTo(10);
+        Assertions.assertThat(holds.expiredCount()).isEqualTo(1);
+
+        // too late to confirm or release
+        Assertions.assertThat(holds.confirm(holdId)).isEqualTo(HoldStatus.UNKNOWN);
+        Assertions.assertThat(holds.release(holdId)).isEqualTo(HoldStatus.UNKNOWN);
+        Assertions.assertThat(stock.available("A1")).isEqualTo(10);
+    }
+
+    @Test
+    void testUnknownHoldIsUnknown() {
+
+        Assertions.assertThat(holds.release(UUID.randomUUID())).isEqualTo(HoldStatus.UNKNOWN);
+        Assertions.assertThat(holds.confirm(null)).isEqualTo(HoldStatus.UNKNOWN);
+    }
+
+    @Test
+    void testReleaseRacingExpiryRestocksExactlyOnce() throws Exception {
+
+        int count = 10_000;
+        stock.restock("HOT", count);
+
+        UUID[] holdIds = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            Assertions.assertThat(stock.tryReserve("HOT", 1)).isTrue();
+            holdIds[i] = holds.hold("HOT", 1);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // all holds are due: the wheel expires them while releases run
+        clock.addAndGet(TTL_MS * 2);
+
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            pool.submit(() -> {
+                start.await();
+                for (int i = offset; i < count; i += 4) {
+                    holds.release(holdIds[i]);
+                }
+                return null;
+            });
+        }
+        pool.submit(() -> {
+            start.await();
+            holds.advance();
+            return null;
+        });
+
+        start.countDown();
+        pool.shutdown();
+        Assertions.assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        Assertions.assertThat(stock.available("HOT")).isEqualTo(count);
+        Assertions.assertThat(holds.releasedCount() + holds.expiredCount()).isEqualTo(count);
+        Assertions.assertThat(holds.active()).isZero();
+    }
+
+    private UUID reserve(String productId, int quantity) {
+
+        stock.restock(productId, 10 - stock.available(productId));
+        Assertions.assertThat(stock.tryReserve(productId, quantity)).isTrue();
+        return holds.hold(productId, quantity);
+    }
+
+    private void expireAfter(long millis) {
+        clock.addAndGet(millis);
+        holds.advance();
+    }
+}
@@ -0,0 +1,121 @@
+package org.myApp.inventoryservice.hold;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expiry order and timing of the hierarchical wheel, driven by a fake clock.
+ *
+ * Small wheels (4 slots x 3 levels of 10 ms ticks → 63 ticks, 630 ms span)
+ * so that delays cross levels and cascade within a few hundred ticks.
+ */
+@Tag("unit")
+public class TimingWheelTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final List<String> expired = new ArrayList<>();
+    private final List<Long> expiredAt = new ArrayList<>();
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 2, 3, value -> {
+        expired.add(value);
+        expiredAt.add(clock.get());
+    }, clock::get);
+
+    @Test
+    void testTimeoutExpiresOnTheFirstTickAfterItsDelay() {
+
+        wheel.schedule("a", 25);
+
+        advanceBy(20);
+        Assertions.assertThat(expired).isEmpty();
+
+        advanceBy(10);
+        Assertions.assertThat(expired).containsExactly("a");
+        Assertions.assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testTimeoutsOnHigherLevelsCascadeAndExpireOnTime() {
+
+        // 1 tick (level 0), 7 ticks (level 1), 50 ticks (level 2)
+        wheel.schedule("late", 500);
+        wheel.schedule("middle", 70);
+        wheel.schedule("soon", 10);
+
+        long start = clock.get();
+        for (int tick = 0; tick < 60; tick++) {
+            advanceBy(10);
+        }
+
+        Assertions.assertThat(expired).containsExactly("soon", "middle", "late");
+        Assertions.assertThat(expiredAt).containsExactly(start + 10, start + 70, start + 500);
+    }
+
+    @Test
+    void testRandomDelaysNeverExpireEarlyOrLaterThanOneTick() {
+
+        Random random = new Random(42);
+        long start = clock.get();
+
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long delay = 1 + random.nextInt(600);
+            wheel.schedule(String.valueOf(i), delay);
+            deadlines.add(start + delay);
+        }
+
+        for (int tick = 0; tick < 70; tick++) {
+            advanceBy(10);
+        }
+
+        Assertions.assertThat(expired).hasSize(2_000);
+        for (int i = 0; i < expired.size(); i++) {
+            long deadline = deadlines.get(Integer.parseInt(expired.get(i)));
+            Assertions.assertThat(expiredAt.get(i)).isBetween(deadline, deadline + 10);
+        }
+    }
+
+    @Test
+    void testCancelledTimeoutNeverExpires() {
+
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 200);
+        wheel.schedule("kept", 200);
+
+        Assertions.assertThat(wheel.cancel(cancelled)).isTrue();
+        Assertions.assertThat(wheel.cancel(cancelled)).isFalse();
+
+        advanceBy(300);
+
+        Assertions.assertThat(expired).containsExactly("kept");
+    }
+
+    @Test
+    void testLateAdvanceCatchesUpAllMissedTicks() {
+
+        wheel.schedule("a", 30);
+        wheel.schedule("b", 300);
+
+        // one advance for 40 ticks, as after a long GC pause
+        advanceBy(400);
+
+        Assertions.assertThat(expired).containsExactly("a", "b");
+    }
+
+    @Test
+    void testDelayBeyondTheWheelSpanIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> wheel.schedule("too late", 1_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advanceBy(long millis) {
+        clock.addAndGet(millis);
+        wheel.advance();
+    }
+}
@@ -0,0 +1,102 @@
+package org.myApp.inventoryservice.idempotency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag("unit")
+public class IdempotencyCacheTest {
+
+    @Test
+    void testRetryGetsTheOutcomeOfTheFirstRequest() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10);
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        Assertions.assertThat(cache.claim("order-1", first)).isNull();
+
+        // retry while the first one is still running
+        CompletableFuture<String> retry = cache.claim("order-1", new CompletableFuture<>());
+        Assertions.assertThat(retry).isSameAs(first);
+
+        first.complete("RESERVED");
+        Assertions.assertThat(retry.join()).isEqualTo("RESERVED");
+        Assertions.assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testForgottenOutcomeLetsTheNextRequestRunForReal() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10);
+
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        cache.claim("order-1", failed);
+        cache.forget("order-1", failed);
+
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testForgottenKeysDoNotCountAgainstTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2);
+
+        // forgotten and claimed again many times: still one entry
+        for (int i = 0; i < 100; i++) {
+            CompletableFuture<String> failed = CompletableFuture.completedFuture("ERROR");
+            Assertions.assertThat(cache.claim("order-1", failed)).isNull();
+            cache.forget("order-1", failed);
+        }
+
+        CompletableFuture<String> reserved = CompletableFuture.completedFuture("RESERVED");
+        Assertions.assertThat(cache.claim("order-1", reserved)).isNull();
+        cache.claim("order-2", CompletableFuture.completedFuture("RESERVED"));
+
+        // the reclaimed key is a live entry: nothing over the bound, nothing dropped
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isSameAs(reserved);
+
+        // and it is the oldest one once the bound is hit
+        cache.claim("order-3", CompletableFuture.completedFuture("RESERVED"));
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testRunningKeyIsNotDroppedOverTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(1);
+
+        CompletableFuture<String> running = new CompletableFuture<>();
+        cache.claim("order-1", running);
+        cache.claim("order-2", CompletableFuture.completedFuture("RESERVED"));
+
+        // order-1 is older but still running: order-2 goes instead
+        Assertions.assertThat(cache.size()).isEqualTo(1);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isSameAs(running);
+        Assertions.assertThat(cache.claim("order-2", new CompletableFuture<>())).isNull();
+
+        // nothing finished to drop: over the bound until order-1 is done
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+
+        running.complete("RESERVED");
+        cache.claim("order-3", CompletableFuture.completedFuture("RESERVED"));
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testOldestKeysAreDroppedOverTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2);
+
+        cache.claim("order-1", CompletableFuture.completedFuture("RESERVED"));
+        cache.claim("order-2", CompletableFuture.completedFuture("RESERVED"));
+        cache.claim("order-3", CompletableFuture.completedFuture("RESERVED"));
+
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+        Assertions.assertThat(cache.claim("order-3", new CompletableFuture<>())).isNotNull();
+    }
+}
@@ -0,0 +1,155 @@
+package org.myApp.inventoryservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.HoldStatus;
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryResponse;
+import org.myApp.inventoryservice.model.InventoryStatus;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * reserveAll(): a basket is reserved as a whole or not at all.
+ *
+ * - a short line rolls back the lines already taken
+ * - the basket is one hold, released / expired as a whole
+ * - baskets locking the same products in opposite request order do not deadlock or oversell
+ */
+@Tag("unit")
+public class InventoryManagerBasketTest {
+
+    private final StockStore stock = new HeapStockStore();
+
+    // advance() by hand, the wheel is not started
+    private long now = 0;
+    private final HoldManager holds = new HoldManager(stock, 1_000, 100, () -> now);
+
+    private final InventoryManager inventoryManager = new InventoryManager(stock, holds, new IdempotencyCache<>(1));
+
+    @Test
+    void testBasketIsReservedAsOneHold() {
+
+        inventoryManager.restock("X", 5);
+        inventoryManager.restock("Y", 5);
+
+        InventoryResponse response = inventoryManager.reserveAll(List.of(request("X", 2), request("Y", 5)));
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(InventoryStatus.RESERVED);
+        Assertions.assertThat(response.getHoldId()).isNotNull();
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(3);
+        Assertions.assertThat(inventoryManager.available("Y")).isZero();
+
+        Assertions.assertThat(inventoryManager.release(response.getHoldId())).isEqualTo(HoldStatus.RELEASED);
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(5);
+        Assertions.assertThat(inventoryManager.available("Y")).isEqualTo(5);
+    }
+
+    @Test
+    void testShortLineRollsBackTheWholeBasket() {
+
+        inventoryManager.restock("X", 5);
+        inventoryManager.restock("Y", 5);
+        inventoryManager.restock("Z", 1);
+
+        // Z is reserved last (sorted), X and Y are already taken when it fails
+        InventoryResponse response = inventoryManager.reserveAll(
+                List.of(request("X", 1), request("Y", 1), request("Z", 2)));
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        Assertions.assertThat(response.getHoldId()).isNull();
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(5);
+        Assertions.assertThat(inventoryManager.available("Y")).isEqualTo(5);
+        Assertions.assertThat(inventoryManager.available("Z")).isEqualTo(1);
+    }
+
+    @Test
+    void testLinesOfTheSameProductAreAddedUp() {
+
+        inventoryManager.restock("X", 3);
+
+        // 2 + 2 > 3, even though every line alone fits
+        InventoryResponse response = inventoryManager.reserveAll(List.of(request("X", 2), request("X", 2)));
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(3);
+    }
+
+    @Test
+    void testExpiredBasketGivesEveryLineBack() {
+
+        List<InventoryRequest> basket = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            inventoryManager.restock("SKU-" + i, 1);
+            basket.add(request("SKU-" + i, 1));
+        }
+
+        Assertions.assertThat(inventoryManager.reserveAll(basket).getStatus()).isEqualTo(InventoryStatus.RESERVED);
+        Assertions.assertThat(inventoryManager.available("SKU-0")).isZero();
+
+        now += 2_000;
+        holds.advance();
+
+        Assertions.assertThat(holds.expiredCount()).isEqualTo(1);
+        for (int i = 0; i < 500; i++) {
+            Assertions.assertThat(inventoryManager.available("SKU-" + i)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testOverlappingBasketsInOppositeOrderNeverOversell() throws Exception {
+
+        inventoryManager.restock("X", 10_000);
+        inventoryManager.restock("Y", 10_000);
+
+        List<InventoryRequest> xy = List.of(request("X", 1), request("Y", 1));
+        List<InventoryRequest> yx = List.of(request("Y", 1), request("X", 1));
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            List<InventoryRequest> basket = t % 2 == 0 ? xy : yx;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    if (inventoryManager.reserveAll(basket).getStatus() == InventoryStatus.RESERVED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+
+        // a deadlock would hang here
+        Assertions.assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // 16 000 attempts for 10 000 baskets: every unit is taken, none twice
+        Assertions.assertThat(reserved.get()).isEqualTo(10_000);
+        Assertions.assertThat(inventoryManager.available("X")).isZero();
+        Assertions.assertThat(inventoryManager.available("Y")).isZero();
+    }
+
+    private static InventoryRequest request(String productId, int quantity) {
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
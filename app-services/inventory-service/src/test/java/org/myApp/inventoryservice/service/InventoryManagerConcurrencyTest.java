@@ -0,0 +1,110 @@
+package org.myApp.inventoryservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryStatus;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for concurrent reservations.
+ *
+ * Many threads fight over a small amount of stock.
+ * The number of RESERVED answers must match exactly what was in stock:
+ * - never more (oversell)
+ * - never less (lost stock)
+ */
+@Tag("unit")
+public class InventoryManagerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 5_000;
+
+    @Test
+    void testConcurrentReservationsOnHotSkuNeverOversell() throws Exception {
+
+        InventoryManager inventoryManager = newInventoryManager();
+        inventoryManager.restock("HOT", 10_000);
+
+        int reserved = reserveConcurrently(inventoryManager, "HOT", 1);
+
+        Assertions.assertThat(reserved)
+                .as("exactly the stock should be reserved, not more and not less")
+                .isEqualTo(10_000);
+
+        Assertions.assertThat(inventoryManager.available("HOT")).isZero();
+    }
+
+    @Test
+    void testConcurrentMultiUnitReservationsNeverGoNegative() throws Exception {
+
+        InventoryManager inventoryManager = newInventoryManager();
+        inventoryManager.restock("HOT", 9_999);
+
+        // 3 units each, 9999 / 3 = 3333 reservations fit
+        int reserved = reserveConcurrently(inventoryManager, "HOT", 3);
+
+        Assertions.assertThat(reserved).isEqualTo(3_333);
+        Assertions.assertThat(inventoryManager.available("HOT")).isZero();
+    }
+
+    @Test
+    void testUnknownProductIsOutOfStock() {
+
+        InventoryManager inventoryManager = newInventoryManager();
+
+        Assertions.assertThat(inventoryManager.reserve(request("NOPE", 1)).getStatus())
+                .isEqualTo(InventoryStatus.OUT_OF_STOCK);
+    }
+
+    private int reserveConcurrently(InventoryManager inventoryManager, String productId, int quantity) throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                InventoryRequest request = request(productId, quantity);
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    if (inventoryManager.reserve(request).getStatus() == InventoryStatus.RESERVED) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        // release all threads at once to maximise contention
+        start.countDown();
+        pool.shutdown();
+
+        Assertions.assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        return reserved.get();
+    }
+
+    // holds never expire here: the wheel is not started
+    private static InventoryManager newInventoryManager() {
+        StockStore stock = new HeapStockStore();
+        return new InventoryManager(stock, new HoldManager(stock, 60_000, 100), new IdempotencyCache<>(1));
+    }
+
+    private static InventoryRequest request(String productId, int quantity) {
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,125 @@
+package org.myApp.inventoryservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.inventoryservice.hold.HoldManager;
+import org.myApp.inventoryservice.idempotency.IdempotencyCache;
+import org.myApp.inventoryservice.model.InventoryRequest;
+import org.myApp.inventoryservice.model.InventoryResponse;
+import org.myApp.inventoryservice.model.InventoryStatus;
+import org.myApp.inventoryservice.stock.HeapStockStore;
+import org.myApp.inventoryservice.stock.StockStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * reserve(request, key): duplicates of a reservation (retries, hedged attempts) take the stock once.
+ */
+@Tag("unit")
+public class InventoryManagerIdempotencyTest {
+
+    private final StockStore stock = new HeapStockStore();
+
+    private final IdempotencyCache<IdempotentReservation> reservations = new IdempotencyCache<>(100);
+
+    private final InventoryManager inventoryManager =
+            new InventoryManager(stock, new HoldManager(stock, 60_000, 100), reservations);
+
+    @Test
+    void testConcurrentDuplicatesGetOneHold() throws Exception {
+
+        inventoryManager.restock("X", 10);
+
+        int duplicates = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(duplicates);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<InventoryResponse>> responses = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < duplicates; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return inventoryManager.reserve(request("X", 2), "order-1");
+                }));
+            }
+            start.countDown();
+
+            InventoryResponse first = responses.get(0).get(5, TimeUnit.SECONDS);
+            Assertions.assertThat(first.getStatus()).isEqualTo(InventoryStatus.RESERVED);
+
+            for (Future<InventoryResponse> response : responses) {
+                Assertions.assertThat(response.get(5, TimeUnit.SECONDS).getHoldId()).isEqualTo(first.getHoldId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(8);
+        Assertions.assertThat(reservations.hitCount()).isEqualTo(duplicates - 1);
+    }
+
+    @Test
+    void testOutOfStockIsRememberedToo() {
+
+        inventoryManager.restock("X", 1);
+
+        Assertions.assertThat(inventoryManager.reserve(request("X", 2), "order-1").getStatus())
+                .isEqualTo(InventoryStatus.OUT_OF_STOCK);
+
+        // enough stock now, but the duplicate answers what its first attempt got
+        inventoryManager.restock("X", 5);
+        Assertions.assertThat(inventoryManager.reserve(request("X", 2), "order-1").getStatus())
+                .isEqualTo(InventoryStatus.OUT_OF_STOCK);
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(6);
+    }
+
+    @Test
+    void testKeyReusedForAnotherReservationGetsNoHold() {
+
+        inventoryManager.restock("X", 10);
+        inventoryManager.restock("Y", 10);
+
+        InventoryResponse first = inventoryManager.reserve(request("X", 2), "order-1");
+
+        // same key, other quantity or product: not the first one's hold, and no stock taken
+        for (InventoryRequest other : List.of(request("X", 3), request("Y", 2))) {
+            InventoryResponse reused = inventoryManager.reserve(other, "order-1");
+            Assertions.assertThat(reused.getStatus()).isEqualTo(InventoryStatus.KEY_REUSED);
+            Assertions.assertThat(reused.getHoldId()).isNull();
+        }
+
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(8);
+        Assertions.assertThat(inventoryManager.available("Y")).isEqualTo(10);
+        Assertions.assertThat(inventoryManager.reserve(request("X", 2), "order-1").getHoldId())
+                .isEqualTo(first.getHoldId());
+    }
+
+    @Test
+    void testOtherKeysAndNoKeyReserveForReal() {
+
+        inventoryManager.restock("X", 10);
+
+        InventoryResponse first = inventoryManager.reserve(request("X", 1), "order-1");
+        InventoryResponse second = inventoryManager.reserve(request("X", 1), "order-2");
+        inventoryManager.reserve(request("X", 1), null);
+        inventoryManager.reserve(request("X", 1), null);
+
+        Assertions.assertThat(second.getHoldId()).isNotEqualTo(first.getHoldId());
+        Assertions.assertThat(inventoryManager.available("X")).isEqualTo(6);
+    }
+
+    private static InventoryRequest request(String productId, int quantity) {
+
+        InventoryRequest request = new InventoryRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
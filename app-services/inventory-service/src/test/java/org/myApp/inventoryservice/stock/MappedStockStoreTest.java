@@ -0,0 +1,122 @@
+package org.myApp.inventoryservice.stock;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Tag("unit")
+public class MappedStockStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReservationsSurviveReopeningTheFile() {
+
+        Path file = dir.resolve("stock.dat");
+
+        try (MappedStockStore stock = new MappedStockStore(file, 16, 23)) {
+            stock.restock("A1", 10);
+            stock.restock("B1", 1);
+            Assertions.assertThat(stock.tryReserve("A1", 4)).isTrue();
+            Assertions.assertThat(stock.tryReserve("B1", 2)).isFalse();
+            Assertions.assertThat(stock.tryReserve("unknown", 1)).isFalse();
+        }
+
+        // capacity of the existing file wins over the argument
+        try (MappedStockStore stock = new MappedStockStore(file, 1, 23)) {
+            Assertions.assertThat(stock.capacity()).isEqualTo(16);
+            Assertions.assertThat(stock.size()).isEqualTo(2);
+            Assertions.assertThat(stock.available("A1")).isEqualTo(6);
+            Assertions.assertThat(stock.available("B1")).isEqualTo(1);
+            Assertions.assertThat(stock.available("unknown")).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void testLastUnitsAreReservedOnlyOnce() throws Exception {
+
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 16, 23)) {
+
+            stock.restock("HOT", 1000);
+
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger reserved = new AtomicInteger();
+
+            for (int i = 0; i < 2000; i++) {
+                pool.submit(() -> {
+                    start.await();
+                    if (stock.tryReserve("HOT", 1)) {
+                        reserved.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            Assertions.assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            Assertions.assertThat(reserved.get()).isEqualTo(1000);
+            Assertions.assertThat(stock.available("HOT")).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void testNonAsciiAndTooLongProductIds() {
+
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 4, 8)) {
+
+            stock.restock("Käse", 3);
+            Assertions.assertThat(stock.available("Käse")).isEqualTo(3);
+            Assertions.assertThat(stock.available("Kase")).isEqualTo(0);
+
+            Assertions.assertThatThrownBy(() -> stock.restock("PRODUCT-ID-TOO-LONG", 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void testFullFileRejectsNewProducts() {
+
+        try (MappedStockStore stock = new MappedStockStore(dir.resolve("stock.dat"), 2, 23)) {
+
+            stock.restock("A1", 1);
+            stock.restock("B1", 1);
+
+            Assertions.assertThatThrownBy(() -> stock.restock("C1", 1))
+                    .isInstanceOf(IllegalStateException.class);
+
+            // existing products can still be restocked
+            stock.restock("A1", 1);
+            Assertions.assertThat(stock.available("A1")).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testCsvLoaderSkipsHeaderAndBlankLines() throws Exception {
+
+        Path csv = dir.resolve("stock.csv");
+        Files.writeString(csv, "productId,quantity\nA1,5\r\n\nB1, 7\nA1,1\n");
+
+        HeapStockStore stock = new HeapStockStore();
+
+        Assertions.assertThat(StockCsvLoader.load(csv, stock)).isEqualTo(3);
+        Assertions.assertThat(stock.available("A1")).isEqualTo(6);
+        Assertions.assertThat(stock.available("B1")).isEqualTo(7);
+
+        Files.writeString(csv, "A1,5\nB1,many\n");
+        Assertions.assertThatThrownBy(() -> StockCsvLoader.load(csv, new HeapStockStore()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(":2");
+    }
+}
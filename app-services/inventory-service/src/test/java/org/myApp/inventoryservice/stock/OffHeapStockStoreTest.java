@@ -0,0 +1,37 @@
+package org.myApp.inventoryservice.stock;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("unit")
+public class OffHeapStockStoreTest {
+
+    @Test
+    void testManySkusAreFoundAgain() {
+
+        OffHeapStockStore stock = new OffHeapStockStore(100_000, 23);
+
+        for (int i = 0; i < 100_000; i++) {
+            stock.restock("SKU-" + i, i);
+        }
+
+        Assertions.assertThat(stock.size()).isEqualTo(100_000);
+        for (int i = 0; i < 100_000; i += 997) {
+            Assertions.assertThat(stock.available("SKU-" + i)).isEqualTo(i);
+        }
+        Assertions.assertThat(stock.available("SKU-100000")).isEqualTo(0);
+    }
+
+    @Test
+    void testReserveTakesExactlyWhatIsLeft() {
+
+        OffHeapStockStore stock = new OffHeapStockStore(4, 23);
+        stock.restock("A1", 3);
+
+        Assertions.assertThat(stock.tryReserve("A1", 2)).isTrue();
+        Assertions.assertThat(stock.tryReserve("A1", 2)).isFalse();
+        Assertions.assertThat(stock.tryReserve("A1", 1)).isTrue();
+        Assertions.assertThat(stock.available("A1")).isEqualTo(0);
+    }
+}
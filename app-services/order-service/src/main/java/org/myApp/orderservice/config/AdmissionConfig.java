@@ -0,0 +1,61 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.orderservice.model.OrderPriority;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Admission control on POST /orders (blocking pipeline, where orders wait in the executor queue).
+ *
+ * order.admission:
+ * - policy         → reject (429 + Retry-After), shed (LOW, then NORMAL priority get 429 first)
+ *                    or block (wait up to block-ms, then 429)
+ * - queue-capacity → orders accepted but not picked up by a worker yet, hard cap
+ * - target-ms, interval-ms → CoDel: overloaded once queue waits stayed above target-ms for interval-ms
+ * - block-ms       → longest a request waits for a place with policy block
+ */
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionController orderAdmission(
+            @Value("${order.admission.policy:reject}") String policy,
+            @Value("${order.admission.queue-capacity:10000}") int queueCapacity,
+            @Value("${order.admission.target-ms:100}") long targetMillis,
+            @Value("${order.admission.interval-ms:1000}") long intervalMillis,
+            @Value("${order.admission.block-ms:200}") long blockMillis,
+            MeterRegistry meterRegistry) {
+
+        AdmissionController admission = new AdmissionController(
+                AdmissionController.Policy.valueOf(policy.toUpperCase()),
+                queueCapacity, targetMillis, intervalMillis, blockMillis, System::nanoTime);
+
+        Gauge.builder("orders.admission.queued", admission, AdmissionController::queued)
+                .description("Orders accepted and waiting for a worker")
+                .register(meterRegistry);
+
+        Gauge.builder("orders.admission.queue.wait", admission, AdmissionController::lastWaitMillis)
+                .description("Queue wait in ms of the last order picked up by a worker")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        // 1 while new orders are being refused (or shed)
+        Gauge.builder("orders.admission.overloaded", admission, a -> a.overloaded() ? 1 : 0)
+                .description("1 while the order queue is overloaded (CoDel)")
+                .register(meterRegistry);
+
+        for (OrderPriority priority : OrderPriority.values()) {
+            FunctionCounter.builder("orders.admission.rejected", admission, a -> a.rejectedCount(priority))
+                    .description("Orders refused with 429")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+
+        return admission;
+    }
+}
@@ -0,0 +1,73 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive concurrency limits in front of payment-service and inventory-service, one per dependency.
+ *
+ * payment.client.limiter / inventory.client.limiter:
+ * - algorithm     → gradient, aimd or fixed (limit stays at max-limit)
+ * - initial-limit → calls in flight allowed before anything was measured
+ * - min-limit, max-limit → bounds of the limit, whatever the RTT says
+ * - slow-ms       → aimd only: a call slower than this lowers the limit like a timeout
+ * - max-wait-ms   → blocking pipeline: a call over the limit waits this long for a place, then is not made
+ *                   (the non-blocking pipeline never waits), read by the clients
+ *
+ * Meters (dependency = payment / inventory):
+ * - <dependency>.limiter.limit     → current limit
+ * - <dependency>.limiter.in-flight → calls in flight
+ * - <dependency>.calls.rejected{reason=limiter} → calls not made, limit reached
+ */
+@Configuration
+public class DownstreamLimiterConfig {
+
+    @Bean
+    public AdaptiveLimiter paymentLimiter(
+            @Value("${payment.client.limiter.algorithm:gradient}") String algorithm,
+            @Value("${payment.client.limiter.initial-limit:20}") int initialLimit,
+            @Value("${payment.client.limiter.min-limit:4}") int minLimit,
+            @Value("${payment.client.limiter.max-limit:64}") int maxLimit,
+            @Value("${payment.client.limiter.slow-ms:1000}") long slowMillis,
+            MeterRegistry meterRegistry) {
+
+        return register(new AdaptiveLimiter("payment", AdaptiveLimiter.Algorithm.valueOf(algorithm.toUpperCase()),
+                initialLimit, minLimit, maxLimit, slowMillis), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveLimiter inventoryLimiter(
+            @Value("${inventory.client.limiter.algorithm:gradient}") String algorithm,
+            @Value("${inventory.client.limiter.initial-limit:100}") int initialLimit,
+            @Value("${inventory.client.limiter.min-limit:4}") int minLimit,
+            @Value("${inventory.client.limiter.max-limit:200}") int maxLimit,
+            @Value("${inventory.client.limiter.slow-ms:1000}") long slowMillis,
+            MeterRegistry meterRegistry) {
+
+        return register(new AdaptiveLimiter("inventory", AdaptiveLimiter.Algorithm.valueOf(algorithm.toUpperCase()),
+                initialLimit, minLimit, maxLimit, slowMillis), meterRegistry);
+    }
+
+    private static AdaptiveLimiter register(AdaptiveLimiter limiter, MeterRegistry meterRegistry) {
+
+        Gauge.builder(limiter.name() + ".limiter.limit", limiter, AdaptiveLimiter::limit)
+                .description("Calls in flight currently allowed to " + limiter.name() + "-service")
+                .register(meterRegistry);
+
+        Gauge.builder(limiter.name() + ".limiter.in-flight", limiter, AdaptiveLimiter::inFlight)
+                .description("Calls in flight to " + limiter.name() + "-service")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(limiter.name() + ".calls.rejected", limiter, AdaptiveLimiter::rejectedCount)
+                .description(limiter.name().equals("payment") ? "Payment calls not made" : "Inventory calls not made")
+                .tag("reason", "limiter")
+                .register(meterRegistry);
+
+        return limiter;
+    }
+}
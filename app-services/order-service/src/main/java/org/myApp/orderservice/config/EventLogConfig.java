@@ -0,0 +1,56 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The order event log ([ORDER] lines on stdout).
+ *
+ * order.log.mode:
+ * - async → ring buffer of "order.log.buffer-size" events, written by one writer thread
+ * - sync  → written on the order thread (old System.out.println behavior)
+ *
+ * order.log.overflow (async, ring full):
+ * - drop  → the event is lost, counted in order.log.dropped
+ * - block → the order thread waits for the writer
+ */
+@Configuration
+public class EventLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public EventLog orderEventLog(
+            @Value("${order.log.mode:async}") String mode,
+            @Value("${order.log.buffer-size:16384}") int bufferSize,
+            @Value("${order.log.overflow:drop}") String overflow,
+            MeterRegistry meterRegistry) {
+
+        boolean async = switch (mode.toLowerCase()) {
+            case "async" -> true;
+            case "sync" -> false;
+            default -> throw new IllegalArgumentException("unknown order.log.mode: " + mode);
+        };
+
+        EventLog eventLog = new EventLog("order", System.out, async, bufferSize,
+                EventLog.Overflow.valueOf(overflow.toUpperCase()));
+
+        FunctionCounter.builder("order.log.events", eventLog, EventLog::publishedCount)
+                .description("Order events logged")
+                .register(meterRegistry);
+
+        // anything but 0 means the console is too slow for the order rate
+        FunctionCounter.builder("order.log.dropped", eventLog, EventLog::droppedCount)
+                .description("Order events dropped because the log buffer was full")
+                .register(meterRegistry);
+
+        Gauge.builder("order.log.backlog", eventLog, EventLog::backlog)
+                .description("Order events waiting for the log writer")
+                .register(meterRegistry);
+
+        return eventLog;
+    }
+}
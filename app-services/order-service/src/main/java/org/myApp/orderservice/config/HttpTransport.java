@@ -0,0 +1,300 @@
+package org.myApp.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.util.Timeout;
+import org.myApp.orderservice.service.resilience.HedgePolicy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out request factories that share one connection pool
+ * but keep their own timeouts.
+ *
+ * Inventory and payment have very different latency budgets,
+ * so the timeouts are per dependency while the connections are shared.
+ *
+ * For the non-blocking pipeline (and the calls that never wait for an answer: confirm, release, void, hedges)
+ * it also offers postAsync(), backed by the HttpClient5 async client: a few I/O threads, no thread parked
+ * per request. It has a pool of its own (NIO connections cannot be shared with the blocking pool),
+ * with the same per-route / total caps, idle eviction and gauges (see HttpTransportConfig).
+ *
+ * postAsyncHedged() sends a second, identical request when the first one is slow (see HedgePolicy),
+ * for idempotent endpoints only.
+ *
+ * Every request, blocking or not, carries the trace context of the span current on the calling thread
+ * (W3C traceparent header), so inventory-service and payment-service spans join the order's trace.
+ */
+@Component
+public class HttpTransport {
+
+    private final CloseableHttpClient httpClient;
+
+    private final CloseableHttpAsyncClient httpAsyncClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public HttpTransport(CloseableHttpClient httpClient, CloseableHttpAsyncClient httpAsyncClient,
+                         ObjectMapper objectMapper, Tracer tracer, Propagator propagator) {
+        this.httpClient = httpClient;
+        this.httpAsyncClient = httpAsyncClient;
+        this.objectMapper = objectMapper;
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @param connectTimeoutMs time to open a new TCP connection (pooled connections skip this)
+     * @param readTimeoutMs    time to wait for the response
+     */
+    @SuppressWarnings("deprecation") // per-request connect timeout, the pool itself is shared
+    public ClientHttpRequestFactory requestFactory(int connectTimeoutMs, int readTimeoutMs) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                // waiting for a free pooled connection counts against the connect budget
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+        // every request of this factory runs with this dependency's timeouts
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        });
+
+        // the header is added when the request is created, still on the calling thread
+        ClientHttpRequestInterceptor traceContext = (request, body, execution) -> {
+            injectTraceContext(request.getHeaders(), HttpHeaders::set);
+            return execution.execute(request, body);
+        };
+
+        return new InterceptingClientHttpRequestFactory(factory, List.of(traceContext));
+    }
+
+    /**
+     * Non-blocking JSON POST.
+     *
+     * The future completes:
+     * - with the parsed body on 2xx (null if the body is empty)
+     * - exceptionally with an IOException on timeout or connection failure
+     *   (same cases RestTemplate reports as ResourceAccessException)
+     * - exceptionally with RestClientResponseException on any other status
+     *
+     * @param body      request body, null for an empty POST
+     * @param timeoutMs time to wait for a pooled connection, and for the response
+     */
+    public <T> CompletableFuture<T> postAsync(URI uri,
+                                              Object body,
+                                              Map<String, String> headers,
+                                              int timeoutMs,
+                                              Class<T> responseType) {
+
+        Supplier<SimpleHttpRequest> request;
+        try {
+            request = post(uri, body, headers);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return send(uri, request.get(), timeoutMs, responseType);
+    }
+
+    /**
+     * postAsync(), hedged: if the request has not been answered after the hedge delay,
+     * the same request (same headers, so the same idempotency key) goes out a second time.
+     *
+     * - the first 2xx answer wins, the other one is ignored when it comes
+     * - fails only when every attempt that went out failed (the first failure, if no hedge went out)
+     * - the hedge carries the same traceparent: both attempts are children of the calling span
+     *
+     * Only for endpoints where a duplicate request is harmless (idempotent).
+     */
+    public <T> CompletableFuture<T> postAsyncHedged(URI uri,
+                                                    Object body,
+                                                    Map<String, String> headers,
+                                                    int timeoutMs,
+                                                    HedgePolicy hedge,
+                                                    Class<T> responseType) {
+
+        Supplier<SimpleHttpRequest> request;
+        try {
+            request = post(uri, body, headers);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        // attempts out and not answered yet, 0 = all failed (result is failed)
+        AtomicInteger outstanding = new AtomicInteger(1);
+        // set by the first successful answer, the one that completes result
+        AtomicBoolean won = new AtomicBoolean();
+
+        long start = System.nanoTime();
+        send(uri, request.get(), timeoutMs, responseType).whenComplete((value, error) -> {
+            if (error == null) {
+                hedge.record(System.nanoTime() - start);
+            }
+            answered(result, outstanding, won, value, error, false, hedge);
+        });
+
+        ScheduledFuture<?> timer = hedge.schedule(() -> {
+
+            if (result.isDone()) {
+                return;
+            }
+
+            // not once the first attempt failed for good
+            int current;
+            do {
+                current = outstanding.get();
+                if (current == 0) {
+                    return;
+                }
+            } while (!outstanding.compareAndSet(current, current + 1));
+
+            hedge.hedged();
+            send(uri, request.get(), timeoutMs, responseType)
+                    .whenComplete((value, error) -> answered(result, outstanding, won, value, error, true, hedge));
+        });
+
+        result.whenComplete((value, error) -> timer.cancel(false));
+
+        return result;
+    }
+
+    private static <T> void answered(CompletableFuture<T> result, AtomicInteger outstanding, AtomicBoolean won,
+                                     T value, Throwable error, boolean isHedge, HedgePolicy hedge) {
+
+        if (error == null) {
+            if (won.compareAndSet(false, true)) {
+                // counted before the caller wakes up on result
+                if (isHedge) {
+                    hedge.hedgeWon();
+                }
+                result.complete(value);
+            }
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    // headers and body are fixed on the calling thread (trace context), every attempt gets a request of its own
+    private Supplier<SimpleHttpRequest> post(URI uri, Object body, Map<String, String> headers) throws IOException {
+
+        byte[] content = body == null ? new byte[0] : objectMapper.writeValueAsBytes(body);
+
+        Map<String, String> allHeaders = new LinkedHashMap<>(headers);
+        allHeaders.put(HttpHeaders.ACCEPT, "application/json");
+        injectTraceContext(allHeaders, Map::put);
+
+        return () -> {
+            SimpleRequestBuilder request = SimpleRequestBuilder.post(uri);
+            allHeaders.forEach(request::setHeader);
+            return request.setBody(content, ContentType.APPLICATION_JSON).build();
+        };
+    }
+
+    private <T> CompletableFuture<T> send(URI uri, SimpleHttpRequest request, int timeoutMs, Class<T> responseType) {
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .build());
+
+        CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+
+        httpAsyncClient.execute(request, context, new FutureCallback<>() {
+
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                response.complete(result);
+            }
+
+            @Override
+            public void failed(Exception error) {
+                // timeouts, refused connections and no pooled connection in time are all IOExceptions
+                response.completeExceptionally(error);
+            }
+
+            @Override
+            public void cancelled() {
+                // client shut down with the request out: it may or may not have arrived
+                response.completeExceptionally(new IOException("request to " + uri + " cancelled"));
+            }
+        });
+
+        return response.thenApply(answer -> readBody(uri, answer, responseType));
+    }
+
+    // nothing to send outside of a span (startup, timer threads)
+    private <C> void injectTraceContext(C carrier, Propagator.Setter<C> setter) {
+
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context != null) {
+            propagator.inject(context, carrier, setter);
+        }
+    }
+
+    private <T> T readBody(URI uri, SimpleHttpResponse response, Class<T> responseType) {
+
+        byte[] body = response.getBodyBytes() == null ? new byte[0] : response.getBodyBytes();
+
+        if (response.getCode() / 100 != 2) {
+            throw new RestClientResponseException(
+                    "HTTP " + response.getCode() + " from " + uri,
+                    response.getCode(),
+                    "",
+                    null,
+                    body,
+                    StandardCharsets.UTF_8);
+        }
+
+        if (body.length == 0) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException e) {
+            // malformed JSON is a bad answer, not a transport failure
+            throw new IllegalStateException("unreadable response from " + uri, e);
+        }
+    }
+}
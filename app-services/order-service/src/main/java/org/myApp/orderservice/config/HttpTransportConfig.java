@@ -0,0 +1,121 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared HTTP transport for calls from order-service to its dependencies.
+ *
+ * - one pool of persistent (keep-alive) connections for inventory and payment
+ * - "max-per-route" caps connections to one dependency, so a slow payment
+ *   service cannot take every connection away from inventory
+ * - idle connections are closed in the background after "idle-evict-ms"
+ *
+ * Blocking calls (RestTemplate) and async calls (HttpTransport.postAsync) need different connection types,
+ * so there are two pools, built from the same properties:
+ * - blocking → classic client, one thread per request in flight
+ * - async    → NIO client, "async.io-threads" threads shared by every request in flight
+ * Each pool has the caps above on its own, so at most 2 x max-total connections are open.
+ * Both report the same gauges, tagged client=blocking / client=async.
+ *
+ * Timeouts are not set here, every client asks HttpTransport for a request factory
+ * with its own timeouts (see InventoryClient, PaymentClient).
+ */
+@Configuration
+public class HttpTransportConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${http.client.pool.max-total:200}") int maxTotal,
+            @Value("${http.client.pool.max-per-route:100}") int maxPerRoute,
+            MeterRegistry meterRegistry) {
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .build();
+
+        registerPoolGauges(connectionManager, "blocking", meterRegistry);
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager httpConnectionManager,
+            @Value("${http.client.pool.idle-evict-ms:30000}") long idleEvictMs) {
+
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                // background thread closes connections the server may already have dropped
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager httpAsyncConnectionManager(
+            @Value("${http.client.pool.max-total:200}") int maxTotal,
+            @Value("${http.client.pool.max-per-route:100}") int maxPerRoute,
+            MeterRegistry meterRegistry) {
+
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .build();
+
+        registerPoolGauges(connectionManager, "async", meterRegistry);
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient httpAsyncClient(
+            PoolingAsyncClientConnectionManager httpAsyncConnectionManager,
+            @Value("${http.client.pool.idle-evict-ms:30000}") long idleEvictMs,
+            @Value("${http.client.async.io-threads:2}") int ioThreads) {
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(httpAsyncConnectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+
+        client.start();
+        return client;
+    }
+
+    // pool state, summed over all routes
+    private static void registerPoolGauges(ConnPoolControl<?> pool, String client, MeterRegistry meterRegistry) {
+
+        Gauge.builder("http.client.pool.leased", pool, p -> p.getTotalStats().getLeased())
+                .description("Connections currently used by a request")
+                .tag("client", client)
+                .register(meterRegistry);
+
+        Gauge.builder("http.client.pool.idle", pool, p -> p.getTotalStats().getAvailable())
+                .description("Open connections waiting to be reused")
+                .tag("client", client)
+                .register(meterRegistry);
+
+        Gauge.builder("http.client.pool.pending", pool, p -> p.getTotalStats().getPending())
+                .description("Requests waiting for a connection")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+}
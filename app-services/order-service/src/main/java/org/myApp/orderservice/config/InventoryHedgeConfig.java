@@ -0,0 +1,50 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.orderservice.service.resilience.HedgePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hedged inventory reservations (POST /inventory/reserve, idempotent on x-order-id).
+ *
+ * inventory.client.hedge:
+ * - enabled      → false: one attempt per reservation (old behavior), read by InventoryClient
+ * - percentile   → a second attempt goes out once the first one is slower than this share of recent ones
+ * - window       → recent first-attempt latencies the percentile is taken over
+ * - min-delay-ms, max-delay-ms → bounds of the hedge delay, max-delay-ms until window / 10 calls were measured
+ */
+@Configuration
+public class InventoryHedgeConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public HedgePolicy inventoryHedgePolicy(
+            @Value("${inventory.client.hedge.percentile:0.95}") double percentile,
+            @Value("${inventory.client.hedge.window:1000}") int window,
+            @Value("${inventory.client.hedge.min-delay-ms:5}") long minDelayMillis,
+            @Value("${inventory.client.hedge.max-delay-ms:1000}") long maxDelayMillis,
+            MeterRegistry meterRegistry) {
+
+        HedgePolicy hedge = new HedgePolicy("inventory-hedge", percentile, window, minDelayMillis, maxDelayMillis);
+
+        Gauge.builder("inventory.hedge.delay", hedge, HedgePolicy::delayMillis)
+                .description("Time a reservation may take before it is hedged")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.hedges", hedge, HedgePolicy::hedgedCount)
+                .description("Hedged reservations, by which attempt answered first")
+                .tag("result", "sent")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("inventory.hedges", hedge, HedgePolicy::hedgeWinCount)
+                .description("Hedged reservations, by which attempt answered first")
+                .tag("result", "won")
+                .register(meterRegistry);
+
+        return hedge;
+    }
+}
@@ -0,0 +1,54 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.orderservice.service.executor.BoundedPerOrderExecutor;
+import org.myApp.orderservice.service.executor.FixedPoolOrderExecutor;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Chooses the executor that runs order processing.
+ *
+ * order.executor.mode:
+ * - fixed   → fixed pool of "order.executor.threads" platform threads (default, old behavior)
+ * - virtual → one virtual thread per order, at most "order.executor.max-concurrency" in flight.
+ *             Java 21+ only: on an older JVM the service refuses to start,
+ *             rather than running max-concurrency platform threads.
+ */
+@Configuration
+public class OrderExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public OrderProcessingExecutor orderProcessingExecutor(
+            @Value("${order.executor.mode:fixed}") String mode,
+            @Value("${order.executor.threads:4}") int threads,
+            @Value("${order.executor.max-concurrency:256}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+
+        OrderProcessingExecutor executor = switch (mode.toLowerCase()) {
+            case "fixed" -> new FixedPoolOrderExecutor(threads);
+            case "virtual" -> {
+                if(!BoundedPerOrderExecutor.virtualThreadsAvailable()){
+                    throw new IllegalStateException("order.executor.mode=virtual needs virtual threads (Java 21+), this JVM is "
+                            + Runtime.version() + ": use order.executor.mode=fixed");
+                }
+                yield new BoundedPerOrderExecutor(maxConcurrency);
+            }
+            default -> throw new IllegalArgumentException("unknown order.executor.mode: " + mode);
+        };
+
+        // orders waiting for a worker, the first thing to look at when orders sit in PENDING
+        Gauge.builder("orders.executor.queue.depth", executor, OrderProcessingExecutor::queueDepth)
+                .description("Orders submitted but not yet picked up by a worker")
+                .register(meterRegistry);
+
+        Gauge.builder("orders.executor.active", executor, OrderProcessingExecutor::activeCount)
+                .description("Orders currently being processed")
+                .register(meterRegistry);
+
+        return executor;
+    }
+}
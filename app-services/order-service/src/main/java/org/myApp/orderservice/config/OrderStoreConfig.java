@@ -0,0 +1,163 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.repository.CompactOrderStore;
+import org.myApp.orderservice.repository.IndexedOrderStore;
+import org.myApp.orderservice.repository.JournaledOrderStore;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.repository.OrderStore;
+import org.myApp.orderservice.repository.OrderWriteAheadLog;
+import org.myApp.orderservice.repository.RetainingOrderStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses how InMemoryOrderRepository lays out orders in memory
+ * and how long terminal orders are kept.
+ *
+ * order.repository.store:
+ * - map     → ConcurrentHashMap of Order objects (old behavior)
+ * - compact → striped primitive columns, a fraction of the heap per order
+ *
+ * order.repository.index (on by default):
+ * - true  → OrderIndex (sequence number, skip lists per status / product) for GET /orders pages in creation order,
+ *           a page costs its own size, but the index costs about 285 bytes per order on top of the store
+ *           (more than the compact store itself, see OrderStoreFootprintBenchmark)
+ * - false → GET /orders pages in order id order, each page scans the store (a footprint-first setup)
+ *
+ * order.retention:
+ * - ttl-ms               → terminal orders are evicted this long after reaching CONFIRMED / FAILED (0 = never, the default:
+ *                          GET /orders/{id} keeps answering for finished orders)
+ * - max-terminal-orders  → at most this many terminal orders are kept, oldest go first (0 = no bound)
+ * - sweep-interval-ms    → how often the background sweeper runs
+ * - cold-tier.enabled    → evicted orders move to a compact store instead of being dropped
+ * - cold-tier.max-orders → bound of the cold tier, oldest go first
+ *
+ * order.persistence (off by default, orders live and die with the process):
+ * - enabled              → log every change to a write-ahead log and recover from it on startup
+ * - directory            → where segments and snapshots go
+ * - segment-size-mb      → size of one memory-mapped log segment
+ * - flush-interval-ms    → group commit, appends are forced to disk together this often
+ * - sync-commit          → createOrder / status updates wait for a force that covers them (survives a machine crash, costs one fsync)
+ * - snapshot-interval-ms → how often the log is compacted into a snapshot (0 = never)
+ */
+@Configuration
+public class OrderStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "order.repository.index", havingValue = "true", matchIfMissing = true)
+    public OrderIndex orderIndex() {
+        return new OrderIndex();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public OrderStore orderStore(
+            @Value("${order.repository.store:map}") String store,
+            @Value("${order.retention.ttl-ms:0}") long ttlMillis,
+            @Value("${order.retention.max-terminal-orders:1000000}") int maxTerminalOrders,
+            @Value("${order.retention.sweep-interval-ms:1000}") long sweepIntervalMillis,
+            @Value("${order.retention.cold-tier.enabled:false}") boolean coldTierEnabled,
+            @Value("${order.retention.cold-tier.max-orders:10000000}") int coldTierMaxOrders,
+            @Value("${order.persistence.enabled:false}") boolean persistenceEnabled,
+            @Value("${order.persistence.directory:data/order-wal}") String persistenceDirectory,
+            @Value("${order.persistence.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${order.persistence.flush-interval-ms:10}") long flushIntervalMillis,
+            @Value("${order.persistence.sync-commit:false}") boolean syncCommit,
+            @Value("${order.persistence.snapshot-interval-ms:60000}") long snapshotIntervalMillis,
+            @Nullable OrderIndex orderIndex,
+            EventLog orderEventLog,
+            MeterRegistry meterRegistry) {
+
+        OrderStore primary = switch (store.toLowerCase()) {
+            case "map" -> new MapOrderStore();
+            case "compact" -> new CompactOrderStore();
+            default -> throw new IllegalArgumentException("unknown order.repository.store: " + store);
+        };
+
+        // index sits under retention, evicted orders leave the index too
+        OrderStore hot = orderIndex == null ? primary : new IndexedOrderStore(primary, orderIndex);
+
+        // cold orders are all terminal already, so the same wrapper bounds the cold tier by count
+        OrderStore cold = coldTierEnabled
+                ? new RetainingOrderStore(new CompactOrderStore(), null, 0, coldTierMaxOrders, System::currentTimeMillis)
+                : null;
+
+        RetainingOrderStore orders = new RetainingOrderStore(hot, cold, ttlMillis, maxTerminalOrders, System::currentTimeMillis);
+
+        Gauge.builder("orders.live", orders, RetainingOrderStore::liveSize)
+                .description("Orders held in the hot store")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("orders.retention.evicted", orders, RetainingOrderStore::evictedByTtl)
+                .description("Terminal orders evicted from the hot store")
+                .tag("reason", "ttl")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("orders.retention.evicted", orders, RetainingOrderStore::evictedByCount)
+                .description("Terminal orders evicted from the hot store")
+                .tag("reason", "max-count")
+                .register(meterRegistry);
+
+        if(!persistenceEnabled){
+            orders.startSweeping(sweepIntervalMillis);
+            return orders;
+        }
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(Path.of(persistenceDirectory), segmentSizeMb << 20, syncCommit);
+
+        // straight into the retention store, replayed changes must not be logged again
+        OrderWriteAheadLog.Recovery recovery;
+        try {
+            recovery = log.recover(orders);
+        }catch(IOException e){
+            log.close();
+            throw new UncheckedIOException("order recovery from " + persistenceDirectory + " failed", e);
+        }
+
+        long pending = orders.values().stream().filter(order -> order.getStatus() == OrderStatus.PENDING).count();
+
+        orderEventLog.event("WAL")
+                .with("step", "RECOVERED")
+                .with("orders", orders.size())
+                .with("pending", pending)
+                .with("snapshotOrders", recovery.snapshotOrders())
+                .with("logRecords", recovery.logRecords())
+                .with("timeMs", recovery.millis())
+                .publish();
+
+        log.start(flushIntervalMillis, snapshotIntervalMillis, orders::values, orderEventLog);
+
+        // evictions happen below the journal: without a REMOVE record a restart would bring evicted orders back,
+        // sweeping starts after the replay so none of them is missed
+        orders.onDropped(log::appendRemove);
+        orders.startSweeping(sweepIntervalMillis);
+
+        TimeGauge.builder("orders.wal.recovery.time", recovery, TimeUnit.MILLISECONDS, OrderWriteAheadLog.Recovery::millis)
+                .description("Time spent replaying the snapshot and log on startup")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("orders.wal.appends", log, OrderWriteAheadLog::appendCount)
+                .description("Records appended to the order write-ahead log")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("orders.wal.flushes", log, OrderWriteAheadLog::flushCount)
+                .description("Group commits (forces) of the order write-ahead log")
+                .register(meterRegistry);
+
+        return new JournaledOrderStore(orders, log);
+    }
+}
@@ -0,0 +1,109 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.service.resilience.Bulkhead;
+import org.myApp.orderservice.service.resilience.CircuitBreaker;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breaker and bulkhead in front of payment-service.
+ *
+ * payment.client.circuit-breaker:
+ * - window-size             → number of recent calls the rates are computed over
+ * - minimum-calls           → no decision before this many calls
+ * - failure-rate-threshold  → share of FAILED / TIMEOUT calls that opens the circuit
+ * - slow-call-rate-threshold, slow-call-ms → same for calls slower than slow-call-ms
+ * - open-ms                 → how long calls are rejected before probing
+ * - half-open-probes        → probe calls that must all succeed to close again
+ *
+ * payment.client.bulkhead.max-concurrent → payment calls in flight at most
+ *
+ * payment.retry (TIMEOUT and REJECTED payments, order stays PENDING meanwhile):
+ * - max-attempts  → retries per order, 0 → fail right away (old behavior)
+ * - base-delay-ms → backoff ceiling of the first retry, doubles per retry
+ * - max-delay-ms  → backoff ceiling cap
+ */
+@Configuration
+public class PaymentResilienceConfig {
+
+    @Bean
+    public CircuitBreaker paymentCircuitBreaker(
+            @Value("${payment.client.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${payment.client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${payment.client.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${payment.client.circuit-breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${payment.client.circuit-breaker.slow-call-ms:1000}") long slowCallMillis,
+            @Value("${payment.client.circuit-breaker.open-ms:5000}") long openMillis,
+            @Value("${payment.client.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+            EventLog orderEventLog,
+            MeterRegistry meterRegistry) {
+
+        CircuitBreaker breaker = new CircuitBreaker("payment", windowSize, minimumCalls,
+                failureRateThreshold, slowCallRateThreshold, slowCallMillis, openMillis, halfOpenProbes,
+                System::nanoTime, orderEventLog);
+
+        // 0 = closed, 1 = open, 2 = half-open
+        Gauge.builder("payment.circuit.state", breaker, b -> b.state().ordinal())
+                .description("Payment circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            FunctionCounter.builder("payment.circuit.transitions", breaker, b -> b.transitionCount(state))
+                    .description("Payment circuit breaker state changes")
+                    .tag("to", state.name())
+                    .register(meterRegistry);
+        }
+
+        FunctionCounter.builder("payment.calls.rejected", breaker, CircuitBreaker::rejectedCount)
+                .description("Payment calls not made")
+                .tag("reason", "circuit-open")
+                .register(meterRegistry);
+
+        return breaker;
+    }
+
+    @Bean
+    public Bulkhead paymentBulkhead(
+            @Value("${payment.client.bulkhead.max-concurrent:64}") int maxConcurrent,
+            MeterRegistry meterRegistry) {
+
+        Bulkhead bulkhead = new Bulkhead(maxConcurrent);
+
+        Gauge.builder("payment.bulkhead.in-flight", bulkhead, Bulkhead::inFlight)
+                .description("Payment calls in flight")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("payment.calls.rejected", bulkhead, Bulkhead::rejectedCount)
+                .description("Payment calls not made")
+                .tag("reason", "bulkhead-full")
+                .register(meterRegistry);
+
+        return bulkhead;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RetryScheduler paymentRetryScheduler(
+            @Value("${payment.retry.max-attempts:3}") int maxAttempts,
+            @Value("${payment.retry.base-delay-ms:500}") long baseDelayMillis,
+            @Value("${payment.retry.max-delay-ms:5000}") long maxDelayMillis,
+            MeterRegistry meterRegistry) {
+
+        RetryScheduler retries = new RetryScheduler("payment-retry", maxAttempts, baseDelayMillis, maxDelayMillis);
+
+        Gauge.builder("payment.retries.pending", retries, RetryScheduler::pendingCount)
+                .description("Payment retries waiting for their backoff to pass")
+                .register(meterRegistry);
+
+        FunctionCounter.builder("payment.retries.scheduled", retries, RetryScheduler::scheduledCount)
+                .description("Payment retries scheduled")
+                .register(meterRegistry);
+
+        return retries;
+    }
+}
@@ -0,0 +1,25 @@
+package org.myApp.orderservice.config;
+
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.logging.SpanLogReporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing: Micrometer Tracing on OpenTelemetry, set up by Spring Boot (management.tracing.*).
+ *
+ * - incoming traceparent (W3C) → the HTTP server span joins the caller's trace
+ * - OrderService spans         → createOrder, executor.handoff, processOrder, reserve, pay
+ * - outgoing calls             → traceparent of the current span, see HttpTransport
+ *
+ * Finished spans are written as [SPAN] events to the order event log, no backend to run.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanReporter spanLogReporter(EventLog orderEventLog) {
+        return new SpanLogReporter(orderEventLog);
+    }
+}
@@ -1,18 +1,31 @@
 package org.myApp.orderservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.myApp.orderservice.controller.dto.CreateOrderRequest;
 import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderPage;
+import org.myApp.orderservice.model.OrderStatus;
 import org.myApp.orderservice.repository.InMemoryOrderRepository;
 import org.myApp.orderservice.service.OrderService;
+import org.myApp.orderservice.service.OrderStatusNotifier;
+import org.myApp.orderservice.service.resilience.OrderRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/orders")
@@ -21,10 +34,26 @@ public class OrderController {
 
     private final InMemoryOrderRepository orderRepository;
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final OrderStatusNotifier statusNotifier;
 
-    public OrderController(InMemoryOrderRepository orderRepository, OrderService orderService){
+    // one page is built fully in memory, so it is capped
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // longest a long-poll request is held open
+    private static final long MAX_LONG_POLL_MS = 30_000;
+
+    // SSE streams end on the terminal status, this only guards against orders stuck in PENDING
+    private static final long SSE_TIMEOUT_MS = 60_000;
+
+    public OrderController(InMemoryOrderRepository orderRepository, OrderService orderService,
+                           ObjectMapper objectMapper, OrderStatusNotifier statusNotifier){
         this.orderRepository = orderRepository;
         this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.statusNotifier = statusNotifier;
     }
 
 //    @GetMapping
@@ -43,11 +72,124 @@ public class OrderController {
 
     }
 
+    /**
+     * Long-poll variant of GET /orders/{id}.
+     *
+     * Answers as soon as the order is CONFIRMED or FAILED,
+     * or with the current (PENDING) order after waitForTerminal milliseconds (capped at MAX_LONG_POLL_MS).
+     */
+    @GetMapping(value = "/{id}", params = "waitForTerminal")
+    public DeferredResult<ResponseEntity<Order>> waitForOrder(
+            @PathVariable("id") UUID id,
+            @RequestParam("waitForTerminal") long waitForTerminal){
+
+        long waitMs = Math.min(waitForTerminal, MAX_LONG_POLL_MS);
+
+        DeferredResult<ResponseEntity<Order>> result;
+
+        if(waitMs <= 0){
+            result = new DeferredResult<>();
+            result.setResult(getOrder(id));
+            return result;
+        }
+
+        // on timeout: whatever the order looks like by then
+        result = new DeferredResult<>(waitMs, () -> getOrder(id));
+
+        CompletableFuture<Order> terminal = statusNotifier.awaitTerminal(id);
+
+        terminal.thenAccept(order -> result.setResult(
+                order == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(order)));
+
+        // timed out or client went away, stop waiting
+        result.onCompletion(() -> terminal.cancel(false));
+
+        return result;
+    }
+
+    /**
+     * Server-Sent Events stream of an order's status.
+     *
+     * - one "status" event with the current order right away
+     * - one per status change
+     * - stream completes after CONFIRMED or FAILED
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> orderEvents(@PathVariable("id") UUID id){
+
+        if(orderRepository.findById(id).isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        AtomicBoolean done = new AtomicBoolean();
+
+        Runnable unsubscribe = statusNotifier.subscribe(id, status -> sendStatus(emitter, id, done));
+
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe.run());
+
+        // current state after subscribing, so no change can fall in between
+        sendStatus(emitter, id, done);
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void sendStatus(SseEmitter emitter, UUID id, AtomicBoolean done){
+
+        Optional<Order> order = orderRepository.findById(id);
+
+        if(order.isEmpty()){
+            // evicted while streaming
+            if(done.compareAndSet(false, true)){
+                emitter.complete();
+            }
+            return;
+        }
+
+        boolean terminal = OrderStatusNotifier.isTerminal(order.get().getStatus());
+
+        // nothing goes out after the terminal event
+        if(done.get() || (terminal && !done.compareAndSet(false, true))){
+            return;
+        }
+
+        try {
+            emitter.send(SseEmitter.event().name("status").data(order.get(), MediaType.APPLICATION_JSON));
+
+            if(terminal){
+                emitter.complete();
+            }
+        }catch (IOException e){
+            // client disconnected
+            done.set(true);
+            emitter.completeWithError(e);
+        }catch (IllegalStateException e){
+            // lost the race against the terminal event, stream is already complete
+        }
+    }
+
+    /**
+     * x-order-id (optional) is the caller's correlation id: logged on CREATED and tagged on the createOrder span.
+     * A W3C traceparent header, if sent, makes the order part of the caller's trace.
+     *
+     * 429 with Retry-After (seconds) when order-service is overloaded, no order is created then.
+     */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody CreateOrderRequest request){
+    public ResponseEntity<Order> createOrder(@Valid @RequestBody CreateOrderRequest request,
+                                             @RequestHeader(value = "x-order-id", required = false) String correlationId){
 
-        // Request is validated but not used internally. Kept in DTO package.
-        Order order = orderService.createOrder(request);
+        Order order;
+        try {
+            // Request is validated but not used internally. Kept in DTO package.
+            order = orderService.createOrder(request, correlationId);
+        }catch (OrderRejectedException e){
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfterSeconds()))
+                    .build();
+        }
 
         return ResponseEntity
                 .status(HttpStatus.CREATED)
@@ -55,10 +197,70 @@ public class OrderController {
 
     }
 
+    /**
+     * One page of orders: oldest first with order.repository.index (the default), in order id order without.
+     *
+     * - status, productId → optional filters
+     * - cursor            → nextCursor of the previous page
+     * - limit             → page size, capped at MAX_PAGE_SIZE
+     */
     @GetMapping
-    public ResponseEntity<Collection<Order>> getAllOrders(){
+    public ResponseEntity<OrderPage> getAllOrders(
+            @RequestParam(name = "status", required = false) OrderStatus status,
+            @RequestParam(name = "productId", required = false) String productId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "100") int limit){
+
+        try {
+            return ResponseEntity.ok(orderRepository.findPage(status, productId, cursor, pageSize(limit)));
+        }catch (IllegalArgumentException e){
+            // unknown cursor
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Same listing as NDJSON (one order per line), for Accept: application/x-ndjson.
+     *
+     * Streams every matching order after the cursor in one pass over the index (the store without one),
+     * flushing every MAX_PAGE_SIZE lines, so the service never holds more than that of the response in memory.
+     * Without the index the lines come in store order, not order id order.
+     */
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders(
+            @RequestParam(name = "status", required = false) OrderStatus status,
+            @RequestParam(name = "productId", required = false) String productId,
+            @RequestParam(name = "cursor", required = false) String cursor){
+
+        // fail on a bad cursor before the 200 is committed
+        Iterator<Order> orders;
+        try {
+            orders = orderRepository.iterate(status, productId, cursor);
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+
+            int lines = 0;
+
+            while (orders.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(orders.next()));
+                out.write('\n');
+
+                if(++lines % MAX_PAGE_SIZE == 0){
+                    out.flush();
+                }
+            }
+
+            out.flush();
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
 
-        return ResponseEntity.ok(orderRepository.findAll());
+    private static int pageSize(int limit){
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
 }
@@ -1,16 +1,36 @@
 package org.myApp.orderservice.controller.dto;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Positive;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderPriority;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Either one product (original API):
+ *   {"productId": "A1", "quantity": 2}
+ * or a basket, one line per product:
+ *   {"items": [{"productId": "A1", "quantity": 2}, {"productId": "B1", "quantity": 1}]}
+ *
+ * Optional "priority" (LOW / NORMAL / HIGH, default NORMAL): who gets 429 first when overloaded.
+ */
 public class CreateOrderRequest {
 
-    @NotBlank
+    // a basket is reserved in one inventory call, this bounds that call
+    public static final int MAX_LINES = 500;
+
     private String productId;
 
-    @Positive
     private int quantity;
 
+    @Size(max = MAX_LINES)
+    private List<@Valid OrderLineRequest> items;
+
+    private OrderPriority priority = OrderPriority.NORMAL;
+
     public CreateOrderRequest(){}
 
     public String getProductId(){
@@ -28,4 +48,47 @@ public class CreateOrderRequest {
     public void setQuantity(int quantity){
         this.quantity = quantity;
     }
+
+    public List<OrderLineRequest> getItems(){
+        return items;
+    }
+
+    public void setItems(List<OrderLineRequest> items){
+        this.items = items;
+    }
+
+    public OrderPriority getPriority(){
+        return priority;
+    }
+
+    // "priority": null is the default
+    public void setPriority(OrderPriority priority){
+        this.priority = priority == null ? OrderPriority.NORMAL : priority;
+    }
+
+    @AssertTrue(message = "either productId with a positive quantity, or a non-empty items list")
+    public boolean isSingleProductOrItems(){
+
+        if(items == null){
+            return productId != null && !productId.isBlank() && quantity > 0;
+        }
+
+        return !items.isEmpty() && productId == null;
+    }
+
+    /**
+     * The order lines, a single-product request is one line.
+     */
+    public List<OrderLine> lines(){
+
+        if(items == null){
+            return List.of(new OrderLine(productId, quantity));
+        }
+
+        List<OrderLine> lines = new ArrayList<>(items.size());
+        for(OrderLineRequest item : items){
+            lines.add(new OrderLine(item.getProductId(), item.getQuantity()));
+        }
+        return lines;
+    }
 }
@@ -0,0 +1,34 @@
+package org.myApp.orderservice.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * One line of a multi-line order.
+ */
+public class OrderLineRequest {
+
+    @NotBlank
+    private String productId;
+
+    @Positive
+    private int quantity;
+
+    public OrderLineRequest(){}
+
+    public String getProductId(){
+        return productId;
+    }
+
+    public int getQuantity(){
+        return quantity;
+    }
+
+    public void setProductId(String productId){
+        this.productId = productId;
+    }
+
+    public void setQuantity(int quantity){
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,55 @@
+package org.myApp.orderservice.logging;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.myApp.common.logging.EventLog;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Local span exporter: one [SPAN] line per finished span, no tracing backend needed.
+ *
+ *   [SPAN] ts=... traceId=4bf9... spanId=00f0... parentId=b7ad... name=reserve start=... durationUs=1834 orderId=... result=RESERVED
+ *
+ * All spans of a slow order share its traceId, across the three services:
+ * grep the traceId of its [ORDER] lines in every service log and sort by start.
+ *
+ * Called by the span processor's own thread, in batches (ts is when the batch went out, start is the span's),
+ * never by an order or request thread.
+ * Tags go after the fixed fields, as many as fit in one event (EventLog.MAX_FIELDS).
+ */
+public class SpanLogReporter implements SpanReporter {
+
+    private final EventLog eventLog;
+
+    public SpanLogReporter(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Override
+    public void report(FinishedSpan span) {
+
+        // everything that can throw before the slot is claimed
+        long durationUs = Duration.between(span.getStartTimestamp(), span.getEndTimestamp()).toNanos() / 1_000;
+        String error = span.getError() == null ? null : span.getError().toString();
+
+        EventLog.Event event = eventLog.event("SPAN")
+                .with("traceId", span.getTraceId())
+                .with("spanId", span.getSpanId())
+                .with("parentId", span.getParentId())
+                .with("name", span.getName())
+                .with("start", span.getStartTimestamp())
+                .with("durationUs", durationUs);
+
+        if (error != null) {
+            event.with("error", error);
+        }
+
+        for (Map.Entry<String, String> tag : span.getTags().entrySet()) {
+            event.with(tag.getKey(), tag.getValue());
+        }
+
+        event.publish();
+    }
+}
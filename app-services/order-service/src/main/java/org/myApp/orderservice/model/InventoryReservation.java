@@ -0,0 +1,23 @@
+package org.myApp.orderservice.model;
+
+import java.util.UUID;
+
+/**
+ * Outcome of the inventory step.
+ *
+ * A RESERVED result carries the holdId of the stock inventory-service set aside:
+ * it must be confirmed once the order is paid or released if the order fails,
+ * otherwise the stock only comes back when the hold expires.
+ */
+public record InventoryReservation(InventoryResult result, UUID holdId) {
+
+    public static final InventoryReservation REJECTED = new InventoryReservation(InventoryResult.REJECTED, null);
+
+    public static InventoryReservation reserved(UUID holdId) {
+        return new InventoryReservation(InventoryResult.RESERVED, holdId);
+    }
+
+    public boolean isReserved() {
+        return result == InventoryResult.RESERVED;
+    }
+}
@@ -1,21 +1,30 @@
 package org.myApp.orderservice.model;
 
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * An order of one or more lines.
+ *
+ * productId / quantity are those of the first line,
+ * for a single-line order (the original API) that is the whole order.
+ */
 public class Order {
 
     private UUID id;
     private OrderStatus status;
-    private String productId;
-    private int quantity;
+    private List<OrderLine> lines;
 
     public Order() {}
 
     public Order(UUID id, OrderStatus status, String productId, int quantity) {
+        this(id, status, List.of(new OrderLine(productId, quantity)));
+    }
+
+    public Order(UUID id, OrderStatus status, List<OrderLine> lines) {
         this.id = id;
         this.status = status;
-        this.productId = productId;
-        this.quantity = quantity;
+        this.lines = List.copyOf(lines);
     }
 
     public UUID getId() {
@@ -35,10 +44,26 @@ public class Order {
     }
 
     public String getProductId() {
-        return productId;
+        return lines == null || lines.isEmpty() ? null : lines.get(0).productId();
     }
 
     public int getQuantity() {
-        return quantity;
+        return lines == null || lines.isEmpty() ? 0 : lines.get(0).quantity();
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    public boolean containsProduct(String productId) {
+
+        if (lines != null) {
+            for (OrderLine line : lines) {
+                if (productId.equals(line.productId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
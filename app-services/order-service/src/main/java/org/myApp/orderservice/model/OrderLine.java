@@ -0,0 +1,7 @@
+package org.myApp.orderservice.model;
+
+/**
+ * One product of an order and how many of it.
+ */
+public record OrderLine(String productId, int quantity) {
+}
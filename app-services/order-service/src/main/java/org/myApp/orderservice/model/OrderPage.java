@@ -0,0 +1,28 @@
+package org.myApp.orderservice.model;
+
+import java.util.List;
+
+/**
+ * One page of GET /orders.
+ *
+ * nextCursor is passed back as ?cursor= to get the next page,
+ * it is null on the last page.
+ */
+public class OrderPage {
+
+    private final List<Order> orders;
+    private final String nextCursor;
+
+    public OrderPage(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
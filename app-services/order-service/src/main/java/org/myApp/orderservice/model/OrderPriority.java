@@ -0,0 +1,12 @@
+package org.myApp.orderservice.model;
+
+/**
+ * How important an order is when order-service is overloaded (order.admission.policy = shed):
+ * LOW orders get 429 first, HIGH ones last.
+ */
+public enum OrderPriority {
+
+    LOW,
+    NORMAL,
+    HIGH
+}
@@ -4,5 +4,6 @@ public enum PaymentResult {
 
     SUCCESS,
     FAILED,
-    TIMEOUT
+    TIMEOUT,
+    REJECTED    // not called at all: circuit open or too many payments in flight
 }
@@ -0,0 +1,426 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Order store without an object per order.
+ *
+ * Every order is one row in primitive columns:
+ * - id        → two longs (most / least significant bits)
+ * - status    → one byte (OrderStatus ordinal)
+ * - productId → int code from a shared ProductDictionary
+ * - quantity  → int
+ *
+ * Multi-line orders keep their lines in a side map, their row only marks them (MULTI_LINE, line count):
+ * the columns stay fixed width for the common single-product order.
+ *
+ * Rows are found through an open-addressing hash index (int row numbers, linear probing).
+ * Orders are spread over independent stripes, each with its own lock,
+ * so writers on different stripes never wait for each other.
+ *
+ * Order objects are only created when an order is read,
+ * so callers get a snapshot, not a live object.
+ *
+ * store: compact
+ */
+public class CompactOrderStore implements OrderStore {
+
+    // power of two, stripe is chosen from the hash of the id
+    private static final int STRIPES = 64;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    // product code of a row whose lines are in multiLines, -1 is a null productId
+    private static final int MULTI_LINE = -2;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final ProductDictionary products = new ProductDictionary();
+
+    // lines of the orders with more than one, written before their row and removed after it
+    private final Map<UUID, List<OrderLine>> multiLines = new ConcurrentHashMap<>();
+
+    public CompactOrderStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public void insert(Order order) {
+
+        UUID id = order.getId();
+        long hash = hash(id.getMostSignificantBits(), id.getLeastSignificantBits());
+
+        int productCode;
+        int quantity;
+
+        if (order.getLines().size() > 1) {
+            multiLines.put(id, order.getLines());
+            productCode = MULTI_LINE;
+            quantity = order.getLines().size();
+        } else {
+            productCode = order.getProductId() == null ? -1 : products.encode(order.getProductId());
+            quantity = order.getQuantity();
+        }
+
+        stripe(hash).insert(
+                hash,
+                id.getMostSignificantBits(),
+                id.getLeastSignificantBits(),
+                (byte) order.getStatus().ordinal(),
+                productCode,
+                quantity);
+    }
+
+    @Override
+    public Order get(UUID orderId) {
+
+        long hash = hash(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+
+        return stripe(hash).get(hash, orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(), this);
+    }
+
+    @Override
+    public boolean updateStatus(UUID orderId, OrderStatus newStatus) {
+
+        long hash = hash(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+
+        return stripe(hash).updateStatus(
+                hash,
+                orderId.getMostSignificantBits(),
+                orderId.getLeastSignificantBits(),
+                (byte) newStatus.ordinal());
+    }
+
+    @Override
+    public boolean remove(UUID orderId) {
+
+        long hash = hash(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+
+        boolean removed = stripe(hash).remove(hash, orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+
+        multiLines.remove(orderId);
+        return removed;
+    }
+
+    /**
+     * A view, nothing is copied up front: the iterator copies one stripe at a time,
+     * so a full walk holds about 1/STRIPES of the store, and sees each stripe as it was when it got there.
+     */
+    @Override
+    public Collection<Order> values() {
+
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<Order> iterator() {
+
+                return new Iterator<>() {
+
+                    private int next;
+                    private Iterator<Order> current = Collections.emptyIterator();
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!current.hasNext() && next < STRIPES) {
+                            List<Order> rows = new ArrayList<>();
+                            stripes[next++].copyTo(rows, CompactOrderStore.this);
+                            current = rows.iterator();
+                        }
+                        return current.hasNext();
+                    }
+
+                    @Override
+                    public Order next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return current.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactOrderStore.this.size();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripe(long hash) {
+        // high bits pick the stripe, low bits pick the slot inside the stripe
+        return stripes[(int) (hash >>> 58) & (STRIPES - 1)];
+    }
+
+    private Order toOrder(long msb, long lsb, byte status, int productCode, int quantity) {
+
+        UUID id = new UUID(msb, lsb);
+
+        if (productCode == MULTI_LINE) {
+            // empty only for a row read while remove() runs
+            return new Order(id, STATUSES[status], multiLines.getOrDefault(id, List.of()));
+        }
+
+        return new Order(
+                id,
+                STATUSES[status],
+                productCode < 0 ? null : products.decode(productCode),
+                quantity);
+    }
+
+    /**
+     * 64-bit mix of both halves of the UUID (murmur3 finalizer).
+     */
+    private static long hash(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One stripe: columns plus the hash index over them.
+     */
+    private static final class Stripe {
+
+        private static final int INITIAL_ROWS = 256;
+
+        private final StampedLock lock = new StampedLock();
+
+        // columns, row i of every array belongs to the same order
+        private long[] msb = new long[INITIAL_ROWS];
+        private long[] lsb = new long[INITIAL_ROWS];
+        private byte[] status = new byte[INITIAL_ROWS];
+        private int[] product = new int[INITIAL_ROWS];
+        private int[] quantity = new int[INITIAL_ROWS];
+
+        private int size;
+
+        // open addressing: slot holds row + 1, 0 means empty
+        private int[] index = new int[INITIAL_ROWS * 2];
+
+        void insert(long hash, long idMsb, long idLsb, byte orderStatus, int productCode, int orderQuantity) {
+
+            long stamp = lock.writeLock();
+            try {
+                int row = find(hash, idMsb, idLsb);
+
+                if (row < 0) {
+                    growIfFull();
+
+                    row = size++;
+                    msb[row] = idMsb;
+                    lsb[row] = idLsb;
+                    addToIndex(index, hash, row);
+                }
+
+                status[row] = orderStatus;
+                product[row] = productCode;
+                quantity[row] = orderQuantity;
+
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Order get(long hash, long idMsb, long idLsb, CompactOrderStore store) {
+
+            long stamp = lock.readLock();
+            try {
+                int row = find(hash, idMsb, idLsb);
+
+                return row < 0 ? null : store.toOrder(idMsb, idLsb, status[row], product[row], quantity[row]);
+
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        boolean updateStatus(long hash, long idMsb, long idLsb, byte newStatus) {
+
+            long stamp = lock.writeLock();
+            try {
+                int row = find(hash, idMsb, idLsb);
+
+                if (row < 0) {
+                    return false;
+                }
+
+                status[row] = newStatus;
+                return true;
+
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long hash, long idMsb, long idLsb) {
+
+            long stamp = lock.writeLock();
+            try {
+                int slot = findSlot(hash, idMsb, idLsb);
+
+                if (slot < 0) {
+                    return false;
+                }
+
+                int row = index[slot] - 1;
+                removeFromIndex(slot);
+
+                // keep rows dense: the last row moves into the hole
+                int last = --size;
+                if (row != last) {
+                    index[findSlot(hash(msb[last], lsb[last]), msb[last], lsb[last])] = row + 1;
+
+                    msb[row] = msb[last];
+                    lsb[row] = lsb[last];
+                    status[row] = status[last];
+                    product[row] = product[last];
+                    quantity[row] = quantity[last];
+                }
+
+                return true;
+
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void copyTo(List<Order> target, CompactOrderStore store) {
+
+            long stamp = lock.readLock();
+            try {
+                for (int row = 0; row < size; row++) {
+                    target.add(store.toOrder(msb[row], lsb[row], status[row], product[row], quantity[row]));
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int size() {
+
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private int find(long hash, long idMsb, long idLsb) {
+
+            int slot = findSlot(hash, idMsb, idLsb);
+
+            return slot < 0 ? -1 : index[slot] - 1;
+        }
+
+        private int findSlot(long hash, long idMsb, long idLsb) {
+
+            int mask = index.length - 1;
+            int slot = (int) hash & mask;
+
+            while (true) {
+                int entry = index[slot];
+
+                if (entry == 0) {
+                    return -1;
+                }
+
+                int row = entry - 1;
+                if (msb[row] == idMsb && lsb[row] == idLsb) {
+                    return slot;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Backward-shift delete: entries after the hole that probed past it move back,
+         * so lookups never stop early at an empty slot. No tombstones needed.
+         */
+        private void removeFromIndex(int hole) {
+
+            int mask = index.length - 1;
+            int next = (hole + 1) & mask;
+
+            while (index[next] != 0) {
+                int row = index[next] - 1;
+                int home = (int) hash(msb[row], lsb[row]) & mask;
+
+                // entry can move into the hole if its home slot is not between hole (exclusive) and next (inclusive)
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    index[hole] = index[next];
+                    hole = next;
+                }
+
+                next = (next + 1) & mask;
+            }
+
+            index[hole] = 0;
+        }
+
+        private void growIfFull() {
+
+            if (size == msb.length) {
+                int capacity = size + (size >> 1);
+                msb = Arrays.copyOf(msb, capacity);
+                lsb = Arrays.copyOf(lsb, capacity);
+                status = Arrays.copyOf(status, capacity);
+                product = Arrays.copyOf(product, capacity);
+                quantity = Arrays.copyOf(quantity, capacity);
+            }
+
+            // keep the index at most 3/4 full, probing gets slow after that
+            if ((size + 1) * 4L > index.length * 3L) {
+                int[] bigger = new int[index.length * 2];
+                for (int row = 0; row < size; row++) {
+                    addToIndex(bigger, hash(msb[row], lsb[row]), row);
+                }
+                index = bigger;
+            }
+        }
+
+        private static void addToIndex(int[] index, long hash, int row) {
+
+            int mask = index.length - 1;
+            int slot = (int) hash & mask;
+
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            index[slot] = row + 1;
+        }
+    }
+}
@@ -2,14 +2,21 @@ package org.myApp.orderservice.repository;
 
 import org.myApp.orderservice.controller.dto.CreateOrderRequest;
 import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderPage;
 import org.myApp.orderservice.model.OrderStatus;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class stores orders in memory
@@ -22,21 +29,30 @@ import java.util.concurrent.ConcurrentMap;
  * This repo is:
  * - Thread-safe
  * - not very intelligent
+ *
+ * How the orders are laid out in memory is up to the OrderStore
+ * (see OrderStoreConfig).
+ *
+ * Listing goes through the OrderIndex when there is one (order.repository.index, on by default),
+ * so filtered pages do not scan every order. Without it every page is one scan of the store.
+ *
+ * Status changes are pushed to registered OrderStatusListeners (SSE / long-poll).
  */
 @Repository
 public class InMemoryOrderRepository {
 
-    /**
-     * Thread-safe map holding orders.
-     *
-     * Key : Order ID
-     * Value : Order object
-     *
-     * ConcurrentHashMap ensures:
-     * - Safe access across async threads
-     * - No need for external synchronization
-     */
-    private final ConcurrentMap<UUID, Order> orders = new ConcurrentHashMap<>();
+    private final OrderStore orders;
+
+    // null → no index, pages are found by scanning the store
+    private final OrderIndex index;
+
+    // registered once at startup, read on every status update
+    private final List<OrderStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryOrderRepository(OrderStore orders, @Nullable OrderIndex index) {
+        this.orders = orders;
+        this.index = index;
+    }
 
     /**
      * Create a new order with status PENDING.
@@ -53,10 +69,10 @@ public class InMemoryOrderRepository {
         UUID orderId = UUID.randomUUID();
 
         // creating a new order with PENDING state
-        Order order = new Order(orderId, OrderStatus.PENDING, request.getProductId(), request.getQuantity());
+        Order order = new Order(orderId, OrderStatus.PENDING, request.lines());
 
-        // storing order in the map
-        orders.put(orderId, order);
+        // storing order in the store
+        orders.insert(order);
 
         return order;
     }
@@ -68,19 +84,24 @@ public class InMemoryOrderRepository {
      * - Looks up the order by ID
      * - Updates its status if present
      * - Does nothing if order does not exist
+     * - Notifies status listeners if it was updated
      */
     public void updateStatus(UUID orderId, OrderStatus newStatus){
 
-        // retrieving the order from the map
-        Order order = orders.get(orderId);
+        // only updates if order exists
+        if(orders.updateStatus(orderId, newStatus)){
 
-        // only update if order exists
-        if(order != null){
-            // updating order status
-            order.setStatus(newStatus);
+            // tell whoever waits for this order
+            for (OrderStatusListener listener : statusListeners) {
+                listener.onStatusChange(orderId, newStatus);
+            }
         }
     }
 
+    public void addStatusListener(OrderStatusListener listener){
+        statusListeners.add(listener);
+    }
+
     /**
      * Retrieve an order by its ID.
      *
@@ -98,4 +119,139 @@ public class InMemoryOrderRepository {
         return orders.values();
     }
 
+    /**
+     * One page of orders, optionally filtered.
+     *
+     * - status / productId → null means no filter
+     * - cursor             → nextCursor of the previous page, null for the first page
+     * - limit              → max orders in the page
+     *
+     * With the index, pages are in creation order and only indexed (hot) orders are listed,
+     * orders moved to the cold tier are found by id only.
+     * Without it, pages are in order id order and each page scans every stored order.
+     *
+     * Throws IllegalArgumentException for a cursor that was not produced by this method.
+     */
+    public OrderPage findPage(OrderStatus status, String productId, String cursor, int limit){
+        return index == null
+                ? scanPage(status, productId, cursor, limit)
+                : indexedPage(status, productId, cursor, limit);
+    }
+
+    /**
+     * Every matching order after the cursor, in one pass over the index (or the store without one).
+     *
+     * Same filters and cursor as findPage, and the same order with the index.
+     * Without it the orders come in store order: sorting by id would need the whole result first.
+     * Orders are read as the iterator gets to them, nothing is collected up front.
+     *
+     * Throws IllegalArgumentException right away for a cursor that was not produced by findPage.
+     */
+    public Iterator<Order> iterate(OrderStatus status, String productId, String cursor){
+
+        if(index != null){
+            long after = parseCursor(cursor);
+            return index.after(status, productId, after).values().stream()
+                    .map(orders::get)
+                    .filter(order -> matches(order, status, productId))
+                    .iterator();
+        }
+
+        UUID after = parseIdCursor(cursor);
+        return orders.values().stream()
+                .filter(order -> matches(order, status, productId))
+                .filter(order -> after == null || order.getId().compareTo(after) > 0)
+                .iterator();
+    }
+
+    private OrderPage indexedPage(OrderStatus status, String productId, String cursor, int limit){
+
+        long after = parseCursor(cursor);
+
+        List<Order> page = new ArrayList<>(Math.min(limit, 1024));
+        long last = after;
+
+        for (Map.Entry<Long, UUID> entry : index.after(status, productId, after).entrySet()) {
+
+            Order order = orders.get(entry.getValue());
+
+            // index and store are updated separately, so the order itself has the final word
+            if(!matches(order, status, productId)){
+                continue;
+            }
+
+            page.add(order);
+            last = entry.getKey();
+
+            if(page.size() == limit){
+                return new OrderPage(page, String.valueOf(last));
+            }
+        }
+
+        // ran out of orders, this is the last page
+        return new OrderPage(page, null);
+    }
+
+    // the cursor is the last order id of the previous page, ids are the only order that needs no index
+    private OrderPage scanPage(OrderStatus status, String productId, String cursor, int limit){
+
+        UUID after = parseIdCursor(cursor);
+
+        // the limit smallest matching ids after the cursor, largest on top to be replaced first
+        PriorityQueue<Order> smallest = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+                Comparator.comparing(Order::getId).reversed());
+        boolean more = false;
+
+        for (Order order : orders.values()) {
+
+            if(!matches(order, status, productId) || (after != null && order.getId().compareTo(after) <= 0)){
+                continue;
+            }
+
+            smallest.add(order);
+            if(smallest.size() > limit){
+                smallest.poll();
+                more = true;
+            }
+        }
+
+        List<Order> page = new ArrayList<>(smallest);
+        page.sort(Comparator.comparing(Order::getId));
+
+        return new OrderPage(page, more ? page.get(page.size() - 1).getId().toString() : null);
+    }
+
+    private static boolean matches(Order order, OrderStatus status, String productId){
+        return order != null
+                && (status == null || order.getStatus() == status)
+                && (productId == null || order.containsProduct(productId));
+    }
+
+    private static UUID parseIdCursor(String cursor){
+
+        if(cursor == null || cursor.isEmpty()){
+            return null;
+        }
+
+        // IllegalArgumentException for anything that is not a UUID
+        return UUID.fromString(cursor);
+    }
+
+    private static long parseCursor(String cursor){
+
+        if(cursor == null || cursor.isEmpty()){
+            return 0;
+        }
+
+        try {
+            long after = Long.parseLong(cursor);
+            if(after < 0){
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            return after;
+        }catch (NumberFormatException e){
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+    }
+
 }
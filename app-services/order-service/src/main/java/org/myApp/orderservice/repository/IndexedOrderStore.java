@@ -0,0 +1,69 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Keeps an OrderIndex in sync with an OrderStore.
+ *
+ * Sits directly on the hot store, under RetainingOrderStore,
+ * so evicted orders also leave the index.
+ */
+public class IndexedOrderStore implements OrderStore {
+
+    private final OrderStore store;
+    private final OrderIndex index;
+
+    public IndexedOrderStore(OrderStore store, OrderIndex index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    @Override
+    public void insert(Order order) {
+        store.insert(order);
+        index.onInsert(order);
+    }
+
+    @Override
+    public Order get(UUID orderId) {
+        return store.get(orderId);
+    }
+
+    @Override
+    public boolean updateStatus(UUID orderId, OrderStatus newStatus) {
+
+        if (!store.updateStatus(orderId, newStatus)) {
+            return false;
+        }
+
+        index.onStatusChange(orderId, newStatus);
+        return true;
+    }
+
+    @Override
+    public boolean remove(UUID orderId) {
+
+        Order order = store.get(orderId);
+
+        if (order == null || !store.remove(orderId)) {
+            return false;
+        }
+
+        index.onRemove(order);
+        return true;
+    }
+
+    @Override
+    public Collection<Order> values() {
+        return store.values();
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+}
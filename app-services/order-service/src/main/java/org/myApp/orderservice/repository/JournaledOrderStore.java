@@ -0,0 +1,78 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Records every change of an OrderStore in an OrderWriteAheadLog.
+ *
+ * Sits on top of everything else (retention, index),
+ * so the log and its snapshots see the same orders findById does.
+ * Retention evictions happen below it, they reach the log through RetainingOrderStore.onDropped (see OrderStoreConfig).
+ *
+ * The store is changed first and the change is logged after, see OrderWriteAheadLog.
+ */
+public class JournaledOrderStore implements OrderStore {
+
+    private final OrderStore store;
+    private final OrderWriteAheadLog log;
+
+    public JournaledOrderStore(OrderStore store, OrderWriteAheadLog log) {
+        this.store = store;
+        this.log = log;
+    }
+
+    @Override
+    public void insert(Order order) {
+        store.insert(order);
+        log.appendCreate(order);
+    }
+
+    @Override
+    public Order get(UUID orderId) {
+        return store.get(orderId);
+    }
+
+    @Override
+    public boolean updateStatus(UUID orderId, OrderStatus newStatus) {
+
+        if (!store.updateStatus(orderId, newStatus)) {
+            return false;
+        }
+        log.appendStatus(orderId, newStatus);
+        return true;
+    }
+
+    @Override
+    public boolean remove(UUID orderId) {
+
+        if (!store.remove(orderId)) {
+            return false;
+        }
+        log.appendRemove(orderId);
+        return true;
+    }
+
+    @Override
+    public Collection<Order> values() {
+        return store.values();
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    public void shutdown() {
+
+        // the sweeper appends evictions, stop it before the log
+        if (store instanceof RetainingOrderStore retention) {
+            retention.shutdown();
+        }
+
+        log.close();
+    }
+}
@@ -0,0 +1,69 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The original store: ConcurrentHashMap of UUID → Order.
+ *
+ * Simple and fast, but every order costs a map node, a UUID and an Order object.
+ *
+ * store: map
+ */
+public class MapOrderStore implements OrderStore {
+
+    /**
+     * Thread-safe map holding orders.
+     *
+     * Key : Order ID
+     * Value : Order object
+     *
+     * ConcurrentHashMap ensures:
+     * - Safe access across async threads
+     * - No need for external synchronization
+     */
+    private final ConcurrentMap<UUID, Order> orders = new ConcurrentHashMap<>();
+
+    @Override
+    public void insert(Order order) {
+        orders.put(order.getId(), order);
+    }
+
+    @Override
+    public Order get(UUID orderId) {
+        return orders.get(orderId);
+    }
+
+    @Override
+    public boolean updateStatus(UUID orderId, OrderStatus newStatus) {
+
+        Order order = orders.get(orderId);
+
+        if (order == null) {
+            return false;
+        }
+
+        order.setStatus(newStatus);
+        return true;
+    }
+
+    @Override
+    public boolean remove(UUID orderId) {
+        return orders.remove(orderId) != null;
+    }
+
+    @Override
+    public Collection<Order> values() {
+        return orders.values();
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+}
@@ -0,0 +1,139 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary indexes over the stored orders, used for paged / filtered listing.
+ *
+ * Every order gets a sequence number when it is stored (insertion order).
+ * The indexes map sequence → order id:
+ * - all orders
+ * - per status
+ * - per productId (an order with several lines is in the index of each of its products)
+ *
+ * Sequence numbers double as pagination cursors, they never change for an order,
+ * so a page never repeats or skips an order that was already there.
+ *
+ * Index updates are not atomic with the store, readers re-check the order itself
+ * (see InMemoryOrderRepository.findPage).
+ */
+public class OrderIndex {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // order id → sequence number, needed to find the index entries again
+    private final Map<UUID, Long> sequences = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<Long, UUID> all = new ConcurrentSkipListMap<>();
+
+    private final Map<OrderStatus, ConcurrentSkipListMap<Long, UUID>> byStatus = new EnumMap<>(OrderStatus.class);
+
+    private final Map<String, ConcurrentSkipListMap<Long, UUID>> byProduct = new ConcurrentHashMap<>();
+
+    public OrderIndex() {
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    void onInsert(Order order) {
+
+        long seq = sequence.incrementAndGet();
+        UUID orderId = order.getId();
+
+        sequences.put(orderId, seq);
+        all.put(seq, orderId);
+        byStatus.get(order.getStatus()).put(seq, orderId);
+
+        for (OrderLine line : order.getLines()) {
+            if (line.productId() != null) {
+                // a product twice in one order is still one entry,
+                // put inside compute: onRemove may drop the product's index concurrently
+                byProduct.compute(line.productId(), (productId, orders) -> {
+                    ConcurrentSkipListMap<Long, UUID> index = orders == null ? new ConcurrentSkipListMap<>() : orders;
+                    index.put(seq, orderId);
+                    return index;
+                });
+            }
+        }
+    }
+
+    void onStatusChange(UUID orderId, OrderStatus newStatus) {
+
+        Long seq = sequences.get(orderId);
+        if (seq == null) {
+            return;
+        }
+
+        // add first, so the order is never missing from every status index at once
+        byStatus.get(newStatus).put(seq, orderId);
+
+        for (Map.Entry<OrderStatus, ConcurrentSkipListMap<Long, UUID>> entry : byStatus.entrySet()) {
+            if (entry.getKey() != newStatus) {
+                entry.getValue().remove(seq);
+            }
+        }
+    }
+
+    void onRemove(Order order) {
+
+        Long seq = sequences.remove(order.getId());
+        if (seq == null) {
+            return;
+        }
+
+        all.remove(seq);
+        byStatus.values().forEach(index -> index.remove(seq));
+
+        for (OrderLine line : order.getLines()) {
+            if (line.productId() != null) {
+                // a product without orders drops its index, a large catalog would pile up empty ones
+                byProduct.computeIfPresent(line.productId(), (productId, orders) -> {
+                    orders.remove(seq);
+                    return orders.isEmpty() ? null : orders;
+                });
+            }
+        }
+    }
+
+    /**
+     * The narrowest index for the filter, everything after the cursor.
+     *
+     * productId wins over status, a product has far fewer orders than a status.
+     */
+    NavigableMap<Long, UUID> after(OrderStatus status, String productId, long cursor) {
+
+        NavigableMap<Long, UUID> index;
+
+        if (productId != null) {
+            index = byProduct.getOrDefault(productId, new ConcurrentSkipListMap<>());
+        } else if (status != null) {
+            index = byStatus.get(status);
+        } else {
+            index = all;
+        }
+
+        return index.tailMap(cursor, false);
+    }
+
+    public int size() {
+        return sequences.size();
+    }
+
+    /**
+     * Products with at least one indexed order.
+     */
+    public int productCount() {
+        return byProduct.size();
+    }
+}
@@ -0,0 +1,17 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Called by InMemoryOrderRepository after an order status was updated.
+ *
+ * Runs on the thread that updated the status (an order processing thread),
+ * so implementations must be quick and must not block.
+ */
+@FunctionalInterface
+public interface OrderStatusListener {
+
+    void onStatusChange(UUID orderId, OrderStatus newStatus);
+}
@@ -0,0 +1,48 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Where InMemoryOrderRepository actually keeps the orders.
+ *
+ * Implementations are selected with "order.repository.store":
+ * - map     → MapOrderStore, one Order object per order
+ * - compact → CompactOrderStore, primitive columns, no object per order
+ *
+ * Implementations must be thread-safe.
+ */
+public interface OrderStore {
+
+    /**
+     * Store a new order.
+     */
+    void insert(Order order);
+
+    /**
+     * @return the order, or null if it does not exist
+     */
+    Order get(UUID orderId);
+
+    /**
+     * @return false if the order does not exist
+     */
+    boolean updateStatus(UUID orderId, OrderStatus newStatus);
+
+    /**
+     * Drop an order from the store.
+     *
+     * @return false if the order does not exist
+     */
+    boolean remove(UUID orderId);
+
+    /**
+     * Every stored order, as a weakly consistent view: iterating it must not copy the whole store first.
+     */
+    Collection<Order> values();
+
+    int size();
+}
@@ -0,0 +1,607 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of order changes, so orders survive a restart of order-service.
+ *
+ * On disk (order.persistence.directory):
+ * - wal-<seq>.log      → fixed size memory-mapped segments, records back to back
+ * - snapshot-<seq>.bin → every order at the moment segment <seq> was started,
+ *                        once it is written the older segments and snapshots are deleted
+ *
+ * Record: [int length][int crc32 of the rest][byte type][long msb][long lsb] + per type
+ * - CREATE → [byte status][int quantity][short n][n bytes productId, n = -1 for null] (first line)
+ *             then for an order with more lines [int lines - 1] and per further line [int quantity][short n][n bytes]
+ * - STATUS → [byte status]
+ * - REMOVE → nothing
+ * A zero length is the end of a segment, a bad crc is a write torn by a crash:
+ * replay of that segment stops there.
+ *
+ * Durability:
+ * - an append is a copy into the mapped segment, the page cache keeps it if the process dies
+ * - a flusher forces the segment to disk every flush interval,
+ *   one force() for all appends since the last one (group commit)
+ * - syncCommit → appends return only after a force that covers them, so they survive the machine dying too.
+ *   The first waiting appender runs the force, the ones arriving meanwhile share the next one.
+ *
+ * The log does not order writes against the store: callers change the store first and append after,
+ * then a snapshot (taken after its segment was started) can never miss a change that is only in a deleted segment.
+ */
+public class OrderWriteAheadLog implements AutoCloseable {
+
+    private static final byte CREATE = 1;
+    private static final byte STATUS = 2;
+    private static final byte REMOVE = 3;
+
+    // length + crc
+    private static final int HEADER_BYTES = 8;
+    private static final int SNAPSHOT_MAGIC = 0x4F524453;
+    // same, with every line of multi-line orders; both are read, this one is written
+    private static final int SNAPSHOT_MAGIC_LINES = 0x4F52444C;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    public record Recovery(long snapshotOrders, long logRecords, long millis) {}
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean syncCommit;
+
+    // guarded by this
+    private long segmentSeq;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long appendedBytes;
+    private long durableBytes;
+    private boolean flushing;
+    private boolean closed;
+
+    private long appendCount;
+    private long flushCount;
+
+    private final Object snapshotLock = new Object();
+    private volatile ScheduledExecutorService background;
+
+    /**
+     * Opens a fresh segment after any existing ones, recover() still sees everything written before.
+     */
+    public OrderWriteAheadLog(Path directory, int segmentBytes, boolean syncCommit) {
+
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.syncCommit = syncCommit;
+
+        try {
+            Files.createDirectories(directory);
+            long last = Math.max(lastSeq("wal-", ".log"), lastSeq("snapshot-", ".bin"));
+            openSegment(last + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open order write-ahead log in " + directory, e);
+        }
+    }
+
+    // ---- appends
+
+    public void appendCreate(Order order) {
+
+        List<OrderLine> lines = order.getLines();
+
+        byte[][] products = new byte[lines.size()][];
+        int bodyBytes = 1 + (lines.size() > 1 ? 4 : 0);
+        for (int i = 0; i < products.length; i++) {
+            String productId = lines.get(i).productId();
+            products[i] = productId == null ? null : productId.getBytes(StandardCharsets.UTF_8);
+            bodyBytes += 4 + 2 + (products[i] == null ? 0 : products[i].length);
+        }
+
+        ByteBuffer record = record(CREATE, order.getId(), bodyBytes);
+        record.put((byte) order.getStatus().ordinal());
+        putLine(record, lines.get(0).quantity(), products[0]);
+
+        // single-line orders stop here, same record as before multi-line orders existed
+        if (lines.size() > 1) {
+            record.putInt(lines.size() - 1);
+            for (int i = 1; i < products.length; i++) {
+                putLine(record, lines.get(i).quantity(), products[i]);
+            }
+        }
+        append(record);
+    }
+
+    private static void putLine(ByteBuffer record, int quantity, byte[] product) {
+
+        record.putInt(quantity);
+        if (product == null) {
+            record.putShort((short) -1);
+        } else {
+            record.putShort((short) product.length);
+            record.put(product);
+        }
+    }
+
+    public void appendStatus(UUID orderId, OrderStatus status) {
+
+        ByteBuffer record = record(STATUS, orderId, 1);
+        record.put((byte) status.ordinal());
+        append(record);
+    }
+
+    public void appendRemove(UUID orderId) {
+        append(record(REMOVE, orderId, 0));
+    }
+
+    private static ByteBuffer record(byte type, UUID orderId, int bodyBytes) {
+
+        int length = 1 + 16 + bodyBytes;
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+        record.putInt(length);
+        record.putInt(0);
+        record.put(type);
+        record.putLong(orderId.getMostSignificantBits());
+        record.putLong(orderId.getLeastSignificantBits());
+        return record;
+    }
+
+    private void append(ByteBuffer record) {
+
+        // crc is computed outside the lock, the lock only covers the copy
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, record.position() - HEADER_BYTES);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        if (record.remaining() > segmentBytes) {
+            throw new IllegalArgumentException("record of " + record.remaining() + " bytes does not fit a segment");
+        }
+
+        long end;
+
+        synchronized (this) {
+
+            if (closed) {
+                throw new IllegalStateException("order write-ahead log is closed");
+            }
+
+            if (segment.remaining() < record.remaining()) {
+                // the zero-filled tail is the end marker of the full segment
+                roll();
+            }
+
+            appendedBytes += record.remaining();
+            appendCount++;
+            segment.put(record);
+            end = appendedBytes;
+        }
+
+        if (syncCommit) {
+            awaitDurable(end);
+        }
+    }
+
+    private void awaitDurable(long end) {
+
+        boolean interrupted = false;
+
+        while (true) {
+
+            synchronized (this) {
+                if (durableBytes >= end || closed) {
+                    break;
+                }
+                if (flushing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // the record is in the log already, finish the wait and keep the flag
+                        interrupted = true;
+                    }
+                    continue;
+                }
+            }
+
+            // no force running: this appender leads the next group commit,
+            // everyone appending while it runs joins the one after
+            flush();
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- group commit
+
+    /**
+     * Force everything appended so far to disk and wake up the syncCommit appenders it covers.
+     */
+    public void flush() {
+
+        MappedByteBuffer toForce;
+        long target;
+
+        synchronized (this) {
+            if (closed || flushing || durableBytes == appendedBytes) {
+                return;
+            }
+            flushing = true;
+            toForce = segment;
+            target = appendedBytes;
+        }
+
+        try {
+            // appenders keep going while the force runs, the next flush picks them up
+            toForce.force();
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                if (target > durableBytes) {
+                    durableBytes = target;
+                    flushCount++;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    // guarded by this
+    private void roll() {
+
+        // everything in the old segment is durable before anything goes to the new one
+        segment.force();
+        durableBytes = appendedBytes;
+        notifyAll();
+
+        try {
+            channel.close();
+            openSegment(segmentSeq + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot roll order write-ahead log segment", e);
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+
+        channel = FileChannel.open(segmentPath(seq),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentSeq = seq;
+    }
+
+    // ---- snapshots
+
+    /**
+     * Write every order to a snapshot and drop the segments it replaces.
+     *
+     * orders is read after a new segment was started,
+     * changes racing with the snapshot end up in that segment and are replayed on top of it.
+     */
+    public void snapshot(Supplier<Collection<Order>> orders) throws IOException {
+
+        synchronized (snapshotLock) {
+
+            long seq;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                roll();
+                seq = segmentSeq;
+            }
+
+            Collection<Order> all = orders.get();
+
+            Path tmp = directory.resolve(String.format("snapshot-%016d.tmp", seq));
+
+            try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+
+                out.writeInt(SNAPSHOT_MAGIC_LINES);
+                out.writeInt(all.size());
+
+                int written = 0;
+                for (Order order : all) {
+                    // the collection may be a live view, never write more than the header says
+                    if (written == all.size()) {
+                        break;
+                    }
+                    out.writeLong(order.getId().getMostSignificantBits());
+                    out.writeLong(order.getId().getLeastSignificantBits());
+                    out.writeByte(order.getStatus().ordinal());
+                    out.writeInt(order.getLines().size());
+                    for (OrderLine line : order.getLines()) {
+                        out.writeInt(line.quantity());
+                        out.writeBoolean(line.productId() != null);
+                        out.writeUTF(line.productId() == null ? "" : line.productId());
+                    }
+                    written++;
+                }
+
+                // trailer: a snapshot without it is incomplete
+                out.writeInt(written);
+                out.writeInt(SNAPSHOT_MAGIC_LINES);
+                out.flush();
+                file.getChannel().force(true);
+            }
+
+            Files.move(tmp, snapshotPath(seq), StandardCopyOption.ATOMIC_MOVE);
+
+            for (long old : seqs("wal-", ".log")) {
+                if (old < seq) {
+                    Files.deleteIfExists(segmentPath(old));
+                }
+            }
+            for (long old : seqs("snapshot-", ".bin")) {
+                if (old < seq) {
+                    Files.deleteIfExists(snapshotPath(old));
+                }
+            }
+        }
+    }
+
+    // ---- recovery
+
+    /**
+     * Load the latest snapshot and replay the segments after it into target.
+     *
+     * Must run before the first append, target is expected to be empty and is written to directly.
+     */
+    public Recovery recover(OrderStore target) throws IOException {
+
+        long start = System.nanoTime();
+
+        long snapshotSeq = 0;
+        long snapshotOrders = 0;
+
+        List<Long> snapshots = seqs("snapshot-", ".bin");
+        if (!snapshots.isEmpty()) {
+            snapshotSeq = snapshots.get(snapshots.size() - 1);
+            snapshotOrders = loadSnapshot(snapshotPath(snapshotSeq), target);
+        }
+
+        long records = 0;
+        for (long seq : seqs("wal-", ".log")) {
+            if (seq >= snapshotSeq && seq < segmentSeq) {
+                records += replaySegment(segmentPath(seq), target);
+            }
+        }
+
+        return new Recovery(snapshotOrders, records, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static long loadSnapshot(Path path, OrderStore target) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != SNAPSHOT_MAGIC_LINES) {
+                throw new IOException("not an order snapshot: " + path);
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                OrderStatus status = STATUSES[in.readByte()];
+
+                // snapshots written before multi-line orders have exactly one line and no count
+                int lineCount = magic == SNAPSHOT_MAGIC_LINES ? in.readInt() : 1;
+                List<OrderLine> lines = new ArrayList<>(lineCount);
+                for (int l = 0; l < lineCount; l++) {
+                    int quantity = in.readInt();
+                    boolean hasProduct = in.readBoolean();
+                    String productId = in.readUTF();
+                    lines.add(new OrderLine(hasProduct ? productId : null, quantity));
+                }
+                target.insert(new Order(id, status, lines));
+            }
+
+            if (in.readInt() != count || in.readInt() != magic) {
+                throw new IOException("truncated order snapshot: " + path);
+            }
+            return count;
+        }
+    }
+
+    private static long replaySegment(Path path, OrderStore target) throws IOException {
+
+        ByteBuffer segment;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+
+        CRC32 crc = new CRC32();
+        long records = 0;
+
+        while (segment.remaining() >= HEADER_BYTES) {
+
+            int length = segment.getInt();
+            int expectedCrc = segment.getInt();
+
+            if (length <= 0 || length > segment.remaining()) {
+                break;
+            }
+
+            ByteBuffer body = segment.slice(segment.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                // torn by a crash, nothing after it was acknowledged as durable
+                break;
+            }
+            segment.position(segment.position() + length);
+
+            apply(body, target);
+            records++;
+        }
+
+        return records;
+    }
+
+    private static void apply(ByteBuffer body, OrderStore target) {
+
+        byte type = body.get();
+        UUID id = new UUID(body.getLong(), body.getLong());
+
+        switch (type) {
+            case CREATE -> {
+                OrderStatus status = STATUSES[body.get()];
+                List<OrderLine> lines = new ArrayList<>(1);
+                lines.add(getLine(body));
+                if (body.hasRemaining()) {
+                    int more = body.getInt();
+                    for (int i = 0; i < more; i++) {
+                        lines.add(getLine(body));
+                    }
+                }
+                // already there when the snapshot raced with the create, its status records follow
+                if (target.get(id) == null) {
+                    target.insert(new Order(id, status, lines));
+                }
+            }
+            case STATUS -> target.updateStatus(id, STATUSES[body.get()]);
+            case REMOVE -> target.remove(id);
+            default -> throw new IllegalStateException("unknown order log record type " + type);
+        }
+    }
+
+    private static OrderLine getLine(ByteBuffer body) {
+
+        int quantity = body.getInt();
+        short length = body.getShort();
+        String productId = null;
+        if (length >= 0) {
+            byte[] product = new byte[length];
+            body.get(product);
+            productId = new String(product, StandardCharsets.UTF_8);
+        }
+        return new OrderLine(productId, quantity);
+    }
+
+    // ---- lifecycle
+
+    /**
+     * Flush every flushIntervalMillis and snapshot orders every snapshotIntervalMillis (0 = never) on daemon threads.
+     *
+     * A failed snapshot is reported to eventLog as a [WAL] event.
+     */
+    public synchronized void start(long flushIntervalMillis, long snapshotIntervalMillis, Supplier<Collection<Order>> orders,
+                                   EventLog eventLog) {
+
+        if (background != null) {
+            return;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        background = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "order-wal-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        background.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        if (snapshotIntervalMillis > 0) {
+            background.scheduleWithFixedDelay(() -> {
+                try {
+                    snapshot(orders);
+                } catch (IOException | RuntimeException e) {
+                    // the log still has everything, the next snapshot retries
+                    eventLog.event("WAL").with("step", "SNAPSHOT_FAILED").with("error", e.toString()).publish();
+                }
+            }, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+
+        if (background != null) {
+            background.shutdownNow();
+        }
+
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                segment.force();
+                durableBytes = appendedBytes;
+                closed = true;
+                notifyAll();
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // everything was forced already
+                }
+            }
+        }
+    }
+
+    public synchronized long appendCount() {
+        return appendCount;
+    }
+
+    public synchronized long flushCount() {
+        return flushCount;
+    }
+
+    // ---- files
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("wal-%016d.log", seq));
+    }
+
+    private Path snapshotPath(long seq) {
+        return directory.resolve(String.format("snapshot-%016d.bin", seq));
+    }
+
+    private long lastSeq(String prefix, String suffix) throws IOException {
+        List<Long> seqs = seqs(prefix, suffix);
+        return seqs.isEmpty() ? 0 : seqs.get(seqs.size() - 1);
+    }
+
+    private List<Long> seqs(String prefix, String suffix) throws IOException {
+
+        List<Long> seqs = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .forEach(name -> seqs.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()))));
+        }
+
+        seqs.sort(null);
+        return seqs;
+    }
+}
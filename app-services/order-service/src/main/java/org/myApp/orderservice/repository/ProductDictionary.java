@@ -0,0 +1,60 @@
+package org.myApp.orderservice.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for product ids.
+ *
+ * The catalog is small compared to the number of orders,
+ * so every distinct productId is stored once and orders keep an int code.
+ */
+final class ProductDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+    // code → productId, only grows
+    private volatile String[] names = new String[64];
+
+    // guarded by this
+    private int nextCode;
+
+    int encode(String productId) {
+
+        Integer code = codes.get(productId);
+        if (code != null) {
+            return code;
+        }
+
+        synchronized (this) {
+
+            code = codes.get(productId);
+            if (code != null) {
+                return code;
+            }
+
+            int newCode = nextCode++;
+
+            String[] current = names;
+            if (newCode == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[newCode] = productId;
+            names = current;
+
+            // published last, so a reader that sees the code also sees the name
+            codes.put(productId, newCode);
+
+            return newCode;
+        }
+    }
+
+    String decode(int code) {
+        return names[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,358 @@
+package org.myApp.orderservice.repository;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Wraps an OrderStore and drops terminal orders (CONFIRMED / FAILED) after a while,
+ * so a long-running service does not keep every order forever.
+ *
+ * An order becomes eligible when it reaches a terminal status and is evicted when:
+ * - it has been terminal for longer than ttlMillis, or
+ * - more than maxTerminalOrders orders are terminal (oldest terminal first)
+ *
+ * PENDING orders are never evicted, they are still being processed.
+ *
+ * Eviction happens in sweep(), which runs on a background thread (startSweeping),
+ * so insert / updateStatus only pay for one append to the terminal ring.
+ *
+ * Only the first terminal transition of an order is tracked (CONFIRMED → FAILED, or a terminal order
+ * replayed from the write-ahead log, does not queue it again): the ring holds each terminal order once,
+ * as three longs (id bits, terminal time), no object per order.
+ *
+ * Evicted orders can optionally spill into a cold tier (another, usually compact, store).
+ * get() falls back to the cold tier, so findById keeps working for evicted orders.
+ *
+ * Evictions do not go through remove(), so layers above never see them:
+ * onDropped() tells whoever needs to know (the write-ahead log) about orders that left the store for good.
+ */
+public class RetainingOrderStore implements OrderStore {
+
+    private final OrderStore hot;
+
+    // null → evicted orders are gone
+    private final OrderStore cold;
+
+    // <= 0 → no ttl
+    private final long ttlMillis;
+
+    // <= 0 → no count bound
+    private final int maxTerminalOrders;
+
+    private final LongSupplier clock;
+
+    // terminal orders in the order they became terminal, oldest at the head
+    private final TerminalRing terminal = new TerminalRing();
+
+    private final AtomicLong evictedByTtl = new AtomicLong();
+    private final AtomicLong evictedByCount = new AtomicLong();
+
+    // orders evicted without a cold tier to go to, or out of the cold tier
+    private volatile Consumer<UUID> dropped = orderId -> { };
+
+    private ScheduledExecutorService sweeper;
+
+    public RetainingOrderStore(OrderStore hot, OrderStore cold, long ttlMillis, int maxTerminalOrders, LongSupplier clock) {
+        this.hot = hot;
+        this.cold = cold;
+        this.ttlMillis = ttlMillis;
+        this.maxTerminalOrders = maxTerminalOrders;
+        this.clock = clock;
+    }
+
+    @Override
+    public void insert(Order order) {
+
+        // a terminal order inserted again (log replay) is already tracked
+        boolean wasTerminal = isTerminal(order.getStatus()) && isTerminal(hot.get(order.getId()));
+
+        hot.insert(order);
+
+        if (isTerminal(order.getStatus()) && !wasTerminal) {
+            track(order.getId());
+        }
+    }
+
+    @Override
+    public Order get(UUID orderId) {
+
+        Order order = hot.get(orderId);
+
+        if (order == null && cold != null) {
+            order = cold.get(orderId);
+        }
+
+        return order;
+    }
+
+    @Override
+    public boolean updateStatus(UUID orderId, OrderStatus newStatus) {
+
+        // only the first terminal transition starts the retention clock
+        boolean wasTerminal = isTerminal(newStatus) && isTerminal(hot.get(orderId));
+
+        if (hot.updateStatus(orderId, newStatus)) {
+            if (isTerminal(newStatus) && !wasTerminal) {
+                track(orderId);
+            }
+            return true;
+        }
+
+        // late update for an order that was already moved out
+        return cold != null && cold.updateStatus(orderId, newStatus);
+    }
+
+    @Override
+    public boolean remove(UUID orderId) {
+
+        boolean removed = hot.remove(orderId);
+
+        if (cold != null) {
+            removed |= cold.remove(orderId);
+        }
+
+        return removed;
+    }
+
+    @Override
+    public Collection<Order> values() {
+
+        if (cold == null) {
+            return hot.values();
+        }
+
+        // hot then cold, a view like the stores under it
+        return new AbstractCollection<>() {
+
+            @Override
+            public Iterator<Order> iterator() {
+                return Stream.concat(hot.values().stream(), cold.values().stream()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return RetainingOrderStore.this.size();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return hot.size() + (cold == null ? 0 : cold.size());
+    }
+
+    /**
+     * Orders still in the hot store (the live set).
+     */
+    public int liveSize() {
+        return hot.size();
+    }
+
+    public long evictedByTtl() {
+        return evictedByTtl.get();
+    }
+
+    public long evictedByCount() {
+        return evictedByCount.get();
+    }
+
+    /**
+     * Call listener with every order an eviction drops for good, on the sweeping thread.
+     * Moving an order to the cold tier is not a drop, evicting it from there is.
+     */
+    public void onDropped(Consumer<UUID> listener) {
+
+        this.dropped = listener;
+
+        if (cold instanceof RetainingOrderStore coldRetention) {
+            coldRetention.onDropped(listener);
+        }
+    }
+
+    /**
+     * Run sweep() every intervalMillis on a daemon thread.
+     */
+    public synchronized void startSweeping(long intervalMillis) {
+
+        if (sweeper != null) {
+            return;
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-retention-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+                if (cold instanceof RetainingOrderStore coldRetention) {
+                    coldRetention.sweep();
+                }
+            } catch (RuntimeException e) {
+                // a failed sweep must not cancel the schedule, the next one retries
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Evict everything that is past its ttl or over the count bound.
+     *
+     * Only one thread is expected to sweep at a time.
+     */
+    public void sweep() {
+
+        long now = clock.getAsLong();
+
+        while (true) {
+
+            boolean overCount = maxTerminalOrders > 0 && terminal.size() > maxTerminalOrders;
+            if (!overCount && ttlMillis <= 0) {
+                return;
+            }
+
+            UUID oldest = terminal.pollOlderThan(overCount ? Long.MAX_VALUE : now - ttlMillis);
+
+            if (oldest == null) {
+                // ring is ordered by terminal time, nothing behind the head can be older
+                return;
+            }
+
+            if (evict(oldest)) {
+                (overCount ? evictedByCount : evictedByTtl).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Terminal orders waiting for eviction.
+     */
+    public int terminalSize() {
+        return terminal.size();
+    }
+
+    private boolean evict(UUID orderId) {
+
+        Order order = hot.get(orderId);
+
+        // already gone, or a terminal order was moved back to PENDING (not expected, but keep it then)
+        if (order == null || !isTerminal(order.getStatus())) {
+            return false;
+        }
+
+        if (cold != null) {
+            cold.insert(order);
+            return hot.remove(orderId);
+        }
+
+        if (!hot.remove(orderId)) {
+            return false;
+        }
+
+        dropped.accept(orderId);
+        return true;
+    }
+
+    private void track(UUID orderId) {
+        terminal.offer(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(), clock.getAsLong());
+    }
+
+    private static boolean isTerminal(Order order) {
+        return order != null && isTerminal(order.getStatus());
+    }
+
+    private static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.FAILED;
+    }
+
+    /**
+     * FIFO of (id msb, id lsb, terminal time) in three parallel long arrays used as a circular buffer,
+     * doubled when full.
+     *
+     * Appends come from every order worker, polls from the sweeper only: one monitor is enough,
+     * both hold it for a few array writes.
+     */
+    private static final class TerminalRing {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private long[] msb = new long[INITIAL_CAPACITY];
+        private long[] lsb = new long[INITIAL_CAPACITY];
+        private long[] terminalAt = new long[INITIAL_CAPACITY];
+
+        private int head;
+        private int size;
+
+        synchronized void offer(long idMsb, long idLsb, long at) {
+
+            if (size == msb.length) {
+                grow();
+            }
+
+            int tail = (head + size) & (msb.length - 1);
+            msb[tail] = idMsb;
+            lsb[tail] = idLsb;
+            terminalAt[tail] = at;
+            size++;
+        }
+
+        /**
+         * Remove and return the oldest order if it became terminal at or before cutoff, else null.
+         */
+        synchronized UUID pollOlderThan(long cutoff) {
+
+            if (size == 0 || terminalAt[head] > cutoff) {
+                return null;
+            }
+
+            UUID orderId = new UUID(msb[head], lsb[head]);
+            head = (head + 1) & (msb.length - 1);
+            size--;
+            return orderId;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void grow() {
+
+            int capacity = msb.length;
+            long[] newMsb = new long[capacity * 2];
+            long[] newLsb = new long[capacity * 2];
+            long[] newTerminalAt = new long[capacity * 2];
+
+            // unroll the wrapped part so the oldest entry lands at 0
+            for (int i = 0; i < size; i++) {
+                int from = (head + i) & (capacity - 1);
+                newMsb[i] = msb[from];
+                newLsb[i] = lsb[from];
+                newTerminalAt[i] = terminalAt[from];
+            }
+
+            msb = newMsb;
+            lsb = newLsb;
+            terminalAt = newTerminalAt;
+            head = 0;
+        }
+    }
+}
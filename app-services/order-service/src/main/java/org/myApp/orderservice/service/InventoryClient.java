@@ -1,26 +1,53 @@
 package org.myApp.orderservice.service;
 
-import org.myApp.orderservice.model.InventoryResult;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.config.HttpTransport;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.service.dto.InventoryBatchResponseDto;
 import org.myApp.orderservice.service.dto.InventoryResponseDto;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.myApp.orderservice.service.resilience.HedgePolicy;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Inventory is HTTP client (very thin)
  *
  * What it does:
  * - call Inventory service
- * - Translate HTTP Response into InventoryResult
+ * - Translate HTTP Response into InventoryReservation (result + holdId)
+ * - confirm / release the hold once the order is decided
+ * - REJECTED without calling when inventory's RTT says it cannot take more calls right now
+ *   (adaptive limiter, see DownstreamLimiterConfig), same as a failed call
  *
+ * A multi-line order is always one POST /inventory/reserve/all (all lines or none, one hold),
+ * whatever the mode.
+ *
+ * Modes (inventory.client.mode):
+ * - single → one POST /inventory/reserve per order
+ * - batch  → concurrent orders are collected for a few milliseconds
+ *            and sent as one POST /inventory/reserve/batch
+ *
+ * A single reservation carries the order id (x-order-id), inventory-service reserves once per order id.
+ * With inventory.client.hedge.enabled a slow one is sent a second time and the first answer wins
+ * (see HedgePolicy, InventoryHedgeConfig).
  */
 @Component
 public class InventoryClient {
@@ -34,17 +61,69 @@ public class InventoryClient {
 
     private final String INVENTORY_URL;
 
-    public InventoryClient(@Value("${inventory.base-url}") String INVENTORY_URL){
+    // batch endpoint lives next to the single one
+    private final String INVENTORY_BATCH_URL;
 
-        // request factory allows to define the time bounds.
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+    // all-or-nothing basket endpoint, for multi-line orders
+    private final String INVENTORY_ALL_URL;
+
+    // hold endpoints live next to /reserve
+    private final URI RELEASE_URI;
+    private final URI CONFIRM_URI;
+
+    // used by the non-blocking pipeline
+    private final HttpTransport httpTransport;
+    private final int readTimeoutMs;
+
+    // null in single mode
+    private final MicroBatcher<Map<String, Object>, InventoryReservation> batcher;
+
+    // idempotency key of a single reservation, a hedged duplicate gets the same hold
+    static final String ORDER_ID_HEADER = "x-order-id";
+
+    // single mode only, null = no hedging
+    private final HedgePolicy hedge;
 
-        // fail fast if inventory is slow or unreachable
-        factory.setConnectTimeout(20000);
-        factory.setReadTimeout(20000);
+    // reservations only (one batch = one call), confirm / release are compensations and always go out
+    private final AdaptiveLimiter limiter;
+    // blocking calls wait this long for the limiter, async ones never wait
+    private final long limiterWaitMs;
 
-        this.restTemplate = new RestTemplate(factory);
+    // lost confirm / release calls
+    private final EventLog eventLog;
+
+    public InventoryClient(@Value("${inventory.base-url}") String INVENTORY_URL,
+                           @Value("${inventory.client.mode:single}") String mode,
+                           @Value("${inventory.client.batch.max-size:32}") int batchMaxSize,
+                           @Value("${inventory.client.batch.max-wait-ms:5}") long batchMaxWaitMs,
+                           @Value("${inventory.client.connect-timeout-ms:20000}") int connectTimeoutMs,
+                           @Value("${inventory.client.read-timeout-ms:20000}") int readTimeoutMs,
+                           @Value("${inventory.client.limiter.max-wait-ms:5000}") long limiterWaitMs,
+                           @Value("${inventory.client.hedge.enabled:false}") boolean hedgeEnabled,
+                           HttpTransport httpTransport,
+                           @Qualifier("inventoryLimiter") AdaptiveLimiter inventoryLimiter,
+                           HedgePolicy inventoryHedgePolicy,
+                           EventLog orderEventLog){
+
+        // request factory allows to define the time bounds.
+        // connections come from the shared pool (see HttpTransportConfig)
+        this.restTemplate = new RestTemplate(httpTransport.requestFactory(connectTimeoutMs, readTimeoutMs));
         this.INVENTORY_URL = INVENTORY_URL;
+        this.INVENTORY_BATCH_URL = INVENTORY_URL + "/batch";
+        this.INVENTORY_ALL_URL = INVENTORY_URL + "/all";
+        String inventoryBase = INVENTORY_URL.substring(0, INVENTORY_URL.lastIndexOf('/'));
+        this.RELEASE_URI = URI.create(inventoryBase + "/release");
+        this.CONFIRM_URI = URI.create(inventoryBase + "/confirm");
+        this.httpTransport = httpTransport;
+        this.readTimeoutMs = readTimeoutMs;
+        this.limiter = inventoryLimiter;
+        this.limiterWaitMs = limiterWaitMs;
+        this.hedge = hedgeEnabled ? inventoryHedgePolicy : null;
+        this.eventLog = orderEventLog;
+
+        this.batcher = "batch".equalsIgnoreCase(mode)
+                ? new MicroBatcher<>("inventory-batch", batchMaxSize, batchMaxWaitMs, this::reserveBatch, InventoryReservation.REJECTED)
+                : null;
     }
 
     /**
@@ -56,18 +135,38 @@ public class InventoryClient {
      * - synchronous call
      *
      */
-    public InventoryResult  reserve(UUID orderId, String productId, int quantity){
+    public InventoryReservation reserve(UUID orderId, String productId, int quantity){
 
-        try{
-            // Hard-coding inventory inputs initially to isolate the async
-            // orchestration before introducing domain complexity
-            Map<String, Object> requestBody =  Map.of(
-                    "productId", productId,
-                    "quantity", quantity
-            );
+        // Hard-coding inventory inputs initially to isolate the async
+        // orchestration before introducing domain complexity
+        Map<String, Object> requestBody =  Map.of(
+                "productId", productId,
+                "quantity", quantity
+        );
+
+        if(batcher != null){
+            // waits for the batch this line ended up in, the HTTP timeouts bound the wait
+            return batcher.submit(requestBody).join();
+        }
+
+        if(hedge != null){
+            // both attempts go through the async client, this thread waits for the first answer
+            return reserveLimitedAsync(URI.create(INVENTORY_URL), requestBody, idempotencyKey(orderId), limiterWaitMs)
+                    .join();
+        }
+
+        if(!limiter.acquire(limiterWaitMs)){
+            return InventoryReservation.REJECTED;
+        }
+
+        long start = System.nanoTime();
+        boolean timedOut = false;
 
-            // Wrapping request body in HttpEntity
-            HttpEntity<Object> requestEntity = new HttpEntity<>(requestBody);
+        try{
+            // Wrapping request body in HttpEntity, order id as idempotency key
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(ORDER_ID_HEADER, orderId.toString());
+            HttpEntity<Object> requestEntity = new HttpEntity<>(requestBody, headers);
 
             // Executing Post call to inventory Service
             ResponseEntity<InventoryResponseDto> response =
@@ -78,25 +177,251 @@ public class InventoryClient {
                             InventoryResponseDto.class
                     );
 
-            if(response.getBody() == null){
-                return InventoryResult.REJECTED;
-            }
+            // Converting Inventory Response into domain result, any other status is rejection
+            return toReservation(response.getBody());
+        } catch (ResourceAccessException timeoutException) {
+
+            timedOut = true;
+            return InventoryReservation.REJECTED;
+        } catch (Exception e) {
+
+            return InventoryReservation.REJECTED;
+        } finally {
+            limiter.onResult(System.nanoTime() - start, timedOut);
+        }
+
+    }
+
+    /**
+     * Non-blocking version of reserve().
+     *
+     * In batch mode the line joins the next batch, same as reserve().
+     * Any failed call is REJECTED. The future only completes exceptionally if the call could not be made at all.
+     */
+    public CompletableFuture<InventoryReservation> reserveAsync(UUID orderId, String productId, int quantity){
 
-            // Extracting "status" field from response JSON
-            // String status = String.valueOf(response.getBody().getStatus());
+        Map<String, Object> requestBody =  Map.of(
+                "productId", productId,
+                "quantity", quantity
+        );
 
-            // Converting Inventory Response into domain enum
-            if("RESERVED".equals(response.getBody().getStatus())){
-                return InventoryResult.RESERVED;
+        if(batcher != null){
+            return batcher.submit(requestBody);
+        }
+
+        return reserveLimitedAsync(URI.create(INVENTORY_URL), requestBody, idempotencyKey(orderId), 0);
+    }
+
+    /**
+     * Reserve every line of a multi-line order in one call: RESERVED with one holdId, or nothing is taken.
+     *
+     * Not micro-batched, the basket already is one request.
+     */
+    public InventoryReservation reserveAll(UUID orderId, List<OrderLine> lines){
+
+        if(!limiter.acquire(limiterWaitMs)){
+            return InventoryReservation.REJECTED;
+        }
+
+        long start = System.nanoTime();
+        boolean timedOut = false;
+
+        try{
+            HttpEntity<Object> requestEntity = new HttpEntity<>(basket(lines));
+
+            ResponseEntity<InventoryResponseDto> response =
+                    restTemplate.exchange(
+                            URI.create(INVENTORY_ALL_URL),
+                            HttpMethod.POST,
+                            requestEntity,
+                            InventoryResponseDto.class
+                    );
+
+            return toReservation(response.getBody());
+        } catch (ResourceAccessException timeoutException) {
+
+            timedOut = true;
+            return InventoryReservation.REJECTED;
+        } catch (Exception e) {
+
+            return InventoryReservation.REJECTED;
+        } finally {
+            limiter.onResult(System.nanoTime() - start, timedOut);
+        }
+    }
+
+    /**
+     * Non-blocking version of reserveAll(), never completes exceptionally.
+     */
+    public CompletableFuture<InventoryReservation> reserveAllAsync(UUID orderId, List<OrderLine> lines){
+        return reserveLimitedAsync(URI.create(INVENTORY_ALL_URL), basket(lines), Map.of(), 0);
+    }
+
+    /**
+     * One reservation call on the async client, through the limiter: any failure is REJECTED.
+     * Only a call that throws before returning a future completes exceptionally, with the limiter place given back.
+     *
+     * Hedged when enabled and the call has an idempotency key (single reservations).
+     * A hedged call holds one limiter place, its RTT is the time to the first answer.
+     *
+     * @param limiterWaitMs 0 for the non-blocking pipeline, it never waits
+     */
+    private CompletableFuture<InventoryReservation> reserveLimitedAsync(URI uri, Object requestBody,
+                                                                        Map<String, String> headers, long limiterWaitMs){
+
+        if(!limiter.acquire(limiterWaitMs)){
+            return CompletableFuture.completedFuture(InventoryReservation.REJECTED);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<InventoryResponseDto> call;
+
+        try{
+            call = hedge != null && headers.containsKey(ORDER_ID_HEADER)
+                    ? httpTransport.postAsyncHedged(uri, requestBody, headers, readTimeoutMs, hedge, InventoryResponseDto.class)
+                    : httpTransport.postAsync(uri, requestBody, headers, readTimeoutMs, InventoryResponseDto.class);
+        }catch(RuntimeException e){
+            // threw instead of returning a future (e.g. hedge scheduler shut down): give the place back, no RTT sample
+            limiter.ignore();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return call
+                .handle((body, error) -> {
+
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    limiter.onResult(System.nanoTime() - start, cause instanceof IOException);
+
+                    return error == null ? toReservation(body) : InventoryReservation.REJECTED;
+                });
+    }
+
+    private static Map<String, String> idempotencyKey(UUID orderId){
+        return Map.of(ORDER_ID_HEADER, orderId.toString());
+    }
+
+    private static Map<String, Object> basket(List<OrderLine> lines){
+
+        List<Map<String, Object>> items = new ArrayList<>(lines.size());
+        for(OrderLine line : lines){
+            items.add(Map.of(
+                    "productId", line.productId(),
+                    "quantity", line.quantity()
+            ));
+        }
+
+        return Map.of("items", items);
+    }
+
+    /**
+     * The order is paid: inventory keeps the held stock for good.
+     *
+     * Fire and forget, the order is CONFIRMED either way.
+     * If the call is lost the hold expires and the stock goes back on sale (logged here).
+     */
+    public void confirm(UUID orderId, UUID holdId){
+        sendHold(CONFIRM_URI, "confirm", orderId, holdId);
+    }
+
+    /**
+     * The order failed after reserving: give the held stock back (compensation).
+     *
+     * Fire and forget, if the call is lost the hold expiry gives the stock back later.
+     */
+    public void release(UUID orderId, UUID holdId){
+        sendHold(RELEASE_URI, "release", orderId, holdId);
+    }
+
+    private void sendHold(URI uri, String action, UUID orderId, UUID holdId){
+
+        if(holdId == null){
+            return;
+        }
+
+        httpTransport
+                .postAsync(uri, Map.of("holdId", holdId), Map.of(), readTimeoutMs, Map.class)
+                .whenComplete((body, error) -> {
+                    if(error != null){
+                        // 404: hold already expired (or done), anything else: it expires later
+                        eventLog.event("INVENTORY")
+                                .with("action", action)
+                                .with("result", "FAILED")
+                                .with("orderId", orderId)
+                                .with("holdId", holdId)
+                                .with("error", error.getMessage())
+                                .publish();
+                    }
+                });
+    }
+
+    private static InventoryReservation toReservation(InventoryResponseDto body){
+
+        if(body != null && "RESERVED".equals(body.getStatus())){
+            return InventoryReservation.reserved(body.getHoldId());
+        }
+
+        return InventoryReservation.REJECTED;
+    }
+
+    /**
+     * Reserve many lines with one POST /inventory/reserve/batch.
+     *
+     * Returns one result per line, in the same order.
+     * If the call fails (or the limiter says no) every line is REJECTED, same as a failed single call.
+     */
+    List<InventoryReservation> reserveBatch(List<Map<String, Object>> lines){
+
+        List<InventoryReservation> results = new ArrayList<>(lines.size());
+
+        if(!limiter.acquire(limiterWaitMs)){
+            rejectAll(results, lines.size());
+            return results;
+        }
+
+        long start = System.nanoTime();
+        boolean timedOut = false;
+
+        try{
+            HttpEntity<Object> requestEntity = new HttpEntity<>(Map.of("items", lines));
+
+            ResponseEntity<InventoryBatchResponseDto> response =
+                    restTemplate.exchange(
+                            URI.create(INVENTORY_BATCH_URL),
+                            HttpMethod.POST,
+                            requestEntity,
+                            InventoryBatchResponseDto.class
+                    );
+
+            List<InventoryResponseDto> body =
+                    response.getBody() == null ? null : response.getBody().getResults();
+
+            for(int i = 0; i < lines.size(); i++){
+
+                InventoryResponseDto line = body != null && i < body.size() ? body.get(i) : null;
+
+                results.add(toReservation(line));
             }
 
-            // Any other status is rejection
-            return InventoryResult.REJECTED;
+        } catch (ResourceAccessException timeoutException) {
+
+            timedOut = true;
+            rejectAll(results, lines.size());
         } catch (Exception e) {
 
-            return InventoryResult.REJECTED;
+            rejectAll(results, lines.size());
+        } finally {
+            limiter.onResult(System.nanoTime() - start, timedOut);
         }
 
+        return results;
+    }
+
+    private static void rejectAll(List<InventoryReservation> results, int lines){
+
+        results.clear();
+        for(int i = 0; i < lines; i++){
+            results.add(InventoryReservation.REJECTED);
+        }
     }
 
 }
@@ -0,0 +1,175 @@
+package org.myApp.orderservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Collects single calls from many threads and sends them as one batch.
+ *
+ * A batch is sent when:
+ * - "maxBatchSize" items are waiting, or
+ * - the oldest waiting item has waited "maxWaitMillis"
+ *
+ * Every caller gets its own CompletableFuture with its own result.
+ *
+ * @param <T> one item (e.g. one reservation line)
+ * @param <R> result for one item
+ */
+public class MicroBatcher<T, R> {
+
+    private final ConcurrentLinkedQueue<Pending<T, R>> queue = new ConcurrentLinkedQueue<>();
+
+    // items in the queue that no flush has claimed yet
+    private final AtomicInteger unclaimed = new AtomicInteger();
+
+    // true while a timed flush is scheduled, so only one timer runs at a time
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+
+    // sends one batch, results must be in the same order as the items
+    private final Function<List<T>, List<R>> batchCall;
+
+    // result for every item of a batch that could not be sent
+    private final R fallback;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService sender;
+
+    public MicroBatcher(String name,
+                        int maxBatchSize,
+                        long maxWaitMillis,
+                        Function<List<T>, List<R>> batchCall,
+                        R fallback) {
+
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.batchCall = batchCall;
+        this.fallback = fallback;
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon(name + "-timer"));
+
+        // batches are sent in parallel, the timer thread never blocks on HTTP
+        this.sender = Executors.newCachedThreadPool(daemon(name + "-sender"));
+    }
+
+    /**
+     * Add one item to the next batch.
+     */
+    public CompletableFuture<R> submit(T item) {
+
+        Pending<T, R> pending = new Pending<>(item);
+
+        // offer before counting, so a claimed item is always in the queue
+        queue.offer(pending);
+
+        if (unclaimed.incrementAndGet() >= maxBatchSize) {
+            // batch is full, do not wait for the timer
+            int claimed = claim();
+            if (claimed > 0) {
+                sender.execute(() -> flush(claimed));
+            }
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(this::timedFlush, maxWaitMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return pending.result;
+    }
+
+    /**
+     * The oldest item has waited long enough, send everything that is waiting.
+     */
+    private void timedFlush() {
+
+        flushScheduled.set(false);
+
+        int claimed;
+        while ((claimed = claim()) > 0) {
+            int batchSize = claimed;
+            sender.execute(() -> flush(batchSize));
+        }
+    }
+
+    /**
+     * Reserve up to maxBatchSize waiting items for one flush.
+     * Two flushes never claim the same items.
+     */
+    private int claim() {
+
+        while (true) {
+            int waiting = unclaimed.get();
+            if (waiting == 0) {
+                return 0;
+            }
+
+            int take = Math.min(waiting, maxBatchSize);
+            if (unclaimed.compareAndSet(waiting, waiting - take)) {
+                return take;
+            }
+        }
+    }
+
+    /**
+     * Take the claimed items and send them as one call.
+     */
+    private void flush(int batchSize) {
+
+        List<Pending<T, R>> batch = new ArrayList<>(batchSize);
+        List<T> items = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < batchSize; i++) {
+            Pending<T, R> pending = queue.poll();
+            batch.add(pending);
+            items.add(pending.item);
+        }
+
+        List<R> results;
+        try {
+            results = batchCall.apply(items);
+        } catch (RuntimeException e) {
+            results = null;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+
+            // a missing or short answer counts as a failed call for the missing lines
+            R result = results != null && i < results.size() ? results.get(i) : fallback;
+            batch.get(i).result.complete(result);
+        }
+    }
+
+    public void shutdown() {
+        timer.shutdown();
+        sender.shutdown();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Pending<T, R> {
+
+        private final T item;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.myApp.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.InventoryResult;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and outcomes of the order pipeline.
+ *
+ * Timers (seconds in Prometheus):
+ * - orders.inventory.call → one reservation call, single or basket
+ * - orders.payment.call   → one payment call, retries are separate calls
+ * - orders.processing     → PENDING to final status (tag status), payment retries included
+ *
+ * Every timer publishes:
+ * - a percentile histogram (_bucket series), aggregatable over instances
+ * - p50 / p95 / p99 from an HdrHistogram over the last 2 minutes, per instance
+ *
+ * Counters, one series per enum value, registered up front:
+ * - orders.inventory.results (tag result = InventoryResult)
+ * - orders.payment.results   (tag result = PaymentResult)
+ *
+ * All meters are looked up once here, recording is a map index and a histogram update,
+ * never a registry lookup (see OrderMetricsBenchmark).
+ */
+@Component
+public class OrderMetrics {
+
+    // bucket range of the histograms, anything outside lands in the first / last bucket
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+    private final Timer inventoryCall;
+    private final Timer paymentCall;
+    private final Map<OrderStatus, Timer> processing = new EnumMap<>(OrderStatus.class);
+
+    private final Map<InventoryResult, Counter> inventoryResults = new EnumMap<>(InventoryResult.class);
+    private final Map<PaymentResult, Counter> paymentResults = new EnumMap<>(PaymentResult.class);
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+
+        inventoryCall = timer("orders.inventory.call", "Inventory reservation calls").register(meterRegistry);
+        paymentCall = timer("orders.payment.call", "Payment calls").register(meterRegistry);
+
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status != OrderStatus.PENDING) {
+                processing.put(status, timer("orders.processing", "Orders from PENDING to their final status")
+                        .tag("status", status.name())
+                        .register(meterRegistry));
+            }
+        }
+
+        for (InventoryResult result : InventoryResult.values()) {
+            inventoryResults.put(result, Counter.builder("orders.inventory.results")
+                    .description("Inventory reservation outcomes")
+                    .tag("result", result.name())
+                    .register(meterRegistry));
+        }
+
+        for (PaymentResult result : PaymentResult.values()) {
+            paymentResults.put(result, Counter.builder("orders.payment.results")
+                    .description("Payment outcomes, REJECTED = not called (circuit open / bulkhead full)")
+                    .tag("result", result.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED);
+    }
+
+    /**
+     * @param startNanos System.nanoTime() before the call
+     */
+    public void inventoryCall(long startNanos, InventoryReservation reservation) {
+
+        inventoryCall.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        if (reservation != null) {
+            inventoryResults.get(reservation.result()).increment();
+        }
+    }
+
+    /**
+     * @param startNanos System.nanoTime() before the call
+     */
+    public void paymentCall(long startNanos, PaymentResult result) {
+
+        paymentCall.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        if (result != null) {
+            paymentResults.get(result).increment();
+        }
+    }
+
+    /**
+     * The order reached finalStatus.
+     *
+     * @param startNanos System.nanoTime() when processing started
+     */
+    public void processed(long startNanos, OrderStatus finalStatus) {
+
+        Timer timer = processing.get(finalStatus);
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -8,19 +8,33 @@ package org.myApp.orderservice.service;
  * - Running Async Orchestration
  * - Calling Inventory and Payment services
  * - Deciding final order state
+ * - Confirming or releasing the inventory hold once the order is decided
+ * - Tracing every order: createOrder → executor.handoff → processOrder → reserve / pay spans
  */
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.myApp.common.logging.EventLog;
 import org.myApp.orderservice.controller.dto.CreateOrderRequest;
-import org.myApp.orderservice.model.InventoryResult;
+import org.myApp.orderservice.model.InventoryReservation;
 import org.myApp.orderservice.model.Order;
 import org.myApp.orderservice.model.OrderStatus;
 import org.myApp.orderservice.model.PaymentResult;
 import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class OrderService {
@@ -35,22 +49,93 @@ public class OrderService {
     private final PaymentClient paymentClient;
 
     /**
-     * Single executor for order processing.
+     * Executor for order processing.
      * No sharing across services.
      *
-     * Executor service is used to run order processing in the background
-     *
-     * Fixed Thread Pool:
-     * - Limit Concurrency
-     * - Prevents unbounded thread creation
-     *
+     * Runs order processing in the background.
+     * Which threads and how many orders in flight is decided
+     * by "order.executor.mode" (see OrderExecutorConfig).
+     */
+    private final OrderProcessingExecutor executor;
+
+    /**
+     * order.pipeline.mode:
+     * - blocking     → processOrder() on the executor, one thread per order in flight
+     * - non-blocking → processOrderAsync(), no thread is held while waiting for HTTP
+     */
+    private final boolean nonBlockingPipeline;
+
+    /**
+     * order.pipeline.payment:
+     * - sequential → reserve inventory, then pay (old behavior): latency is inventory + payment
+     * - parallel   → reserve and pay at the same time: latency is the slower of the two.
+     *                An order is CONFIRMED only if both succeed, the other side is compensated otherwise
+     *                (hold released, payment voided). Out-of-stock orders now reach payment-service too.
+     */
+    private final boolean parallelPayment;
+
+    /**
+     * Payments that TIMEOUT (outcome unknown) or were REJECTED (not tried) are retried
+     * with backoff before the order is given up, see PaymentResilienceConfig.
+     * The order stays PENDING in between.
+     */
+    private final RetryScheduler paymentRetries;
+
+    /**
+     * [ORDER] events, async by default so the order threads never wait on the console (see EventLogConfig).
+     */
+    private final EventLog eventLog;
+
+    /**
+     * Call latencies, outcomes and PENDING → final status time (orders.* meters).
+     */
+    private final OrderMetrics metrics;
+
+    /**
+     * Spans of the order pipeline, see processing().
+     * The current span of a reserve / pay call goes out as traceparent (see HttpTransport).
+     */
+    private final Tracer tracer;
+
+    /**
+     * Bounded intake of the blocking pipeline: createOrder refuses orders (OrderRejectedException)
+     * while the executor queue is full or its wait stays above target, see AdmissionConfig.
+     * The non-blocking pipeline has no queue, nothing to admit into.
      */
-    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final AdmissionController admission;
 
-    public OrderService(InMemoryOrderRepository orderRepository, InventoryClient inventoryClient, PaymentClient paymentClient) {
+    /**
+     * An order being processed, from createOrder (or resume) to its final status:
+     * - startNanos → for elapsedMs and orders.processing
+     * - span       → processOrder span, parent of every reserve / pay span of the order (retries included)
+     */
+    private record Processing(long startNanos, Span span) { }
+
+    // orderId → order in processing, removed on the final status
+    private final Map<UUID, Processing> processing = new ConcurrentHashMap<>();
+
+    public OrderService(InMemoryOrderRepository orderRepository,
+                        InventoryClient inventoryClient,
+                        PaymentClient paymentClient,
+                        OrderProcessingExecutor executor,
+                        RetryScheduler paymentRetryScheduler,
+                        EventLog eventLog,
+                        OrderMetrics metrics,
+                        Tracer tracer,
+                        AdmissionController admission,
+                        @Value("${order.pipeline.mode:blocking}") String pipelineMode,
+                        @Value("${order.pipeline.payment:sequential}") String paymentMode) {
         this.orderRepository = orderRepository;
         this.inventoryClient = inventoryClient;
         this.paymentClient = paymentClient;
+        this.executor = executor;
+        this.paymentRetries = paymentRetryScheduler;
+        this.eventLog = eventLog;
+        this.metrics = metrics;
+        this.tracer = tracer;
+        this.admission = admission;
+        this.nonBlockingPipeline = "non-blocking".equalsIgnoreCase(pipelineMode);
+        this.parallelPayment = "parallel".equalsIgnoreCase(paymentMode);
     }
 
     /**
@@ -62,16 +147,107 @@ public class OrderService {
      * - start async processing
      */
     public Order createOrder(CreateOrderRequest request){
+        return createOrder(request, null);
+    }
+
+    /**
+     * @param correlationId caller's x-order-id header (may be null), logged and tagged on the createOrder span
+     * @throws org.myApp.orderservice.service.resilience.OrderRejectedException overloaded, no order was created
+     */
+    public Order createOrder(CreateOrderRequest request, String correlationId){
+
+        // child of the HTTP server span, so of the caller's trace if it sent a traceparent
+        Span span = tracer.nextSpan().name("createOrder");
+        if(correlationId != null){
+            span.tag("correlationId", correlationId);
+        }
 
-        // Create a new order with status PENDING
-        Order order = orderRepository.create(request);
+        try(Tracer.SpanInScope scope = tracer.withSpan(span.start())){
+
+            // before anything is created: a refused order leaves nothing behind
+            long admitted = nonBlockingPipeline ? 0 : admission.admit(request.getPriority());
+
+            Order order;
+            try{
+                // Create a new order with status PENDING
+                order = orderRepository.create(request);
+                span.tag("orderId", order.getId().toString());
+
+                startTracking(order.getId());
+                log(order.getId(), "CREATED", null, null, OrderStatus.PENDING, correlationId);
+            }catch(RuntimeException e){
+                // never got to startProcessing, which pairs the admit from there on
+                if(!nonBlockingPipeline){
+                    admission.cancelled();
+                }
+                throw e;
+            }
 
-        log(order.getId(), "CREATED", null, null, OrderStatus.PENDING);
+            // now the order is created and logged, async processing starts.
+            startProcessing(order.getId(), admitted);
 
-        // now the order is created and logged, async processing starts.
-        executor.submit(()-> processOrder(order.getId()));
+            return order;
 
-        return order;
+        }catch(RuntimeException e){
+            span.error(e);
+            throw e;
+        }finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Orders recovered as PENDING from the write-ahead log (order.persistence) were cut off by the restart.
+     * There is no record of how far they got, so they run the whole pipeline again.
+     *
+     * Without persistence the repository is empty at startup and this does nothing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingOrders(){
+
+        for (Order order : orderRepository.findAll()) {
+            if(order.getStatus() == OrderStatus.PENDING){
+                // no span is current here: each resumed order starts a trace of its own
+                startTracking(order.getId());
+                log(order.getId(), "RESUMED", null, null, OrderStatus.PENDING);
+                // accepted before the restart, never refused now
+                startProcessing(order.getId(), nonBlockingPipeline ? 0 : admission.admitAlways());
+            }
+        }
+    }
+
+    private void startTracking(UUID orderId){
+
+        Span span = tracer.nextSpan().name("processOrder").tag("orderId", orderId.toString()).start();
+
+        processing.put(orderId, new Processing(System.nanoTime(), span));
+    }
+
+    /**
+     * @param admittedNanos when admission let the order in (blocking pipeline)
+     */
+    private void startProcessing(UUID orderId, long admittedNanos){
+
+        if(nonBlockingPipeline){
+            processOrderAsync(orderId);
+            return;
+        }
+
+        // time in the executor queue, until a worker picks the order up
+        Span handoff = startSpan("executor.handoff", orderId);
+
+        try{
+            executor.submit(()-> {
+                // the queue wait is what admission decides on
+                admission.started(admittedNanos);
+                handoff.end();
+                processOrder(orderId);
+            });
+        }catch(RuntimeException e){
+            admission.cancelled();
+            handoff.error(e).end();
+            throw e;
+        }
     }
 
     /**
@@ -80,32 +256,32 @@ public class OrderService {
      * @return
      *
      * Background logic.
-     * Runs asynchronously on a thread from ExecutorService
+     * Runs asynchronously on a thread from OrderProcessingExecutor
      */
     private void processOrder(UUID orderId){
 
-        InventoryResult inventoryResult = null;
+        InventoryReservation inventoryResult = null;
         PaymentResult paymentResult = null;
 
         try{
             // 1. CALLING AND CHECKING INVENTORY (this is concrete, deterministic)
 
-            Order order = orderRepository
-                    .findById(orderId)
-                    .orElseThrow(() -> new IllegalStateException("order not found: "+ orderId));
+            Order order = findOrder(orderId);
 
-            // calling inventory service to reserve the stock
-            inventoryResult = inventoryClient.reserve(orderId, order.getProductId(), order.getQuantity());
-
-            // order must fail if inventory does not have the required quantity
-            if(inventoryResult == InventoryResult.REJECTED){
+            // parallel mode: the payment goes out on the async client while this thread reserves
+            CompletableFuture<PaymentResult> payment = parallelPayment ? payAsync(orderId) : null;
 
-                // updating order status is failed
-                orderRepository.updateStatus(orderId, OrderStatus.FAILED);
+            // calling inventory service to reserve the stock
+            inventoryResult = reserve(order);
 
-                // log why the order failed - INVENTORY_REJECTED
-                log(orderId, "INVENTORY_REJECTED", inventoryResult, null, OrderStatus.FAILED);
+            if(payment != null){
+                paymentResult = payment.join();
+                applyParallelResults(orderId, inventoryResult, paymentResult);
+                return;
+            }
 
+            // order must fail if inventory does not have the required quantity
+            if(!applyInventoryResult(orderId, inventoryResult)){
                 return;
             }
 
@@ -113,59 +289,374 @@ public class OrderService {
 
             // call payment service (this can be anything: Success, Fail, Timeout)
 
-            paymentResult = paymentClient.pay(orderId);
+            paymentResult = pay(orderId);
+
+            applyPaymentResult(orderId, inventoryResult, paymentResult, 0);
+
+        }catch(Exception e){
+            // Catch all exceptions to guarantee no order stays in PENDING forever
+            applyException(orderId, inventoryResult, paymentResult);
+        }
+
+    }
 
-            // if inventory reserved and inventory reserve was a success
-            if(paymentResult == PaymentResult.SUCCESS){
+    /**
+     * Non-blocking version of processOrder (order.pipeline.mode = non-blocking).
+     *
+     * Same steps, same final states, same log lines,
+     * but no thread waits for inventory or payment:
+     * every step runs when the previous HTTP response arrives.
+     */
+    CompletableFuture<Void> processOrderAsync(UUID orderId){
 
-                // Update order status as CONFIRMED
-                orderRepository.updateStatus(orderId, OrderStatus.CONFIRMED);
+        // results of the steps so far, for the EXCEPTION log line
+        AtomicReference<InventoryReservation> inventoryResult = new AtomicReference<>();
+        AtomicReference<PaymentResult> paymentResult = new AtomicReference<>();
 
-                log(orderId, "CONFIRMED", inventoryResult, paymentResult, OrderStatus.CONFIRMED);
+        CompletableFuture<Void> pipeline;
 
+        try{
+            Order order = findOrder(orderId);
+
+            CompletableFuture<InventoryReservation> reservation = reserveAsync(order);
+
+            if(parallelPayment){
+                pipeline = reservation.thenCombine(payAsync(orderId), (inventory, payment) -> {
+                    inventoryResult.set(inventory);
+                    paymentResult.set(payment);
+                    applyParallelResults(orderId, inventory, payment);
+                    return null;
+                });
             }else{
-                // Payment failed or timed out
+                pipeline = reservation.thenCompose(inventory -> {
+
+                    inventoryResult.set(inventory);
 
-                // update order status as FAILED
-                orderRepository.updateStatus(orderId, OrderStatus.FAILED);
+                    if(!applyInventoryResult(orderId, inventory)){
+                        return CompletableFuture.completedFuture(null);
+                    }
 
-                // failure reason is Payment Failed
-                log(orderId, "PAYMENT_FAILED", inventoryResult, paymentResult, OrderStatus.FAILED);
+                    return payAsync(orderId).thenAccept(payment -> {
+                        paymentResult.set(payment);
+                        applyPaymentResult(orderId, inventory, payment, 0);
+                    });
+                });
             }
+
         }catch(Exception e){
-            // Catch all exceptions to guarantee no order stays in PENDING forever
+            pipeline = CompletableFuture.failedFuture(e);
+        }
+
+        // no order stays in PENDING forever, same as the blocking flow
+        return pipeline.exceptionally(e -> {
+            applyException(orderId, inventoryResult.get(), paymentResult.get());
+            return null;
+        });
+    }
+
+    private Order findOrder(UUID orderId){
+
+        return orderRepository
+                .findById(orderId)
+                .orElseThrow(() -> new IllegalStateException("order not found: "+ orderId));
+    }
+
+    /**
+     * Step 1 call: a one-line order reserves as before (single or micro-batched),
+     * a basket reserves all its lines in one call, all or none.
+     */
+    private InventoryReservation reserve(Order order){
+
+        long start = System.nanoTime();
+        Span span = startSpan("reserve", order.getId());
+        InventoryReservation reservation = null;
+
+        try(Tracer.SpanInScope scope = tracer.withSpan(span)){
+
+            reservation = order.getLines().size() == 1
+                    ? inventoryClient.reserve(order.getId(), order.getProductId(), order.getQuantity())
+                    : inventoryClient.reserveAll(order.getId(), order.getLines());
+
+            return reservation;
+        }finally {
+            metrics.inventoryCall(start, reservation);
+            endSpan(span, reservation == null ? null : reservation.result());
+        }
+    }
+
+    private CompletableFuture<InventoryReservation> reserveAsync(Order order){
+
+        long start = System.nanoTime();
+        Span span = startSpan("reserve", order.getId());
+
+        // in scope only while the request is sent, the response arrives on another thread
+        CompletableFuture<InventoryReservation> reservation;
+        try(Tracer.SpanInScope scope = tracer.withSpan(span)){
+            reservation = order.getLines().size() == 1
+                    ? inventoryClient.reserveAsync(order.getId(), order.getProductId(), order.getQuantity())
+                    : inventoryClient.reserveAllAsync(order.getId(), order.getLines());
+        }
+
+        return reservation.whenComplete((result, error) -> {
+            metrics.inventoryCall(start, result);
+            endSpan(span, result == null ? null : result.result());
+        });
+    }
+
+    /**
+     * Step 2 call, timed and traced. Retries go through here too, each one is a call (and span) of its own.
+     */
+    private PaymentResult pay(UUID orderId){
+
+        long start = System.nanoTime();
+        Span span = startSpan("pay", orderId);
+        PaymentResult result = null;
+
+        try(Tracer.SpanInScope scope = tracer.withSpan(span)){
+            result = paymentClient.pay(orderId);
+            return result;
+        }finally {
+            metrics.paymentCall(start, result);
+            endSpan(span, result);
+        }
+    }
+
+    private CompletableFuture<PaymentResult> payAsync(UUID orderId){
+
+        long start = System.nanoTime();
+        Span span = startSpan("pay", orderId);
+
+        CompletableFuture<PaymentResult> payment;
+        try(Tracer.SpanInScope scope = tracer.withSpan(span)){
+            payment = paymentClient.payAsync(orderId);
+        }
+
+        return payment.whenComplete((result, error) -> {
+            metrics.paymentCall(start, result);
+            endSpan(span, result);
+        });
+    }
+
+    /**
+     * Child of the order's processOrder span, whatever thread this runs on.
+     */
+    private Span startSpan(String name, UUID orderId){
+
+        Processing order = processing.get(orderId);
+
+        Span span = order == null ? tracer.nextSpan() : tracer.nextSpan(order.span());
+
+        return span.name(name).tag("orderId", orderId.toString()).start();
+    }
+
+    // result null: the call threw
+    private static void endSpan(Span span, Enum<?> result){
+
+        if(result != null){
+            span.tag("result", result.name());
+        }
+        span.end();
+    }
+
+    /**
+     * Step 1 outcome.
+     *
+     * @return true if the order can continue to payment
+     */
+    private boolean applyInventoryResult(UUID orderId, InventoryReservation inventoryResult){
+
+        if(!inventoryResult.isReserved()){
 
-            // just to be safe, mark order as failed
+            // updating order status is failed
             orderRepository.updateStatus(orderId, OrderStatus.FAILED);
 
-            // failure reason is =- EXCEPTION
-            log(orderId, "EXCEPTION", inventoryResult, paymentResult, OrderStatus.FAILED);
+            // log why the order failed - INVENTORY_REJECTED
+            log(orderId, "INVENTORY_REJECTED", inventoryResult, null, OrderStatus.FAILED);
+
+            return false;
         }
 
+        return true;
     }
 
     /**
+     * Both outcomes of the parallel mode, decides the final state.
      *
-     * @param orderId
-     * @param step
-     * @param inventoryResult
-     * @param paymentResult
-     * @param finalStatus
+     * - reserved → same as paying after the reservation: CONFIRMED, retried or FAILED (hold released)
+     * - rejected → FAILED, and a payment that may have gone through (SUCCESS, TIMEOUT) is voided
+     */
+    private void applyParallelResults(UUID orderId, InventoryReservation inventoryResult, PaymentResult paymentResult){
+
+        if(inventoryResult.isReserved()){
+            applyPaymentResult(orderId, inventoryResult, paymentResult, 0);
+            return;
+        }
+
+        orderRepository.updateStatus(orderId, OrderStatus.FAILED);
+
+        log(orderId, "INVENTORY_REJECTED", inventoryResult, paymentResult, OrderStatus.FAILED);
+
+        if(mayHaveCharged(paymentResult)){
+            paymentClient.voidPayment(orderId);
+        }
+    }
+
+    /**
+     * TIMEOUT is unknown, payment-service may have charged after the client gave up.
+     */
+    private static boolean mayHaveCharged(PaymentResult paymentResult){
+        return paymentResult == PaymentResult.SUCCESS || paymentResult == PaymentResult.TIMEOUT;
+    }
+
+    /**
+     * Step 2 outcome, decides the final state.
      *
-     * Logging method
+     * retriesSoFar → how many times the payment was already retried for this order
      */
+    private void applyPaymentResult(UUID orderId, InventoryReservation inventoryResult, PaymentResult paymentResult,
+                                    int retriesSoFar){
+
+        // if inventory reserved and inventory reserve was a success
+        if(paymentResult == PaymentResult.SUCCESS){
+
+            // Update order status as CONFIRMED
+            orderRepository.updateStatus(orderId, OrderStatus.CONFIRMED);
+
+            log(orderId, "CONFIRMED", inventoryResult, paymentResult, OrderStatus.CONFIRMED);
+
+            // the stock is sold, inventory can drop the hold
+            inventoryClient.confirm(orderId, inventoryResult.holdId());
+
+        }else if(isRetryable(paymentResult)
+                && paymentRetries.schedule(retriesSoFar, () -> retryPayment(orderId, inventoryResult, retriesSoFar + 1))){
+
+            // outcome unknown (timeout) or payment not tried (rejected): order stays PENDING and is tried again
+            log(orderId, "PAYMENT_RETRY_SCHEDULED", inventoryResult, paymentResult, OrderStatus.PENDING);
+
+        }else{
+            // Payment failed or timed out, or was not even tried (circuit open / bulkhead full)
+
+            // update order status as FAILED
+            orderRepository.updateStatus(orderId, OrderStatus.FAILED);
+
+            // failure reason is Payment Failed (or rejected without calling)
+            String step = paymentResult == PaymentResult.REJECTED ? "PAYMENT_REJECTED" : "PAYMENT_FAILED";
+            log(orderId, step, inventoryResult, paymentResult, OrderStatus.FAILED);
+
+            // compensation: the reserved stock goes back on sale
+            inventoryClient.release(orderId, inventoryResult.holdId());
+        }
+    }
+
+    /**
+     * FAILED means payment-service said no, a retry would say no again.
+     * TIMEOUT may have gone through, the retry carries the same x-order-id so payment-service can dedupe it.
+     */
+    private static boolean isRetryable(PaymentResult paymentResult){
+        return paymentResult == PaymentResult.TIMEOUT || paymentResult == PaymentResult.REJECTED;
+    }
+
+    /**
+     * Runs on the retry timer thread: hand the payment call over, never block here.
+     */
+    private void retryPayment(UUID orderId, InventoryReservation inventoryResult, int retriesSoFar){
+
+        if(nonBlockingPipeline){
+            payAsync(orderId)
+                    .thenAccept(payment -> applyPaymentResult(orderId, inventoryResult, payment, retriesSoFar))
+                    .exceptionally(e -> {
+                        applyException(orderId, inventoryResult, null);
+                        return null;
+                    });
+            return;
+        }
+
+        executor.submit(() -> {
+            PaymentResult paymentResult = null;
+            try{
+                paymentResult = pay(orderId);
+                applyPaymentResult(orderId, inventoryResult, paymentResult, retriesSoFar);
+            }catch(Exception e){
+                applyException(orderId, inventoryResult, paymentResult);
+            }
+        });
+    }
+
+    private void applyException(UUID orderId, InventoryReservation inventoryResult, PaymentResult paymentResult){
+
+        // just to be safe, mark order as failed
+        orderRepository.updateStatus(orderId, OrderStatus.FAILED);
+
+        // failure reason is =- EXCEPTION
+        log(orderId, "EXCEPTION", inventoryResult, paymentResult, OrderStatus.FAILED);
+
+        // the failure may have come after the reservation: give the stock back
+        if(inventoryResult != null && inventoryResult.isReserved()){
+            inventoryClient.release(orderId, inventoryResult.holdId());
+        }
+
+        // same for a payment that may have gone through; in parallel mode it may still be in flight (null),
+        // voiding an order that was never charged is harmless
+        if(mayHaveCharged(paymentResult) || (parallelPayment && paymentResult == null)){
+            paymentClient.voidPayment(orderId);
+        }
+    }
+
     private void log(UUID orderId,
                      String step,
-                     InventoryResult inventoryResult,
+                     InventoryReservation inventoryResult,
                      PaymentResult paymentResult,
                      OrderStatus finalStatus) {
+        log(orderId, step, inventoryResult, paymentResult, finalStatus, null);
+    }
+
+    /**
+     * One [ORDER] event per step:
+     * orderId, step, inventory and payment results so far, status after the step,
+     * elapsedMs since processing started (payment retries included),
+     * traceId of the order (its spans in all three services), correlationId on CREATED if the caller sent one.
+     *
+     * Every order logs its final status exactly once, that is where orders.processing is recorded
+     * and the processOrder span ends.
+     */
+    private void log(UUID orderId,
+                     String step,
+                     InventoryReservation inventoryResult,
+                     PaymentResult paymentResult,
+                     OrderStatus finalStatus,
+                     String correlationId) {
+
+        // the order is done after this step, nothing left to time
+        Processing order = finalStatus == OrderStatus.PENDING
+                ? processing.get(orderId)
+                : processing.remove(orderId);
+
+        long elapsedMs = 0;
+        String traceId = null;
+
+        if(order != null){
+            elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - order.startNanos());
+            traceId = order.span().context().traceId();
+
+            if(finalStatus != OrderStatus.PENDING){
+                metrics.processed(order.startNanos(), finalStatus);
+                order.span().tag("status", finalStatus.name()).end();
+            }
+        }
+
+        EventLog.Event event = eventLog.event("ORDER")
+                .with("orderId", orderId)
+                .with("step", step)
+                .with("inventory", inventoryResult == null ? null : inventoryResult.result())
+                .with("payment", paymentResult)
+                .with("finalStatus", finalStatus)
+                .with("elapsedMs", elapsedMs)
+                .with("traceId", traceId);
+
+        if(correlationId != null){
+            event.with("correlationId", correlationId);
+        }
 
-        System.out.println(
-                "[ORDER] orderId=" + orderId +
-                        " step=" + step +
-                        " inventory=" + inventoryResult +
-                        " payment=" + paymentResult +
-                        " finalStatus=" + finalStatus
-        );
+        event.publish();
     }
 }
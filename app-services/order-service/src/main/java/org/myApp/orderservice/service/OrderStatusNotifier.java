@@ -0,0 +1,140 @@
+package org.myApp.orderservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.OrderStatusListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pushes order status changes to whoever waits for them,
+ * instead of callers polling GET /orders/{id}.
+ *
+ * Used by:
+ * - GET /orders/{id}/events              → SSE stream
+ * - GET /orders/{id}?waitForTerminal=ms  → long-poll
+ *
+ * Driven by the status listener hook of InMemoryOrderRepository.
+ * Subscribers are called on a separate, bounded pool (order.events.dispatcher-threads / queue-capacity),
+ * a slow SSE client never holds up order processing.
+ * With the queue full the status change is delivered on the updating thread instead of being dropped:
+ * a burst slows order processing down rather than losing a terminal status a long-poll waits for.
+ */
+@Component
+public class OrderStatusNotifier implements OrderStatusListener {
+
+    private final InMemoryOrderRepository orderRepository;
+
+    // orderId → callbacks waiting for that order, entries only exist while someone waits
+    private final Map<UUID, Set<Consumer<OrderStatus>>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService dispatcher;
+
+    public OrderStatusNotifier(InMemoryOrderRepository orderRepository,
+                               @Value("${order.events.dispatcher-threads:4}") int dispatcherThreads,
+                               @Value("${order.events.queue-capacity:10000}") int queueCapacity) {
+
+        this.orderRepository = orderRepository;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(
+                dispatcherThreads, dispatcherThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-events-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        orderRepository.addStatusListener(this);
+    }
+
+    @Override
+    public void onStatusChange(UUID orderId, OrderStatus newStatus) {
+
+        Set<Consumer<OrderStatus>> waiting = subscribers.get(orderId);
+
+        // common case: nobody is watching this order
+        if (waiting == null) {
+            return;
+        }
+
+        for (Consumer<OrderStatus> subscriber : waiting) {
+            dispatcher.execute(() -> subscriber.accept(newStatus));
+        }
+    }
+
+    /**
+     * Call subscriber on every status change of the order, until the returned handle is run.
+     *
+     * Changes before this call are not replayed, callers read the current status after subscribing.
+     */
+    public Runnable subscribe(UUID orderId, Consumer<OrderStatus> subscriber) {
+
+        // added inside compute: an unsubscribe emptying the set drops it in computeIfPresent,
+        // an add outside the lock could land in that dropped set and never be called
+        subscribers.compute(orderId, (id, waiting) -> {
+            Set<Consumer<OrderStatus>> set = waiting == null ? ConcurrentHashMap.newKeySet() : waiting;
+            set.add(subscriber);
+            return set;
+        });
+
+        return () -> subscribers.computeIfPresent(orderId, (id, waiting) -> {
+            waiting.remove(subscriber);
+            return waiting.isEmpty() ? null : waiting;
+        });
+    }
+
+    /**
+     * Completes with the order once it is CONFIRMED or FAILED (right away if it already is).
+     *
+     * Completes with null if the order does not exist (any more).
+     * Cancel the future to stop waiting, e.g. on a long-poll timeout.
+     */
+    public CompletableFuture<Order> awaitTerminal(UUID orderId) {
+
+        CompletableFuture<Order> terminal = new CompletableFuture<>();
+
+        Runnable unsubscribe = subscribe(orderId, status -> {
+            if (isTerminal(status)) {
+                terminal.complete(orderRepository.findById(orderId).orElse(null));
+            }
+        });
+
+        // whichever way it ends, nobody waits any more
+        terminal.whenComplete((order, error) -> unsubscribe.run());
+
+        // check after subscribing, so a change in between is not missed
+        Order current = orderRepository.findById(orderId).orElse(null);
+        if (current == null || isTerminal(current.getStatus())) {
+            terminal.complete(current);
+        }
+
+        return terminal;
+    }
+
+    public static boolean isTerminal(OrderStatus status) {
+        return status == OrderStatus.CONFIRMED || status == OrderStatus.FAILED;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+}
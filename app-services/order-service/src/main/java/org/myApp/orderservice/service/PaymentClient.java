@@ -1,25 +1,38 @@
 package org.myApp.orderservice.service;
 
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.config.HttpTransport;
 import org.myApp.orderservice.model.PaymentResult;
 import org.myApp.orderservice.service.dto.PaymentResponseDto;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.myApp.orderservice.service.resilience.Bulkhead;
+import org.myApp.orderservice.service.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  *
  * Payment is HTTP client (Thin, very thin)
  * - call Payment Service
  * - translate non-deterministic, flaky outcomes of Payment Service into PaymentResult
+ * - fail fast with REJECTED when payment is known to be down (circuit breaker)
+ *   or too many payments are already in flight (bulkhead), see PaymentResilienceConfig
+ * - and before that, when payment-service's RTT says it cannot take more calls right now
+ *   (adaptive limiter, see DownstreamLimiterConfig)
  *
  */
 @Component
@@ -31,20 +44,53 @@ public class PaymentClient {
     private final RestTemplate restTemplate;
 
     private final String PAYMENT_URL;
+
+    // compensation endpoint, next to the payment one
+    private final URI VOID_URI;
+
+    // idempotency key of a payment, payment-service dedupes retries on it
+    static final String ORDER_ID_HEADER = "x-order-id";
+
+    // used by the non-blocking pipeline
+    private final HttpTransport httpTransport;
+    private final int readTimeoutMs;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AdaptiveLimiter limiter;
+    // pay() only, payAsync() never waits for the limiter
+    private final long limiterWaitMs;
+
+    // lost voids
+    private final EventLog eventLog;
+
     // Hard-coded payment service URL for docker
     // for local: "http://localhost:8082/payments";
     //private static final String PAYMENT_URL = "http://payment-service:8082/payments";
 
 
-    public PaymentClient(@Value("${payment.base-url}") String PAYMENT_URL){
-
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-
-        factory.setConnectTimeout(2000);
-        factory.setReadTimeout(2000);
+    public PaymentClient(@Value("${payment.base-url}") String PAYMENT_URL,
+                         @Value("${payment.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+                         @Value("${payment.client.read-timeout-ms:2000}") int readTimeoutMs,
+                         @Value("${payment.client.limiter.max-wait-ms:500}") long limiterWaitMs,
+                         HttpTransport httpTransport,
+                         CircuitBreaker paymentCircuitBreaker,
+                         Bulkhead paymentBulkhead,
+                         @Qualifier("paymentLimiter") AdaptiveLimiter paymentLimiter,
+                         EventLog orderEventLog){
 
-        this.restTemplate = new RestTemplate(factory);
+        // connections come from the shared pool (see HttpTransportConfig)
+        // short timeouts, payment is expected to hang now and then
+        this.restTemplate = new RestTemplate(httpTransport.requestFactory(connectTimeoutMs, readTimeoutMs));
         this.PAYMENT_URL = PAYMENT_URL;
+        this.VOID_URI = URI.create(PAYMENT_URL + "/void");
+        this.httpTransport = httpTransport;
+        this.readTimeoutMs = readTimeoutMs;
+        this.circuitBreaker = paymentCircuitBreaker;
+        this.bulkhead = paymentBulkhead;
+        this.limiter = paymentLimiter;
+        this.limiterWaitMs = limiterWaitMs;
+        this.eventLog = orderEventLog;
     }
 
     /**
@@ -56,13 +102,34 @@ public class PaymentClient {
      * This method does
      * - synchronous call
      * - handling timeouts
+     * - REJECTED without calling, if the limiter, the bulkhead or the circuit says no
      */
     public PaymentResult pay(UUID orderId){
 
+        if(!acquire(limiterWaitMs)){
+            return PaymentResult.REJECTED;
+        }
+
+        long start = System.nanoTime();
+        PaymentResult result = PaymentResult.FAILED;
+
+        try{
+            result = callPayment(orderId);
+            return result;
+        }finally {
+            complete(result, start);
+        }
+    }
+
+    private PaymentResult callPayment(UUID orderId){
+
         try{
             // empty request body
             // Does not require a payload
-            HttpEntity<Void> requestEntity = new HttpEntity<>(null);
+            // order id is the idempotency key, a retried payment is not charged twice
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(ORDER_ID_HEADER, orderId.toString());
+            HttpEntity<Void> requestEntity = new HttpEntity<>(null, headers);
 
             // Execute Http POST to payment service
             ResponseEntity<PaymentResponseDto> response =
@@ -102,4 +169,121 @@ public class PaymentClient {
             return PaymentResult.FAILED;
         }
     }
+
+    /**
+     * Non-blocking version of pay().
+     *
+     * Same translation of outcomes:
+     * - SUCCESS in the body     → SUCCESS
+     * - timeout / no connection → TIMEOUT
+     * - anything else           → FAILED
+     * - limiter / bulkhead full, circuit open → REJECTED, without calling
+     * - the call cannot be made at all          → REJECTED, nothing was charged
+     *
+     * The future never completes exceptionally.
+     */
+    public CompletableFuture<PaymentResult> payAsync(UUID orderId){
+
+        if(!acquire(0)){
+            return CompletableFuture.completedFuture(PaymentResult.REJECTED);
+        }
+
+        long start = System.nanoTime();
+
+        CompletableFuture<PaymentResult> call;
+        try{
+            call = callPaymentAsync(orderId);
+        }catch(RuntimeException e){
+            // threw instead of returning a future: the payment was never sent, give back what acquire() took
+            circuitBreaker.release();
+            bulkhead.release();
+            limiter.ignore();
+            return CompletableFuture.completedFuture(PaymentResult.REJECTED);
+        }
+
+        return call.whenComplete((result, error) -> complete(result, start));
+    }
+
+    private CompletableFuture<PaymentResult> callPaymentAsync(UUID orderId){
+
+        return httpTransport
+                .postAsync(URI.create(PAYMENT_URL), null, Map.of(ORDER_ID_HEADER, orderId.toString()),
+                        readTimeoutMs, PaymentResponseDto.class)
+                .handle((body, error) -> {
+
+                    if(error != null){
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+
+                        return cause instanceof IOException ? PaymentResult.TIMEOUT : PaymentResult.FAILED;
+                    }
+
+                    if(body != null && "SUCCESS".equals(body.getPaymentStatus())){
+                        return PaymentResult.SUCCESS;
+                    }
+
+                    return PaymentResult.FAILED;
+                });
+    }
+
+    /**
+     * Void the payment of an order that failed anyway (compensation, see OrderService parallel payment).
+     *
+     * Same x-order-id as the payment: payment-service voids that order's charge,
+     * or answers the payment VOIDED if the void gets there first.
+     *
+     * Fire and forget. Not guarded by the limiter / circuit breaker / bulkhead:
+     * a compensation must go out even while new payments are being rejected.
+     */
+    public void voidPayment(UUID orderId){
+
+        httpTransport
+                .postAsync(VOID_URI, null, Map.of(ORDER_ID_HEADER, orderId.toString()), readTimeoutMs, Map.class)
+                .whenComplete((body, error) -> {
+                    if(error != null){
+                        eventLog.event("PAYMENT")
+                                .with("action", "void")
+                                .with("result", "FAILED")
+                                .with("orderId", orderId)
+                                .with("error", error.getMessage())
+                                .publish();
+                    }
+                });
+    }
+
+    /**
+     * Limiter and bulkhead first: a call rejected there must not use up a half-open probe of the breaker.
+     *
+     * @param waitMs how long to wait for the limiter, 0 = not at all
+     */
+    private boolean acquire(long waitMs){
+
+        if(!limiter.acquire(waitMs)){
+            return false;
+        }
+
+        if(!bulkhead.tryAcquire()){
+            limiter.ignore();
+            return false;
+        }
+
+        if(!circuitBreaker.tryAcquire()){
+            bulkhead.release();
+            limiter.ignore();
+            return false;
+        }
+
+        return true;
+    }
+
+    private void complete(PaymentResult result, long startNanos){
+
+        long rttNanos = System.nanoTime() - startNanos;
+
+        // FAILED and TIMEOUT both count against payment-service
+        circuitBreaker.onResult(result != PaymentResult.SUCCESS, rttNanos);
+        bulkhead.release();
+
+        // a FAILED answer still is a round trip, only a TIMEOUT says nothing about the RTT
+        limiter.onResult(rttNanos, result == PaymentResult.TIMEOUT);
+    }
 }
@@ -0,0 +1,17 @@
+package org.myApp.orderservice.service.dto;
+
+import java.util.List;
+
+public class InventoryBatchResponseDto {
+
+    private List<InventoryResponseDto> results;
+
+    public List<InventoryResponseDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<InventoryResponseDto> results) {
+        this.results = results;
+    }
+
+}
@@ -1,9 +1,14 @@
 package org.myApp.orderservice.service.dto;
 
+import java.util.UUID;
+
 public class InventoryResponseDto {
 
     private String status;
 
+    // only on RESERVED
+    private UUID holdId;
+
     public String getStatus() {
         return status;
     }
@@ -12,4 +17,12 @@ public class InventoryResponseDto {
         this.status = status;
     }
 
+    public UUID getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(UUID holdId) {
+        this.holdId = holdId;
+    }
+
 }
@@ -0,0 +1,148 @@
+package org.myApp.orderservice.service.executor;
+
+import java.lang.reflect.Method;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One thread per order, bounded by a concurrency permit.
+ *
+ * - every order gets its own thread, so a slow payment only blocks its own order
+ * - at most "maxConcurrency" orders are in flight, the rest wait in a queue
+ * - waiting orders do not hold a thread, they are only a Runnable in the queue
+ *
+ * Threads are virtual threads when the JVM supports them (Java 21+).
+ * On older JVMs it falls back to a cached pool of platform threads,
+ * which the permit keeps at "maxConcurrency" threads at most.
+ * OrderExecutorConfig does not take that fallback: mode virtual refuses to start without virtual threads
+ * (see virtualThreadsAvailable()), the fallback is for benchmarks comparing the two on any JVM.
+ *
+ * mode: virtual
+ */
+public class BoundedPerOrderExecutor implements OrderProcessingExecutor {
+
+    // orders that are submitted but have no permit yet
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    // ConcurrentLinkedQueue.size() walks the queue, so the depth is counted separately
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final Semaphore permits;
+
+    private final ExecutorService threads;
+
+    public BoundedPerOrderExecutor(int maxConcurrency) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.threads = newThreadPerTaskExecutor();
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        pending.offer(task);
+        pendingCount.incrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Start as many pending orders as there are free permits.
+     *
+     * Called after every submit and after every finished order.
+     * Whoever releases or offers last will see the other side's change,
+     * so an order never gets stuck in the queue with a free permit.
+     */
+    private void dispatch() {
+
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+
+            Runnable task = pending.poll();
+
+            if (task == null) {
+                // another thread took it in the meantime
+                permits.release();
+                continue;
+            }
+
+            pendingCount.decrementAndGet();
+
+            try {
+                threads.execute(() -> run(task));
+            } catch (RuntimeException rejected) {
+                // executor is shut down, the order stays PENDING like in the fixed pool
+                permits.release();
+                throw rejected;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+
+        activeCount.incrementAndGet();
+
+        try {
+            task.run();
+        } finally {
+            activeCount.decrementAndGet();
+            permits.release();
+            dispatch();
+        }
+    }
+
+    @Override
+    public int queueDepth() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public int activeCount() {
+        return activeCount.get();
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    /**
+     * @return true if this JVM has virtual threads (Java 21+), false if the constructor falls back to platform threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() only exists on Java 21+.
+     * The project still compiles for 17, so it is looked up at runtime.
+     */
+    private static ExecutorService newThreadPerTaskExecutor() {
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+
+        } catch (ReflectiveOperationException virtualThreadsNotAvailable) {
+
+            // idle platform threads are reused and die after 60s
+            return new ThreadPoolExecutor(
+                    0,
+                    Integer.MAX_VALUE,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>(),
+                    new NamedThreadFactory("order-worker-"));
+        }
+    }
+}
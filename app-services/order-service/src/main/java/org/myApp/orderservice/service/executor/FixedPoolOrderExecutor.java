@@ -0,0 +1,51 @@
+package org.myApp.orderservice.service.executor;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The original executor: a fixed number of platform threads.
+ *
+ * Each thread blocks on inventory and then on payment,
+ * so the number of threads is the ceiling for orders in flight.
+ *
+ * mode: fixed
+ */
+public class FixedPoolOrderExecutor implements OrderProcessingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public FixedPoolOrderExecutor(int threads) {
+
+        // same as Executors.newFixedThreadPool(threads), kept as ThreadPoolExecutor
+        // so that the queue and the active count can be observed
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("order-fixed-"));
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,35 @@
+package org.myApp.orderservice.service.executor;
+
+/**
+ * Runs the background part of order processing.
+ *
+ * OrderService only hands over a task per order, the implementation decides:
+ * - which threads run it
+ * - how many orders can be in flight at the same time
+ * - where the rest of the orders wait
+ *
+ * Implementations are selected with "order.executor.mode".
+ */
+public interface OrderProcessingExecutor {
+
+    /**
+     * Hand over processing of one order.
+     * Must return immediately, the caller is an HTTP request thread.
+     */
+    void submit(Runnable task);
+
+    /**
+     * Number of submitted orders that are waiting for a worker.
+     */
+    int queueDepth();
+
+    /**
+     * Number of orders currently being processed.
+     */
+    int activeCount();
+
+    /**
+     * Stop accepting new orders and release the threads.
+     */
+    void shutdown();
+}
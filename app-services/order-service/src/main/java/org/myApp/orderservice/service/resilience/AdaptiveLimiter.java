@@ -0,0 +1,250 @@
+package org.myApp.orderservice.service.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the calls in flight to one dependency, like Bulkhead, but the cap (limit) follows the
+ * dependency's measured round trip time instead of being fixed.
+ *
+ * Little's law: in flight = throughput × RTT. While the dependency keeps up, more calls in flight
+ * is more throughput at the same RTT. Once it queues, more calls in flight is only more RTT:
+ * the limit has to come down before the RTT turns into timeouts.
+ *
+ * Algorithms:
+ * - AIMD     → +1 per call that came back in time, ×0.9 on a timeout or a call slower than slowMillis
+ * - GRADIENT → limit × (long-term RTT / recent RTT) + sqrt(limit): shrinks when the recent RTT rises above
+ *              the usual one (1.5× tolerated), grows by a small queue allowance while it does not, ×0.9 on a timeout
+ * - FIXED    → limit stays at maxLimit (a plain bulkhead)
+ *
+ * The limit only grows while it is actually used (at least half in flight), a quiet hour does not
+ * leave it at maxLimit for the next spike.
+ *
+ * Over the limit: tryAcquire() says no right away (non-blocking callers), acquire(maxWait) waits for
+ * a place first (blocking callers), so a burst is spread out instead of turned into rejected calls.
+ *
+ * Callers pair every successful tryAcquire() / acquire() with exactly one onResult() or ignore().
+ */
+public class AdaptiveLimiter {
+
+    public enum Algorithm { AIMD, GRADIENT, FIXED }
+
+    // multiplicative decrease on a timeout (both algorithms) or a slow call (AIMD)
+    private static final double BACKOFF_RATIO = 0.9;
+
+    // GRADIENT: recent RTT up to this much above the long-term one is still "normal"
+    private static final double RTT_TOLERANCE = 1.5;
+    // GRADIENT: share of each new estimate taken into the limit
+    private static final double SMOOTHING = 0.2;
+    // GRADIENT: samples the recent and the long-term RTT average over
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final String name;
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long slowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // written under the lock, read by tryAcquire() without it
+    private volatile double limit;
+
+    // GRADIENT state, under the lock, 0 = no sample yet
+    private final Object lock = new Object();
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    // acquire() callers waiting for a place, woken one per call that comes back
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition placeFreed = waitLock.newCondition();
+
+    public AdaptiveLimiter(String name, Algorithm algorithm, int initialLimit, int minLimit, int maxLimit, long slowMillis) {
+
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limiter " + name + " needs 1 <= minLimit <= maxLimit");
+        }
+
+        this.name = name;
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.limit = algorithm == Algorithm.FIXED ? maxLimit : Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return false (and counted as rejected) when the current limit is in flight already
+     */
+    public boolean tryAcquire() {
+
+        if (tryIncrement()) {
+            return true;
+        }
+
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Like tryAcquire(), but waits up to maxWaitMillis for a place first (0 = same as tryAcquire()).
+     *
+     * @return false (and counted as rejected) when no place came free in time
+     */
+    public boolean acquire(long maxWaitMillis) {
+
+        if (tryIncrement()) {
+            return true;
+        }
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        // registered before the lock: a call coming back from now on signals,
+        // one that came back before is seen by tryIncrement() under the lock
+        waiting.incrementAndGet();
+        waitLock.lock();
+        try {
+            while (remaining > 0) {
+                if (tryIncrement()) {
+                    return true;
+                }
+                remaining = placeFreed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waitLock.unlock();
+            waiting.decrementAndGet();
+        }
+
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private boolean tryIncrement() {
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The call came back (or timed out): release it and adjust the limit.
+     *
+     * @param rttNanos how long the call took
+     * @param timedOut no answer in time: the RTT is only the timeout, not a measurement
+     */
+    public void onResult(long rttNanos, boolean timedOut) {
+
+        // in flight while the call was out, decides whether the limit was used at all
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        try {
+            adjust(inFlightBefore, rttNanos, timedOut);
+        } finally {
+            placeFreed();
+        }
+    }
+
+    private void adjust(int inFlightBefore, long rttNanos, boolean timedOut) {
+
+        if (algorithm == Algorithm.FIXED) {
+            return;
+        }
+
+        synchronized (lock) {
+
+            double current = limit;
+            double next;
+
+            if (timedOut || (algorithm == Algorithm.AIMD && rttNanos > slowNanos)) {
+                next = current * BACKOFF_RATIO;
+            } else if (inFlightBefore * 2 < current) {
+                // not using the limit, nothing learned about a higher one
+                sample(rttNanos);
+                return;
+            } else if (algorithm == Algorithm.AIMD) {
+                next = current + 1;
+            } else {
+                sample(rttNanos);
+                double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+                double estimate = current * gradient + Math.sqrt(current);
+                next = current * (1 - SMOOTHING) + estimate * SMOOTHING;
+            }
+
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        }
+    }
+
+    /**
+     * A permitted call that was not made after all (e.g. the circuit breaker said no): no sample.
+     */
+    public void ignore() {
+        inFlight.decrementAndGet();
+        placeFreed();
+    }
+
+    private void placeFreed() {
+
+        if (waiting.get() == 0) {
+            return;
+        }
+
+        waitLock.lock();
+        try {
+            placeFreed.signal();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private void sample(long rttNanos) {
+
+        if (algorithm != Algorithm.GRADIENT) {
+            return;
+        }
+
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+
+        // the dependency got faster for good (or the long average still remembers a bad spell):
+        // catch up faster than the long window would, or the limit stays too high for a long time
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+}
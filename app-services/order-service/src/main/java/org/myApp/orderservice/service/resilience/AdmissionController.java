@@ -0,0 +1,211 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.myApp.orderservice.model.OrderPriority;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of the order executor queue.
+ *
+ * An accepted order waits in the queue until a worker picks it up, during a spike that wait
+ * is what turns into minutes of PENDING. So the wait decides, not the queue length (CoDel rule):
+ * - every order's queue wait is measured when a worker picks it up (started())
+ * - overloaded once the waits stayed above target for a whole interval:
+ *   a burst that drains within the interval is fine, a standing queue is not
+ * - back to normal as soon as one order waited less than target, or the queue is empty
+ *
+ * The queue length is only a hard cap (capacity), so memory stays bounded whatever happens.
+ *
+ * Policies, when overloaded or full:
+ * - REJECT → the order is refused (429 + Retry-After)
+ * - SHED   → lowest priority first: LOW while overloaded, NORMAL once overloaded for another interval,
+ *            HIGH only when the queue is full
+ * - BLOCK  → the request waits up to blockMillis for a place, then is refused
+ *
+ * Callers pair every admit() / admitAlways() with exactly one started() or cancelled().
+ */
+public class AdmissionController {
+
+    public enum Policy { REJECT, SHED, BLOCK }
+
+    // a blocked request checks again after this
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Policy policy;
+    private final int capacity;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final long blockNanos;
+
+    private final LongSupplier nanoClock;
+
+    // admitted, not picked up by a worker yet
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // CoDel state, changed by workers under the lock, read by request threads without it
+    private final Object lock = new Object();
+    // when the current run of waits above target began, 0 = last wait was below target
+    private long aboveTargetSince;
+    // when the overload began, 0 = not overloaded
+    private volatile long overloadedSince;
+
+    // queue wait of the last order picked up, for Retry-After and the metric
+    private volatile long lastWaitNanos;
+
+    private final LongAdder[] rejected = new LongAdder[OrderPriority.values().length];
+
+    public AdmissionController(Policy policy, int capacity, long targetMillis, long intervalMillis, long blockMillis,
+                               LongSupplier nanoClock) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("admission needs capacity >= 1");
+        }
+
+        this.policy = policy;
+        this.capacity = capacity;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.blockNanos = TimeUnit.MILLISECONDS.toNanos(blockMillis);
+        this.nanoClock = nanoClock;
+
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Admit a new order into the queue.
+     *
+     * @return admission time, to pass to started() when a worker picks the order up
+     * @throws OrderRejectedException overloaded or full (after blocking, with BLOCK)
+     */
+    public long admit(OrderPriority priority) {
+
+        long now = nanoClock.getAsLong();
+
+        if (tryAdmit(priority, now)) {
+            return now;
+        }
+
+        if (policy == Policy.BLOCK) {
+            long deadline = now + blockNanos;
+            while (nanoClock.getAsLong() - deadline < 0) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                now = nanoClock.getAsLong();
+                if (tryAdmit(priority, now)) {
+                    return now;
+                }
+            }
+        }
+
+        rejected[priority.ordinal()].increment();
+
+        throw new OrderRejectedException(queued.get() >= capacity ? "order queue full" : "order queue overloaded",
+                retryAfterSeconds());
+    }
+
+    /**
+     * Queue an order that was accepted before (resumed after a restart): never refused, but counted.
+     */
+    public long admitAlways() {
+        queued.incrementAndGet();
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * A worker picked the order up: its queue wait feeds the CoDel rule.
+     */
+    public void started(long admittedNanos) {
+
+        long now = nanoClock.getAsLong();
+        long wait = now - admittedNanos;
+
+        queued.decrementAndGet();
+        lastWaitNanos = wait;
+
+        synchronized (lock) {
+            if (wait < targetNanos) {
+                aboveTargetSince = 0;
+                overloadedSince = 0;
+            } else if (aboveTargetSince == 0) {
+                aboveTargetSince = now;
+            } else if (overloadedSince == 0 && now - aboveTargetSince >= intervalNanos) {
+                overloadedSince = now;
+            }
+        }
+    }
+
+    /**
+     * The order never made it into the queue (executor shut down).
+     */
+    public void cancelled() {
+        queued.decrementAndGet();
+    }
+
+    private boolean tryAdmit(OrderPriority priority, long now) {
+
+        if (!acceptsWhileOverloaded(priority, now)) {
+            return false;
+        }
+
+        // HIGH with SHED, or nothing is overloaded: only the hard cap is left
+        while (true) {
+            int current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean acceptsWhileOverloaded(OrderPriority priority, long now) {
+
+        long since = overloadedSince;
+        if (since == 0) {
+            return true;
+        }
+
+        // the queue drained (nothing left to measure): the wait that caused the overload is gone
+        if (queued.get() == 0) {
+            synchronized (lock) {
+                aboveTargetSince = 0;
+                overloadedSince = 0;
+            }
+            return true;
+        }
+
+        if (policy != Policy.SHED) {
+            return false;
+        }
+
+        return priority == OrderPriority.HIGH
+                || (priority == OrderPriority.NORMAL && now - since < intervalNanos);
+    }
+
+    // the queue wait right now is the best guess of how long a retry should stay away, 1s at least
+    private long retryAfterSeconds() {
+        return Math.max(1, (lastWaitNanos + 999_999_999) / 1_000_000_000);
+    }
+
+    public boolean overloaded() {
+        return overloadedSince != 0;
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public double lastWaitMillis() {
+        return lastWaitNanos / 1e6;
+    }
+
+    public long rejectedCount(OrderPriority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+}
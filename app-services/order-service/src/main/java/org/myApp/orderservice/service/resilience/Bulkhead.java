@@ -0,0 +1,49 @@
+package org.myApp.orderservice.service.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of calls in flight to one dependency.
+ *
+ * A full bulkhead rejects right away instead of queueing,
+ * a slow dependency then costs at most maxConcurrent threads / connections.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(int maxConcurrent) {
+
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("bulkhead needs maxConcurrent >= 1");
+        }
+
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public boolean tryAcquire() {
+
+        if (permits.tryAcquire()) {
+            return true;
+        }
+
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+}
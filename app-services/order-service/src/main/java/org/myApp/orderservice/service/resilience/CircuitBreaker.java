@@ -0,0 +1,234 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.myApp.common.logging.EventLog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over a rolling window of the last calls.
+ *
+ * States:
+ * - CLOSED    → calls go through, outcomes are recorded in the window
+ * - OPEN      → calls are rejected right away, for openMillis
+ * - HALF_OPEN → a few probe calls go through, all good → CLOSED, any bad → OPEN again
+ *
+ * The breaker opens when, over the last windowSize calls (at least minimumCalls of them):
+ * - failure rate >= failureRateThreshold, or
+ * - slow-call rate >= slowCallRateThreshold (calls taking longer than slowCallMillis)
+ *
+ * Callers must pair every granted tryAcquire() with exactly one onResult() or release().
+ *
+ * Every state change is logged as a [CIRCUIT] event.
+ *
+ * Critical sections are a few array writes, so a plain monitor is good enough.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final LongSupplier nanoClock;
+
+    private final EventLog eventLog;
+
+    // ring buffer of the last windowSize calls
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+
+    // HALF_OPEN bookkeeping
+    private int probesGranted;
+    private int probesSucceeded;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong[] transitions = new AtomicLong[State.values().length];
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls,
+                          double failureRateThreshold, double slowCallRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenProbes,
+                          LongSupplier nanoClock, EventLog eventLog) {
+
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenProbes < 1) {
+            throw new IllegalArgumentException(name + ": need 1 <= minimumCalls <= windowSize and halfOpenProbes >= 1");
+        }
+
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallMillis * 1_000_000;
+        this.openNanos = openMillis * 1_000_000;
+        this.halfOpenProbes = halfOpenProbes;
+        this.nanoClock = nanoClock;
+        this.eventLog = eventLog;
+
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * @return true if the call may go ahead
+     */
+    public synchronized boolean tryAcquire() {
+
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+
+        boolean permitted = state == State.CLOSED;
+
+        // only a few probes at a time while half-open
+        if (state == State.HALF_OPEN && probesGranted < halfOpenProbes) {
+            probesGranted++;
+            permitted = true;
+        }
+
+        if (!permitted) {
+            rejected.incrementAndGet();
+        }
+
+        return permitted;
+    }
+
+    /**
+     * Outcome of a permitted call.
+     */
+    public synchronized void onResult(boolean failure, long durationNanos) {
+
+        boolean slowCall = durationNanos >= slowCallNanos;
+
+        switch (state) {
+
+            case CLOSED -> {
+                record(failure, slowCall);
+                if (shouldOpen()) {
+                    transitionTo(State.OPEN);
+                }
+            }
+
+            case HALF_OPEN -> {
+                if (failure || slowCall) {
+                    transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+
+            // a call that started before the breaker opened, nothing to learn from it
+            case OPEN -> { }
+        }
+    }
+
+    /**
+     * A permitted call that was not made after all (e.g. the bulkhead said no).
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesGranted > 0) {
+            probesGranted--;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * How often the breaker moved into the given state.
+     */
+    public long transitionCount(State to) {
+        return transitions[to.ordinal()].get();
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+
+        // drop the oldest call once the window is full
+        if (recorded == windowSize) {
+            if (failed[next]) {
+                failures--;
+            }
+            if (slow[next]) {
+                slowCalls--;
+            }
+        } else {
+            recorded++;
+        }
+
+        failed[next] = failure;
+        slow[next] = slowCall;
+
+        if (failure) {
+            failures++;
+        }
+        if (slowCall) {
+            slowCalls++;
+        }
+
+        next = (next + 1) % windowSize;
+    }
+
+    private boolean shouldOpen() {
+
+        if (recorded < minimumCalls) {
+            return false;
+        }
+
+        return (double) failures / recorded >= failureRateThreshold
+                || (double) slowCalls / recorded >= slowCallRateThreshold;
+    }
+
+    private void transitionTo(State newState) {
+
+        state = newState;
+        transitions[newState.ordinal()].incrementAndGet();
+
+        switch (newState) {
+            case OPEN -> openedAt = nanoClock.getAsLong();
+            case HALF_OPEN -> {
+                probesGranted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                // start over, the old window describes the outage
+                recorded = 0;
+                next = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+        }
+
+        eventLog.event("CIRCUIT").with("name", name).with("state", newState).publish();
+    }
+}
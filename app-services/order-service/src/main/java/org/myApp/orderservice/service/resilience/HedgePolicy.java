@@ -0,0 +1,126 @@
+package org.myApp.orderservice.service.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When to send a hedged (second) attempt of a call: once the first one has been out for longer than
+ * a percentile of the recent first-attempt latencies.
+ *
+ * At p95 about 5% of the calls are hedged, each of them gets a second chance to be fast:
+ * a tail caused by one slow attempt (GC pause, a queue on one connection...) is cut to about the p95.
+ * A dependency that is slow for every attempt gets its delay pushed up by its own latencies,
+ * so the hedges stay around 5% instead of doubling the load.
+ *
+ * - latencies are of first attempts only: hedge wins would hide the tail that sets the delay
+ * - the last window latencies count, the percentile is recomputed every window / 10 samples
+ * - the delay stays within [minDelay, maxDelay], maxDelay until the first recompute
+ *
+ * One timer thread per policy fires the hedges, a call answered in time cancels its timer.
+ */
+public class HedgePolicy {
+
+    private final double percentile;
+    private final int window;
+    private final int recomputeEvery;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    // ring of the last window latencies, slot = sample number % window
+    private final AtomicLongArray samples;
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    private volatile long delayNanos;
+
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    public HedgePolicy(String name, double percentile, int window, long minDelayMillis, long maxDelayMillis) {
+
+        if (percentile <= 0 || percentile >= 1 || window < 10 || minDelayMillis > maxDelayMillis) {
+            throw new IllegalArgumentException("hedge policy needs 0 < percentile < 1, window >= 10, minDelay <= maxDelay");
+        }
+
+        this.percentile = percentile;
+        this.window = window;
+        this.recomputeEvery = window / 10;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.samples = new AtomicLongArray(window);
+        this.delayNanos = maxDelayNanos;
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // most timers are cancelled (first attempt in time), drop them from the queue right away
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Run hedge once the current delay has passed, unless cancelled (through the returned future) before.
+     *
+     * hedge runs on the timer thread: it must only send, not wait.
+     */
+    public ScheduledFuture<?> schedule(Runnable hedge) {
+        return timer.schedule(hedge, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * A first attempt answered after latencyNanos (whether or not its hedge was faster).
+     */
+    public void record(long latencyNanos) {
+
+        long n = sampleCount.getAndIncrement();
+        samples.set((int) (n % window), latencyNanos);
+
+        if ((n + 1) % recomputeEvery == 0) {
+            recompute((int) Math.min(n + 1, window));
+        }
+    }
+
+    // a few hundred longs sorted once per window / 10 calls, by the caller that closed the batch
+    private void recompute(int size) {
+
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+
+        long p = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, p));
+    }
+
+    public void hedged() {
+        hedged.increment();
+    }
+
+    public void hedgeWon() {
+        hedgeWins.increment();
+    }
+
+    public double delayMillis() {
+        return delayNanos / 1e6;
+    }
+
+    public long hedgedCount() {
+        return hedged.sum();
+    }
+
+    public long hedgeWinCount() {
+        return hedgeWins.sum();
+    }
+}
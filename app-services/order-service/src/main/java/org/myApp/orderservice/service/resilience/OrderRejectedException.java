@@ -0,0 +1,21 @@
+package org.myApp.orderservice.service.resilience;
+
+/**
+ * The order was not accepted, order-service is overloaded (see AdmissionController).
+ * Nothing was created, the client may try again after retryAfterSeconds.
+ *
+ * Thrown on every rejected request during an overload, so no stack trace is filled in.
+ */
+public class OrderRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OrderRejectedException(String reason, long retryAfterSeconds) {
+        super(reason, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,99 @@
+package org.myApp.orderservice.service.resilience;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a task again later, with exponential backoff and full jitter.
+ *
+ * Delay before retry n (1-based) is random in [0, min(maxDelay, baseDelay * 2^(n-1))],
+ * so retries of many orders that failed together do not all come back at the same moment.
+ *
+ * The scheduler thread only hands the task over, tasks must not block it
+ * (blocking work is resubmitted to the order executor by the caller).
+ */
+public class RetryScheduler {
+
+    private final String name;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final ScheduledExecutorService timer;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong scheduled = new AtomicLong();
+
+    /**
+     * @param maxAttempts retries per task, 0 → never retry
+     */
+    public RetryScheduler(String name, int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+
+        this.name = name;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedule retry number retriesSoFar + 1.
+     *
+     * @return false if all retries are used up, the caller gives up then
+     */
+    public boolean schedule(int retriesSoFar, Runnable task) {
+
+        if (retriesSoFar >= maxAttempts) {
+            return false;
+        }
+
+        pending.incrementAndGet();
+        scheduled.incrementAndGet();
+
+        timer.schedule(() -> {
+            pending.decrementAndGet();
+            task.run();
+        }, backoffMillis(retriesSoFar + 1), TimeUnit.MILLISECONDS);
+
+        return true;
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(max, base * 2^(retry-1))].
+     */
+    long backoffMillis(int retry) {
+
+        // shift capped, the ceiling hits maxDelay long before 2^30 anyway
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry - 1, 30));
+
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Retries waiting for their turn.
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    public long scheduledCount() {
+        return scheduled.get();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
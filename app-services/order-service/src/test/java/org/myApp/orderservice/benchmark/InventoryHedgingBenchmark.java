@@ -0,0 +1,105 @@
+package org.myApp.orderservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.config.HttpTransport;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.service.InventoryClient;
+import org.myApp.orderservice.service.SlowInventoryServer;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.myApp.orderservice.service.resilience.HedgePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory reservation latency with and without hedging, against a SlowInventoryServer
+ * where SLOW_PERCENT % of the attempts (first ones and hedges alike) take SLOW_MS.
+ *
+ * - hedge=false → a slow attempt is waited for: p0.99 ≈ SLOW_MS
+ * - hedge=true  → after the p95 of recent latencies a second attempt goes out and is almost always fast:
+ *                 p0.99 ≈ p95 + one fast call, at the cost of about 5% more requests
+ *
+ * Every benchmark thread makes one blocking reserve() at a time, 8 in flight.
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main InventoryHedgingBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class InventoryHedgingBenchmark {
+
+    private static final int SLOW_PERCENT = 2;
+    private static final long SLOW_MS = 100;
+
+    @Param({"false", "true"})
+    public boolean hedge;
+
+    private SlowInventoryServer server;
+    private CloseableHttpClient httpClient;
+    private CloseableHttpAsyncClient httpAsyncClient;
+    private HedgePolicy hedgePolicy;
+    private InventoryClient inventoryClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        server = new SlowInventoryServer(attempt -> ThreadLocalRandom.current().nextInt(100) < SLOW_PERCENT, SLOW_MS);
+
+        httpClient = HttpClients.createDefault();
+        httpAsyncClient = HttpAsyncClients.createDefault();
+        httpAsyncClient.start();
+        hedgePolicy = new HedgePolicy("inventory-hedge", 0.95, 1000, 1, 1000);
+
+        inventoryClient = new InventoryClient(server.reserveUrl(), "single", 32, 5, 1000, 5000, 5000, hedge,
+                new HttpTransport(httpClient, httpAsyncClient, new ObjectMapper(), Tracer.NOOP, Propagator.NOOP),
+                new AdaptiveLimiter("inventory", AdaptiveLimiter.Algorithm.FIXED, 64, 1, 64, 1000),
+                hedgePolicy, EventLog.sync("inventory", OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+
+        System.out.printf("%n%d requests (%d slow) for %d holds, %d hedged, %d hedges won, hedge delay %.2fms%n",
+                server.requestCount(), server.slowRequestCount(), server.holdCount(),
+                hedgePolicy.hedgedCount(), hedgePolicy.hedgeWinCount(), hedgePolicy.delayMillis());
+
+        server.close();
+        hedgePolicy.shutdown();
+        httpClient.close();
+        httpAsyncClient.close();
+    }
+
+    @Benchmark
+    public InventoryReservation reserve() {
+        return inventoryClient.reserve(UUID.randomUUID(), "A1", 1);
+    }
+}
@@ -0,0 +1,195 @@
+package org.myApp.orderservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.mockito.Mockito;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.service.InventoryClient;
+import org.myApp.orderservice.service.OrderMetrics;
+import org.myApp.orderservice.service.OrderService;
+import org.myApp.orderservice.service.PaymentClient;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Orders/sec through createOrder + processOrder with the [ORDER] event log on.
+ *
+ * - sync        → every event formatted and written on the order thread under one lock (old println)
+ * - async-drop  → ring buffer, one writer thread; events are dropped if it falls behind
+ * - async-block → same, order threads wait for the writer instead of dropping
+ *
+ * Inventory and payment answer right away and processing runs on the calling thread,
+ * so the log is the only shared resource the 8 threads fight over: 2 events per order (CREATED, CONFIRMED).
+ * The log goes to an unbuffered file, one write per console write, like stdout redirected to a file.
+ * writeLatencyMicros adds a wait to every write, for a console slower than a local file
+ * (terminal, pipe to a log shipper): sync holds its lock for that long per event, async once per batch.
+ * On a single core, with fast writes, there is nothing to offload and the modes come out close.
+ * Dropped events are printed at teardown: async-drop is only a fair comparison while that stays at 0.
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main OrderLoggingBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(8)
+@State(Scope.Benchmark)
+public class OrderLoggingBenchmark {
+
+    private static final InventoryReservation RESERVED = InventoryReservation.reserved(UUID.randomUUID());
+
+    // never refuses: admission is not what is measured here
+    private static final AdmissionController UNLIMITED_ADMISSION = new AdmissionController(
+            AdmissionController.Policy.REJECT, Integer.MAX_VALUE, Long.MAX_VALUE, 1000, 0, System::nanoTime);
+
+    @Param({"sync", "async-drop", "async-block"})
+    public String log;
+
+    @Param({"0", "50"})
+    public long writeLatencyMicros;
+
+    private Path logFile;
+    private PrintStream logStream;
+    private EventLog eventLog;
+
+    private InventoryClient inventoryClient;
+    private PaymentClient paymentClient;
+    private OrderService orderService;
+    private CreateOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        logFile = Files.createTempFile("order-log-benchmark", ".log");
+        OutputStream file = new FileOutputStream(logFile.toFile());
+        logStream = new PrintStream(new SlowOutputStream(file, writeLatencyMicros), true);
+
+        eventLog = switch (log) {
+            case "sync" -> EventLog.sync("order", logStream);
+            case "async-drop" -> new EventLog("order", logStream, true, 16384, EventLog.Overflow.DROP);
+            case "async-block" -> new EventLog("order", logStream, true, 16384, EventLog.Overflow.BLOCK);
+            default -> throw new IllegalArgumentException(log);
+        };
+
+        // stubOnly: no invocation history, millions of calls must not fill the heap
+        inventoryClient = Mockito.mock(InventoryClient.class, Mockito.withSettings().stubOnly());
+        paymentClient = Mockito.mock(PaymentClient.class, Mockito.withSettings().stubOnly());
+
+        Mockito.when(inventoryClient.reserve(any(), anyString(), anyInt())).thenReturn(RESERVED);
+        Mockito.when(paymentClient.pay(any())).thenReturn(PaymentResult.SUCCESS);
+
+        request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+    }
+
+    // fresh repository every iteration, the orders of the last one are garbage
+    @Setup(Level.Iteration)
+    public void newRepository() {
+
+        InMemoryOrderRepository repository = new InMemoryOrderRepository(new MapOrderStore(), new OrderIndex());
+
+        orderService = new OrderService(repository, inventoryClient, paymentClient, new InlineExecutor(),
+                new RetryScheduler("payment-retry", 0, 1, 1), eventLog,
+                new OrderMetrics(new SimpleMeterRegistry()), Tracer.NOOP, UNLIMITED_ADMISSION, "blocking", "sequential");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        eventLog.close();
+        logStream.close();
+
+        System.out.printf("%n[LOG] %s/%dus: %,d events written, %,d dropped, log file %,d MB%n",
+                log, writeLatencyMicros, eventLog.publishedCount(), eventLog.droppedCount(), Files.size(logFile) >> 20);
+
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public Order createAndProcess() {
+        return orderService.createOrder(request);
+    }
+
+    // a console that makes the writer wait (blocked in I/O, not using the CPU)
+    private static class SlowOutputStream extends FilterOutputStream {
+
+        private final long latencyNanos;
+
+        SlowOutputStream(OutputStream out, long latencyMicros) {
+            super(out);
+            this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            out.write(b, off, len);
+        }
+    }
+
+    // processOrder runs on the benchmark thread
+    private static class InlineExecutor implements OrderProcessingExecutor {
+
+        @Override
+        public void submit(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public int queueDepth() {
+            return 0;
+        }
+
+        @Override
+        public int activeCount() {
+            return 0;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
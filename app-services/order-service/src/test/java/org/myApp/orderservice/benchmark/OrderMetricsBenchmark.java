@@ -0,0 +1,87 @@
+package org.myApp.orderservice.benchmark;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.service.OrderMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What OrderMetrics adds to one order, on the registry the service runs with (Prometheus).
+ *
+ * - inventoryCall → timer (histogram buckets + HdrHistogram percentiles) and result counter
+ * - paymentCall   → same
+ * - processed     → timer only
+ * - perOrder      → the three together, what processOrder records for one order that went through
+ * - nanoTime      → the System.nanoTime() the caller pays for the start time, for reference
+ *
+ * Each record call should stay within a few hundred ns, about half of it the HdrHistogram percentiles,
+ * so perOrder stays around a microsecond next to inventory and payment calls in the ms.
+ * Single thread by default, add -t 4 on a multi-core machine to include contention on the histograms
+ * (on one core the threads only take turns and every score looks 4 times slower).
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main OrderMetricsBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class OrderMetricsBenchmark {
+
+    private static final InventoryReservation RESERVED = InventoryReservation.reserved(UUID.randomUUID());
+
+    private OrderMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = new OrderMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public void inventoryCall() {
+        metrics.inventoryCall(System.nanoTime(), RESERVED);
+    }
+
+    @Benchmark
+    public void paymentCall() {
+        metrics.paymentCall(System.nanoTime(), PaymentResult.SUCCESS);
+    }
+
+    @Benchmark
+    public void processed() {
+        metrics.processed(System.nanoTime(), OrderStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public void perOrder() {
+        long start = System.nanoTime();
+        metrics.inventoryCall(System.nanoTime(), RESERVED);
+        metrics.paymentCall(System.nanoTime(), PaymentResult.SUCCESS);
+        metrics.processed(start, OrderStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,192 @@
+package org.myApp.orderservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.mockito.Mockito;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.service.InventoryClient;
+import org.myApp.orderservice.service.OrderMetrics;
+import org.myApp.orderservice.service.OrderService;
+import org.myApp.orderservice.service.PaymentClient;
+import org.myApp.orderservice.service.executor.BoundedPerOrderExecutor;
+import org.myApp.orderservice.service.executor.FixedPoolOrderExecutor;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * End-to-end order latency of the pipeline modes, with simulated downstream latency.
+ *
+ * Every benchmark thread is one caller that creates an order and waits until it is terminal,
+ * so the thread count is the number of orders in flight.
+ * SampleTime mode reports the latency percentiles (look at p0.99).
+ *
+ * - blocking-fixed    → old behavior, 4 threads
+ * - blocking-virtual  → thread per order, 256 permits
+ * - non-blocking      → CompletableFuture pipeline, no thread per order
+ *
+ * Inventory and payment are stubbed with INVENTORY_MS / PAYMENT_MS latency,
+ * blocking for the blocking clients and timer-based for the async ones.
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main OrderPipelineBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPipelineBenchmark {
+
+    private static final long INVENTORY_MS = 10;
+    private static final long PAYMENT_MS = 30;
+
+    // confirm() after payment is a no-op on the mock
+    private static final InventoryReservation RESERVED = InventoryReservation.reserved(UUID.randomUUID());
+
+    // never refuses: admission is not what is measured here
+    private static final AdmissionController UNLIMITED_ADMISSION = new AdmissionController(
+            AdmissionController.Policy.REJECT, Integer.MAX_VALUE, Long.MAX_VALUE, 1000, 0, System::nanoTime);
+
+    @Param({"blocking-fixed", "blocking-virtual", "non-blocking"})
+    public String mode;
+
+    private AwaitableOrderRepository orderRepository;
+    private OrderService orderService;
+    private OrderProcessingExecutor executor;
+    private CreateOrderRequest request;
+    private ScheduledExecutorService responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        // stubOnly: no invocation history, millions of calls must not fill the heap
+        InventoryClient inventoryClient = Mockito.mock(InventoryClient.class, Mockito.withSettings().stubOnly());
+        PaymentClient paymentClient = Mockito.mock(PaymentClient.class, Mockito.withSettings().stubOnly());
+
+        // one timer thread completes the async responses, like the selector thread of an async HTTP client
+        responses = Executors.newSingleThreadScheduledExecutor();
+
+        Mockito.when(inventoryClient.reserve(any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(INVENTORY_MS);
+            return RESERVED;
+        });
+        Mockito.when(inventoryClient.reserveAsync(any(), anyString(), anyInt())).thenAnswer(invocation ->
+                respondAfter(INVENTORY_MS, RESERVED));
+
+        Mockito.when(paymentClient.pay(any())).thenAnswer(invocation -> {
+            Thread.sleep(PAYMENT_MS);
+            return PaymentResult.SUCCESS;
+        });
+        Mockito.when(paymentClient.payAsync(any())).thenAnswer(invocation ->
+                respondAfter(PAYMENT_MS, PaymentResult.SUCCESS));
+
+        executor = "blocking-virtual".equals(mode)
+                ? new BoundedPerOrderExecutor(256)
+                : new FixedPoolOrderExecutor(4);
+
+        orderRepository = new AwaitableOrderRepository();
+        orderService = new OrderService(orderRepository, inventoryClient, paymentClient, executor,
+                new RetryScheduler("payment-retry", 0, 1, 1), EventLog.sync("order", OutputStream.nullOutputStream()),
+                new OrderMetrics(new SimpleMeterRegistry()), Tracer.NOOP, UNLIMITED_ADMISSION,
+                "non-blocking".equals(mode) ? "non-blocking" : "blocking", "sequential");
+
+        request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        responses.shutdown();
+    }
+
+    private <T> CompletableFuture<T> respondAfter(long millis, T result) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+        responses.schedule(() -> response.complete(result), millis, TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    @Benchmark
+    @Threads(64)
+    public OrderStatus inFlight64() {
+        return placeAndAwait();
+    }
+
+    @Benchmark
+    @Threads(512)
+    public OrderStatus inFlight512() {
+        return placeAndAwait();
+    }
+
+    private OrderStatus placeAndAwait() {
+
+        UUID orderId = orderService.createOrder(request).getId();
+
+        // blocks without spinning, 512 waiting callers must not eat the CPU of the pipeline
+        return orderRepository.awaitTerminal(orderId);
+    }
+
+    /**
+     * Repository that lets the caller block until an order leaves PENDING.
+     */
+    static class AwaitableOrderRepository extends InMemoryOrderRepository {
+
+        private final Map<UUID, CompletableFuture<OrderStatus>> terminal = new ConcurrentHashMap<>();
+
+        AwaitableOrderRepository() {
+            super(new MapOrderStore(), new OrderIndex());
+        }
+
+        @Override
+        public void updateStatus(UUID orderId, OrderStatus newStatus) {
+            super.updateStatus(orderId, newStatus);
+            if (newStatus != OrderStatus.PENDING) {
+                terminal.computeIfAbsent(orderId, id -> new CompletableFuture<>()).complete(newStatus);
+            }
+        }
+
+        OrderStatus awaitTerminal(UUID orderId) {
+            OrderStatus status = terminal.computeIfAbsent(orderId, id -> new CompletableFuture<>()).join();
+            terminal.remove(orderId);
+            return status;
+        }
+    }
+}
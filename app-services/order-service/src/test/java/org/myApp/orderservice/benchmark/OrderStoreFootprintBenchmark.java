@@ -0,0 +1,95 @@
+package org.myApp.orderservice.benchmark;
+
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.repository.CompactOrderStore;
+import org.myApp.orderservice.repository.IndexedOrderStore;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.repository.OrderStore;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Heap used per order by the map and compact order stores, alone and with the OrderIndex
+ * that order.repository.index=true puts on top of them.
+ *
+ * Not a JMH benchmark: footprint is measured once, as used heap after GC,
+ * before and after filling a store with N orders drawn from a catalog of SKUS products.
+ *
+ * Run with (10M map orders need a big heap):
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test
+ *     -Dexec.args="-Xmx3g -cp %classpath org.myApp.orderservice.benchmark.OrderStoreFootprintBenchmark"
+ *
+ * Optional args after the class name: order counts, e.g. "1000000 10000000" (the default).
+ */
+public class OrderStoreFootprintBenchmark {
+
+    private static final int SKUS = 1000;
+
+    public static void main(String[] args) {
+
+        int[] counts = args.length == 0
+                ? new int[]{1_000_000, 10_000_000}
+                : java.util.Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        String[] catalog = new String[SKUS];
+        for (int i = 0; i < SKUS; i++) {
+            catalog[i] = "SKU-" + i;
+        }
+
+        for (int count : counts) {
+            measure("map", MapOrderStore::new, count, catalog);
+            measure("compact", CompactOrderStore::new, count, catalog);
+            measure("map+index", () -> new IndexedOrderStore(new MapOrderStore(), new OrderIndex()), count, catalog);
+            measure("compact+index", () -> new IndexedOrderStore(new CompactOrderStore(), new OrderIndex()), count, catalog);
+        }
+    }
+
+    private static void measure(String name, Supplier<OrderStore> factory, int count, String[] catalog) {
+
+        long before = usedHeap();
+
+        OrderStore store = factory.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        try {
+            for (int i = 0; i < count; i++) {
+                store.insert(new Order(
+                        UUID.randomUUID(),
+                        OrderStatus.values()[random.nextInt(3)],
+                        catalog[random.nextInt(SKUS)],
+                        1 + random.nextInt(10)));
+            }
+        } catch (OutOfMemoryError e) {
+            store = null;
+            System.out.printf("%-14s %,12d orders  → out of memory, raise -Xmx%n", name, count);
+            return;
+        }
+
+        long after = usedHeap();
+
+        System.out.printf("%-14s %,12d orders  %,8d MB  %6.1f bytes/order%n",
+                name, store.size(), (after - before) >> 20, (double) (after - before) / count);
+    }
+
+    private static long usedHeap() {
+
+        Runtime runtime = Runtime.getRuntime();
+
+        // a few rounds, a single System.gc() does not always collect everything
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package org.myApp.orderservice.benchmark;
+
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.JournaledOrderStore;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.repository.OrderStore;
+import org.myApp.orderservice.repository.OrderWriteAheadLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * What the write-ahead log adds to the repository part of createOrder (InMemoryOrderRepository.create).
+ *
+ * - off   → no log, baseline
+ * - async → append into the mapped segment, forced by the flusher every FLUSH_MS (the default)
+ * - sync  → every create waits for a group commit that covers it, led by the first waiting thread
+ *
+ * 4 threads create orders at once, so sync shows how many creates share one force.
+ * SampleTime mode reports the latency percentiles in microseconds.
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main OrderWriteAheadLogBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OrderWriteAheadLogBenchmark {
+
+    private static final long FLUSH_MS = 10;
+
+    @Param({"off", "async", "sync"})
+    public String mode;
+
+    private Path directory;
+    private OrderWriteAheadLog log;
+    private InMemoryOrderRepository repository;
+    private CreateOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        OrderStore store = new MapOrderStore();
+
+        if (!"off".equals(mode)) {
+            directory = Files.createTempDirectory("order-wal-bench");
+            log = new OrderWriteAheadLog(directory, 64 << 20, "sync".equals(mode));
+            // no snapshots, they would only add noise
+            log.start(FLUSH_MS, 0, store::values, EventLog.sync("wal", OutputStream.nullOutputStream()));
+            store = new JournaledOrderStore(store, log);
+        }
+
+        repository = new InMemoryOrderRepository(store, new OrderIndex());
+
+        request = new CreateOrderRequest();
+        request.setProductId("SKU-1");
+        request.setQuantity(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        if (log == null) {
+            return;
+        }
+
+        log.close();
+        System.out.printf("%n[WAL] appends=%,d group commits=%,d%n", log.appendCount(), log.flushCount());
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Order create() {
+        return repository.create(request);
+    }
+}
@@ -0,0 +1,147 @@
+package org.myApp.orderservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.mockito.Mockito;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.service.InventoryClient;
+import org.myApp.orderservice.service.OrderMetrics;
+import org.myApp.orderservice.service.OrderService;
+import org.myApp.orderservice.service.PaymentClient;
+import org.myApp.orderservice.service.executor.BoundedPerOrderExecutor;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Order latency with inventory and payment called one after the other vs at the same time.
+ *
+ * - sequential → reserve, then pay: INVENTORY_MS + PAYMENT_MS
+ * - parallel   → reserve and pay together: max(INVENTORY_MS, PAYMENT_MS)
+ *
+ * for both pipelines (blocking on virtual threads, non-blocking).
+ * Every benchmark thread places an order and waits until it is terminal, 16 orders in flight.
+ * SampleTime mode reports the latency percentiles, p0.50 should drop by about INVENTORY_MS.
+ *
+ * Downstream latency is simulated the same way as in OrderPipelineBenchmark.
+ *
+ * Run with:
+ * mvn -pl app-services/order-service test-compile exec:exec -Dexec.executable=java
+ *     -Dexec.classpathScope=test -Dexec.args="-cp %classpath org.openjdk.jmh.Main ParallelPaymentBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ParallelPaymentBenchmark {
+
+    private static final long INVENTORY_MS = 10;
+    private static final long PAYMENT_MS = 30;
+
+    // confirm() after payment is a no-op on the mock
+    private static final InventoryReservation RESERVED = InventoryReservation.reserved(UUID.randomUUID());
+
+    // never refuses: admission is not what is measured here
+    private static final AdmissionController UNLIMITED_ADMISSION = new AdmissionController(
+            AdmissionController.Policy.REJECT, Integer.MAX_VALUE, Long.MAX_VALUE, 1000, 0, System::nanoTime);
+
+    @Param({"sequential", "parallel"})
+    public String payment;
+
+    @Param({"blocking", "non-blocking"})
+    public String pipeline;
+
+    private OrderPipelineBenchmark.AwaitableOrderRepository orderRepository;
+    private OrderService orderService;
+    private OrderProcessingExecutor executor;
+    private CreateOrderRequest request;
+    private ScheduledExecutorService responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        // stubOnly: no invocation history, millions of calls must not fill the heap
+        InventoryClient inventoryClient = Mockito.mock(InventoryClient.class, Mockito.withSettings().stubOnly());
+        PaymentClient paymentClient = Mockito.mock(PaymentClient.class, Mockito.withSettings().stubOnly());
+
+        responses = Executors.newSingleThreadScheduledExecutor();
+
+        Mockito.when(inventoryClient.reserve(any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(INVENTORY_MS);
+            return RESERVED;
+        });
+        Mockito.when(inventoryClient.reserveAsync(any(), anyString(), anyInt())).thenAnswer(invocation ->
+                respondAfter(INVENTORY_MS, RESERVED));
+
+        Mockito.when(paymentClient.pay(any())).thenAnswer(invocation -> {
+            Thread.sleep(PAYMENT_MS);
+            return PaymentResult.SUCCESS;
+        });
+        Mockito.when(paymentClient.payAsync(any())).thenAnswer(invocation ->
+                respondAfter(PAYMENT_MS, PaymentResult.SUCCESS));
+
+        executor = new BoundedPerOrderExecutor(256);
+
+        orderRepository = new OrderPipelineBenchmark.AwaitableOrderRepository();
+        orderService = new OrderService(orderRepository, inventoryClient, paymentClient, executor,
+                new RetryScheduler("payment-retry", 0, 1, 1), EventLog.sync("order", OutputStream.nullOutputStream()),
+                new OrderMetrics(new SimpleMeterRegistry()), Tracer.NOOP, UNLIMITED_ADMISSION,
+                pipeline, payment);
+
+        request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        responses.shutdown();
+    }
+
+    private <T> CompletableFuture<T> respondAfter(long millis, T result) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+        responses.schedule(() -> response.complete(result), millis, TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    @Benchmark
+    public OrderStatus placeAndAwait() {
+
+        UUID orderId = orderService.createOrder(request).getId();
+
+        return orderRepository.awaitTerminal(orderId);
+    }
+}
@@ -0,0 +1,117 @@
+package org.myApp.orderservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class HttpTransportTracingTest {
+
+    private HttpServer server;
+    private URI uri;
+
+    // traceparent of every request the server got, "none" if absent
+    private final BlockingQueue<String> received = new ArrayBlockingQueue<>(10);
+
+    private CloseableHttpClient httpClient;
+    private CloseableHttpAsyncClient httpAsyncClient;
+    private Tracer tracer;
+    private HttpTransport transport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+            received.add(traceparent == null ? "none" : traceparent);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/reserve");
+
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+        ContextPropagators propagators = ContextPropagators.create(W3CTraceContextPropagator.getInstance());
+
+        tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> { });
+        httpClient = HttpClients.createDefault();
+        httpAsyncClient = HttpAsyncClients.createDefault();
+        httpAsyncClient.start();
+        transport = new HttpTransport(httpClient, httpAsyncClient, new ObjectMapper(), tracer,
+                new OtelPropagator(propagators, otelTracer));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        httpAsyncClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testBlockingRequestCarriesTheCurrentSpan() throws Exception {
+
+        Span span = tracer.nextSpan().name("reserve").start();
+
+        try (Tracer.SpanInScope scope = tracer.withSpan(span);
+             ClientHttpResponse response = transport.requestFactory(1000, 1000).createRequest(uri, HttpMethod.POST).execute()) {
+
+            Assertions.assertThat(response.getStatusCode().value()).isEqualTo(200);
+        } finally {
+            span.end();
+        }
+
+        // the server's span becomes a child of "reserve": same trace, parent = reserve
+        Assertions.assertThat(received.poll(5, TimeUnit.SECONDS))
+                .isEqualTo("00-" + span.context().traceId() + "-" + span.context().spanId() + "-01");
+    }
+
+    @Test
+    void testAsyncRequestCarriesTheSpanCurrentWhenItWasSent() throws Exception {
+
+        Span span = tracer.nextSpan().name("pay").start();
+
+        transport.postAsync(uri, null, Map.of(), 1000, Map.class).get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Map> response;
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            response = transport.postAsync(uri, null, Map.of(), 1000, Map.class);
+        } finally {
+            span.end();
+        }
+        response.get(5, TimeUnit.SECONDS);
+
+        // first one was sent outside of any span, the second one inside "pay"
+        Assertions.assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("none");
+        Assertions.assertThat(received.poll(5, TimeUnit.SECONDS))
+                .isEqualTo("00-" + span.context().traceId() + "-" + span.context().spanId() + "-01");
+    }
+}
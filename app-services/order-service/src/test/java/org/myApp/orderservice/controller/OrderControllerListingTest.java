@@ -0,0 +1,144 @@
+package org.myApp.orderservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.repository.CompactOrderStore;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.IndexedOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.service.OrderService;
+import org.myApp.orderservice.service.OrderStatusNotifier;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /orders as JSON pages ({orders, nextCursor}) and as NDJSON, against a real indexed repository.
+ */
+@Tag("unit")
+public class OrderControllerListingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OrderIndex index = new OrderIndex();
+    private final InMemoryOrderRepository repository =
+            new InMemoryOrderRepository(new IndexedOrderStore(new CompactOrderStore(), index), index);
+
+    private final OrderStatusNotifier notifier = new OrderStatusNotifier(repository, 2, 100);
+
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new OrderController(repository, Mockito.mock(OrderService.class), objectMapper, notifier))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        notifier.shutdown();
+    }
+
+    @Test
+    void testCursorRoundTripListsEveryOrderOnce() throws Exception {
+
+        List<String> created = create(5);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            JsonNode page = page("/orders?limit=2" + (cursor == null ? "" : "&cursor=" + cursor));
+            page.get("orders").forEach(order -> seen.add(order.get("id").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertThat(seen).containsExactlyElementsOf(created);
+        Assertions.assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void testBadCursorIsBadRequest() throws Exception {
+
+        mockMvc.perform(get("/orders").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/orders").param("cursor", "-1").header("Accept", "application/x-ndjson"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLimitIsCappedAtOneThousand() throws Exception {
+
+        create(1001);
+
+        JsonNode capped = page("/orders?limit=5000");
+        Assertions.assertThat(capped.get("orders")).hasSize(1000);
+        Assertions.assertThat(capped.get("nextCursor").isNull()).isFalse();
+
+        // and never below one
+        Assertions.assertThat(page("/orders?limit=0").get("orders")).hasSize(1);
+    }
+
+    @Test
+    void testNdjsonStreamsOneOrderPerLine() throws Exception {
+
+        // more than one internal page of 1000
+        List<String> created = create(1500);
+
+        MvcResult started = mockMvc.perform(get("/orders").header("Accept", "application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertThat(body).endsWith("\n");
+        Assertions.assertThat(lines).hasSize(1500);
+
+        List<String> ids = new ArrayList<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readTree(line).get("id").asText());
+        }
+        Assertions.assertThat(ids).containsExactlyElementsOf(created);
+    }
+
+    private JsonNode page(String uri) throws Exception {
+
+        String body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(body);
+    }
+
+    private List<String> create(int count) {
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setProductId("A1");
+            request.setQuantity(1);
+            Order order = repository.create(request);
+            ids.add(order.getId().toString());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,137 @@
+package org.myApp.orderservice.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Tag("unit")
+public class CompactOrderStoreTest {
+
+    @Test
+    void testOrderIsStoredAndReadBackWithAllFields() {
+
+        CompactOrderStore store = new CompactOrderStore();
+        UUID id = UUID.randomUUID();
+
+        store.insert(new Order(id, OrderStatus.PENDING, "A1", 3));
+
+        Order order = store.get(id);
+        Assertions.assertThat(order.getId()).isEqualTo(id);
+        Assertions.assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+        Assertions.assertThat(order.getProductId()).isEqualTo("A1");
+        Assertions.assertThat(order.getQuantity()).isEqualTo(3);
+
+        // missing product is kept as missing, not as some other product
+        UUID noProduct = UUID.randomUUID();
+        store.insert(new Order(noProduct, OrderStatus.PENDING, null, 1));
+        Assertions.assertThat(store.get(noProduct).getProductId()).isNull();
+    }
+
+    @Test
+    void testMultiLineOrderKeepsEveryLineThroughStatusChanges() {
+
+        CompactOrderStore store = new CompactOrderStore();
+        UUID id = UUID.randomUUID();
+        List<OrderLine> lines = List.of(new OrderLine("A1", 2), new OrderLine("B1", 1), new OrderLine("A1", 4));
+
+        store.insert(new Order(id, OrderStatus.PENDING, lines));
+        store.updateStatus(id, OrderStatus.CONFIRMED);
+
+        Order order = store.get(id);
+        Assertions.assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        Assertions.assertThat(order.getLines()).containsExactlyElementsOf(lines);
+        Assertions.assertThat(order.getProductId()).isEqualTo("A1");
+
+        Assertions.assertThat(store.remove(id)).isTrue();
+        Assertions.assertThat(store.get(id)).isNull();
+    }
+
+    @Test
+    void testUpdateStatusOnlyTouchesExistingOrders() {
+
+        CompactOrderStore store = new CompactOrderStore();
+        UUID id = UUID.randomUUID();
+        store.insert(new Order(id, OrderStatus.PENDING, "A1", 1));
+
+        Assertions.assertThat(store.updateStatus(id, OrderStatus.CONFIRMED)).isTrue();
+        Assertions.assertThat(store.get(id).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+
+        Assertions.assertThat(store.updateStatus(UUID.randomUUID(), OrderStatus.FAILED)).isFalse();
+        Assertions.assertThat(store.get(UUID.randomUUID())).isNull();
+        Assertions.assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemovedOrdersAreGoneAndTheRestAreStillFound() {
+
+        CompactOrderStore store = new CompactOrderStore();
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            UUID id = UUID.randomUUID();
+            store.insert(new Order(id, OrderStatus.PENDING, "SKU-" + (i % 10), i));
+            ids.add(id);
+        }
+
+        // every other order, removal moves rows and shifts index entries around
+        for (int i = 0; i < ids.size(); i += 2) {
+            Assertions.assertThat(store.remove(ids.get(i))).isTrue();
+        }
+        Assertions.assertThat(store.remove(ids.get(0))).isFalse();
+
+        Assertions.assertThat(store.size()).isEqualTo(25_000);
+        for (int i = 0; i < ids.size(); i++) {
+            Order order = store.get(ids.get(i));
+            if (i % 2 == 0) {
+                Assertions.assertThat(order).isNull();
+            } else {
+                Assertions.assertThat(order.getQuantity()).isEqualTo(i);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentInsertsSurviveGrowthOfEveryStripe() throws Exception {
+
+        CompactOrderStore store = new CompactOrderStore();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        // enough orders that every stripe has to grow its columns and rehash its index several times
+        List<Future<List<UUID>>> writers = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    UUID id = UUID.randomUUID();
+                    store.insert(new Order(id, OrderStatus.PENDING, "SKU-" + (i % 100), writer));
+                    ids.add(id);
+                }
+                return ids;
+            }));
+        }
+
+        List<UUID> all = new ArrayList<>();
+        for (Future<List<UUID>> writer : writers) {
+            all.addAll(writer.get());
+        }
+        pool.shutdown();
+
+        Assertions.assertThat(store.size()).isEqualTo(160_000);
+        Assertions.assertThat(store.values()).hasSize(160_000);
+
+        for (UUID id : all) {
+            Assertions.assertThat(store.get(id)).isNotNull();
+        }
+    }
+}
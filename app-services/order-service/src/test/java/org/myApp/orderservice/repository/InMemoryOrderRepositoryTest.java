@@ -0,0 +1,197 @@
+package org.myApp.orderservice.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.controller.dto.OrderLineRequest;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderPage;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Tag("unit")
+public class InMemoryOrderRepositoryTest {
+
+    private final OrderIndex index = new OrderIndex();
+    private final InMemoryOrderRepository repository =
+            new InMemoryOrderRepository(new IndexedOrderStore(new CompactOrderStore(), index), index);
+
+    @Test
+    void testPagesWalkEveryOrderOnceInCreationOrder() {
+
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            created.add(create("A1").getId());
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            OrderPage page = repository.findPage(null, null, cursor, 10);
+            page.getOrders().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertThat(seen).containsExactlyElementsOf(created);
+        Assertions.assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void testStatusAndProductFiltersFollowStatusChanges() {
+
+        Order confirmedA1 = create("A1");
+        Order pendingA1 = create("A1");
+        Order confirmedB2 = create("B2");
+
+        repository.updateStatus(confirmedA1.getId(), OrderStatus.CONFIRMED);
+        repository.updateStatus(confirmedB2.getId(), OrderStatus.CONFIRMED);
+
+        Assertions.assertThat(ids(repository.findPage(OrderStatus.CONFIRMED, null, null, 10)))
+                .containsExactly(confirmedA1.getId(), confirmedB2.getId());
+
+        Assertions.assertThat(ids(repository.findPage(OrderStatus.PENDING, "A1", null, 10)))
+                .containsExactly(pendingA1.getId());
+
+        Assertions.assertThat(ids(repository.findPage(null, "C3", null, 10))).isEmpty();
+    }
+
+    @Test
+    void testRemovedOrdersLeaveTheIndex() {
+
+        IndexedOrderStore store = new IndexedOrderStore(new MapOrderStore(), index);
+        InMemoryOrderRepository repo = new InMemoryOrderRepository(store, index);
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+        Order order = repo.create(request);
+
+        store.remove(order.getId());
+
+        Assertions.assertThat(index.size()).isZero();
+        Assertions.assertThat(repo.findPage(null, "A1", null, 10).getOrders()).isEmpty();
+        Assertions.assertThat(index.productCount()).isZero();
+    }
+
+    @Test
+    void testMultiLineOrderIsFoundUnderEachOfItsProducts() {
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setItems(List.of(line("A1", 2), line("B2", 1)));
+        Order basket = repository.create(request);
+
+        Order single = create("B2");
+
+        Assertions.assertThat(repository.findById(basket.getId()).orElseThrow().getLines())
+                .containsExactly(new OrderLine("A1", 2), new OrderLine("B2", 1));
+
+        Assertions.assertThat(ids(repository.findPage(null, "A1", null, 10))).containsExactly(basket.getId());
+        Assertions.assertThat(ids(repository.findPage(null, "B2", null, 10)))
+                .containsExactly(basket.getId(), single.getId());
+    }
+
+    @Test
+    void testUnknownCursorIsRejected() {
+
+        Assertions.assertThatThrownBy(() -> repository.findPage(null, null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testWithoutIndexPagesWalkEveryMatchingOrderOnceInIdOrder() {
+
+        InMemoryOrderRepository unindexed = new InMemoryOrderRepository(new CompactOrderStore(), null);
+
+        List<UUID> a1 = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setProductId(i % 5 == 0 ? "B2" : "A1");
+            request.setQuantity(1);
+            Order order = unindexed.create(request);
+            if (i % 5 != 0) {
+                a1.add(order.getId());
+            }
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            OrderPage page = unindexed.findPage(OrderStatus.PENDING, "A1", cursor, 7);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertThat(seen).containsExactlyElementsOf(a1.stream().sorted().toList());
+        Assertions.assertThat(pages).isEqualTo(3);
+
+        Assertions.assertThatThrownBy(() -> unindexed.findPage(null, null, "42", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIterateWalksEveryMatchingOrderAfterTheCursorOnce() {
+
+        InMemoryOrderRepository unindexed = new InMemoryOrderRepository(new CompactOrderStore(), null);
+
+        List<UUID> created = new ArrayList<>();
+        List<UUID> unindexedA1 = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String productId = i % 3 == 0 ? "B2" : "A1";
+            Order order = create(productId);
+            if (i % 3 != 0) {
+                created.add(order.getId());
+            }
+
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setProductId(productId);
+            request.setQuantity(1);
+            Order other = unindexed.create(request);
+            if (i % 3 != 0) {
+                unindexedA1.add(other.getId());
+            }
+        }
+
+        // with the index: creation order, and the cursor of a page picks up right after it
+        String cursor = repository.findPage(null, "A1", null, 50).getNextCursor();
+        List<UUID> rest = new ArrayList<>();
+        repository.iterate(null, "A1", cursor).forEachRemaining(order -> rest.add(order.getId()));
+        Assertions.assertThat(rest).containsExactlyElementsOf(created.subList(50, created.size()));
+
+        // without: store order, each matching order once
+        List<UUID> all = new ArrayList<>();
+        unindexed.iterate(OrderStatus.PENDING, "A1", null).forEachRemaining(order -> all.add(order.getId()));
+        Assertions.assertThat(all).containsExactlyInAnyOrderElementsOf(unindexedA1);
+
+        Assertions.assertThatThrownBy(() -> repository.iterate(null, null, "not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Order create(String productId) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        return repository.create(request);
+    }
+
+    private static OrderLineRequest line(String productId, int quantity) {
+        OrderLineRequest line = new OrderLineRequest();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static List<UUID> ids(OrderPage page) {
+        return page.getOrders().stream().map(Order::getId).toList();
+    }
+}
@@ -0,0 +1,167 @@
+package org.myApp.orderservice.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderLine;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Tag("unit")
+public class OrderWriteAheadLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOrdersAreRecoveredAfterRestart() throws Exception {
+
+        UUID confirmed = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false);
+        JournaledOrderStore store = new JournaledOrderStore(new MapOrderStore(), log);
+
+        store.insert(new Order(confirmed, OrderStatus.PENDING, "A1", 2));
+        store.insert(new Order(pending, OrderStatus.PENDING, "B1", 1));
+        store.insert(new Order(removed, OrderStatus.PENDING, "C1", 1));
+        store.updateStatus(confirmed, OrderStatus.CONFIRMED);
+        store.remove(removed);
+        store.shutdown();
+
+        MapOrderStore recovered = new MapOrderStore();
+        OrderWriteAheadLog.Recovery recovery = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false).recover(recovered);
+
+        Assertions.assertThat(recovery.logRecords()).isEqualTo(5);
+        Assertions.assertThat(recovered.size()).isEqualTo(2);
+        Assertions.assertThat(recovered.get(confirmed).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        Assertions.assertThat(recovered.get(confirmed).getProductId()).isEqualTo("A1");
+        Assertions.assertThat(recovered.get(confirmed).getQuantity()).isEqualTo(2);
+        Assertions.assertThat(recovered.get(pending).getStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    void testOrdersEvictedByRetentionStayGoneAfterRestart() throws Exception {
+
+        AtomicLong now = new AtomicLong(1_000);
+        UUID evicted = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false);
+        RetainingOrderStore retention = new RetainingOrderStore(new MapOrderStore(), null, 100, 0, now::get);
+        retention.onDropped(log::appendRemove);
+        JournaledOrderStore store = new JournaledOrderStore(retention, log);
+
+        store.insert(new Order(evicted, OrderStatus.PENDING, "A1", 1));
+        store.insert(new Order(pending, OrderStatus.PENDING, "B1", 1));
+        store.updateStatus(evicted, OrderStatus.CONFIRMED);
+
+        // evicted below the journal, not through remove()
+        now.addAndGet(200);
+        retention.sweep();
+        Assertions.assertThat(store.get(evicted)).isNull();
+        store.shutdown();
+
+        MapOrderStore recovered = new MapOrderStore();
+        new OrderWriteAheadLog(dir, SEGMENT_BYTES, false).recover(recovered);
+
+        Assertions.assertThat(recovered.get(evicted)).isNull();
+        Assertions.assertThat(recovered.get(pending)).isNotNull();
+    }
+
+    @Test
+    void testSnapshotReplacesTheSegmentsBeforeIt() throws Exception {
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false);
+        JournaledOrderStore store = new JournaledOrderStore(new MapOrderStore(), log);
+
+        // enough records to fill a few segments
+        for (int i = 0; i < 200; i++) {
+            store.insert(new Order(UUID.randomUUID(), OrderStatus.PENDING, "A1", 1));
+        }
+        log.snapshot(store::values);
+
+        UUID afterSnapshot = UUID.randomUUID();
+        store.insert(new Order(afterSnapshot, OrderStatus.PENDING, "A1", 1));
+        store.updateStatus(afterSnapshot, OrderStatus.FAILED);
+        store.shutdown();
+
+        Assertions.assertThat(files("wal-")).hasSize(1);
+        Assertions.assertThat(files("snapshot-")).hasSize(1);
+
+        MapOrderStore recovered = new MapOrderStore();
+        OrderWriteAheadLog.Recovery recovery = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false).recover(recovered);
+
+        Assertions.assertThat(recovery.snapshotOrders()).isEqualTo(200);
+        Assertions.assertThat(recovery.logRecords()).isEqualTo(2);
+        Assertions.assertThat(recovered.size()).isEqualTo(201);
+        Assertions.assertThat(recovered.get(afterSnapshot).getStatus()).isEqualTo(OrderStatus.FAILED);
+    }
+
+    @Test
+    void testMultiLineOrdersAreRecoveredFromLogAndSnapshot() throws Exception {
+
+        UUID inSnapshot = UUID.randomUUID();
+        UUID inLog = UUID.randomUUID();
+        List<OrderLine> lines = List.of(new OrderLine("A1", 2), new OrderLine("B1", 1), new OrderLine("C1", 7));
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false);
+        JournaledOrderStore store = new JournaledOrderStore(new MapOrderStore(), log);
+
+        store.insert(new Order(inSnapshot, OrderStatus.PENDING, lines));
+        log.snapshot(store::values);
+        store.insert(new Order(inLog, OrderStatus.PENDING, lines));
+        store.shutdown();
+
+        MapOrderStore recovered = new MapOrderStore();
+        new OrderWriteAheadLog(dir, SEGMENT_BYTES, false).recover(recovered);
+
+        Assertions.assertThat(recovered.get(inSnapshot).getLines()).containsExactlyElementsOf(lines);
+        Assertions.assertThat(recovered.get(inLog).getLines()).containsExactlyElementsOf(lines);
+    }
+
+    @Test
+    void testReplayStopsAtATornRecord() throws Exception {
+
+        UUID kept = UUID.randomUUID();
+
+        OrderWriteAheadLog log = new OrderWriteAheadLog(dir, SEGMENT_BYTES, false);
+        log.appendCreate(new Order(kept, OrderStatus.PENDING, "A1", 1));
+        log.appendCreate(new Order(UUID.randomUUID(), OrderStatus.PENDING, "A1", 1));
+        log.close();
+
+        // flip a byte in the body of the second record, as a crash halfway through writing it would
+        try (RandomAccessFile segment = new RandomAccessFile(files("wal-").get(0).toFile(), "rw")) {
+            int firstRecord = 8 + 1 + 16 + 1 + 4 + 2 + 2;
+            segment.seek(firstRecord + 8 + 20);
+            segment.write(0x7F);
+        }
+
+        MapOrderStore recovered = new MapOrderStore();
+        new OrderWriteAheadLog(dir, SEGMENT_BYTES, false).recover(recovered);
+
+        Assertions.assertThat(recovered.size()).isEqualTo(1);
+        Assertions.assertThat(recovered.get(kept)).isNotNull();
+    }
+
+    private List<Path> files(String prefix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)
+                            && !file.getFileName().toString().endsWith(".tmp"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
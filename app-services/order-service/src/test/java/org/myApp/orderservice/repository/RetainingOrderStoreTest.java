@@ -0,0 +1,126 @@
+package org.myApp.orderservice.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Tag("unit")
+public class RetainingOrderStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void testTerminalOrdersAreEvictedAfterTtlButPendingOrdersStay() {
+
+        RetainingOrderStore store = new RetainingOrderStore(new MapOrderStore(), null, 500, 0, now::get);
+
+        UUID pending = insert(store);
+        UUID confirmed = insert(store);
+        store.updateStatus(confirmed, OrderStatus.CONFIRMED);
+
+        now.addAndGet(499);
+        store.sweep();
+        Assertions.assertThat(store.get(confirmed)).isNotNull();
+
+        now.addAndGet(1);
+        store.sweep();
+        Assertions.assertThat(store.get(confirmed)).isNull();
+        Assertions.assertThat(store.get(pending)).isNotNull();
+
+        Assertions.assertThat(store.evictedByTtl()).isEqualTo(1);
+        Assertions.assertThat(store.liveSize()).isEqualTo(1);
+    }
+
+    @Test
+    void testOldestTerminalOrdersAreEvictedOverTheCountBound() {
+
+        RetainingOrderStore store = new RetainingOrderStore(new MapOrderStore(), null, 0, 2, now::get);
+
+        UUID first = insert(store);
+        UUID second = insert(store);
+        UUID third = insert(store);
+
+        store.updateStatus(first, OrderStatus.FAILED);
+        store.updateStatus(second, OrderStatus.CONFIRMED);
+        store.updateStatus(third, OrderStatus.CONFIRMED);
+        store.sweep();
+
+        Assertions.assertThat(store.get(first)).isNull();
+        Assertions.assertThat(store.get(second)).isNotNull();
+        Assertions.assertThat(store.get(third)).isNotNull();
+        Assertions.assertThat(store.evictedByCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testEvictedOrdersAreStillFoundInTheColdTier() {
+
+        RetainingOrderStore store = new RetainingOrderStore(new MapOrderStore(), new CompactOrderStore(), 100, 0, now::get);
+
+        UUID orderId = insert(store);
+        store.updateStatus(orderId, OrderStatus.CONFIRMED);
+
+        now.addAndGet(100);
+        store.sweep();
+
+        Assertions.assertThat(store.liveSize()).isZero();
+        Assertions.assertThat(store.get(orderId).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        Assertions.assertThat(store.values()).hasSize(1);
+    }
+
+    @Test
+    void testOnlyTheFirstTerminalTransitionIsTracked() {
+
+        RetainingOrderStore store = new RetainingOrderStore(new MapOrderStore(), null, 0, 2, now::get);
+
+        UUID compensated = insert(store);
+        store.updateStatus(compensated, OrderStatus.CONFIRMED);
+        store.updateStatus(compensated, OrderStatus.FAILED);
+
+        // replayed from the log with its terminal status
+        UUID replayed = UUID.randomUUID();
+        store.insert(new Order(replayed, OrderStatus.CONFIRMED, "A1", 1));
+        store.insert(new Order(replayed, OrderStatus.CONFIRMED, "A1", 1));
+
+        Assertions.assertThat(store.terminalSize()).isEqualTo(2);
+
+        // two terminal orders, bound of two: nothing is over
+        store.sweep();
+        Assertions.assertThat(store.evictedByCount()).isZero();
+        Assertions.assertThat(store.liveSize()).isEqualTo(2);
+    }
+
+    @Test
+    void testRingKeepsTerminalOrderAcrossGrowth() {
+
+        RetainingOrderStore store = new RetainingOrderStore(new MapOrderStore(), null, 100, 0, now::get);
+
+        // wrap the ring around before it has to grow
+        for (int i = 0; i < 1000; i++) {
+            store.updateStatus(insert(store), OrderStatus.CONFIRMED);
+        }
+        now.addAndGet(100);
+        store.sweep();
+
+        for (int i = 0; i < 3000; i++) {
+            store.updateStatus(insert(store), OrderStatus.CONFIRMED);
+            now.incrementAndGet();
+        }
+
+        // one order per ms: all but the last 99 are past their ttl
+        store.sweep();
+        Assertions.assertThat(store.evictedByTtl()).isEqualTo(1000 + 2901);
+        Assertions.assertThat(store.terminalSize()).isEqualTo(99);
+        Assertions.assertThat(store.liveSize()).isEqualTo(99);
+    }
+
+    private UUID insert(RetainingOrderStore store) {
+        UUID orderId = UUID.randomUUID();
+        store.insert(new Order(orderId, OrderStatus.PENDING, "A1", 1));
+        return orderId;
+    }
+}
@@ -0,0 +1,126 @@
+package org.myApp.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.config.HttpTransport;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.myApp.orderservice.service.resilience.HedgePolicy;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Hedged single reservations against a SlowInventoryServer.
+ *
+ * The hedge delay is pinned to 50ms (min = max), so no latency history is needed.
+ */
+@Tag("unit")
+public class InventoryClientHedgingTest {
+
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+    private final CloseableHttpAsyncClient httpAsyncClient = HttpAsyncClients.createDefault();
+    private final HedgePolicy hedge = new HedgePolicy("test-hedge", 0.95, 10, 50, 50);
+
+    private SlowInventoryServer server;
+    private AdaptiveLimiter limiter;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+        hedge.shutdown();
+        httpClient.close();
+        httpAsyncClient.close();
+    }
+
+    @Test
+    void testSlowFirstAttemptIsHedgedAndReservedOnce() throws Exception {
+
+        // first attempt of every order hangs 3s, the hedge is fast
+        InventoryClient client = client(attempt -> attempt == 1, true);
+
+        long start = System.nanoTime();
+        InventoryReservation reservation = client.reserve(UUID.randomUUID(), "A1", 1);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertThat(reservation.isReserved()).isTrue();
+        Assertions.assertThat(elapsedMs).isLessThan(1000);
+
+        Assertions.assertThat(server.requestCount()).isEqualTo(2);
+        Assertions.assertThat(server.holdCount()).isEqualTo(1);
+        Assertions.assertThat(hedge.hedgedCount()).isEqualTo(1);
+        Assertions.assertThat(hedge.hedgeWinCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFastAnswerCancelsTheHedge() throws Exception {
+
+        InventoryClient client = client(attempt -> false, true);
+
+        // the first call of the JVM (connection, class loading) may well take longer than 50ms
+        client.reserveAsync(UUID.randomUUID(), "A1", 1).get(5, TimeUnit.SECONDS);
+        Thread.sleep(150);
+        int requests = server.requestCount();
+        long hedged = hedge.hedgedCount();
+
+        Assertions.assertThat(client.reserveAsync(UUID.randomUUID(), "A1", 1).get(5, TimeUnit.SECONDS).isReserved())
+                .isTrue();
+
+        // well past the hedge delay: nothing else went out
+        Thread.sleep(150);
+        Assertions.assertThat(server.requestCount()).isEqualTo(requests + 1);
+        Assertions.assertThat(hedge.hedgedCount()).isEqualTo(hedged);
+    }
+
+    @Test
+    void testWithoutHedgingTheSlowAttemptIsWaitedFor() throws Exception {
+
+        InventoryClient client = client(attempt -> attempt == 1, false);
+
+        long start = System.nanoTime();
+        Assertions.assertThat(client.reserve(UUID.randomUUID(), "A1", 1).isReserved()).isTrue();
+
+        Assertions.assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(3000));
+        Assertions.assertThat(server.requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testCallThatCannotBeMadeGivesTheLimiterPlaceBack() throws Exception {
+
+        InventoryClient client = client(attempt -> false, true);
+
+        // the hedge timer cannot be scheduled any more
+        hedge.shutdown();
+
+        Assertions.assertThatThrownBy(() -> client.reserveAsync(UUID.randomUUID(), "A1", 1).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        Assertions.assertThat(limiter.inFlight()).isZero();
+    }
+
+    private InventoryClient client(IntPredicate slowAttempt, boolean hedged) throws Exception {
+
+        server = new SlowInventoryServer(slowAttempt, 3000);
+
+        httpAsyncClient.start();
+        HttpTransport transport = new HttpTransport(httpClient, httpAsyncClient, new ObjectMapper(), Tracer.NOOP, Propagator.NOOP);
+        limiter = new AdaptiveLimiter("inventory", AdaptiveLimiter.Algorithm.FIXED, 10, 1, 10, 1000);
+
+        return new InventoryClient(server.reserveUrl(), "single", 32, 5, 1000, 5000, 0, hedged,
+                transport, limiter, hedge, EventLog.sync("test", OutputStream.nullOutputStream()));
+    }
+}
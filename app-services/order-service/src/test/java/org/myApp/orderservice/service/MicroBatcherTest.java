@@ -0,0 +1,57 @@
+package org.myApp.orderservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class MicroBatcherTest {
+
+    @Test
+    void testConcurrentCallsAreCoalescedAndEveryCallerGetsItsOwnResult() throws Exception {
+
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        // "batch call" doubles every item, so each caller can check its own answer
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 10, 50, items -> {
+            batchSizes.add(items.size());
+            List<Integer> results = new ArrayList<>();
+            items.forEach(i -> results.add(i * 2));
+            return results;
+        }, -1);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(batcher.submit(i));
+        }
+
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i * 2);
+        }
+
+        // 25 items with max size 10 → two full batches and one timed batch of 5
+        Assertions.assertThat(batchSizes).hasSize(3);
+        Assertions.assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+
+        batcher.shutdown();
+    }
+
+    @Test
+    void testFailedBatchCallCompletesEveryCallerWithFallback() throws Exception {
+
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("test", 10, 5, items -> {
+            throw new IllegalStateException("inventory down");
+        }, -1);
+
+        Assertions.assertThat(batcher.submit(1).get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        Assertions.assertThat(batcher.submit(2).get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+
+        batcher.shutdown();
+    }
+}
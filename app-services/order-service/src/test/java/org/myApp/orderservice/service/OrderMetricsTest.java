@@ -0,0 +1,84 @@
+package org.myApp.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.InventoryResult;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class OrderMetricsTest {
+
+    @Test
+    void testEveryOutcomeSeriesExistsBeforeTheFirstOrder() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new OrderMetrics(registry);
+
+        for (InventoryResult result : InventoryResult.values()) {
+            Assertions.assertThat(registry.get("orders.inventory.results").tag("result", result.name()).counter().count())
+                    .isZero();
+        }
+        for (PaymentResult result : PaymentResult.values()) {
+            Assertions.assertThat(registry.get("orders.payment.results").tag("result", result.name()).counter().count())
+                    .isZero();
+        }
+
+        // no PENDING series, it is not a final status
+        Assertions.assertThat(registry.find("orders.processing").tag("status", "PENDING").timer()).isNull();
+        Assertions.assertThat(registry.get("orders.processing").tag("status", "CONFIRMED").timer().count()).isZero();
+    }
+
+    @Test
+    void testCallsAreTimedAndCountedByOutcome() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderMetrics metrics = new OrderMetrics(registry);
+
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20);
+
+        metrics.inventoryCall(start, InventoryReservation.reserved(UUID.randomUUID()));
+        metrics.paymentCall(start, PaymentResult.SUCCESS);
+        metrics.paymentCall(start, PaymentResult.FAILED);
+        metrics.processed(start, OrderStatus.CONFIRMED);
+
+        Assertions.assertThat(registry.get("orders.inventory.call").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("orders.inventory.call").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(20);
+        Assertions.assertThat(registry.get("orders.inventory.results").tag("result", "RESERVED").counter().count())
+                .isEqualTo(1);
+
+        Assertions.assertThat(registry.get("orders.payment.call").timer().count()).isEqualTo(2);
+        Assertions.assertThat(registry.get("orders.payment.results").tag("result", "SUCCESS").counter().count())
+                .isEqualTo(1);
+        Assertions.assertThat(registry.get("orders.payment.results").tag("result", "FAILED").counter().count())
+                .isEqualTo(1);
+
+        Assertions.assertThat(registry.get("orders.processing").tag("status", "CONFIRMED").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("orders.processing").tag("status", "FAILED").timer().count()).isZero();
+    }
+
+    @Test
+    void testCallThatThrewIsTimedButNotCounted() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderMetrics metrics = new OrderMetrics(registry);
+
+        // the async clients complete exceptionally with no result
+        metrics.inventoryCall(System.nanoTime(), null);
+        metrics.paymentCall(System.nanoTime(), null);
+
+        Assertions.assertThat(registry.get("orders.inventory.call").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.get("orders.payment.call").timer().count()).isEqualTo(1);
+        Assertions.assertThat(registry.find("orders.inventory.results").counters())
+                .allMatch(counter -> counter.count() == 0);
+        Assertions.assertThat(registry.find("orders.payment.results").counters())
+                .allMatch(counter -> counter.count() == 0);
+    }
+}
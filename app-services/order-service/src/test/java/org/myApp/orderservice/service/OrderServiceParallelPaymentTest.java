@@ -0,0 +1,185 @@
+package org.myApp.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.InventoryReservation;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+import org.myApp.orderservice.service.executor.OrderProcessingExecutor;
+import org.myApp.orderservice.service.resilience.AdmissionController;
+import org.myApp.orderservice.service.resilience.RetryScheduler;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * order.pipeline.payment = parallel: the order is CONFIRMED only if both sides succeed,
+ * and whatever succeeded on the other side is compensated.
+ *
+ * Runs both pipelines; clients answer right away and the executor runs inline,
+ * so the order is terminal when createOrder() returns.
+ */
+@Tag("unit")
+public class OrderServiceParallelPaymentTest {
+
+    private static final UUID HOLD_ID = UUID.randomUUID();
+    private static final InventoryReservation RESERVED = InventoryReservation.reserved(HOLD_ID);
+
+    // never refuses: admission is not what is measured here
+    private static final AdmissionController UNLIMITED_ADMISSION = new AdmissionController(
+            AdmissionController.Policy.REJECT, Integer.MAX_VALUE, Long.MAX_VALUE, 1000, 0, System::nanoTime);
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository(new MapOrderStore(), new OrderIndex());
+    private final InventoryClient inventoryClient = Mockito.mock(InventoryClient.class);
+    private final PaymentClient paymentClient = Mockito.mock(PaymentClient.class);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void testBothSucceedConfirmsOrderAndHold(String pipeline) {
+
+        stub(RESERVED, PaymentResult.SUCCESS);
+
+        UUID orderId = placeOrder(pipeline);
+
+        Assertions.assertThat(status(orderId)).isEqualTo(OrderStatus.CONFIRMED);
+        Mockito.verify(inventoryClient).confirm(orderId, HOLD_ID);
+        Mockito.verify(paymentClient, Mockito.never()).voidPayment(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void testOutOfStockVoidsThePayment(String pipeline) {
+
+        stub(InventoryReservation.REJECTED, PaymentResult.SUCCESS);
+
+        UUID orderId = placeOrder(pipeline);
+
+        Assertions.assertThat(status(orderId)).isEqualTo(OrderStatus.FAILED);
+        Mockito.verify(paymentClient).voidPayment(orderId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void testOutOfStockWithPaymentTimeoutVoidsThePayment(String pipeline) {
+
+        // the timed out payment may still have been charged
+        stub(InventoryReservation.REJECTED, PaymentResult.TIMEOUT);
+
+        UUID orderId = placeOrder(pipeline);
+
+        Assertions.assertThat(status(orderId)).isEqualTo(OrderStatus.FAILED);
+        Mockito.verify(paymentClient).voidPayment(orderId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void testFailedPaymentReleasesTheHold(String pipeline) {
+
+        stub(RESERVED, PaymentResult.FAILED);
+
+        UUID orderId = placeOrder(pipeline);
+
+        Assertions.assertThat(status(orderId)).isEqualTo(OrderStatus.FAILED);
+        Mockito.verify(inventoryClient).release(orderId, HOLD_ID);
+        Mockito.verify(paymentClient, Mockito.never()).voidPayment(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"blocking", "non-blocking"})
+    void testBothFailedCompensatesNothing(String pipeline) {
+
+        stub(InventoryReservation.REJECTED, PaymentResult.FAILED);
+
+        UUID orderId = placeOrder(pipeline);
+
+        Assertions.assertThat(status(orderId)).isEqualTo(OrderStatus.FAILED);
+        Mockito.verify(inventoryClient, Mockito.never()).release(any(), any());
+        Mockito.verify(paymentClient, Mockito.never()).voidPayment(any());
+    }
+
+    @Test
+    void testOrderThatCannotBeStoredGivesItsAdmissionBack() {
+
+        AdmissionController admission = new AdmissionController(
+                AdmissionController.Policy.REJECT, 1, Long.MAX_VALUE, 1000, 0, System::nanoTime);
+        InMemoryOrderRepository failing = Mockito.mock(InMemoryOrderRepository.class);
+        Mockito.when(failing.create(any())).thenThrow(new IllegalStateException("store is full"));
+
+        OrderService orderService = new OrderService(failing, inventoryClient, paymentClient, new InlineExecutor(),
+                new RetryScheduler("payment-retry", 0, 1, 1), EventLog.sync("order", OutputStream.nullOutputStream()),
+                new OrderMetrics(new SimpleMeterRegistry()), Tracer.NOOP, admission,
+                "blocking", "parallel");
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+
+        Assertions.assertThatThrownBy(() -> orderService.createOrder(request)).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(admission.queued()).isZero();
+    }
+
+    private void stub(InventoryReservation inventory, PaymentResult payment) {
+
+        Mockito.when(inventoryClient.reserve(any(), anyString(), anyInt())).thenReturn(inventory);
+        Mockito.when(inventoryClient.reserveAsync(any(), anyString(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(inventory));
+        Mockito.when(paymentClient.payAsync(any())).thenReturn(CompletableFuture.completedFuture(payment));
+    }
+
+    private UUID placeOrder(String pipeline) {
+
+        // no payment retries, TIMEOUT is final here
+        OrderService orderService = new OrderService(repository, inventoryClient, paymentClient, new InlineExecutor(),
+                new RetryScheduler("payment-retry", 0, 1, 1), EventLog.sync("order", OutputStream.nullOutputStream()),
+                new OrderMetrics(new SimpleMeterRegistry()), Tracer.NOOP, UNLIMITED_ADMISSION,
+                pipeline, "parallel");
+
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+
+        return orderService.createOrder(request).getId();
+    }
+
+    private OrderStatus status(UUID orderId) {
+        return repository.findById(orderId).orElseThrow().getStatus();
+    }
+
+    private static class InlineExecutor implements OrderProcessingExecutor {
+
+        @Override
+        public void submit(Runnable task) {
+            task.run();
+        }
+
+        @Override
+        public int queueDepth() {
+            return 0;
+        }
+
+        @Override
+        public int activeCount() {
+            return 0;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.myApp.orderservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.controller.dto.CreateOrderRequest;
+import org.myApp.orderservice.model.Order;
+import org.myApp.orderservice.model.OrderStatus;
+import org.myApp.orderservice.repository.InMemoryOrderRepository;
+import org.myApp.orderservice.repository.MapOrderStore;
+import org.myApp.orderservice.repository.OrderIndex;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class OrderStatusNotifierTest {
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository(new MapOrderStore(), new OrderIndex());
+    private final OrderStatusNotifier notifier = new OrderStatusNotifier(repository, 2, 100);
+
+    @AfterEach
+    void tearDown() {
+        notifier.shutdown();
+    }
+
+    @Test
+    void testAwaitTerminalCompletesOnTheStatusChange() throws Exception {
+
+        Order order = create();
+
+        CompletableFuture<Order> terminal = notifier.awaitTerminal(order.getId());
+        Assertions.assertThat(terminal).isNotDone();
+
+        repository.updateStatus(order.getId(), OrderStatus.CONFIRMED);
+
+        Assertions.assertThat(terminal.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void testAwaitTerminalIsImmediateForFinishedOrUnknownOrders() throws Exception {
+
+        Order order = create();
+        repository.updateStatus(order.getId(), OrderStatus.FAILED);
+
+        Assertions.assertThat(notifier.awaitTerminal(order.getId()).getNow(null).getStatus()).isEqualTo(OrderStatus.FAILED);
+        Assertions.assertThat(notifier.awaitTerminal(UUID.randomUUID()).get(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void testUnsubscribedCallbacksAreNotCalled() throws Exception {
+
+        Order order = create();
+        List<OrderStatus> seen = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<OrderStatus> delivered = new CompletableFuture<>();
+
+        Runnable unsubscribe = notifier.subscribe(order.getId(), status -> {
+            seen.add(status);
+            delivered.complete(status);
+        });
+
+        repository.updateStatus(order.getId(), OrderStatus.CONFIRMED);
+
+        // callbacks run on the dispatcher pool
+        delivered.get(5, TimeUnit.SECONDS);
+
+        unsubscribe.run();
+        repository.updateStatus(order.getId(), OrderStatus.FAILED);
+        Thread.sleep(200);
+
+        Assertions.assertThat(seen).containsExactly(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void testSubscribeRacingTheLastUnsubscribeIsStillCalled() throws Exception {
+
+        Order order = create();
+        ExecutorService racer = Executors.newSingleThreadExecutor();
+
+        try {
+            for (int i = 0; i < 2_000; i++) {
+
+                Runnable first = notifier.subscribe(order.getId(), status -> { });
+
+                // first leaving empties the set while second joins it
+                Future<?> leaving = racer.submit(first);
+                CompletableFuture<OrderStatus> delivered = new CompletableFuture<>();
+                Runnable second = notifier.subscribe(order.getId(), delivered::complete);
+                leaving.get();
+
+                repository.updateStatus(order.getId(), OrderStatus.PENDING);
+                Assertions.assertThat(delivered.get(5, TimeUnit.SECONDS)).isEqualTo(OrderStatus.PENDING);
+                second.run();
+            }
+        } finally {
+            racer.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFullQueueDeliversOnTheUpdatingThread() throws Exception {
+
+        OrderStatusNotifier small = new OrderStatusNotifier(repository, 1, 1);
+        Order order = create();
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        small.subscribe(order.getId(), status -> {
+            threads.add(Thread.currentThread().getName());
+            if (threads.size() > 1) {
+                return;
+            }
+            // the first call keeps the only dispatcher thread busy
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            // first one runs on the only dispatcher thread, second one waits in the queue
+            repository.updateStatus(order.getId(), OrderStatus.PENDING);
+            while (threads.isEmpty()) {
+                Thread.sleep(1);
+            }
+            repository.updateStatus(order.getId(), OrderStatus.PENDING);
+
+            // third one has no room left
+            repository.updateStatus(order.getId(), OrderStatus.CONFIRMED);
+            Assertions.assertThat(threads).containsExactly("order-events-1", Thread.currentThread().getName());
+            release.countDown();
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    private Order create() {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setProductId("A1");
+        request.setQuantity(1);
+        return repository.create(request);
+    }
+}
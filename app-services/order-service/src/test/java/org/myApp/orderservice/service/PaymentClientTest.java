@@ -0,0 +1,57 @@
+package org.myApp.orderservice.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.myApp.common.logging.EventLog;
+import org.myApp.orderservice.config.HttpTransport;
+import org.myApp.orderservice.model.PaymentResult;
+import org.myApp.orderservice.service.resilience.AdaptiveLimiter;
+import org.myApp.orderservice.service.resilience.Bulkhead;
+import org.myApp.orderservice.service.resilience.CircuitBreaker;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@Tag("unit")
+public class PaymentClientTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong();
+
+    // opens on the first failure, 1 half-open probe
+    private final CircuitBreaker breaker = new CircuitBreaker("payment", 2, 1, 0.5, 1.0, 1000, 1000, 1, now::get,
+            EventLog.sync("test", OutputStream.nullOutputStream()));
+    private final Bulkhead bulkhead = new Bulkhead(1);
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter("payment", AdaptiveLimiter.Algorithm.FIXED, 1, 1, 1, 1000);
+
+    @Test
+    void testCallThatCannotBeMadeGivesEverythingBackAndIsRejected() {
+
+        HttpTransport transport = Mockito.mock(HttpTransport.class);
+        Mockito.when(transport.requestFactory(anyInt(), anyInt())).thenReturn(new SimpleClientHttpRequestFactory());
+        Mockito.when(transport.postAsync(any(), any(), any(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("client closed"));
+
+        PaymentClient client = new PaymentClient("http://localhost:1/payments", 100, 100, 0,
+                transport, breaker, bulkhead, limiter, EventLog.sync("test", OutputStream.nullOutputStream()));
+
+        // open, then half open once the open time is over: the call takes the only probe
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(true, 0);
+        now.addAndGet(1000 * MS);
+
+        Assertions.assertThat(client.payAsync(UUID.randomUUID())).isCompletedWithValue(PaymentResult.REJECTED);
+
+        Assertions.assertThat(limiter.inFlight()).isZero();
+        Assertions.assertThat(bulkhead.inFlight()).isZero();
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,101 @@
+package org.myApp.orderservice.service;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * Stand-in for inventory-service's POST /inventory/reserve that injects slow responses,
+ * for hedging tests and InventoryHedgingBenchmark.
+ *
+ * - every request, first attempt or hedge, is asked slowAttempt(n) with n = its attempt number for its x-order-id
+ *   (1 = first): slow ones answer after slowMillis, the others right away
+ * - idempotent on x-order-id like inventory-service: one hold per key, duplicates get the same holdId
+ *
+ * The delay comes before the reservation, as in real life (network, GC pause, a queue in front of Tomcat):
+ * inventory-service itself answers a duplicate within microseconds.
+ */
+public class SlowInventoryServer implements AutoCloseable {
+
+    static {
+        // headers and body go out in two writes: without this, Nagle + delayed ACK add ~40ms to every fast answer
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final Map<String, UUID> holds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    public SlowInventoryServer(IntPredicate slowAttempt, long slowMillis) throws IOException {
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/inventory/reserve", exchange -> {
+
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+
+            String key = exchange.getRequestHeaders().getFirst(InventoryClient.ORDER_ID_HEADER);
+            int attempt = key == null ? 1 : attempts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+
+            if (slowAttempt.test(attempt)) {
+                slowRequests.incrementAndGet();
+                try {
+                    Thread.sleep(slowMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            UUID holdId = key == null ? UUID.randomUUID() : holds.computeIfAbsent(key, k -> UUID.randomUUID());
+            byte[] body = ("{\"status\":\"RESERVED\",\"holdId\":\"" + holdId + "\"}").getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    public String reserveUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/inventory/reserve";
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int slowRequestCount() {
+        return slowRequests.get();
+    }
+
+    /**
+     * Distinct keys reserved: with hedging on, still one per order.
+     */
+    public int holdCount() {
+        return holds.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+}
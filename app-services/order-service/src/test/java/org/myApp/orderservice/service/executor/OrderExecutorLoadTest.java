@@ -0,0 +1,100 @@
+package org.myApp.orderservice.service.executor;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for the order processing executors.
+ *
+ * Every "order" blocks for a fixed time, like a worker waiting on inventory and payment.
+ * Throughput of the fixed pool is capped by its 4 threads,
+ * throughput of the per-order executor should grow with its concurrency permit.
+ */
+@Tag("performance")
+public class OrderExecutorLoadTest {
+
+    private static final int ORDERS = 160;
+    private static final long DOWNSTREAM_LATENCY_MS = 50;
+
+    @Test
+    void testThroughputScalesWithConcurrencyInsteadOfCappingAtFour() throws Exception {
+
+        double fixed = ordersPerSecond(new FixedPoolOrderExecutor(4), 4);
+        double virtual16 = ordersPerSecond(new BoundedPerOrderExecutor(16), 16);
+        double virtual64 = ordersPerSecond(new BoundedPerOrderExecutor(64), 64);
+
+        // ideal ratios are 4x and 16x, asserted loosely to stay stable on slow CI machines
+        Assertions.assertThat(virtual16)
+                .as("16 permits (%.0f orders/s) should process clearly more than 4 fixed threads (%.0f orders/s)",
+                        virtual16, fixed)
+                .isGreaterThan(fixed * 2.5);
+
+        Assertions.assertThat(virtual64)
+                .as("64 permits (%.0f orders/s) should process clearly more than 16 permits (%.0f orders/s)",
+                        virtual64, virtual16)
+                .isGreaterThan(virtual16 * 2);
+    }
+
+    @Test
+    void testInFlightOrdersNeverExceedPermit() throws Exception {
+
+        BoundedPerOrderExecutor executor = new BoundedPerOrderExecutor(8);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> {
+                int now = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(now, Math::max);
+                sleep(10);
+                inFlight.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        // the queue fills up right away because only 8 orders can start
+        Assertions.assertThat(executor.queueDepth()).isGreaterThan(0);
+
+        Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(maxInFlight.get()).isLessThanOrEqualTo(8);
+        Assertions.assertThat(executor.queueDepth()).isZero();
+
+        executor.shutdown();
+    }
+
+    private double ordersPerSecond(OrderProcessingExecutor executor, int concurrency) throws Exception {
+
+        CountDownLatch done = new CountDownLatch(ORDERS);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < ORDERS; i++) {
+            executor.submit(() -> {
+                sleep(DOWNSTREAM_LATENCY_MS);
+                done.countDown();
+            });
+        }
+
+        Assertions.assertThat(done.await(30, TimeUnit.SECONDS))
+                .as("all orders should finish with concurrency " + concurrency)
+                .isTrue();
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        executor.shutdown();
+
+        return ORDERS / seconds;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class AdaptiveLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void testRejectsAtTheLimitAndIgnoreGivesThePlaceBack() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", AdaptiveLimiter.Algorithm.FIXED, 1, 1, 2, 1000);
+
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.ignore();
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+
+        // fixed: whatever the RTT, always max-limit
+        limiter.onResult(5000 * MS, true);
+        Assertions.assertThat(limiter.limit()).isEqualTo(2);
+        Assertions.assertThat(limiter.inFlight()).isEqualTo(1);
+        Assertions.assertThat(limiter.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testAcquireWaitsForAPlaceThenGivesUp() throws Exception {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", AdaptiveLimiter.Algorithm.FIXED, 1, 1, 1, 1000);
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+
+        // the call in flight comes back while the second one waits
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> limiter.acquire(5000));
+        Thread.sleep(20);
+        limiter.onResult(20 * MS, false);
+        Assertions.assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+
+        // nothing comes back this time
+        long start = System.nanoTime();
+        Assertions.assertThat(limiter.acquire(50)).isFalse();
+        Assertions.assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(50 * MS);
+        Assertions.assertThat(limiter.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testAimdGrowsWhileBusyAndBacksOffOnTimeoutsAndSlowCalls() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", AdaptiveLimiter.Algorithm.AIMD, 10, 2, 100, 500);
+
+        // 10 in flight all the time, every call back in 20ms: +1 each
+        steady(limiter, 10, 10, 20 * MS);
+        Assertions.assertThat(limiter.limit()).isEqualTo(20);
+
+        limiter.tryAcquire();
+        limiter.onResult(2000 * MS, true);
+        Assertions.assertThat(limiter.limit()).isEqualTo(18);
+
+        // answered, but slower than slow-ms
+        limiter.tryAcquire();
+        limiter.onResult(600 * MS, false);
+        Assertions.assertThat(limiter.limit()).isEqualTo(16);
+    }
+
+    @Test
+    void testNoGrowthWhileTheLimitIsNotUsed() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", AdaptiveLimiter.Algorithm.AIMD, 10, 2, 100, 500);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.onResult(20 * MS, false);
+        }
+
+        Assertions.assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void testGradientGrowsAtSteadyRttAndShrinksWhenRttRises() {
+
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", AdaptiveLimiter.Algorithm.GRADIENT, 20, 4, 200, 1000);
+
+        steady(limiter, 20, 50, 20 * MS);
+        int grown = limiter.limit();
+        Assertions.assertThat(grown).isGreaterThan(20);
+
+        // payment starts queueing: RTT x4, the limit comes down
+        for (int i = 0; i < 5; i++) {
+            callsInFlight(limiter, limiter.limit(), 80 * MS, false);
+        }
+        Assertions.assertThat(limiter.limit()).isLessThan(grown / 2);
+
+        // timeouts only: down to min-limit, not below
+        for (int i = 0; i < 100; i++) {
+            callsInFlight(limiter, 1, 2000 * MS, true);
+        }
+        Assertions.assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    // n calls in flight all the time: every call that comes back is replaced by a new one
+    private void steady(AdaptiveLimiter limiter, int n, int calls, long rttNanos) {
+
+        for (int i = 0; i < n; i++) {
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.onResult(rttNanos, false);
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < n; i++) {
+            limiter.ignore();
+        }
+    }
+
+    // n calls go out together and all come back with the same RTT
+    private void callsInFlight(AdaptiveLimiter limiter, int n, long rttNanos, boolean timedOut) {
+
+        for (int i = 0; i < n; i++) {
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+        for (int i = 0; i < n; i++) {
+            limiter.onResult(rttNanos, timedOut);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.orderservice.model.OrderPriority;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Tag("unit")
+public class AdmissionControllerTest {
+
+    private static final long MS = 1_000_000;
+
+    // 0 means "never" inside the controller, so the clock starts later
+    private final AtomicLong now = new AtomicLong(1000 * MS);
+
+    @Test
+    void testBurstThatDrainsWithinTheIntervalIsNotOverload() {
+
+        // capacity 10, target 100ms, interval 1s
+        AdmissionController admission = admission(AdmissionController.Policy.REJECT);
+
+        long[] admitted = new long[5];
+        for (int i = 0; i < admitted.length; i++) {
+            admitted[i] = admission.admit(OrderPriority.NORMAL);
+        }
+
+        // every wait above target, but the queue is gone after 600ms
+        for (long a : admitted) {
+            now.addAndGet(150 * MS);
+            admission.started(a);
+        }
+
+        Assertions.assertThat(admission.overloaded()).isFalse();
+        Assertions.assertThat(admission.queued()).isZero();
+        admission.admit(OrderPriority.LOW);
+    }
+
+    @Test
+    void testStandingQueueRejectsWithRetryAfter() {
+
+        AdmissionController admission = admission(AdmissionController.Policy.REJECT);
+
+        long first = admission.admit(OrderPriority.NORMAL);
+        long second = admission.admit(OrderPriority.NORMAL);
+        admission.admit(OrderPriority.NORMAL);
+
+        standingQueue(admission, first, second);
+
+        Assertions.assertThat(admission.overloaded()).isTrue();
+        Assertions.assertThatThrownBy(() -> admission.admit(OrderPriority.HIGH))
+                .isInstanceOf(OrderRejectedException.class)
+                .hasMessage("order queue overloaded")
+                // last wait was 1.15s
+                .satisfies(e -> Assertions.assertThat(((OrderRejectedException) e).retryAfterSeconds()).isEqualTo(2));
+
+        Assertions.assertThat(admission.rejectedCount(OrderPriority.HIGH)).isEqualTo(1);
+        Assertions.assertThat(admission.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void testShedRefusesLowFirstThenNormalButKeepsHigh() {
+
+        AdmissionController admission = admission(AdmissionController.Policy.SHED);
+
+        long first = admission.admit(OrderPriority.NORMAL);
+        long second = admission.admit(OrderPriority.NORMAL);
+        admission.admit(OrderPriority.NORMAL);
+
+        standingQueue(admission, first, second);
+
+        Assertions.assertThatThrownBy(() -> admission.admit(OrderPriority.LOW)).isInstanceOf(OrderRejectedException.class);
+        admission.admit(OrderPriority.NORMAL);
+        admission.admit(OrderPriority.HIGH);
+
+        // still overloaded an interval later: NORMAL goes too
+        now.addAndGet(1000 * MS);
+        Assertions.assertThatThrownBy(() -> admission.admit(OrderPriority.NORMAL)).isInstanceOf(OrderRejectedException.class);
+        admission.admit(OrderPriority.HIGH);
+
+        Assertions.assertThat(admission.rejectedCount(OrderPriority.LOW)).isEqualTo(1);
+        Assertions.assertThat(admission.rejectedCount(OrderPriority.NORMAL)).isEqualTo(1);
+        Assertions.assertThat(admission.rejectedCount(OrderPriority.HIGH)).isZero();
+    }
+
+    @Test
+    void testCapacityIsAHardCapAndResumedOrdersAreNeverRefused() {
+
+        AdmissionController admission = admission(AdmissionController.Policy.SHED);
+
+        for (int i = 0; i < 10; i++) {
+            admission.admit(OrderPriority.LOW);
+        }
+
+        Assertions.assertThatThrownBy(() -> admission.admit(OrderPriority.HIGH))
+                .isInstanceOf(OrderRejectedException.class)
+                .hasMessage("order queue full");
+        Assertions.assertThat(admission.overloaded()).isFalse();
+
+        admission.admitAlways();
+        Assertions.assertThat(admission.queued()).isEqualTo(11);
+
+        // an order that never reached the executor gives its place back
+        admission.cancelled();
+        admission.cancelled();
+        admission.admit(OrderPriority.LOW);
+    }
+
+    @Test
+    void testEmptyQueueEndsTheOverload() {
+
+        AdmissionController admission = admission(AdmissionController.Policy.REJECT);
+
+        long first = admission.admit(OrderPriority.NORMAL);
+        long second = admission.admit(OrderPriority.NORMAL);
+        long third = admission.admit(OrderPriority.NORMAL);
+
+        standingQueue(admission, first, second);
+
+        // the last one drained the queue, slow as it was: nothing is waiting any more
+        admission.started(third);
+        Assertions.assertThat(admission.overloaded()).isTrue();
+
+        admission.admit(OrderPriority.LOW);
+        Assertions.assertThat(admission.overloaded()).isFalse();
+    }
+
+    @Test
+    void testBlockWaitsForAPlaceThenRejects() {
+
+        // every clock read is 1ms later, so blocking ends without sleeping 200ms for real
+        AdmissionController admission = new AdmissionController(AdmissionController.Policy.BLOCK, 1, 100, 1000, 200,
+                () -> now.addAndGet(MS));
+
+        admission.admit(OrderPriority.NORMAL);
+        long before = now.get();
+
+        Assertions.assertThatThrownBy(() -> admission.admit(OrderPriority.NORMAL))
+                .isInstanceOf(OrderRejectedException.class)
+                .hasMessage("order queue full");
+        Assertions.assertThat(now.get() - before).isGreaterThanOrEqualTo(200 * MS);
+    }
+
+    private AdmissionController admission(AdmissionController.Policy policy) {
+        return new AdmissionController(policy, 10, 100, 1000, 200, now::get);
+    }
+
+    // first waits 150ms, second 1.15s: above target for a whole interval
+    private void standingQueue(AdmissionController admission, long first, long second) {
+
+        now.addAndGet(150 * MS);
+        admission.started(first);
+        Assertions.assertThat(admission.overloaded()).isFalse();
+
+        now.addAndGet(1000 * MS);
+        admission.started(second);
+    }
+}
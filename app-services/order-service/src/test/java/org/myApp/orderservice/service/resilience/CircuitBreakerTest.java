@@ -0,0 +1,112 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.myApp.common.logging.EventLog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Tag("unit")
+public class CircuitBreakerTest {
+
+    private static final long MS = 1_000_000;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+    // window 10, decide after 4 calls, open at 50% failures or 50% slow calls (> 100ms), 1s open, 2 probes
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, 0.5, 100, 1000, 2, now::get,
+            EventLog.sync("test", log));
+
+    @Test
+    void testOpensOnFailureRateAndRejectsUntilOpenTimeIsOver() {
+
+        call(false);
+        call(true);
+        call(false);
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(true);
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+        Assertions.assertThat(breaker.rejectedCount()).isEqualTo(1);
+
+        now.addAndGet(1000 * MS);
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        Assertions.assertThat(log.toString(StandardCharsets.UTF_8).split("\n"))
+                .extracting(line -> line.substring(line.indexOf(" name=")))
+                .containsExactly(" name=test state=OPEN", " name=test state=HALF_OPEN");
+    }
+
+    @Test
+    void testOpensOnSlowCallsEvenIfTheySucceed() {
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onResult(false, i < 2 ? 150 * MS : 10 * MS);
+        }
+
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void testHalfOpenClosesAfterGoodProbesAndReopensOnABadOne() {
+
+        open();
+
+        now.addAndGet(1000 * MS);
+
+        // only two probes at a time
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onResult(false, MS);
+        breaker.onResult(false, MS);
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        open();
+        now.addAndGet(1000 * MS);
+
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(true, MS);
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Assertions.assertThat(breaker.transitionCount(CircuitBreaker.State.OPEN)).isEqualTo(3);
+        Assertions.assertThat(breaker.transitionCount(CircuitBreaker.State.CLOSED)).isEqualTo(1);
+    }
+
+    @Test
+    void testBulkheadRejectsOverItsLimit() {
+
+        Bulkhead bulkhead = new Bulkhead(2);
+
+        Assertions.assertThat(bulkhead.tryAcquire()).isTrue();
+        Assertions.assertThat(bulkhead.tryAcquire()).isTrue();
+        Assertions.assertThat(bulkhead.tryAcquire()).isFalse();
+        Assertions.assertThat(bulkhead.inFlight()).isEqualTo(2);
+
+        bulkhead.release();
+        Assertions.assertThat(bulkhead.tryAcquire()).isTrue();
+        Assertions.assertThat(bulkhead.rejectedCount()).isEqualTo(1);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        Assertions.assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void call(boolean failure) {
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onResult(failure, MS);
+    }
+}
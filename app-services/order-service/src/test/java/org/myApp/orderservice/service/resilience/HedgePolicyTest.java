@@ -0,0 +1,82 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class HedgePolicyTest {
+
+    private static final long MS = 1_000_000;
+
+    private final HedgePolicy policy = new HedgePolicy("test-hedge", 0.9, 100, 5, 200);
+
+    @AfterEach
+    void tearDown() {
+        policy.shutdown();
+    }
+
+    @Test
+    void testDelayFollowsThePercentileOfTheLastWindow() {
+
+        // nothing measured yet: max delay
+        Assertions.assertThat(policy.delayMillis()).isEqualTo(200);
+
+        // 1..10ms, recomputed on the 10th sample: p90 of 10 samples = 9ms
+        for (int i = 1; i <= 10; i++) {
+            policy.record(i * MS);
+        }
+        Assertions.assertThat(policy.delayMillis()).isEqualTo(9);
+
+        // a full window of 50ms with a 10% tail of 150ms: p90 stays at 50ms
+        for (int i = 0; i < 100; i++) {
+            policy.record((i % 10 == 0 ? 150 : 50) * MS);
+        }
+        Assertions.assertThat(policy.delayMillis()).isEqualTo(50);
+    }
+
+    @Test
+    void testDelayStaysWithinBounds() {
+
+        for (int i = 0; i < 100; i++) {
+            policy.record(MS / 10);
+        }
+        Assertions.assertThat(policy.delayMillis()).isEqualTo(5);
+
+        for (int i = 0; i < 100; i++) {
+            policy.record(5000 * MS);
+        }
+        Assertions.assertThat(policy.delayMillis()).isEqualTo(200);
+    }
+
+    @Test
+    void testCancelledHedgeNeverRuns() throws Exception {
+
+        for (int i = 0; i < 10; i++) {
+            policy.record(MS);
+        }
+
+        CountDownLatch fired = new CountDownLatch(1);
+        policy.schedule(fired::countDown);
+        Assertions.assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ScheduledFuture<?> timer = policy.schedule(cancelled::countDown);
+        timer.cancel(false);
+        Assertions.assertThat(cancelled.await(50, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    void testRejectsNonsense() {
+
+        Assertions.assertThatThrownBy(() -> new HedgePolicy("x", 1.0, 100, 5, 200))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> new HedgePolicy("x", 0.95, 100, 500, 200))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package org.myApp.orderservice.service.resilience;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Tag("unit")
+public class RetrySchedulerTest {
+
+    private final RetryScheduler retries = new RetryScheduler("test-retry", 3, 100, 1000);
+
+    @AfterEach
+    void tearDown() {
+        retries.shutdown();
+    }
+
+    @Test
+    void testBackoffCeilingDoublesUpToTheCap() {
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertThat(retries.backoffMillis(1)).isBetween(0L, 100L);
+            Assertions.assertThat(retries.backoffMillis(3)).isBetween(0L, 400L);
+            Assertions.assertThat(retries.backoffMillis(10)).isBetween(0L, 1000L);
+        }
+    }
+
+    @Test
+    void testTasksRunUntilTheAttemptsAreUsedUp() throws Exception {
+
+        CountDownLatch ran = new CountDownLatch(3);
+
+        for (int retriesSoFar = 0; retriesSoFar < 3; retriesSoFar++) {
+            Assertions.assertThat(retries.schedule(retriesSoFar, ran::countDown)).isTrue();
+        }
+        Assertions.assertThat(retries.schedule(3, ran::countDown)).isFalse();
+
+        Assertions.assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(retries.scheduledCount()).isEqualTo(3);
+    }
+}
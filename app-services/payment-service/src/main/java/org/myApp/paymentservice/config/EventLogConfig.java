@@ -0,0 +1,56 @@
+package org.myApp.paymentservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.myApp.common.logging.EventLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The payment event log ([PAYMENT] lines on stdout).
+ *
+ * payment.log.mode:
+ * - async → ring buffer of "payment.log.buffer-size" events, written by one writer thread
+ * - sync  → written on the request thread (old System.out.println behavior)
+ *
+ * payment.log.overflow (async, ring full):
+ * - drop  → the event is lost, counted in payment.log.dropped
+ * - block → the request thread waits for the writer
+ */
+@Configuration
+public class EventLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public EventLog paymentEventLog(
+            @Value("${payment.log.mode:async}") String mode,
+            @Value("${payment.log.buffer-size:16384}") int bufferSize,
+            @Value("${payment.log.overflow:drop}") String overflow,
+            MeterRegistry meterRegistry) {
+
+        boolean async = switch (mode.toLowerCase()) {
+            case "async" -> true;
+            case "sync" -> false;
+            default -> throw new IllegalArgumentException("unknown payment.log.mode: " + mode);
+        };
+
+        EventLog eventLog = new EventLog("payment", System.out, async, bufferSize,
+                EventLog.Overflow.valueOf(overflow.toUpperCase()));
+
+        FunctionCounter.builder("payment.log.events", eventLog, EventLog::publishedCount)
+                .description("Payment events logged")
+                .register(meterRegistry);
+
+        // anything but 0 means the console is too slow for the payment rate
+        FunctionCounter.builder("payment.log.dropped", eventLog, EventLog::droppedCount)
+                .description("Payment events dropped because the log buffer was full")
+                .register(meterRegistry);
+
+        Gauge.builder("payment.log.backlog", eventLog, EventLog::backlog)
+                .description("Payment events waiting for the log writer")
+                .register(meterRegistry);
+
+        return eventLog;
+    }
+}
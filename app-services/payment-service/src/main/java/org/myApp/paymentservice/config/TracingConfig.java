@@ -0,0 +1,22 @@
+package org.myApp.paymentservice.config;
+
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.myApp.common.logging.EventLog;
+import org.myApp.paymentservice.logging.SpanLogReporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tracing: Micrometer Tracing on OpenTelemetry, set up by Spring Boot (management.tracing.*).
+ *
+ * A payment request with a W3C traceparent header (order-service sends one) is served in a span
+ * of the caller's trace. Finished spans are written as [SPAN] events to the payment event log.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanReporter spanLogReporter(EventLog paymentEventLog) {
+        return new SpanLogReporter(paymentEventLog);
+    }
+}
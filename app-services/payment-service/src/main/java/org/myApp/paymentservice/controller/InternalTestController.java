@@ -1,19 +1,41 @@
 package org.myApp.paymentservice.controller;
 
 
+import org.myApp.common.logging.EventLog;
+import org.myApp.paymentservice.controller.dto.LatencyRequest;
+import org.myApp.paymentservice.controller.dto.PaymentProfileRequest;
 import org.myApp.paymentservice.controller.dto.TestModeRequest;
+import org.myApp.paymentservice.simulation.HistogramLatency;
+import org.myApp.paymentservice.simulation.LatencyDistribution;
+import org.myApp.paymentservice.simulation.LogNormalLatency;
+import org.myApp.paymentservice.simulation.PaymentProfile;
+import org.myApp.paymentservice.simulation.PaymentSimulator;
+import org.myApp.paymentservice.simulation.PercentileTableLatency;
+import org.myApp.paymentservice.simulation.UniformLatency;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.sql.SQLOutput;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Internal controller used only for tests to force deterministic behavior.
  *
+ * In NORMAL mode a latency / outcome profile can be passed along,
+ * it replaces the running profile without a restart:
+ *
+ * {"mode": "NORMAL",
+ *  "profile": {"successWeight": 90, "timeoutWeight": 5, "errorWeight": 5, "seed": 42,
+ *              "latency": {"type": "lognormal", "medianMs": 150, "sigma": 0.8, "maxMs": 4000}}}
+ *
+ * NORMAL without a profile goes back to the default profile.
  */
 @RestController
 @RequestMapping("/internal")
@@ -22,18 +44,78 @@ public class InternalTestController {
     // holds current execution mode
     private static final AtomicReference<PaymentMode> CURRENT_EXEC_MODE = new AtomicReference<>(PaymentMode.NORMAL);
 
+    private final PaymentSimulator paymentSimulator;
+
+    private final EventLog eventLog;
+
+    public InternalTestController(PaymentSimulator paymentSimulator, EventLog paymentEventLog){
+        this.paymentSimulator = paymentSimulator;
+        this.eventLog = paymentEventLog;
+    }
+
     @PostMapping(
             value = "/test-mode",
             consumes = MediaType.APPLICATION_JSON_VALUE)
-    public void enableTestMode(@RequestBody TestModeRequest request){
+    public ResponseEntity<String> enableTestMode(@RequestBody TestModeRequest request){
+
+        // profile first: a broken profile is a test setup bug and must not half-apply
+        PaymentProfile profile;
+        try {
+            profile = request.getProfile() == null ? PaymentProfile.DEFAULT : toProfile(request.getProfile());
+        }catch(IllegalArgumentException | NullPointerException e){
+            eventLog.event("TEST-MODE")
+                    .with("step", "INVALID_PROFILE")
+                    .with("error", e.getMessage())
+                    .publish();
+            return ResponseEntity.badRequest().body("invalid profile: " + e.getMessage());
+        }
 
         try {
             CURRENT_EXEC_MODE.set(PaymentMode.from(request.getMode()));
+            paymentSimulator.useProfile(profile);
         }catch(IllegalArgumentException e){
             // For invalid values other than what is mentioned in PaymentMode enum
             // I don't want to crash the test because of this.
             System.out.println("[PAYMENT][TEST-MODE] Invalid mode received: " + request.getMode());
         }
+
+        return ResponseEntity.ok().build();
+    }
+
+    private static PaymentProfile toProfile(PaymentProfileRequest request){
+
+        return new PaymentProfile(
+                request.getSuccessWeight() != null ? request.getSuccessWeight() : PaymentProfile.DEFAULT_SUCCESS_WEIGHT,
+                request.getTimeoutWeight() != null ? request.getTimeoutWeight() : PaymentProfile.DEFAULT_TIMEOUT_WEIGHT,
+                request.getErrorWeight() != null ? request.getErrorWeight() : PaymentProfile.DEFAULT_ERROR_WEIGHT,
+                request.getLatency() != null ? toLatency(request.getLatency()) : PaymentProfile.DEFAULT_LATENCY,
+                request.getTimeoutDelayMs() != null ? request.getTimeoutDelayMs() : PaymentProfile.DEFAULT_TIMEOUT_DELAY_MS,
+                request.getSeed());
+    }
+
+    private static LatencyDistribution toLatency(LatencyRequest request){
+
+        String type = request.getType() == null ? "" : request.getType().toLowerCase();
+
+        return switch (type) {
+            case "uniform" -> new UniformLatency(request.getMinMs(), request.getMaxMs());
+            case "lognormal" -> new LogNormalLatency(request.getMedianMs(), request.getSigma(),
+                    request.getMaxMs() != null ? request.getMaxMs() : Long.MAX_VALUE);
+            case "percentiles" -> {
+                Map<Double, Long> table = new TreeMap<>();
+                request.getPercentiles().forEach((percentile, ms) -> table.put(Double.parseDouble(percentile), ms));
+                yield new PercentileTableLatency(table);
+            }
+            case "histogram" -> new HistogramLatency(request.getBuckets().stream()
+                    .map(bucket -> {
+                        if(bucket.size() != 2){
+                            throw new IllegalArgumentException("histogram bucket must be [upToMs, count]");
+                        }
+                        return new long[]{bucket.get(0), bucket.get(1)};
+                    })
+                    .toList());
+            default -> throw new IllegalArgumentException("unknown latency type: " + request.getType());
+        };
     }
 
     public static boolean isStubMode(){
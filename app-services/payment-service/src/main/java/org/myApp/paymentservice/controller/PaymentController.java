@@ -1,13 +1,23 @@
 package org.myApp.paymentservice.controller;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.myApp.common.logging.EventLog;
+import org.myApp.paymentservice.idempotency.IdempotencyCache;
+import org.myApp.paymentservice.simulation.DelayedResponder;
+import org.myApp.paymentservice.simulation.PaymentOutcome;
+import org.myApp.paymentservice.simulation.PaymentProfile;
+import org.myApp.paymentservice.simulation.PaymentSimulator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This controller simulates an unreliable external dependency.
@@ -24,16 +34,44 @@ import java.util.UUID;
 @RequestMapping("/payments")
 public class PaymentController {
 
-    private final Random random = new Random();
+    // a retry never waits longer than this for the first request's outcome
+    private static final long DUPLICATE_MAX_WAIT_MS = 60_000;
+
+    private final DelayedResponder delayedResponder;
+    private final PaymentSimulator paymentSimulator;
+
+    // x-order-id → outcome of the first payment request for that order
+    private final IdempotencyCache<ResponseEntity<Map<String, String>>> idempotencyCache;
+
+    // [PAYMENT] events, async by default so request threads never wait on the console (see EventLogConfig)
+    private final EventLog eventLog;
+
+    // span of the request being served (joins order-service's trace through traceparent)
+    private final Tracer tracer;
+
+    public PaymentController(DelayedResponder delayedResponder,
+                             PaymentSimulator paymentSimulator,
+                             EventLog eventLog,
+                             Tracer tracer,
+                             @Value("${payment.idempotency.max-entries:100000}") int idempotencyMaxEntries){
+        this.delayedResponder = delayedResponder;
+        this.paymentSimulator = paymentSimulator;
+        this.eventLog = eventLog;
+        this.tracer = tracer;
+        this.idempotencyCache = new IdempotencyCache<>(idempotencyMaxEntries);
+    }
 
     /**
      * Process a payment request.
      *
      * No request body on purpose.
-     * Order ID is passed via header only for logging.
+     * Order ID is passed via header, for logging and as idempotency key (NORMAL mode).
+     *
+     * Delays are simulated with a DeferredResult (see DelayedResponder),
+     * so a slow payment does not hold a Tomcat worker while it "hangs".
      */
     @PostMapping
-    public ResponseEntity<Map<String, String>> processPayment(@RequestHeader(value = "x-order-id", required = false)
+    public DeferredResult<ResponseEntity<Map<String, String>>> processPayment(@RequestHeader(value = "x-order-id", required = false)
                                                               String orderIdHeader){
 
         // If order id is absent, generate one for logging
@@ -44,19 +82,20 @@ public class PaymentController {
         // a deterministic response for fast, reliable contract tests.
         if (InternalTestController.isStubMode()) {
             log(orderId, "STUB_MODE_SUCCESS", 0);
-            return ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS"));
+            return delayedResponder.respondAfter(0, ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS")));
         }
         // -------- INTEGRATION-TEST SHORT CIRCUIT --------
         // In these modes (ALWAYS_FAIL and ALWAYS_TIMEOUT),
         // unsuccessful payments are simulated.
         else if (InternalTestController.isAlwaysFail()) {
             log(orderId, "ALWAYS_FAIL_MODE_SUCCESS", 0);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return delayedResponder.respondAfter(0, ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
 
         } else if (InternalTestController.isAlwaysTimeout()) {
-            log(orderId, "ALWAYS_TIMEOUT_MODE_SUCCESS", 10000);
-            // After that sleep, it doesn’t matter what you return — the client will already have timed out.
-            return ResponseEntity.ok().build();
+            int delay = 10000;
+            log(orderId, "ALWAYS_TIMEOUT_MODE_SUCCESS", delay);
+            // After that delay, it doesn’t matter what you return — the client will already have timed out.
+            return delayedResponder.respondAfter(delay, ResponseEntity.ok().build());
         }else {
 
 
@@ -64,72 +103,119 @@ public class PaymentController {
             // From this point onward, we intentionally model an unreliable dependency.
             // This is NOT business logic; this is environmental reality.
 
-            // Random number between 0 and 99
-            int outcome = random.nextInt(100);
+            // -------- IDEMPOTENCY --------
+            // x-order-id is the idempotency key. A retry of a payment that is still running,
+            // or already went through, gets the outcome of the first request: no second charge.
+            CompletableFuture<ResponseEntity<Map<String, String>>> outcomeFuture = new CompletableFuture<>();
 
-            try {
-                /*
-                 * 0–69   → SUCCESS (70%)
-                 * 70–89  → TIMEOUT (20%)
-                 * 90–99  → HTTP 500 (10%)
-                 */
-                //SUCCESS
-                if (outcome < 70) {
+            if (orderIdHeader != null) {
+                CompletableFuture<ResponseEntity<Map<String, String>>> first =
+                        idempotencyCache.claim(orderIdHeader, outcomeFuture);
 
-                    // Random short delay to simulate network / processing time
-                    int delay = random.nextInt(500) + 100;
+                if (first != null) {
+                    log(orderId, "DUPLICATE", 0);
+                    return delayedResponder.respondWhen(first, DUPLICATE_MAX_WAIT_MS);
+                }
+            }
 
-                    log(orderId, "SUCCESS", delay);
+            // Outcome and latency come from the current profile (default 70 / 20 / 10),
+            // switchable at runtime through /internal/test-mode.
+            PaymentProfile profile = paymentSimulator.currentProfile();
 
-                    Thread.sleep(delay);
-                    return ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS"));
+            PaymentOutcome outcome = profile.nextOutcome();
+            long delay = profile.nextDelayMs(outcome);
 
-                } else if (outcome < 90) { // TIMEOUT
-                    //sleep longer than any reasonable client timeout
-                    int delay = 5000;
+            ResponseEntity<Map<String, String>> response;
 
-                    log(orderId, "TIMEOUT", delay);
+            //SUCCESS
+            if (outcome == PaymentOutcome.SUCCESS) {
 
-                    Thread.sleep(delay);
+                // sampled delay to simulate network / processing time
+                log(orderId, "SUCCESS", delay);
 
-                    // client should timeout before receiving this.
-                    // The client gave up waiting before the server responded.It doesn't mean Payment failed and
-                    // does not know the outcome.
-                    // Order Service never sees the response but Payment Service DID complete successfully
+                response = ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS"));
 
-                    return ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS"));
-                } else {
-                    // FAILURE PATH (HTTP 500)
-                    log(orderId, "HTTP_500", 0);
+            } else if (outcome == PaymentOutcome.TIMEOUT) {
+                //delay longer than any reasonable client timeout
+                log(orderId, "TIMEOUT", delay);
 
-                    return ResponseEntity
-                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .build();
+                // client should timeout before receiving this.
+                // The client gave up waiting before the server responded.It doesn't mean Payment failed and
+                // does not know the outcome.
+                // Order Service never sees the response but Payment Service DID complete successfully
+                // (a retry with the same x-order-id gets this SUCCESS)
 
-                }
+                response = ResponseEntity.ok(Map.of("paymentStatus", "SUCCESS"));
+            } else {
+                // FAILURE PATH (HTTP 500)
+                log(orderId, "HTTP_500", 0);
 
-            } catch (InterruptedException e) {
-                // Restore interrupt flag and fail fast
-                Thread.currentThread().interrupt();
-                return ResponseEntity
+                response = ResponseEntity
                         .status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .build();
+
+                // nothing was charged, a retry may try for real
+                if (orderIdHeader != null) {
+                    idempotencyCache.forget(orderIdHeader, outcomeFuture);
+                }
             }
+
+            delayedResponder.completeAfter(delay, outcomeFuture, response);
+
+            return delayedResponder.respondWhen(outcomeFuture, delay);
         }
     }
 
     /**
-     * Simple console logging.
+     * Void the payment of an order that failed anyway (compensation).
+     *
+     * order-service calls this when it paid in parallel with the inventory reservation
+     * and inventory said no. The order id is the key, same as for the payment:
+     * - payment already made or still running → it is voided, its cached outcome becomes VOIDED:
+     *   a retry of that payment gets VOIDED, not the SUCCESS of the charge
+     * - no payment seen yet (void overtook it) → the key is taken by the void,
+     *   a payment arriving later for this order gets VOIDED and is not charged
      *
+     * Always 200 VOIDED, voiding twice is harmless.
+     *
+     * Endpoint:
+     * POST /payments/void
      */
-    private void log(String orderId, String behavior, int delay){
-        System.out.println(
-                "[PAYMENT] orderId=" + orderId +
-                        " behavior=" + behavior +
-                        " delayMs=" + delay
-        );
+    @PostMapping("/void")
+    public ResponseEntity<Map<String, String>> voidPayment(@RequestHeader("x-order-id") String orderId){
+
+        ResponseEntity<Map<String, String>> voided = ResponseEntity.ok(Map.of("paymentStatus", "VOIDED"));
+
+        CompletableFuture<ResponseEntity<Map<String, String>>> voidedOutcome = CompletableFuture.completedFuture(voided);
+
+        CompletableFuture<ResponseEntity<Map<String, String>>> first = idempotencyCache.claim(orderId, voidedOutcome);
+        boolean paymentSeen = first != null;
+
+        // the payment's entry now answers VOIDED
+        while(first != null && !idempotencyCache.replace(orderId, first, voidedOutcome)){
+            // forgotten (HTTP 500) or replaced in between: claim again
+            first = idempotencyCache.claim(orderId, voidedOutcome);
+        }
+
+        log(orderId, paymentSeen ? "VOIDED" : "VOIDED_NO_PAYMENT_SEEN", 0);
+
+        return voided;
     }
 
-}
+    /**
+     * One [PAYMENT] event per request: orderId, behavior, simulated delay,
+     * traceId of the request (the order's trace when order-service sent a traceparent).
+     */
+    private void log(String orderId, String behavior, long delay){
 
+        Span span = tracer.currentSpan();
 
+        eventLog.event("PAYMENT")
+                .with("orderId", orderId)
+                .with("behavior", behavior)
+                .with("delayMs", delay)
+                .with("traceId", span == null ? null : span.context().traceId())
+                .publish();
+    }
+
+}
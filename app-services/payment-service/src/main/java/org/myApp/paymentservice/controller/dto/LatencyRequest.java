@@ -0,0 +1,84 @@
+package org.myApp.paymentservice.controller.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency distribution of successful payments.
+ *
+ * type:
+ * - uniform     → minMs, maxMs
+ * - lognormal   → medianMs, sigma, maxMs (cap)
+ * - percentiles → percentiles, e.g. {"50": 120, "99": 900, "100": 2000}
+ * - histogram   → buckets, [[upToMs, count], ...] ascending
+ */
+public class LatencyRequest {
+
+    private String type;
+
+    private Long minMs;
+    private Long maxMs;
+
+    private Double medianMs;
+    private Double sigma;
+
+    private Map<String, Long> percentiles;
+
+    private List<List<Long>> buckets;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getMinMs() {
+        return minMs;
+    }
+
+    public void setMinMs(Long minMs) {
+        this.minMs = minMs;
+    }
+
+    public Long getMaxMs() {
+        return maxMs;
+    }
+
+    public void setMaxMs(Long maxMs) {
+        this.maxMs = maxMs;
+    }
+
+    public Double getMedianMs() {
+        return medianMs;
+    }
+
+    public void setMedianMs(Double medianMs) {
+        this.medianMs = medianMs;
+    }
+
+    public Double getSigma() {
+        return sigma;
+    }
+
+    public void setSigma(Double sigma) {
+        this.sigma = sigma;
+    }
+
+    public Map<String, Long> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(Map<String, Long> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public List<List<Long>> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<List<Long>> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,67 @@
+package org.myApp.paymentservice.controller.dto;
+
+/**
+ * Latency / outcome profile for NORMAL mode, part of TestModeRequest.
+ *
+ * Every field is optional, missing ones keep the default (70 / 20 / 10, 100–600ms, 5000ms timeout).
+ */
+public class PaymentProfileRequest {
+
+    private Integer successWeight;
+    private Integer timeoutWeight;
+    private Integer errorWeight;
+
+    private LatencyRequest latency;
+
+    private Long timeoutDelayMs;
+
+    private Long seed;
+
+    public Integer getSuccessWeight() {
+        return successWeight;
+    }
+
+    public void setSuccessWeight(Integer successWeight) {
+        this.successWeight = successWeight;
+    }
+
+    public Integer getTimeoutWeight() {
+        return timeoutWeight;
+    }
+
+    public void setTimeoutWeight(Integer timeoutWeight) {
+        this.timeoutWeight = timeoutWeight;
+    }
+
+    public Integer getErrorWeight() {
+        return errorWeight;
+    }
+
+    public void setErrorWeight(Integer errorWeight) {
+        this.errorWeight = errorWeight;
+    }
+
+    public LatencyRequest getLatency() {
+        return latency;
+    }
+
+    public void setLatency(LatencyRequest latency) {
+        this.latency = latency;
+    }
+
+    public Long getTimeoutDelayMs() {
+        return timeoutDelayMs;
+    }
+
+    public void setTimeoutDelayMs(Long timeoutDelayMs) {
+        this.timeoutDelayMs = timeoutDelayMs;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
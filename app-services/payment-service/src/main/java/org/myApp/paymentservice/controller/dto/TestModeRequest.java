@@ -4,6 +4,9 @@ public class TestModeRequest {
 
     private String mode;
 
+    // only used in NORMAL mode, null → default profile
+    private PaymentProfileRequest profile;
+
     public String getMode() {
         return mode;
     }
@@ -11,4 +14,12 @@ public class TestModeRequest {
     public void setMode(String mode) {
         this.mode = mode;
     }
+
+    public PaymentProfileRequest getProfile() {
+        return profile;
+    }
+
+    public void setProfile(PaymentProfileRequest profile) {
+        this.profile = profile;
+    }
 }
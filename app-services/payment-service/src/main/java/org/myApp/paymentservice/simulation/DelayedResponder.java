@@ -0,0 +1,76 @@
+package org.myApp.paymentservice.simulation;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates slow responses without holding a request thread.
+ *
+ * The controller returns a DeferredResult right away, the Tomcat worker goes back to the pool,
+ * and one scheduler thread completes the response when the delay is over.
+ * Thousands of slow payments in flight cost a scheduled task each, not a thread each.
+ */
+@Component
+public class DelayedResponder {
+
+    // extra time on top of the delay before Spring gives up on the DeferredResult itself
+    private static final long TIMEOUT_MARGIN_MS = 5_000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @return a result that completes with value after delayMs (immediately for delayMs <= 0)
+     */
+    public <T> DeferredResult<T> respondAfter(long delayMs, T value) {
+
+        DeferredResult<T> result = new DeferredResult<>(Math.max(delayMs, 0) + TIMEOUT_MARGIN_MS);
+
+        if (delayMs <= 0) {
+            result.setResult(value);
+        } else {
+            // setResult is a no-op if the client already went away
+            scheduler.schedule(() -> result.setResult(value), delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        return result;
+    }
+
+    /**
+     * Completes future with value after delayMs.
+     */
+    public <T> void completeAfter(long delayMs, CompletableFuture<T> future, T value) {
+
+        if (delayMs <= 0) {
+            future.complete(value);
+        } else {
+            scheduler.schedule(() -> future.complete(value), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A result that completes when future does, e.g. a retry waiting for the first request's outcome.
+     */
+    public <T> DeferredResult<T> respondWhen(CompletableFuture<T> future, long maxWaitMs) {
+
+        DeferredResult<T> result = new DeferredResult<>(maxWaitMs + TIMEOUT_MARGIN_MS);
+
+        future.thenAccept(result::setResult);
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,72 @@
+package org.myApp.paymentservice.simulation;
+
+import java.util.List;
+
+/**
+ * Replays a recorded latency histogram.
+ *
+ * Buckets are (upToMs, count) pairs, as exported by most metrics systems.
+ * A bucket is picked with probability count / total, the latency is uniform inside the bucket.
+ */
+public class HistogramLatency implements LatencyDistribution {
+
+    private final long[] upperBounds;
+
+    // cumulative share of samples up to and including each bucket
+    private final double[] cumulative;
+
+    /**
+     * @param buckets [upToMs, count] pairs, ascending by upToMs
+     */
+    public HistogramLatency(List<long[]> buckets) {
+
+        if (buckets == null || buckets.isEmpty()) {
+            throw new IllegalArgumentException("histogram has no buckets");
+        }
+
+        upperBounds = new long[buckets.size()];
+        cumulative = new double[buckets.size()];
+
+        long total = 0;
+        long previousBound = -1;
+
+        for (int i = 0; i < buckets.size(); i++) {
+
+            long upToMs = buckets.get(i)[0];
+            long count = buckets.get(i)[1];
+
+            if (upToMs <= previousBound || count < 0) {
+                throw new IllegalArgumentException("histogram buckets must be ascending with non-negative counts");
+            }
+
+            total += count;
+            upperBounds[i] = upToMs;
+            cumulative[i] = total;
+            previousBound = upToMs;
+        }
+
+        if (total == 0) {
+            throw new IllegalArgumentException("histogram is empty");
+        }
+
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    @Override
+    public long quantileMs(double p) {
+
+        for (int i = 0; i < cumulative.length; i++) {
+
+            if (p < cumulative[i]) {
+                long lower = i == 0 ? 0 : upperBounds[i - 1];
+                double start = i == 0 ? 0 : cumulative[i - 1];
+                double share = (p - start) / (cumulative[i] - start);
+                return lower + Math.round(share * (upperBounds[i] - lower));
+            }
+        }
+
+        return upperBounds[upperBounds.length - 1];
+    }
+}
@@ -0,0 +1,18 @@
+package org.myApp.paymentservice.simulation;
+
+/**
+ * Simulated latency of one payment, as a quantile function.
+ *
+ * Given a uniform p in [0, 1), returns the latency at that quantile,
+ * so one random number is one sample and sampling allocates nothing.
+ *
+ * Implementations:
+ * - UniformLatency         → between min and max (old hard-coded 100–600ms)
+ * - LogNormalLatency       → median and sigma, a long right tail like most real services
+ * - PercentileTableLatency → p50 / p90 / p99 ... taken from a dashboard
+ * - HistogramLatency       → bucket counts of a recorded latency histogram, replayed
+ */
+public interface LatencyDistribution {
+
+    long quantileMs(double p);
+}
@@ -0,0 +1,93 @@
+package org.myApp.paymentservice.simulation;
+
+/**
+ * Log-normal latency: ln(latency) is normally distributed.
+ *
+ * - medianMs → p50
+ * - sigma    → spread of ln(latency), 0.5 is a mild tail, 1.0+ a heavy one
+ * - maxMs    → cap, a real client would have timed out long before
+ *
+ * p99 ≈ medianMs * e^(2.326 * sigma)
+ */
+public class LogNormalLatency implements LatencyDistribution {
+
+    private final double medianMs;
+    private final double sigma;
+    private final long maxMs;
+
+    public LogNormalLatency(double medianMs, double sigma, long maxMs) {
+
+        if (medianMs <= 0 || sigma < 0 || maxMs <= 0) {
+            throw new IllegalArgumentException("log-normal latency needs medianMs > 0, sigma >= 0 and maxMs > 0");
+        }
+
+        this.medianMs = medianMs;
+        this.sigma = sigma;
+        this.maxMs = maxMs;
+    }
+
+    @Override
+    public long quantileMs(double p) {
+
+        double latency = medianMs * Math.exp(sigma * inverseNormal(p));
+
+        return Math.min((long) latency, maxMs);
+    }
+
+    /**
+     * Inverse of the standard normal CDF (Acklam's rational approximation, relative error < 1.2e-9).
+     */
+    static double inverseNormal(double p) {
+
+        if (p <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (p >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        final double pLow = 0.02425;
+
+        if (p < pLow) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((C1 * q + C2) * q + C3) * q + C4) * q + C5) * q + C6)
+                    / ((((D1 * q + D2) * q + D3) * q + D4) * q + 1);
+        }
+
+        if (p > 1 - pLow) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((C1 * q + C2) * q + C3) * q + C4) * q + C5) * q + C6)
+                    / ((((D1 * q + D2) * q + D3) * q + D4) * q + 1);
+        }
+
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((A1 * r + A2) * r + A3) * r + A4) * r + A5) * r + A6) * q
+                / (((((B1 * r + B2) * r + B3) * r + B4) * r + B5) * r + 1);
+    }
+
+    private static final double A1 = -3.969683028665376e+01;
+    private static final double A2 = 2.209460984245205e+02;
+    private static final double A3 = -2.759285104469687e+02;
+    private static final double A4 = 1.383577518672690e+02;
+    private static final double A5 = -3.066479806614716e+01;
+    private static final double A6 = 2.506628277459239e+00;
+
+    private static final double B1 = -5.447609879822406e+01;
+    private static final double B2 = 1.615858368580409e+02;
+    private static final double B3 = -1.556989798598866e+02;
+    private static final double B4 = 6.680131188771972e+01;
+    private static final double B5 = -1.328068155288572e+01;
+
+    private static final double C1 = -7.784894002430293e-03;
+    private static final double C2 = -3.223964580411365e-01;
+    private static final double C3 = -2.400758277161838e+00;
+    private static final double C4 = -2.549732539343734e+00;
+    private static final double C5 = 4.374664141464968e+00;
+    private static final double C6 = 2.938163982698783e+00;
+
+    private static final double D1 = 7.784695709041462e-03;
+    private static final double D2 = 3.224671290700398e-01;
+    private static final double D3 = 2.445134137142996e+00;
+    private static final double D4 = 3.754408661907416e+00;
+}
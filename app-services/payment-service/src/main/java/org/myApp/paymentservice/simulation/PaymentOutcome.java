@@ -0,0 +1,8 @@
+package org.myApp.paymentservice.simulation;
+
+public enum PaymentOutcome {
+
+    SUCCESS,   // 200 after the sampled latency
+    TIMEOUT,   // 200, but only after the profile's timeout delay (client gives up first)
+    ERROR      // HTTP 500 right away
+}
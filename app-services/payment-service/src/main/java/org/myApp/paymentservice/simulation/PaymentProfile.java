@@ -0,0 +1,112 @@
+package org.myApp.paymentservice.simulation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How the simulated payment dependency behaves in NORMAL mode.
+ *
+ * - outcome weights  → share of SUCCESS / TIMEOUT / ERROR
+ * - latency          → distribution of SUCCESS latency
+ * - timeoutDelayMs   → how long a TIMEOUT holds the response
+ * - seed             → optional, makes the sequence of samples reproducible
+ *
+ * Random numbers:
+ * - no seed → ThreadLocalRandom, per thread, no shared state, no allocation
+ * - seed    → SplitMix64 over a shared counter: sample n is a pure function of (seed, n),
+ *             so the same request sequence gets the same outcomes on every run.
+ *             Costs one atomic increment per sample, still no allocation.
+ *
+ * Immutable apart from the counter, a new profile is swapped in as a whole.
+ */
+public class PaymentProfile {
+
+    // the old hard-coded behavior: 70 / 20 / 10, success in 100–600ms, timeout after 5s
+    public static final int DEFAULT_SUCCESS_WEIGHT = 70;
+    public static final int DEFAULT_TIMEOUT_WEIGHT = 20;
+    public static final int DEFAULT_ERROR_WEIGHT = 10;
+    public static final LatencyDistribution DEFAULT_LATENCY = new UniformLatency(100, 600);
+    public static final long DEFAULT_TIMEOUT_DELAY_MS = 5000;
+
+    public static final PaymentProfile DEFAULT = new PaymentProfile(
+            DEFAULT_SUCCESS_WEIGHT, DEFAULT_TIMEOUT_WEIGHT, DEFAULT_ERROR_WEIGHT,
+            DEFAULT_LATENCY, DEFAULT_TIMEOUT_DELAY_MS, null);
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int successWeight;
+    private final int timeoutWeight;
+    private final int totalWeight;
+
+    private final LatencyDistribution latency;
+    private final long timeoutDelayMs;
+
+    private final Long seed;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public PaymentProfile(int successWeight, int timeoutWeight, int errorWeight,
+                          LatencyDistribution latency, long timeoutDelayMs, Long seed) {
+
+        if (successWeight < 0 || timeoutWeight < 0 || errorWeight < 0
+                || successWeight + timeoutWeight + errorWeight == 0) {
+            throw new IllegalArgumentException("outcome weights must be >= 0 and not all 0");
+        }
+        if (latency == null) {
+            throw new IllegalArgumentException("latency distribution is missing");
+        }
+        if (timeoutDelayMs < 0) {
+            throw new IllegalArgumentException("timeoutDelayMs must be >= 0");
+        }
+
+        this.successWeight = successWeight;
+        this.timeoutWeight = timeoutWeight;
+        this.totalWeight = successWeight + timeoutWeight + errorWeight;
+        this.latency = latency;
+        this.timeoutDelayMs = timeoutDelayMs;
+        this.seed = seed;
+    }
+
+    public PaymentOutcome nextOutcome() {
+
+        double draw = nextDouble() * totalWeight;
+
+        if (draw < successWeight) {
+            return PaymentOutcome.SUCCESS;
+        }
+        if (draw < successWeight + timeoutWeight) {
+            return PaymentOutcome.TIMEOUT;
+        }
+        return PaymentOutcome.ERROR;
+    }
+
+    /**
+     * Delay before the response for an outcome.
+     */
+    public long nextDelayMs(PaymentOutcome outcome) {
+
+        return switch (outcome) {
+            case SUCCESS -> latency.quantileMs(nextDouble());
+            case TIMEOUT -> timeoutDelayMs;
+            case ERROR -> 0;
+        };
+    }
+
+    /**
+     * Uniform double in [0, 1).
+     */
+    private double nextDouble() {
+
+        if (seed == null) {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+
+        // SplitMix64 finalizer over seed + n * gamma
+        long z = seed + sequence.getAndIncrement() * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+
+        // top 53 bits → [0, 1)
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
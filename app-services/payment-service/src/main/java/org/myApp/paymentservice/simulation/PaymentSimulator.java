@@ -0,0 +1,28 @@
+package org.myApp.paymentservice.simulation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the PaymentProfile used in NORMAL mode.
+ *
+ * Switched at runtime through /internal/test-mode, requests in flight keep the profile they started with.
+ */
+@Component
+public class PaymentSimulator {
+
+    private final AtomicReference<PaymentProfile> profile = new AtomicReference<>(PaymentProfile.DEFAULT);
+
+    public PaymentProfile currentProfile() {
+        return profile.get();
+    }
+
+    public void useProfile(PaymentProfile newProfile) {
+        profile.set(newProfile);
+    }
+
+    public void reset() {
+        profile.set(PaymentProfile.DEFAULT);
+    }
+}
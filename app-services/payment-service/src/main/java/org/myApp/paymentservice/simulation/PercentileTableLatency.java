@@ -0,0 +1,64 @@
+package org.myApp.paymentservice.simulation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency given as a percentile table, e.g. p50=120, p90=300, p99=900, p100=2000.
+ *
+ * Between two listed percentiles the latency is interpolated linearly.
+ * Below the first percentile it ramps up from 0ms, above the last one it stays at the last value.
+ */
+public class PercentileTableLatency implements LatencyDistribution {
+
+    // sorted by quantile (0..1)
+    private final double[] quantiles;
+    private final long[] latencies;
+
+    /**
+     * @param percentiles percentile (0 < p <= 100) → latency in ms, latency must not go down as p goes up
+     */
+    public PercentileTableLatency(Map<Double, Long> percentiles) {
+
+        if (percentiles == null || percentiles.isEmpty()) {
+            throw new IllegalArgumentException("percentile table is empty");
+        }
+
+        TreeMap<Double, Long> sorted = new TreeMap<>(percentiles);
+
+        quantiles = new double[sorted.size() + 1];
+        latencies = new long[sorted.size() + 1];
+
+        int i = 1;
+        for (Map.Entry<Double, Long> entry : sorted.entrySet()) {
+
+            double percentile = entry.getKey();
+            long latency = entry.getValue();
+
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile out of range: " + percentile);
+            }
+            if (latency < latencies[i - 1]) {
+                throw new IllegalArgumentException("latency must not go down with the percentile: p" + percentile);
+            }
+
+            quantiles[i] = percentile / 100;
+            latencies[i] = latency;
+            i++;
+        }
+    }
+
+    @Override
+    public long quantileMs(double p) {
+
+        for (int i = 1; i < quantiles.length; i++) {
+
+            if (p <= quantiles[i]) {
+                double share = (p - quantiles[i - 1]) / (quantiles[i] - quantiles[i - 1]);
+                return latencies[i - 1] + Math.round(share * (latencies[i] - latencies[i - 1]));
+            }
+        }
+
+        return latencies[latencies.length - 1];
+    }
+}
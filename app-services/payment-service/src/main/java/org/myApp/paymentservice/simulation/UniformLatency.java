@@ -0,0 +1,25 @@
+package org.myApp.paymentservice.simulation;
+
+/**
+ * Every latency between minMs and maxMs is equally likely.
+ */
+public class UniformLatency implements LatencyDistribution {
+
+    private final long minMs;
+    private final long maxMs;
+
+    public UniformLatency(long minMs, long maxMs) {
+
+        if (minMs < 0 || maxMs < minMs) {
+            throw new IllegalArgumentException("uniform latency needs 0 <= minMs <= maxMs");
+        }
+
+        this.minMs = minMs;
+        this.maxMs = maxMs;
+    }
+
+    @Override
+    public long quantileMs(double p) {
+        return minMs + (long) (p * (maxMs - minMs));
+    }
+}
@@ -0,0 +1,123 @@
+package org.myApp.paymentservice.idempotency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag("unit")
+public class IdempotencyCacheTest {
+
+    @Test
+    void testRetryGetsTheOutcomeOfTheFirstRequest() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10);
+
+        CompletableFuture<String> first = new CompletableFuture<>();
+        Assertions.assertThat(cache.claim("order-1", first)).isNull();
+
+        // retry while the first one is still running
+        CompletableFuture<String> retry = cache.claim("order-1", new CompletableFuture<>());
+        Assertions.assertThat(retry).isSameAs(first);
+
+        first.complete("SUCCESS");
+        Assertions.assertThat(retry.join()).isEqualTo("SUCCESS");
+        Assertions.assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testForgottenOutcomeLetsTheNextRequestRunForReal() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(10);
+
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        cache.claim("order-1", failed);
+        cache.forget("order-1", failed);
+
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testForgottenKeysDoNotCountAgainstTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2);
+
+        // forgotten and claimed again many times: still one entry
+        for (int i = 0; i < 100; i++) {
+            CompletableFuture<String> failed = CompletableFuture.completedFuture("HTTP_500");
+            Assertions.assertThat(cache.claim("order-1", failed)).isNull();
+            cache.forget("order-1", failed);
+        }
+
+        CompletableFuture<String> charged = CompletableFuture.completedFuture("SUCCESS");
+        Assertions.assertThat(cache.claim("order-1", charged)).isNull();
+        cache.claim("order-2", CompletableFuture.completedFuture("SUCCESS"));
+
+        // the reclaimed key is a live entry: nothing over the bound, nothing dropped
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isSameAs(charged);
+
+        // and it is the oldest one once the bound is hit
+        cache.claim("order-3", CompletableFuture.completedFuture("SUCCESS"));
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testRunningKeyIsNotDroppedOverTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(1);
+
+        CompletableFuture<String> running = new CompletableFuture<>();
+        cache.claim("order-1", running);
+        cache.claim("order-2", CompletableFuture.completedFuture("SUCCESS"));
+
+        // order-1 is older but still running: order-2 goes instead
+        Assertions.assertThat(cache.size()).isEqualTo(1);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isSameAs(running);
+        Assertions.assertThat(cache.claim("order-2", new CompletableFuture<>())).isNull();
+
+        // nothing finished to drop: over the bound until order-1 is done
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+
+        running.complete("SUCCESS");
+        cache.claim("order-3", CompletableFuture.completedFuture("SUCCESS"));
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testReplacedOutcomeIsWhatRetriesGet() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2);
+
+        CompletableFuture<String> charged = CompletableFuture.completedFuture("SUCCESS");
+        CompletableFuture<String> voided = CompletableFuture.completedFuture("VOIDED");
+        cache.claim("order-1", charged);
+
+        Assertions.assertThat(cache.replace("order-1", charged, voided)).isTrue();
+        Assertions.assertThat(cache.replace("order-1", charged, voided)).isFalse();
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isSameAs(voided);
+        Assertions.assertThat(cache.size()).isEqualTo(1);
+
+        // still one entry for eviction
+        cache.claim("order-2", CompletableFuture.completedFuture("SUCCESS"));
+        cache.claim("order-3", CompletableFuture.completedFuture("SUCCESS"));
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    void testOldestKeysAreDroppedOverTheBound() {
+
+        IdempotencyCache<String> cache = new IdempotencyCache<>(2);
+
+        cache.claim("order-1", CompletableFuture.completedFuture("SUCCESS"));
+        cache.claim("order-2", CompletableFuture.completedFuture("SUCCESS"));
+        cache.claim("order-3", CompletableFuture.completedFuture("SUCCESS"));
+
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.claim("order-1", new CompletableFuture<>())).isNull();
+        Assertions.assertThat(cache.claim("order-3", new CompletableFuture<>())).isNotNull();
+    }
+}
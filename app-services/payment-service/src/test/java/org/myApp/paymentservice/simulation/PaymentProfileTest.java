@@ -0,0 +1,83 @@
+package org.myApp.paymentservice.simulation;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Tag("unit")
+public class PaymentProfileTest {
+
+    @Test
+    void testLogNormalHitsItsMedianAndTail() {
+
+        LogNormalLatency latency = new LogNormalLatency(200, 0.5, 60_000);
+
+        Assertions.assertThat(latency.quantileMs(0.5)).isBetween(199L, 200L);
+
+        // p99 = median * e^(2.326 * sigma)
+        Assertions.assertThat(latency.quantileMs(0.99)).isBetween(637L, 641L);
+
+        Assertions.assertThat(new LogNormalLatency(200, 3, 1000).quantileMs(0.999)).isEqualTo(1000);
+    }
+
+    @Test
+    void testPercentileTableInterpolatesBetweenRows() {
+
+        PercentileTableLatency latency = new PercentileTableLatency(Map.of(50.0, 100L, 90.0, 300L, 100.0, 1000L));
+
+        Assertions.assertThat(latency.quantileMs(0.25)).isEqualTo(50);
+        Assertions.assertThat(latency.quantileMs(0.5)).isEqualTo(100);
+        Assertions.assertThat(latency.quantileMs(0.7)).isEqualTo(200);
+        Assertions.assertThat(latency.quantileMs(0.95)).isEqualTo(650);
+
+        Assertions.assertThatThrownBy(() -> new PercentileTableLatency(Map.of(50.0, 300L, 90.0, 100L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testHistogramReplaysBucketShares() {
+
+        // 80% up to 100ms, 20% between 100 and 1000ms
+        HistogramLatency latency = new HistogramLatency(List.of(new long[]{100, 800}, new long[]{1000, 200}));
+
+        Assertions.assertThat(latency.quantileMs(0.4)).isEqualTo(50);
+        Assertions.assertThat(latency.quantileMs(0.79)).isLessThanOrEqualTo(100);
+        Assertions.assertThat(latency.quantileMs(0.9)).isEqualTo(550);
+    }
+
+    @Test
+    void testOutcomeWeightsAreRespected() {
+
+        PaymentProfile profile = new PaymentProfile(50, 30, 20, PaymentProfile.DEFAULT_LATENCY, 5000, null);
+
+        Map<PaymentOutcome, Integer> counts = new EnumMap<>(PaymentOutcome.class);
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(profile.nextOutcome(), 1, Integer::sum);
+        }
+
+        Assertions.assertThat(counts.get(PaymentOutcome.SUCCESS)).isBetween(49_000, 51_000);
+        Assertions.assertThat(counts.get(PaymentOutcome.TIMEOUT)).isBetween(29_000, 31_000);
+        Assertions.assertThat(counts.get(PaymentOutcome.ERROR)).isBetween(19_000, 21_000);
+    }
+
+    @Test
+    void testSameSeedGivesSameSequence() {
+
+        Assertions.assertThat(sample(new PaymentProfile(70, 20, 10, new LogNormalLatency(150, 0.8, 10_000), 5000, 42L)))
+                .isEqualTo(sample(new PaymentProfile(70, 20, 10, new LogNormalLatency(150, 0.8, 10_000), 5000, 42L)));
+    }
+
+    private static List<Long> sample(PaymentProfile profile) {
+
+        List<Long> delays = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            delays.add(profile.nextDelayMs(profile.nextOutcome()));
+        }
+        return delays;
+    }
+}
@@ -0,0 +1,91 @@
+package org.myApp.api;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Push-based status API of Order service
+ *
+ * - GET /orders/{id}/events streams status events and ends on the terminal one
+ * - GET /orders/{id}?waitForTerminal=ms answers with the terminal order
+ *
+ */
+@Tag("api")
+public class OrderApiStatusEventsTest extends BaseApiTest{
+
+
+    @Test
+    public void TestEventStreamEndsWithTerminalStatus(){
+
+        UUID orderId = createOrder();
+
+        List<String> statuses = OrderPollingUtility.streamStatusesUntilTerminal(orderId);
+        System.out.println("Streamed Statuses: " + statuses);
+
+        Assertions.assertThat(statuses)
+                .as("stream should deliver at least the terminal event")
+                .isNotEmpty();
+
+        Assertions.assertThat(statuses.get(statuses.size() - 1))
+                .as("last event should be CONFIRMED or FAILED")
+                .isIn("CONFIRMED", "FAILED");
+    }
+
+    @Test
+    public void TestLongPollAnswersWithTerminalStatus(){
+
+        UUID orderId = createOrder();
+
+        String status = RestAssured
+                .given()
+                .queryParam("waitForTerminal", 20_000)
+                .when()
+                .get("/orders/" + orderId)
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getString("status");
+
+        Assertions.assertThat(status)
+                .as("long-poll should only return once the order is terminal")
+                .isIn("CONFIRMED", "FAILED");
+    }
+
+    @Test
+    public void TestEventStreamOfUnknownOrderIsNotFound(){
+
+        RestAssured
+                .given()
+                .accept("text/event-stream")
+                .when()
+                .get("/orders/" + UUID.randomUUID() + "/events")
+                .then()
+                .statusCode(404);
+    }
+
+    private UUID createOrder(){
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("productId", "D1");
+        requestBody.put("quantity", 1);
+
+        Response response = RestAssured
+                .given()
+                .contentType("application/json")
+                .body(requestBody)
+                .when()
+                .post("/orders")
+                .then()
+                .statusCode(201)
+                .extract().response();
+
+        return UUID.fromString(response.jsonPath().getString("id"));
+    }
+}
@@ -2,12 +2,16 @@ package org.myApp.api;
 
 
 import io.restassured.RestAssured;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.awaitility.Awaitility;
 
 import java.net.ConnectException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -15,7 +19,13 @@ import java.util.concurrent.atomic.AtomicReference;
  * Utility class responsible for polling Order Service
  * until an order reaches a terminal state.
  *
+ * Two ways of waiting:
+ * - plain polling → GET /orders/{id} every pollInterval
+ * - long-poll     → GET /orders/{id}?waitForTerminal=ms, the service answers once the order is terminal
+ *                   (or after ms), so one request usually does it
  *
+ * An order-service without long-poll support ignores the parameter,
+ * long-poll then simply degrades to plain polling.
  */
 public class OrderPollingUtility {
 
@@ -36,6 +46,27 @@ public class OrderPollingUtility {
             Duration timeout,
             Duration pollInterval){
 
+        return pollUntilTerminal(orderId, timeout, pollInterval, Duration.ZERO);
+    }
+
+    /**
+     *
+     * Same as above, but every poll is a long-poll that waits up to longPollWait
+     * for the order to become terminal. Duration.ZERO → plain polling.
+     *
+     *
+     * @param orderId
+     * @param timeout
+     * @param pollInterval
+     * @param longPollWait
+     * @return order response
+     */
+    public static Response pollUntilTerminal(
+            UUID orderId,
+            Duration timeout,
+            Duration pollInterval,
+            Duration longPollWait){
+
         AtomicReference<Response> finalResponse = new AtomicReference<>();
 
         Awaitility.await()
@@ -43,8 +74,13 @@ public class OrderPollingUtility {
                 .pollInterval(pollInterval)
                // .ignoreExceptions(e->e instanceof ConnectException)
                 .until(() ->{
-                    Response response = RestAssured
-                            .given()
+                    RequestSpecification request = RestAssured.given();
+
+                    if(!longPollWait.isZero()){
+                        request.queryParam("waitForTerminal", longPollWait.toMillis());
+                    }
+
+                    Response response = request
                             .when()
                             .get("/orders/"+orderId)
                             .then()
@@ -65,11 +101,39 @@ public class OrderPollingUtility {
     /**
      * Convenience Method.
      *
-     * Timeout -> 10sec
-     * Poll Every -> 500ms
+     * Timeout -> 30sec
+     * Poll Every -> 500ms, each poll a long-poll of up to 5sec
      */
     public static Response pollUntilTerminal(UUID orderId){
-        return pollUntilTerminal(orderId, Duration.ofSeconds(30), Duration.ofMillis(500));
+        return pollUntilTerminal(orderId, Duration.ofSeconds(30), Duration.ofMillis(500), Duration.ofSeconds(5));
+    }
+
+    /**
+     * Reads GET /orders/{id}/events (Server-Sent Events) until the service closes the stream,
+     * which it does after the terminal status.
+     *
+     * @return status of every "status" event, in order
+     */
+    public static List<String> streamStatusesUntilTerminal(UUID orderId){
+
+        String body = RestAssured
+                .given()
+                .accept("text/event-stream")
+                .when()
+                .get("/orders/" + orderId + "/events")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        // every event is "event:status" followed by "data:{...json...}"
+        List<String> statuses = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if(line.startsWith("data:")){
+                statuses.add(JsonPath.from(line.substring("data:".length())).getString("status"));
+            }
+        }
+
+        return statuses;
     }
 
     // These two above methods are overloaded. Essentially the second method is a wrapper.
@@ -4,7 +4,9 @@ import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Contract tests for order + inventory interaction
@@ -55,4 +57,110 @@ public class OrderInventoryContractTest extends BaseContractTest{
         // but response explicitly signals rejection (inventoryStatus)
 
     }
+
+    @Test
+    void testReserveBatchReturnsOneResultPerLineInOrder(){
+
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("items", List.of(
+                        Map.of("productId", "A1", "quantity", 1),
+                        Map.of("productId", "A1", "quantity", 200)
+                )))
+                .post("/inventory/reserve/batch")
+                .then()
+                .statusCode(200)
+                .body("results.size()", Matchers.equalTo(2))
+                .body("results[0].status", Matchers.equalTo("RESERVED"))
+                .body("results[1].status", Matchers.equalTo("OUT_OF_STOCK"));
+
+        // The CONTRACT is one result per requested line, in request order.
+        // A rejected line does not fail the whole batch.
+    }
+
+    @Test
+    void testReserveAllTakesEveryLineOrNone(){
+
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("items", List.of(
+                        Map.of("productId", "A1", "quantity", 1),
+                        Map.of("productId", "C1", "quantity", 999)
+                )))
+                .post("/inventory/reserve/all")
+                .then()
+                .statusCode(200)
+                .body("status", Matchers.equalTo("OUT_OF_STOCK"))
+                .body("holdId", Matchers.nullValue());
+
+        String holdId = baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("items", List.of(
+                        Map.of("productId", "A1", "quantity", 1),
+                        Map.of("productId", "C1", "quantity", 1)
+                )))
+                .post("/inventory/reserve/all")
+                .then()
+                .statusCode(200)
+                .body("status", Matchers.equalTo("RESERVED"))
+                .body("holdId", Matchers.notNullValue())
+                .extract()
+                .path("holdId");
+
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("holdId", holdId))
+                .post("/inventory/release")
+                .then()
+                .statusCode(200)
+                .body("status", Matchers.equalTo("RELEASED"));
+
+        // The CONTRACT is one status for the whole basket: RESERVED with one holdId
+        // covering every line, or OUT_OF_STOCK with nothing taken.
+    }
+
+    @Test
+    void testReservedStockIsHeldUntilReleased(){
+
+        String holdId = baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of(
+                        "productId","A1",
+                        "quantity", 1
+                ))
+                .post("/inventory/reserve")
+                .then()
+                .statusCode(200)
+                .body("status", Matchers.equalTo("RESERVED"))
+                .body("holdId", Matchers.notNullValue())
+                .extract()
+                .path("holdId");
+
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("holdId", holdId))
+                .post("/inventory/release")
+                .then()
+                .statusCode(200)
+                .body("holdId", Matchers.equalTo(holdId))
+                .body("status", Matchers.equalTo("RELEASED"));
+
+        // a hold ends once: the second release finds nothing to give back
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("holdId", holdId))
+                .post("/inventory/release")
+                .then()
+                .statusCode(404)
+                .body("status", Matchers.equalTo("UNKNOWN"));
+
+        // The CONTRACT is a holdId on every RESERVED response,
+        // which order-service confirms when paid or releases when the order fails.
+    }
+
+    @Test
+    void testConfirmUnknownHoldIsNotFound(){
+
+        baseRequest(INVENTORY_SERVICE_PORT)
+                .body(Map.of("holdId", UUID.randomUUID().toString()))
+                .post("/inventory/confirm")
+                .then()
+                .statusCode(404)
+                .body("status", Matchers.equalTo("UNKNOWN"));
+
+        // expired, already confirmed / released and never existed all look the same
+    }
 }
@@ -7,6 +7,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Contract Test for Order + Payment interaction
  *
@@ -57,5 +60,66 @@ public class OrderPaymentContractTest extends BaseContractTest {
         // and response contains payment status
     }
 
+    @Test
+    void testVoidPaymentReturnsVoidedStatus(){
+
+        RestAssured
+                .given()
+                .port(PAYMENT_SERVICE_PORT)
+                .header("x-order-id", "contract-test-order-void")
+                .post("/payments/void")
+                .then()
+                .statusCode(200)
+                .body("paymentStatus", Matchers.equalTo("VOIDED"));
+
+        // compensation for a payment whose order failed on inventory (parallel payment mode),
+        // same x-order-id as the payment, no body
+    }
+
+    @Test
+    void testPaymentRetriedAfterItsVoidIsVoided(){
+
+        // stub mode skips idempotency: a real payment that always succeeds, right away
+        RestAssured.given()
+                .port(PAYMENT_SERVICE_PORT)
+                .contentType("application/json")
+                .body(Map.of("mode", "NORMAL",
+                        "profile", Map.of("successWeight", 100, "timeoutWeight", 0, "errorWeight", 0,
+                                "latency", Map.of("type", "uniform", "minMs", 0, "maxMs", 0))))
+                .post("/internal/test-mode")
+                .then()
+                .statusCode(200);
+
+        String orderId = "contract-test-order-void-" + UUID.randomUUID();
+
+        try {
+            pay(orderId, "SUCCESS");
+
+            RestAssured
+                    .given()
+                    .port(PAYMENT_SERVICE_PORT)
+                    .header("x-order-id", orderId)
+                    .post("/payments/void")
+                    .then()
+                    .statusCode(200)
+                    .body("paymentStatus", Matchers.equalTo("VOIDED"));
+
+            // a late retry of the payment must not report the voided charge as SUCCESS
+            pay(orderId, "VOIDED");
+        } finally {
+            enableStubMode(PAYMENT_SERVICE_PORT);
+        }
+    }
+
+    private void pay(String orderId, String expectedStatus){
 
+        RestAssured
+                .given()
+                .port(PAYMENT_SERVICE_PORT)
+                .header("x-order-id", orderId)
+                .post("/payments")
+                .then()
+                .statusCode(200)
+                .body("paymentStatus", Matchers.equalTo(expectedStatus));
+    }
 }
@@ -27,6 +27,10 @@ public abstract class BaseIntegrationTest {
     // Polling interval
     protected static final Duration POLL_INTERVAL = Duration.ofMillis(500);
 
+    // Each poll is a long-poll: order-service holds the request until the order is terminal (or this long).
+    // Keeps read traffic at roughly one request per order instead of one every POLL_INTERVAL.
+    protected static final Duration LONG_POLL_WAIT = Duration.ofSeconds(5);
+
     @BeforeAll
     static void setup(){
         RestAssured.baseURI = "http://localhost";
@@ -89,6 +93,7 @@ public abstract class BaseIntegrationTest {
                                     .given()
                                     .port(ORDER_SERVICE_PORT)
                                     .header(ORDER_ID_HEADER, orderId)
+                                    .queryParam("waitForTerminal", LONG_POLL_WAIT.toMillis())
                                     .get("/orders/{id}", orderId)
                                     .then()
                                     .statusCode(200)
@@ -40,4 +40,36 @@ public class OrderInventoryFailureIT extends BaseIntegrationTest{
                 .isEqualTo("FAILED");
 
     }
+
+    @Test
+    void testMultiLineOrderFailsWhenAnyLineIsShort(){
+
+        String correlationId = generateOrderCorrelationId();
+
+        // A1 has stock, B1 does not have 999: the whole basket is rejected
+        Response response = orderServiceRequest(correlationId)
+                .body("""
+                              {
+                                "items": [
+                                  {"productId": "A1", "quantity": 1},
+                                  {"productId": "B1", "quantity": 999}
+                                ]
+                              }
+                              """)
+                .post("orders")
+                .then()
+                .extract().response();
+
+        System.out.println("Order Creation Response: " + response.asString());
+
+        Assertions.assertThat(response.jsonPath().getList("lines"))
+                .as("Order should keep every line")
+                .hasSize(2);
+
+        String finalStatus = waitForFinalOrderStatus(response.jsonPath().getString("id"));
+
+        Assertions.assertThat(finalStatus)
+                .as("Order must FAIL when any line of the basket is rejected")
+                .isEqualTo("FAILED");
+    }
 }